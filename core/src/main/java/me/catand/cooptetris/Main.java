@@ -2,19 +2,25 @@ package me.catand.cooptetris;
 
 import com.badlogic.gdx.ApplicationAdapter;
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Input;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
-import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.badlogic.gdx.graphics.profiling.GLProfiler;
 import com.badlogic.gdx.utils.ScreenUtils;
 
 import me.catand.cooptetris.network.LocalServerManager;
 import me.catand.cooptetris.network.NetworkManager;
 import me.catand.cooptetris.tetris.GameStateManager;
+import me.catand.cooptetris.ui.BoardRenderer;
 import me.catand.cooptetris.ui.CoopGameState;
 import me.catand.cooptetris.ui.GameState;
+import me.catand.cooptetris.ui.LoadingScreen;
 import me.catand.cooptetris.ui.MainMenuState;
 import me.catand.cooptetris.ui.PVPGameState;
+import me.catand.cooptetris.ui.ProfilerOverlay;
+import me.catand.cooptetris.ui.UIAssets;
 import me.catand.cooptetris.ui.UIManager;
 import me.catand.cooptetris.ui.UIState;
+import me.catand.cooptetris.util.FrameProfiler;
 import me.catand.cooptetris.util.PlatformSupport;
 import me.catand.cooptetris.util.TetrisSettings;
 import me.catand.cooptetris.util.UIScaler;
@@ -26,11 +32,17 @@ public class Main extends ApplicationAdapter {
     public static String version;
     public static int versionCode;
     private SpriteBatch batch;
-    private ShapeRenderer shapeRenderer;
+    private BoardRenderer boardRenderer;
+    private UIAssets uiAssets;
+    private LoadingScreen loadingScreen;
     private UIManager uiManager;
     private GameStateManager gameStateManager;
     private NetworkManager networkManager;
     private LocalServerManager localServerManager;
+    private GLProfiler glProfiler;
+    private FrameProfiler frameProfiler;
+    private ProfilerOverlay profilerOverlay;
+    private boolean showProfiler;
     private final String[] args;
     public static PlatformSupport platform;
 
@@ -50,20 +62,38 @@ public class Main extends ApplicationAdapter {
     @Override
     public void create() {
         batch = new SpriteBatch();
-        shapeRenderer = new ShapeRenderer();
-        uiManager = new UIManager();
+        boardRenderer = new BoardRenderer();
         gameStateManager = new GameStateManager();
         networkManager = new NetworkManager();
         localServerManager = new LocalServerManager();
         gameStateManager.setNetworkManager(networkManager);
         gameStateManager.setLocalServerManager(localServerManager);
-        uiManager.setNetworkManager(networkManager);
-        uiManager.setLocalServerManager(localServerManager);
-        uiManager.gameStateManager = gameStateManager;
+
+        // 性能分析：F3 切换面板，F4 切换CSV记录；没有GL上下文（headless）时不统计渲染调用，CSV记录照常进行
+        glProfiler = Gdx.gl20 != null ? new GLProfiler(Gdx.graphics) : null;
+        frameProfiler = new FrameProfiler(glProfiler, networkManager);
+        profilerOverlay = new ProfilerOverlay();
+        setShowProfiler(TetrisSettings.showProfiler());
 
         // 处理启动参数
         handleStartupParameters();
 
+        // 界面资源在之后的帧中异步加载，加载完成前显示进度条
+        uiAssets = new UIAssets();
+        uiAssets.queueStartupAssets();
+        loadingScreen = new LoadingScreen();
+    }
+
+    /**
+     * 资源加载完成后创建界面并显示主菜单
+     */
+    private void finishLoading() {
+        uiManager = new UIManager(uiAssets);
+        uiManager.setNetworkManager(networkManager);
+        uiManager.setLocalServerManager(localServerManager);
+        uiManager.gameStateManager = gameStateManager;
+        loadingScreen = null;
+
         // 显示主菜单
         uiManager.setScreen(new MainMenuState(uiManager));
     }
@@ -125,13 +155,35 @@ public class Main extends ApplicationAdapter {
                     System.err.println("Main: 无效的端口值: " + value);
                 }
                 break;
+            case "profiler":
+                setShowProfiler(Boolean.parseBoolean(value));
+                System.out.println("Main: 性能分析面板: " + value);
+                break;
+            case "profileCsv":
+                startProfileCapture(new java.io.File(value));
+                break;
         }
     }
 
     @Override
     public void render() {
+        frameProfiler.beginFrame();
+        handleProfilerKeys();
+
         ScreenUtils.clear(0.15f, 0.15f, 0.2f, 1f);
 
+        if (uiManager == null) {
+            if (!uiAssets.update()) {
+                loadingScreen.render(batch, boardRenderer, uiAssets.getProgress());
+                frameProfiler.endFrame();
+                return;
+            }
+            finishLoading();
+        }
+
+        // 分摊预热字形，避免游戏中遇到新字符时卡顿
+        platform.updateFonts();
+
         // 更新UI
         uiManager.update(Gdx.graphics.getDeltaTime());
 
@@ -144,17 +196,65 @@ public class Main extends ApplicationAdapter {
         UIState currentState = uiManager.getCurrentState();
         if (currentState instanceof GameState) {
             GameState gameState = (GameState) currentState;
-            gameState.renderGame(shapeRenderer);
+            gameState.renderGame(batch, boardRenderer);
         } else if (currentState instanceof PVPGameState) {
             PVPGameState pvpGameState = (PVPGameState) currentState;
-            pvpGameState.renderGame(shapeRenderer);
+            pvpGameState.renderGame(batch, boardRenderer);
         } else if (currentState instanceof CoopGameState) {
             CoopGameState coopGameState = (CoopGameState) currentState;
-            coopGameState.renderGame(shapeRenderer);
+            coopGameState.renderGame(batch, boardRenderer);
         }
 
         // 在16:9渲染区域外绘制黑色边框
         renderBlackBars();
+
+        if (showProfiler) {
+            profilerOverlay.render(batch, boardRenderer, frameProfiler);
+        }
+        frameProfiler.endFrame();
+    }
+
+    private void handleProfilerKeys() {
+        if (Gdx.input.isKeyJustPressed(Input.Keys.F3)) {
+            setShowProfiler(!showProfiler);
+            TetrisSettings.showProfiler(showProfiler);
+        }
+        if (Gdx.input.isKeyJustPressed(Input.Keys.F4)) {
+            if (frameProfiler.isCapturing()) {
+                frameProfiler.stopCapture();
+                updateGLProfiler();
+            } else {
+                startProfileCapture(Gdx.files.local("profiles/frames-" + System.currentTimeMillis() + ".csv").file());
+            }
+        }
+    }
+
+    private void setShowProfiler(boolean show) {
+        showProfiler = show;
+        updateGLProfiler();
+    }
+
+    private void startProfileCapture(java.io.File file) {
+        try {
+            frameProfiler.startCapture(file);
+        } catch (java.io.IOException e) {
+            System.err.println("Main: 无法创建性能记录文件: " + e.getMessage());
+        }
+        updateGLProfiler();
+    }
+
+    /**
+     * GLProfiler 会拦截所有GL调用，只在显示面板或记录CSV时启用
+     */
+    private void updateGLProfiler() {
+        if (glProfiler == null) {
+            return;
+        }
+        if (showProfiler || frameProfiler.isCapturing()) {
+            glProfiler.enable();
+        } else {
+            glProfiler.disable();
+        }
     }
 
     // 黑色纹理缓存
@@ -219,15 +319,31 @@ public class Main extends ApplicationAdapter {
             Main.width = width;
             Main.height = height;
         }
-        uiManager.resize(width, height);
+        if (uiManager != null) {
+            uiManager.resize(width, height);
+        }
         platform.updateDisplaySize();
     }
 
+    @Override
+    public void resume() {
+        // Android 上恢复时 OpenGL 上下文可能已重建，FrameBuffer 中缓存的内容会丢失
+        boardRenderer.invalidateLayers();
+    }
+
     @Override
     public void dispose() {
+        frameProfiler.stopCapture();
+        if (glProfiler != null) {
+            glProfiler.disable();
+        }
+        platform.saveFontCache(false);
         batch.dispose();
-        shapeRenderer.dispose();
-        uiManager.dispose();
+        boardRenderer.dispose();
+        if (uiManager != null) {
+            uiManager.dispose();
+        }
+        uiAssets.dispose();
         networkManager.disconnect();
         if (localServerManager != null) {
             localServerManager.stopServer();
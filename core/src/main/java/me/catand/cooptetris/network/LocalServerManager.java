@@ -1,70 +1,163 @@
 package me.catand.cooptetris.network;
 
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
 import me.catand.cooptetris.shared.server.ServerManager;
 
 public class LocalServerManager {
-    private ServerManager serverManager;
-    private Thread serverThread;
-    private boolean running;
+    // 从起始端口开始并行探测的端口数量，全部被占用时由系统分配临时端口
+    private static final int PROBE_PORT_COUNT = 10;
+    // 同步启动时等待端口绑定的最长时间（毫秒）
+    private static final long START_TIMEOUT_MS = 5000;
+
+    private static final ExecutorService PROBE_EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "PortProbe");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile ServerManager serverManager;
+    private volatile boolean running;
     private String roomId;
     private int actualPort;
+    private CompletableFuture<Integer> startFuture;
+    // 每次停止服务器后递增，用于丢弃停止之前发起的启动结果
+    private int generation;
 
+    /**
+     * 启动服务器并等待端口绑定完成，超时后取消这次启动
+     *
+     * @return 实际使用的端口，失败返回 -1
+     */
     public int startServer(int startPort) {
-        if (!running) {
-            // 尝试从startPort开始的多个端口
-            for (int port = startPort; port < startPort + 10; port++) {
-                try {
-                    final int finalPort = port;
-                    serverThread = new Thread(() -> {
-                        try {
-                            // 创建本地服务器，使用LOCAL_SERVER类型
-                            serverManager = new ServerManager(finalPort, ServerManager.ServerType.LOCAL_SERVER);
-                            running = true;
-                            actualPort = finalPort;
-                            // 本地服务器启动后，默认创建一个房间
-                            // 这个房间将作为唯一的游戏房间
-                        } catch (Exception e) {
-                            running = false;
-                            serverManager = null;
-                        }
-                    });
-                    serverThread.start();
-                    // 等待服务器启动
-                    Thread.sleep(1000);
-
-                    if (running && serverManager != null) {
-                        System.out.println("LocalServerManager: 服务器成功启动，端口: " + port);
-                        return port;
-                    }
-                } catch (Exception e) {
-                    System.out.println("LocalServerManager: 尝试端口 " + port + " 失败: " + e.getMessage());
+        try {
+            return startServerAsync(startPort).get(START_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            System.out.println("LocalServerManager: 等待服务器启动失败: " + e.getMessage());
+            // 放弃这次启动：递增 generation，异步启动稍后完成时由 onStarted 关闭服务器，不会留下无人使用的端口
+            stopServer();
+            return -1;
+        }
+    }
+
+    /**
+     * 异步启动服务器，端口绑定完成时返回的 Future 以实际端口完成，失败时以 -1 完成
+     * 启动过程中或已启动时重复调用返回同一个 Future
+     */
+    public synchronized CompletableFuture<Integer> startServerAsync(int startPort) {
+        if (startFuture == null) {
+            int startGeneration = generation;
+            startFuture = probeFreePorts(startPort)
+                .thenCompose(ports -> bindFirst(ports, 0, startGeneration))
+                .exceptionally(e -> {
+                    System.out.println("LocalServerManager: 服务器启动失败: " + e.getMessage());
+                    onStartFailed(startGeneration);
+                    return -1;
+                });
+        }
+        return startFuture;
+    }
+
+    /**
+     * 并行探测从起始端口开始的一段端口，按端口顺序返回可用的端口，末尾追加 0 表示临时端口
+     */
+    private static CompletableFuture<List<Integer>> probeFreePorts(int startPort) {
+        List<CompletableFuture<Boolean>> probes = new ArrayList<>(PROBE_PORT_COUNT);
+        for (int i = 0; i < PROBE_PORT_COUNT; i++) {
+            int port = startPort + i;
+            probes.add(CompletableFuture.supplyAsync(() -> isPortFree(port), PROBE_EXECUTOR));
+        }
+        return CompletableFuture.allOf(probes.toArray(new CompletableFuture[0])).thenApply(ignored -> {
+            List<Integer> ports = new ArrayList<>(PROBE_PORT_COUNT + 1);
+            for (int i = 0; i < PROBE_PORT_COUNT; i++) {
+                if (probes.get(i).join()) {
+                    ports.add(startPort + i);
                 }
             }
-            return -1; // 所有端口都失败
+            ports.add(0);
+            return ports;
+        });
+    }
+
+    private static boolean isPortFree(int port) {
+        try (ServerSocket socket = new ServerSocket(port)) {
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 由系统分配一个空闲端口，失败返回 -1
+     */
+    private static int allocateEphemeralPort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * 依次尝试探测到的端口，探测后端口可能被其他程序抢占，绑定失败时继续下一个
+     */
+    private CompletableFuture<Integer> bindFirst(List<Integer> ports, int index, int startGeneration) {
+        if (index >= ports.size()) {
+            CompletableFuture<Integer> failed = new CompletableFuture<>();
+            failed.completeExceptionally(new IOException("No available port"));
+            return failed;
+        }
+        int port = ports.get(index) != 0 ? ports.get(index) : allocateEphemeralPort();
+        return ServerManager.startAsync(port, ServerManager.ServerType.LOCAL_SERVER)
+            .thenApply(manager -> CompletableFuture.completedFuture(onStarted(manager, port, startGeneration)))
+            .exceptionally(e -> {
+                System.out.println("LocalServerManager: 尝试端口 " + port + " 失败: " + e.getMessage());
+                return bindFirst(ports, index + 1, startGeneration);
+            })
+            .thenCompose(future -> future);
+    }
+
+    private synchronized int onStarted(ServerManager manager, int port, int startGeneration) {
+        if (startGeneration != generation) {
+            // 启动完成前已经调用过 stopServer
+            manager.stop();
+            return -1;
+        }
+        serverManager = manager;
+        actualPort = port;
+        running = true;
+        System.out.println("LocalServerManager: 服务器成功启动，端口: " + port);
+        return port;
+    }
+
+    private synchronized void onStartFailed(int startGeneration) {
+        if (startGeneration == generation) {
+            // 允许重新尝试启动
+            startFuture = null;
         }
-        return actualPort;
     }
 
     public int getActualPort() {
         return actualPort;
     }
 
-    public void stopServer() {
+    public synchronized void stopServer() {
+        generation++;
+        startFuture = null;
         if (running) {
             running = false;
             if (serverManager != null) {
                 serverManager.stop();
             }
-            if (serverThread != null) {
-                try {
-                    serverThread.join();
-                } catch (InterruptedException e) {
-                    e.printStackTrace();
-                }
-            }
             // 重置所有变量，确保可以重新启动服务器
             serverManager = null;
-            serverThread = null;
             roomId = null;
         }
     }
@@ -8,30 +8,63 @@ import com.esotericsoftware.kryonet.Listener;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 import lombok.Getter;
 import me.catand.cooptetris.shared.message.ConnectMessage;
 import me.catand.cooptetris.shared.message.CountdownMessage;
 import me.catand.cooptetris.shared.message.CoopGameStateMessage;
+import me.catand.cooptetris.shared.message.CoopGameStateMessageSerializer;
 import me.catand.cooptetris.shared.message.GameStartMessage;
 import me.catand.cooptetris.shared.message.GameStateMessage;
+import me.catand.cooptetris.shared.message.GameStateMessageSerializer;
 import me.catand.cooptetris.shared.message.MoveMessage;
+import me.catand.cooptetris.shared.message.MoveMessageSerializer;
 import me.catand.cooptetris.shared.message.NetworkMessage;
 import me.catand.cooptetris.shared.message.NotificationMessage;
 import me.catand.cooptetris.shared.message.PlayerScoresMessage;
 import me.catand.cooptetris.shared.message.PlayerSlotMessage;
+import me.catand.cooptetris.shared.message.RoomHandoffMessage;
+import me.catand.cooptetris.shared.message.RoomListChunks;
 import me.catand.cooptetris.shared.message.RoomMessage;
+import me.catand.cooptetris.shared.message.ShardStatusMessage;
+import me.catand.cooptetris.shared.server.LocalClientTransport;
+import me.catand.cooptetris.shared.server.ServerManager;
 import me.catand.cooptetris.shared.tetris.GameMode;
+import me.catand.cooptetris.shared.util.ObjectPool;
 import me.catand.cooptetris.util.LanguageManager;
 
 public class NetworkManager {
-    private Client client;
+    // 游戏中连接意外断开后尝试重连的时长与间隔（毫秒），应小于服务器保留会话的宽限期
+    private static final long RECONNECT_WINDOW_MS = 20000;
+    private static final long RECONNECT_INTERVAL_MS = 1000;
+    // KryoNet 客户端缓冲区，与服务器默认的对象缓冲一致；房间列表按 RoomListChunks 分段，每段都能放下
+    private static final int WRITE_BUFFER_SIZE = 16384;
+    private static final int OBJECT_BUFFER_SIZE = 16384;
+
+    // 重连和分片重定向在独立线程上替换客户端，其他线程读取时先取到局部变量
+    private volatile Client client;
+    // 连接内置服务器时使用的进程内通道，不为 null 时不经过 KryoNet 客户端
+    private volatile LocalClientTransport localTransport;
+    // 分片重定向：连接目标分片后需要重新发送的请求
+    private volatile RoomMessage pendingRedirect;
+    // 服务器下发的会话令牌，断线重连时用于恢复进行中的游戏
+    private volatile String sessionToken;
+    // 游戏中断、会话无法恢复时保留的令牌：服务器重启后从快照恢复房间，加入时凭它回到原来的槽位
+    private volatile String resumeToken;
+    // 是否有进行中的游戏，只有游戏中断线才自动重连
+    private volatile boolean inGame;
+    // 正在断线重连，期间不通知监听器断开
+    private volatile boolean reconnecting;
+    // 拼接分段的房间列表，TCP 消息在 KryoNet 客户端线程上处理，进程内消息按发送顺序逐条处理
+    private final RoomListChunks.Assembler roomListAssembler = new RoomListChunks.Assembler();
     @Getter
     private String clientId;
     @Getter
     private String playerName;
-    @Getter
-    private boolean connected;
+    // 渲染线程、KryoNet 线程、重连线程和重定向线程都会读写，断开时用 compareAndSet 保证只处理一次
+    private final AtomicBoolean connected = new AtomicBoolean();
     private final List<NetworkListener> listeners;
     @Getter
     private ConnectionType currentConnectionType;
@@ -40,6 +73,23 @@ public class NetworkManager {
     @Getter
     private int connectedPort;
 
+    // 游戏状态消息的序列化器：接收时从对象池取出消息，分发给监听器后归还
+    private final GameStateMessageSerializer gameStateSerializer = new GameStateMessageSerializer();
+    private final CoopGameStateMessageSerializer coopGameStateSerializer = new CoopGameStateMessageSerializer();
+    // 游戏状态分发任务对象池，避免每条消息都创建新的Runnable
+    private final ObjectPool<StateDispatchTask> dispatchTaskPool = new ObjectPool<StateDispatchTask>() {
+        @Override
+        protected StateDispatchTask newObject() {
+            return new StateDispatchTask();
+        }
+    };
+    // 监听器快照，仅在监听器增减时重建，分发游戏状态时无需复制列表
+    private volatile NetworkListener[] listenerSnapshot = new NetworkListener[0];
+
+    // 收发消息计数，供性能分析面板计算每秒消息数
+    private final AtomicLong receivedMessageCount = new AtomicLong();
+    private final AtomicLong sentMessageCount = new AtomicLong();
+
     public enum ConnectionType {
         NONE,         // 未连接
         LOCAL_SERVER,  // 连接到本地服务器
@@ -48,7 +98,6 @@ public class NetworkManager {
 
     public NetworkManager() {
         listeners = new ArrayList<>();
-        connected = false;
         currentConnectionType = ConnectionType.NONE;
     }
 
@@ -57,27 +106,34 @@ public class NetworkManager {
      */
     public boolean connect(String host, int port, String playerName) {
         // 如果已经连接，先断开
-        if (connected) {
+        if (connected.get()) {
             disconnect();
         }
+        return openConnection(host, port, playerName, null);
+    }
 
+    /**
+     * 建立 TCP 连接并发送连接消息，resumeToken 不为 null 时请求恢复断线前的会话
+     */
+    private boolean openConnection(String host, int port, String playerName, String resumeToken) {
+        // 创建kryonet客户端
+        Client created = new Client(WRITE_BUFFER_SIZE, OBJECT_BUFFER_SIZE);
         try {
-            // 创建kryonet客户端
-            client = new Client();
+            client = created;
 
             // 注册消息类
-            registerMessages();
+            registerMessages(created.getKryo());
 
             // 启动客户端
-            client.start();
+            created.start();
 
             // 连接到服务器
-            client.connect(5000, host, port);
+            created.connect(5000, host, port);
 
             this.playerName = playerName;
             this.connectedHost = host;
             this.connectedPort = port;
-            connected = true;
+            connected.set(true);
 
             // 确定连接类型
             if (host.equals("localhost") || host.equals("127.0.0.1")) {
@@ -87,17 +143,21 @@ public class NetworkManager {
             }
 
             // 添加监听器
-            client.addListener(new Listener() {
+            created.addListener(new Listener() {
                 @Override
                 public void received(Connection connection, Object object) {
                     if (object instanceof NetworkMessage) {
+                        receivedMessageCount.incrementAndGet();
                         handleMessage((NetworkMessage) object);
                     }
                 }
 
                 @Override
                 public void disconnected(Connection connection) {
-                    handleDisconnected();
+                    // 切换分片后旧连接的断开不影响当前连接
+                    if (connection == client) {
+                        handleConnectionLost();
+                    }
                 }
             });
 
@@ -105,21 +165,89 @@ public class NetworkManager {
             ConnectMessage connectMessage = new ConnectMessage();
             connectMessage.setPlayerName(playerName);
             connectMessage.setLanguage(LanguageManager.getInstance().getCurrentLanguageCode());
+            connectMessage.setSessionToken(resumeToken);
             sendMessage(connectMessage);
 
             return true;
         } catch (Exception e) {
             e.printStackTrace();
+            created.stop();
+            if (client == created) {
+                client = null;
+            }
             currentConnectionType = ConnectionType.NONE;
             return false;
         }
     }
 
+    /**
+     * 通过进程内通道连接本机启动的内置服务器，消息对象直接交换，不经过回环 TCP 和序列化
+     */
+    public boolean connectLocal(LocalServerManager localServerManager, String playerName) {
+        if (connected.get()) {
+            disconnect();
+        }
+
+        ServerManager serverManager = localServerManager != null ? localServerManager.getServerManager() : null;
+        if (serverManager == null) {
+            return false;
+        }
+
+        this.playerName = playerName;
+        // 房间界面显示的地址，供局域网内其他玩家通过 TCP 连接
+        this.connectedHost = "127.0.0.1";
+        this.connectedPort = localServerManager.getActualPort();
+        currentConnectionType = ConnectionType.LOCAL_SERVER;
+        connected.set(true);
+
+        localTransport = serverManager.connectLocal(new LocalClientTransport.Receiver() {
+            @Override
+            public void received(NetworkMessage message) {
+                receivedMessageCount.incrementAndGet();
+                handleMessage(copyStateFrame(message));
+            }
+
+            @Override
+            public void disconnected() {
+                handleDisconnected();
+            }
+        });
+
+        // 发送连接消息
+        ConnectMessage connectMessage = new ConnectMessage();
+        connectMessage.setPlayerName(playerName);
+        connectMessage.setLanguage(LanguageManager.getInstance().getCurrentLanguageCode());
+        sendMessage(connectMessage);
+        return true;
+    }
+
+    /**
+     * 服务器发送后会复用池化的状态帧，进程内收到的状态帧复制到本地池中的消息，分发后与网络消息一样归还
+     * 游戏板是服务器生成的不可变快照，只复制引用。分数列表会被界面一直持有，复制到新的消息对象中
+     */
+    private NetworkMessage copyStateFrame(NetworkMessage message) {
+        if (message instanceof GameStateMessage) {
+            GameStateMessage copy = gameStateSerializer.obtain();
+            copy.set((GameStateMessage) message);
+            return copy;
+        }
+        if (message instanceof CoopGameStateMessage) {
+            CoopGameStateMessage copy = coopGameStateSerializer.obtain();
+            copy.set((CoopGameStateMessage) message);
+            return copy;
+        }
+        if (message instanceof PlayerScoresMessage) {
+            PlayerScoresMessage copy = new PlayerScoresMessage();
+            copy.set((PlayerScoresMessage) message);
+            return copy;
+        }
+        return message;
+    }
+
     /**
      * 注册消息类
      */
-    private void registerMessages() {
-        Kryo kryo = client.getKryo();
+    private void registerMessages(Kryo kryo) {
 
         // 注册基本类型
         kryo.register(boolean.class);
@@ -136,15 +264,15 @@ public class NetworkManager {
         kryo.register(RoomMessage.RoomAction.class);
         kryo.register(RoomMessage.RoomInfo.class);
         kryo.register(GameStartMessage.class);
-        kryo.register(GameStateMessage.class);
-        kryo.register(MoveMessage.class);
+        kryo.register(GameStateMessage.class, gameStateSerializer);
+        kryo.register(MoveMessage.class, new MoveMessageSerializer());
         kryo.register(MoveMessage.MoveType.class);
         kryo.register(NotificationMessage.class);
         kryo.register(NotificationMessage.NotificationType.class);
         kryo.register(PlayerScoresMessage.class);
         kryo.register(PlayerScoresMessage.PlayerScore.class);
         kryo.register(CountdownMessage.class);
-        kryo.register(CoopGameStateMessage.class);
+        kryo.register(CoopGameStateMessage.class, coopGameStateSerializer);
         kryo.register(CoopGameStateMessage.PlayerPieceState.class);
         kryo.register(CoopGameStateMessage.PlayerPieceState[].class);
         kryo.register(PlayerSlotMessage.class);
@@ -155,6 +283,15 @@ public class NetworkManager {
 
         // 注册String列表类型（用于玩家名字列表）
         kryo.register(java.util.List.class);
+
+        // 分片模式（客户端不会收到，保持与服务器相同的注册顺序）
+        kryo.register(ShardStatusMessage.class);
+
+        // 断线重连附带的游戏逻辑快照
+        kryo.register(byte[].class);
+
+        // 分片之间移交房间（客户端不会收到，保持与服务器相同的注册顺序）
+        kryo.register(RoomHandoffMessage.class);
     }
 
     private void handleMessage(NetworkMessage message) {
@@ -190,8 +327,30 @@ public class NetworkManager {
     }
 
     private void handleConnectMessage(ConnectMessage message) {
+        if (reconnecting) {
+            handleResumeResponse(message);
+            return;
+        }
+
+        RoomMessage redirect = pendingRedirect;
+        if (redirect != null) {
+            pendingRedirect = null;
+            if (message.isSuccess()) {
+                // 已连接到目标分片，重新发送被重定向的请求，界面保持不变
+                clientId = message.getClientId();
+                sessionToken = message.getSessionToken();
+                RoomMessage request = new RoomMessage(redirect.getRedirectAction());
+                request.setRoomId(redirect.getRoomId());
+                request.setRoomName(redirect.getRoomName());
+                request.setResumeToken(redirect.getResumeToken());
+                sendMessage(request);
+                return;
+            }
+        }
+
         if (message.isSuccess()) {
             clientId = message.getClientId();
+            sessionToken = message.getSessionToken();
 
             // 根据连接类型决定下一步操作
             if (currentConnectionType == ConnectionType.EXTERNAL_SERVER) {
@@ -212,7 +371,47 @@ public class NetworkManager {
         });
     }
 
+    /**
+     * 重连后的连接响应：会话恢复时用快照恢复游戏画面，界面不变；会话已失效则按断开处理
+     */
+    private void handleResumeResponse(ConnectMessage message) {
+        reconnecting = false;
+        if (!message.isSuccess() || !message.isResumed()) {
+            System.out.println("NetworkManager: 会话已失效，无法恢复游戏");
+            resumeToken = sessionToken;
+            sessionToken = null;
+            inGame = false;
+            disconnect();
+            return;
+        }
+        System.out.println("NetworkManager: 重连成功，已恢复会话");
+        clientId = message.getClientId();
+        sessionToken = message.getSessionToken();
+        final byte[] resumeState = message.getResumeState();
+        Gdx.app.postRunnable(() -> {
+            for (NetworkListener listener : new ArrayList<>(listeners)) {
+                listener.onSessionResumed(resumeState);
+            }
+        });
+    }
+
     private void handleRoomMessage(RoomMessage message) {
+        if (message.getAction() == RoomMessage.RoomAction.REDIRECT) {
+            followRedirect(message);
+            return;
+        }
+        if (message.getAction() == RoomMessage.RoomAction.LIST) {
+            List<RoomMessage.RoomInfo> rooms;
+            synchronized (roomListAssembler) {
+                rooms = roomListAssembler.accept(message.getListOffset(), message.getListTotal(), message.getRooms());
+            }
+            if (rooms == null) {
+                // 等待其余分段
+                return;
+            }
+            message.setRooms(rooms);
+        }
+
         // 确保在主线程中调用监听器方法
         final RoomMessage finalMessage = message;
         Gdx.app.postRunnable(() -> {
@@ -224,6 +423,7 @@ public class NetworkManager {
     }
 
     private void handleGameStartMessage(GameStartMessage message) {
+        inGame = true;
         // 确保在主线程中调用监听器方法
         final GameStartMessage finalMessage = message;
         Gdx.app.postRunnable(() -> {
@@ -235,14 +435,11 @@ public class NetworkManager {
     }
 
     private void handleGameStateMessage(GameStateMessage message) {
-        // 确保在主线程中调用监听器方法
-        final GameStateMessage finalMessage = message;
-        Gdx.app.postRunnable(() -> {
-            // 使用监听器列表的副本进行遍历，避免ConcurrentModificationException
-            for (NetworkListener listener : new ArrayList<>(listeners)) {
-                listener.onGameStateUpdate(finalMessage);
-            }
-        });
+        // 确保在主线程中调用监听器方法，使用池化的任务对象，分发后归还消息
+        StateDispatchTask task = dispatchTaskPool.obtain();
+        task.gameState = message;
+        task.local = localTransport != null;
+        Gdx.app.postRunnable(task);
     }
 
     private void handleNotificationMessage(NotificationMessage message) {
@@ -279,44 +476,171 @@ public class NetworkManager {
     }
 
     private void handleCoopGameStateMessage(CoopGameStateMessage message) {
+        // 确保在主线程中调用监听器方法，使用池化的任务对象，分发后归还消息
+        StateDispatchTask task = dispatchTaskPool.obtain();
+        task.coopGameState = message;
+        task.local = localTransport != null;
+        Gdx.app.postRunnable(task);
+    }
+
+    /**
+     * 游戏状态分发任务，在主线程中通知监听器，完成后把消息和自身归还到对象池
+     * 监听器不能在回调之外持有消息对象
+     */
+    private class StateDispatchTask implements Runnable, ObjectPool.Poolable {
+        private GameStateMessage gameState;
+        private CoopGameStateMessage coopGameState;
+        private boolean local;
+
+        @Override
+        public void run() {
+            // 遍历监听器快照，回调中增删监听器不影响本次分发
+            NetworkListener[] snapshot = listenerSnapshot;
+            if (gameState != null) {
+                for (NetworkListener listener : snapshot) {
+                    listener.onGameStateUpdate(gameState);
+                }
+                // 进程内收到的消息引用的是服务器的游戏板快照，不能留给反序列化时原地填充
+                if (local) {
+                    gameState.setBoard(null);
+                }
+                gameStateSerializer.free(gameState);
+            } else if (coopGameState != null) {
+                for (NetworkListener listener : snapshot) {
+                    listener.onCoopGameStateUpdate(coopGameState);
+                }
+                if (local) {
+                    coopGameState.setBoard(null);
+                    coopGameState.setBoardColor(null);
+                }
+                coopGameStateSerializer.free(coopGameState);
+            }
+            dispatchTaskPool.free(this);
+        }
+
+        @Override
+        public void reset() {
+            gameState = null;
+            coopGameState = null;
+            local = false;
+        }
+    }
+
+    /**
+     * 房间位于其他分片（或所在分片停服时已移交给其他分片）：断开当前连接，连接目标分片，连接成功后重新发送创建或加入请求
+     * 连接过程会阻塞，在独立线程上进行，不通知监听器断开
+     */
+    private void followRedirect(RoomMessage redirect) {
+        // 在收到消息的线程上先替换当前连接：停服的分片随后关闭旧连接时，断开处理不会把它当作意外断线去重连
+        Client previous = client;
+        client = null;
+        pendingRedirect = redirect;
+        Thread thread = new Thread(() -> {
+            System.out.println("NetworkManager: 重定向到分片 " + redirect.getShardHost() + ":" + redirect.getShardPort());
+            if (previous != null) {
+                previous.stop();
+            }
+            if (!openConnection(redirect.getShardHost(), redirect.getShardPort(), playerName, null)) {
+                pendingRedirect = null;
+                handleDisconnected();
+            }
+        }, "ShardRedirect");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * 连接意外断开：游戏中并且持有会话令牌时在后台重连，其他情况按断开处理
+     */
+    private void handleConnectionLost() {
+        if (inGame && sessionToken != null && localTransport == null && connected.compareAndSet(true, false)) {
+            startReconnect();
+        } else {
+            handleDisconnected();
+        }
+    }
+
+    /**
+     * 在独立线程上按间隔重连原服务器并请求恢复会话，超过重连时长仍未成功时通知监听器断开
+     */
+    private void startReconnect() {
+        String host = connectedHost;
+        int port = connectedPort;
+        String token = sessionToken;
+        Client previous = client;
+        client = null;
+        reconnecting = true;
+        Thread thread = new Thread(() -> {
+            if (previous != null) {
+                previous.stop();
+            }
+            long deadline = System.currentTimeMillis() + RECONNECT_WINDOW_MS;
+            while (reconnecting && System.currentTimeMillis() < deadline) {
+                System.out.println("NetworkManager: 连接中断，正在重连 " + host + ":" + port);
+                if (openConnection(host, port, playerName, token)) {
+                    // 结果由 handleResumeResponse 处理
+                    return;
+                }
+                try {
+                    Thread.sleep(RECONNECT_INTERVAL_MS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+            if (reconnecting) {
+                reconnecting = false;
+                resumeToken = token;
+                sessionToken = null;
+                inGame = false;
+                notifyDisconnected();
+            }
+        }, "Reconnect");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void handleDisconnected() {
+        if (connected.compareAndSet(true, false)) {
+            notifyDisconnected();
+        }
+    }
+
+    private void notifyDisconnected() {
         // 确保在主线程中调用监听器方法
-        final CoopGameStateMessage finalMessage = message;
         Gdx.app.postRunnable(() -> {
             // 使用监听器列表的副本进行遍历，避免ConcurrentModificationException
             for (NetworkListener listener : new ArrayList<>(listeners)) {
-                listener.onCoopGameStateUpdate(finalMessage);
+                listener.onDisconnected();
             }
         });
     }
 
-    private void handleDisconnected() {
-        if (connected) {
-            connected = false;
-
-            // 确保在主线程中调用监听器方法
-            Gdx.app.postRunnable(() -> {
-                // 使用监听器列表的副本进行遍历，避免ConcurrentModificationException
-                for (NetworkListener listener : new ArrayList<>(listeners)) {
-                    listener.onDisconnected();
-                }
-            });
-        }
-    }
-
     public void sendMessage(NetworkMessage message) {
-        if (connected && client != null) {
+        LocalClientTransport local = localTransport;
+        if (connected.get() && local != null) {
+            local.sendToServer(message);
+            sentMessageCount.incrementAndGet();
+            return;
+        }
+        Client current = client;
+        if (connected.get() && current != null) {
             try {
-                client.sendTCP(message);
+                current.sendTCP(message);
+                sentMessageCount.incrementAndGet();
             } catch (Exception e) {
                 e.printStackTrace();
-                disconnect();
+                // 重连过程中发送失败由重连线程处理，不放弃会话
+                if (!reconnecting) {
+                    disconnect();
+                }
             }
         }
     }
 
     public void sendMove(MoveMessage.MoveType moveType) {
-        MoveMessage message = new MoveMessage(moveType);
-        sendMessage(message);
+        // 使用共享的消息实例：sendTCP会立即完成序列化，进程内通道只读取不修改
+        sendMessage(MoveMessage.of(moveType));
     }
 
     public void createRoom(String roomName) {
@@ -328,10 +652,12 @@ public class NetworkManager {
     public void joinRoom(String roomId) {
         RoomMessage message = new RoomMessage(RoomMessage.RoomAction.JOIN);
         message.setRoomId(roomId);
+        message.setResumeToken(resumeToken);
         sendMessage(message);
     }
 
     public void leaveRoom() {
+        inGame = false;
         RoomMessage message = new RoomMessage(RoomMessage.RoomAction.LEAVE);
         sendMessage(message);
     }
@@ -432,39 +758,91 @@ public class NetworkManager {
     }
 
     public void disconnect() {
-        if (connected) {
-            connected = false;
+        // 主动断开时放弃会话，停止正在进行的重连
+        sessionToken = null;
+        inGame = false;
+        boolean wasReconnecting = reconnecting;
+        reconnecting = false;
+        if (!connected.compareAndSet(true, false)) {
+            if (wasReconnecting) {
+                notifyDisconnected();
+            }
+            return;
+        }
 
-            try {
-                if (client != null) {
-                    client.close();
-                    client = null;
-                }
-            } catch (Exception e) {
-                e.printStackTrace();
+        try {
+            if (localTransport != null) {
+                localTransport.disconnect();
+                localTransport = null;
+            }
+            Client current = client;
+            client = null;
+            if (current != null) {
+                current.close();
             }
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
 
-            // 清除连接信息
-            connectedHost = null;
-            connectedPort = 0;
-            currentConnectionType = ConnectionType.NONE;
+        // 清除连接信息
+        connectedHost = null;
+        connectedPort = 0;
+        currentConnectionType = ConnectionType.NONE;
 
-            // 确保在主线程中调用监听器方法
-            Gdx.app.postRunnable(() -> {
-                // 使用监听器列表的副本进行遍历，避免ConcurrentModificationException
-                for (NetworkListener listener : new ArrayList<>(listeners)) {
-                    listener.onDisconnected();
-                }
-            });
+        // 确保在主线程中调用监听器方法
+        Gdx.app.postRunnable(() -> {
+            // 使用监听器列表的副本进行遍历，避免ConcurrentModificationException
+            for (NetworkListener listener : new ArrayList<>(listeners)) {
+                listener.onDisconnected();
+            }
+        });
+    }
+
+    public boolean isConnected() {
+        return connected.get();
+    }
+
+    public long getReceivedMessageCount() {
+        return receivedMessageCount.get();
+    }
+
+    public long getSentMessageCount() {
+        return sentMessageCount.get();
+    }
+
+    /**
+     * 向服务器发送一次往返时间探测，结果通过 getReturnTripTime 获取
+     */
+    public void requestReturnTripTime() {
+        Client current = client;
+        if (connected.get() && current != null) {
+            current.updateReturnTripTime();
         }
     }
 
+    /**
+     * 最近一次测得的往返时间（毫秒），未连接或尚未测量时返回 -1
+     */
+    public int getReturnTripTime() {
+        if (connected.get() && localTransport != null) {
+            // 进程内通道没有网络往返
+            return 0;
+        }
+        Client current = client;
+        if (!connected.get() || current == null) {
+            return -1;
+        }
+        return current.getReturnTripTime();
+    }
+
     public void addListener(NetworkListener listener) {
         listeners.add(listener);
+        listenerSnapshot = listeners.toArray(new NetworkListener[0]);
     }
 
     public void removeListener(NetworkListener listener) {
         listeners.remove(listener);
+        listenerSnapshot = listeners.toArray(new NetworkListener[0]);
     }
 
     public interface NetworkListener {
@@ -497,5 +875,9 @@ public class NetworkManager {
         default void onPlayerSlotUpdate(PlayerSlotMessage message) {
             // 默认空实现，用于玩家槽位状态更新
         }
+
+        default void onSessionResumed(byte[] resumeState) {
+            // 默认空实现，断线重连恢复会话后调用，resumeState 为自己的游戏逻辑快照，没有时为 null
+        }
     }
 }
@@ -0,0 +1,63 @@
+package me.catand.cooptetris.tetris;
+
+/**
+ * 一块游戏板的客户端动画状态：各活动方块的位置插值和消行闪光
+ * 只在渲染线程中使用
+ */
+public class BoardMotion {
+    // 消行闪光持续时间（纳秒）和初始透明度
+    private static final long CLEAR_FLASH_NANOS = 250_000_000L;
+    private static final float CLEAR_FLASH_ALPHA = 0.35f;
+
+    private final PieceMotion[] pieces;
+    private int lines = -1;
+    private long clearStartNanos;
+
+    public BoardMotion(int pieceCount) {
+        pieces = new PieceMotion[pieceCount];
+        for (int i = 0; i < pieceCount; i++) {
+            pieces[i] = new PieceMotion();
+        }
+    }
+
+    public PieceMotion getPiece(int index) {
+        return pieces[index];
+    }
+
+    public int getPieceCount() {
+        return pieces.length;
+    }
+
+    /**
+     * 收到服务器同步的消行数，增加时开始消行闪光
+     */
+    public void onLines(int lines, long now) {
+        if (this.lines >= 0 && lines > this.lines) {
+            clearStartNanos = now;
+        }
+        this.lines = lines;
+    }
+
+    /**
+     * 当前帧消行闪光的透明度，0 表示不需要绘制
+     */
+    public float getClearFlashAlpha(long now) {
+        if (clearStartNanos == 0) {
+            return 0f;
+        }
+        long elapsed = now - clearStartNanos;
+        if (elapsed >= CLEAR_FLASH_NANOS) {
+            clearStartNanos = 0;
+            return 0f;
+        }
+        return CLEAR_FLASH_ALPHA * (1f - elapsed / (float) CLEAR_FLASH_NANOS);
+    }
+
+    public void reset() {
+        for (PieceMotion piece : pieces) {
+            piece.reset();
+        }
+        lines = -1;
+        clearStartNanos = 0;
+    }
+}
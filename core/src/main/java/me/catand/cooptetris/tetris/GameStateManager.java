@@ -9,6 +9,8 @@ import me.catand.cooptetris.shared.message.GameStartMessage;
 import me.catand.cooptetris.shared.message.GameStateMessage;
 import me.catand.cooptetris.shared.message.MoveMessage;
 import me.catand.cooptetris.shared.message.PlayerScoresMessage;
+import me.catand.cooptetris.shared.tetris.CoopGameLogic;
+import me.catand.cooptetris.shared.tetris.GameLogic;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -34,6 +36,13 @@ public class GameStateManager implements NetworkManager.NetworkListener {
     @Getter
     private GameStartMessage lastGameStartMessage;
 
+    // 客户端渲染插值：服务器状态到达时记录目标位置，渲染时按时间平滑过渡
+    @Getter
+    private final BoardMotion localMotion = new BoardMotion(1);
+    private BoardMotion[] remoteMotions = new BoardMotion[0];
+    @Getter
+    private final BoardMotion coopMotion = new BoardMotion(CoopGameLogic.MAX_PLAYERS);
+
     public GameStateManager() {
         sharedManager = new me.catand.cooptetris.shared.tetris.GameStateManager();
         this.isLocalServerStarted = false;
@@ -58,25 +67,42 @@ public class GameStateManager implements NetworkManager.NetworkListener {
                 isLocalServerStarted = true;
                 // 连接到本地服务器
                 if (networkManager != null) {
-                    networkManager.connect("localhost", actualPort, "SinglePlayer");
+                    networkManager.connectLocal(localServerManager, "SinglePlayer");
                 }
             } else {
                 System.err.println("Failed to start local server for single player mode");
             }
         }
         sharedManager.startSinglePlayer();
+        localMotion.reset();
     }
 
     public void startMultiplayer(int playerCount, int playerIndex) {
-        sharedManager.startMultiplayer(playerCount, playerIndex);
+        startMultiplayer(playerCount, playerIndex, 0);
     }
 
     public void startMultiplayer(int playerCount, int playerIndex, long seed) {
         sharedManager.startMultiplayer(playerCount, playerIndex, seed);
+        localMotion.reset();
+        remoteMotions = new BoardMotion[playerCount];
+        for (int i = 0; i < playerCount; i++) {
+            remoteMotions[i] = new BoardMotion(1);
+        }
     }
 
     public void startCoopMode(int playerCount, int playerIndex, long seed) {
         sharedManager.startCoopMode(playerCount, playerIndex, seed);
+        coopMotion.reset();
+    }
+
+    /**
+     * 获取指定对手游戏板的动画状态，索引无效时返回 null
+     */
+    public BoardMotion getRemoteMotion(int playerIndex) {
+        if (playerIndex < 0 || playerIndex >= remoteMotions.length) {
+            return null;
+        }
+        return remoteMotions[playerIndex];
     }
 
     public void update(float delta) {
@@ -149,15 +175,29 @@ public class GameStateManager implements NetworkManager.NetworkListener {
     @Override
     public void onGameStateUpdate(GameStateMessage message) {
         // PVP模式下，根据playerIndex判断是更新自己还是对手的游戏状态
+        long now = System.nanoTime();
         if (sharedManager.isMultiplayer() && message.getPlayerIndex() != sharedManager.getPlayerIndex()) {
             // 更新对手的游戏状态
-            sharedManager.updateRemoteGameLogic(message.getPlayerIndex(), message);
+            int index = message.getPlayerIndex();
+            sharedManager.updateRemoteGameLogic(index, message);
+            GameLogic[] remoteLogics = sharedManager.getRemoteGameLogics();
+            BoardMotion motion = getRemoteMotion(index);
+            if (motion != null && remoteLogics != null && index < remoteLogics.length) {
+                trackGameLogic(motion, remoteLogics[index], now);
+            }
         } else {
             // 更新自己的游戏状态
             sharedManager.updateGameLogic(message);
+            trackGameLogic(localMotion, sharedManager.getLocalGameLogic(), now);
         }
     }
 
+    private void trackGameLogic(BoardMotion motion, GameLogic gameLogic, long now) {
+        motion.getPiece(0).onServerState(gameLogic.getCurrentPiece(), gameLogic.getCurrentPieceRotation(),
+            gameLogic.getCurrentPieceX(), gameLogic.getCurrentPieceY(), now);
+        motion.onLines(gameLogic.getLines(), now);
+    }
+
     @Override
     public void onPlayerScoresUpdate(PlayerScoresMessage message) {
         this.playerScores = message.getPlayerScores();
@@ -171,6 +211,28 @@ public class GameStateManager implements NetworkManager.NetworkListener {
         // 合作模式游戏状态更新
         // 颜色直接绑定到槽位索引，无需颜色映射
         sharedManager.updateCoopGameLogic(message);
+
+        CoopGameLogic coopGameLogic = sharedManager.getCoopGameLogic();
+        if (coopGameLogic == null) return;
+        long now = System.nanoTime();
+        for (int slot = 0; slot < CoopGameLogic.MAX_PLAYERS; slot++) {
+            CoopGameLogic.PlayerPiece piece = coopGameLogic.getPlayerPiece(slot);
+            if (coopGameLogic.isSlotActive(slot) && piece.isActive()) {
+                coopMotion.getPiece(slot).onServerState(piece.getPieceType(), piece.getRotation(), piece.getX(), piece.getY(), now);
+            } else {
+                coopMotion.getPiece(slot).reset();
+            }
+        }
+        coopMotion.onLines(coopGameLogic.getLines(), now);
+    }
+
+    @Override
+    public void onSessionResumed(byte[] resumeState) {
+        // 断线重连后立即恢复自己的游戏画面，其他玩家的状态随后续的状态更新同步
+        sharedManager.restoreSnapshot(resumeState);
+        if (sharedManager.isMultiplayer() && !sharedManager.isCoopMode()) {
+            trackGameLogic(localMotion, sharedManager.getLocalGameLogic(), System.nanoTime());
+        }
     }
 
     public List<PlayerScoresMessage.PlayerScore> getPlayerScores() {
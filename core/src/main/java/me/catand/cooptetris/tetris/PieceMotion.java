@@ -0,0 +1,112 @@
+package me.catand.cooptetris.tetris;
+
+/**
+ * 单个活动方块的渲染插值
+ * 服务器状态到达时记录目标位置，渲染时在上一次显示的位置和目标位置之间按时间插值，
+ * 使方块移动不再依赖网络消息的到达时机。方块类型或旋转变化、位移过大（硬降、新方块）时直接跳到目标位置
+ */
+public class PieceMotion {
+    // 插值时长的上下限（纳秒），实际时长跟随服务器状态的平均到达间隔
+    private static final long MIN_DURATION_NANOS = 16_000_000L;
+    private static final long MAX_DURATION_NANOS = 100_000_000L;
+    // 超过该格数的位移视为跳变，不做插值
+    private static final int MAX_STEP = 2;
+
+    private boolean valid;
+    private int pieceType;
+    private int rotation;
+    private int targetX;
+    private int targetY;
+    private float fromX;
+    private float fromY;
+    private long startNanos;
+    private long durationNanos;
+
+    // 服务器状态到达间隔的滑动平均
+    private long lastArrivalNanos;
+    private float averageIntervalNanos;
+
+    private float renderX;
+    private float renderY;
+
+    /**
+     * 收到服务器的权威状态
+     */
+    public void onServerState(int pieceType, int rotation, int x, int y, long now) {
+        if (lastArrivalNanos != 0) {
+            long interval = now - lastArrivalNanos;
+            averageIntervalNanos = averageIntervalNanos == 0 ? interval : averageIntervalNanos * 0.8f + interval * 0.2f;
+        }
+        lastArrivalNanos = now;
+
+        if (valid && pieceType == this.pieceType && rotation == this.rotation) {
+            if (x == targetX && y == targetY) {
+                return;
+            }
+            int dx = Math.abs(x - targetX);
+            int dy = y - targetY;
+            if (dx <= MAX_STEP && dy >= 0 && dy <= MAX_STEP) {
+                // 从当前显示的位置继续移动到新的目标位置
+                advance(now);
+                fromX = renderX;
+                fromY = renderY;
+                startNanos = now;
+                durationNanos = Math.max(MIN_DURATION_NANOS, Math.min(MAX_DURATION_NANOS, (long) averageIntervalNanos));
+                targetX = x;
+                targetY = y;
+                return;
+            }
+        }
+
+        valid = true;
+        this.pieceType = pieceType;
+        this.rotation = rotation;
+        targetX = x;
+        targetY = y;
+        fromX = x;
+        fromY = y;
+        durationNanos = 0;
+    }
+
+    /**
+     * 计算当前帧的显示位置，结果通过 getRenderX/getRenderY 获取
+     * 传入的是游戏逻辑中的当前状态，与最近一次服务器状态不一致时（例如本地直接修改了游戏逻辑）以游戏逻辑为准
+     */
+    public void sample(int pieceType, int rotation, int x, int y, long now) {
+        if (!valid || pieceType != this.pieceType || rotation != this.rotation || x != targetX || y != targetY) {
+            renderX = x;
+            renderY = y;
+            return;
+        }
+        advance(now);
+    }
+
+    private void advance(long now) {
+        if (durationNanos <= 0 || now - startNanos >= durationNanos) {
+            renderX = targetX;
+            renderY = targetY;
+            return;
+        }
+        float t = (now - startNanos) / (float) durationNanos;
+        renderX = fromX + (targetX - fromX) * t;
+        renderY = fromY + (targetY - fromY) * t;
+    }
+
+    public float getRenderX() {
+        return renderX;
+    }
+
+    public float getRenderY() {
+        return renderY;
+    }
+
+    /**
+     * 方块消失或开始新的一局时调用，下一次状态直接跳到目标位置
+     */
+    public void reset() {
+        valid = false;
+        lastArrivalNanos = 0;
+        averageIntervalNanos = 0;
+        durationNanos = 0;
+    }
+}
@@ -1,7 +1,9 @@
 package me.catand.cooptetris.ui;
 
+import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.scenes.scene2d.Stage;
 import com.badlogic.gdx.scenes.scene2d.ui.Skin;
+import com.badlogic.gdx.scenes.scene2d.utils.Drawable;
 
 import me.catand.cooptetris.util.UIScaler;
 
@@ -77,6 +79,13 @@ public abstract class BaseUIState implements UIState {
         // 子类实现
     }
 
+    /**
+     * 获取纯色面板背景，同一颜色在皮肤中只创建一次
+     */
+    protected Drawable createPanelBackground(Color color) {
+        return UIAssets.getPanelBackground(skin, color);
+    }
+
     // ============ 缩放辅助方法 ============
 
     /**
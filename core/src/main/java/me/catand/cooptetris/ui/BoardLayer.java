@@ -0,0 +1,82 @@
+package me.catand.cooptetris.ui;
+
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.glutils.FrameBuffer;
+import com.badlogic.gdx.utils.Disposable;
+
+/**
+ * 游戏板静态层缓存 - 背景、网格和已锁定的方块预先渲染到 FrameBuffer 中
+ * 只有游戏板版本号、游戏逻辑对象或格子尺寸变化时才由 BoardRenderer 重新绘制
+ * 每块游戏板（本地、对手、合作共享板）各持有一个实例
+ */
+public class BoardLayer implements Disposable {
+    FrameBuffer frameBuffer;
+    TextureRegion region;
+
+    // 当前缓存内容对应的状态
+    Object owner;
+    int version;
+    int cols;
+    int rows;
+    int pixelSize;
+    int generation = -1;
+
+    /**
+     * 检查缓存内容是否仍然有效
+     */
+    boolean matches(Object owner, int version, int cols, int rows, int pixelSize, int generation) {
+        return frameBuffer != null
+            && this.owner == owner
+            && this.version == version
+            && this.cols == cols
+            && this.rows == rows
+            && this.pixelSize == pixelSize
+            && this.generation == generation;
+    }
+
+    /**
+     * 确保 FrameBuffer 尺寸与游戏板一致，尺寸变化时重新创建
+     */
+    void ensureSize(int width, int height) {
+        if (frameBuffer != null && frameBuffer.getWidth() == width && frameBuffer.getHeight() == height) {
+            return;
+        }
+        if (frameBuffer != null) {
+            frameBuffer.dispose();
+        }
+        frameBuffer = new FrameBuffer(Pixmap.Format.RGBA8888, width, height, false);
+        Texture texture = frameBuffer.getColorBufferTexture();
+        texture.setFilter(Texture.TextureFilter.Nearest, Texture.TextureFilter.Nearest);
+        region = new TextureRegion(texture);
+        // FrameBuffer 的纹理坐标原点在左下角，需要垂直翻转
+        region.flip(false, true);
+    }
+
+    void update(Object owner, int version, int cols, int rows, int pixelSize, int generation) {
+        this.owner = owner;
+        this.version = version;
+        this.cols = cols;
+        this.rows = rows;
+        this.pixelSize = pixelSize;
+        this.generation = generation;
+    }
+
+    /**
+     * 使缓存失效，下一帧重新绘制
+     */
+    public void invalidate() {
+        owner = null;
+    }
+
+    @Override
+    public void dispose() {
+        if (frameBuffer != null) {
+            frameBuffer.dispose();
+            frameBuffer = null;
+            region = null;
+        }
+        owner = null;
+    }
+}
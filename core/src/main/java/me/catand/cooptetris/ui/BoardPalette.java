@@ -0,0 +1,64 @@
+package me.catand.cooptetris.ui;
+
+import com.badlogic.gdx.graphics.Color;
+
+/**
+ * 游戏板调色板 - 预先计算好每种方块颜色的基础色、高光色和虚影色
+ * 渲染时直接取用，避免每帧每格 Color.cpy() 产生的临时对象
+ * 所有颜色均为共享实例，不可修改
+ */
+public final class BoardPalette {
+    // 高光色在基础色上的增量
+    private static final float HIGHLIGHT_AMOUNT = 0.2f;
+    // 虚影（落点预览）的透明度
+    private static final float GHOST_ALPHA = 0.3f;
+
+    // 按 Tetromino 的方块类型索引
+    public static final Color[] TETROMINO_BASE = {
+        Color.CYAN,     // I
+        Color.BLUE,     // J
+        Color.ORANGE,   // L
+        Color.YELLOW,   // O
+        Color.GREEN,    // S
+        Color.MAGENTA,  // T
+        Color.RED       // Z
+    };
+    public static final Color[] TETROMINO_HIGHLIGHT = highlights(TETROMINO_BASE);
+    public static final Color[] TETROMINO_GHOST = ghosts(TETROMINO_BASE);
+
+    public static final Color[] PLAYER_BASE = CoopGameState.PLAYER_COLORS;
+    public static final Color[] PLAYER_HIGHLIGHT = highlights(PLAYER_BASE);
+    public static final Color[] PLAYER_GHOST = ghosts(PLAYER_BASE);
+
+    // 未知颜色索引时使用的灰色
+    public static final Color FALLBACK_BASE = Color.GRAY;
+    public static final Color FALLBACK_HIGHLIGHT = highlight(FALLBACK_BASE);
+    public static final Color FALLBACK_GHOST = ghost(FALLBACK_BASE);
+
+    private BoardPalette() {
+    }
+
+    private static Color[] highlights(Color[] base) {
+        Color[] result = new Color[base.length];
+        for (int i = 0; i < base.length; i++) {
+            result[i] = highlight(base[i]);
+        }
+        return result;
+    }
+
+    private static Color[] ghosts(Color[] base) {
+        Color[] result = new Color[base.length];
+        for (int i = 0; i < base.length; i++) {
+            result[i] = ghost(base[i]);
+        }
+        return result;
+    }
+
+    private static Color highlight(Color base) {
+        return new Color(base).add(HIGHLIGHT_AMOUNT, HIGHLIGHT_AMOUNT, HIGHLIGHT_AMOUNT, 0);
+    }
+
+    private static Color ghost(Color base) {
+        return new Color(base.r, base.g, base.b, GHOST_ALPHA);
+    }
+}
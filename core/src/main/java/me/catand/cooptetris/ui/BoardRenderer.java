@@ -0,0 +1,328 @@
+package me.catand.cooptetris.ui;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.LongMap;
+
+/**
+ * 游戏板渲染器 - 所有游戏界面共用
+ * - 方块按 BoardPalette 预先绘制到一张图集纹理中（含高光和虚影），每个格子只需一次 SpriteBatch 绘制
+ * - 背景和网格线按棋盘尺寸缓存为纹理，不再逐条绘制
+ * - 背景、网格和已锁定的方块组成的静态层缓存在每块游戏板的 BoardLayer 中，只在锁定或消行后重绘
+ * - 纯色矩形使用图集中的白色像素着色绘制，整块棋盘在同一批次内完成
+ */
+public class BoardRenderer implements Disposable {
+    // 图集中单个方块精灵的像素尺寸（对应格子去掉1像素边距后的大小）
+    private static final int SPRITE_SIZE = 30;
+    // 高光带高度（像素）
+    private static final int HIGHLIGHT_HEIGHT = 3;
+    // 精灵之间的间隔，避免纹理采样越界
+    private static final int SPRITE_PADDING = 2;
+
+    private static final Color COLOR_BG = new Color(0.06f, 0.07f, 0.09f, 1f);
+    private static final Color COLOR_PANEL = new Color(0.1f, 0.12f, 0.15f, 0.9f);
+    private static final Color COLOR_PANEL_BORDER = new Color(0.2f, 0.23f, 0.28f, 1f);
+
+    private final Texture atlas;
+    private final TextureRegion whitePixel;
+    private final TextureRegion[] tetrominoCells;
+    private final TextureRegion[] tetrominoGhosts;
+    private final TextureRegion[] playerCells;
+    private final TextureRegion[] playerGhosts;
+    private final TextureRegion grayCell;
+    private final TextureRegion grayGhost;
+
+    // 网格纹理缓存，键由列数、行数和格子像素尺寸组成
+    private final LongMap<Texture> gridCache = new LongMap<>();
+
+    // 构建图集时的写入位置
+    private int nextSpriteX;
+
+    // 静态层缓存的代数，递增后所有 BoardLayer 都会重新绘制
+    private int generation;
+    private final Matrix4 savedProjection = new Matrix4();
+    private final Matrix4 layerProjection = new Matrix4();
+
+    public BoardRenderer() {
+        // 每种颜色一个实心精灵和一个虚影精灵，最后是白色像素区域
+        int colorCount = BoardPalette.TETROMINO_BASE.length + BoardPalette.PLAYER_BASE.length + 1;
+        int stride = SPRITE_SIZE + SPRITE_PADDING;
+        Pixmap pixmap = new Pixmap(stride * colorCount * 2 + 4, SPRITE_SIZE, Pixmap.Format.RGBA8888);
+        pixmap.setBlending(Pixmap.Blending.None);
+
+        tetrominoCells = new TextureRegion[BoardPalette.TETROMINO_BASE.length];
+        tetrominoGhosts = new TextureRegion[BoardPalette.TETROMINO_BASE.length];
+        playerCells = new TextureRegion[BoardPalette.PLAYER_BASE.length];
+        playerGhosts = new TextureRegion[BoardPalette.PLAYER_BASE.length];
+        int[] cellX = new int[colorCount];
+        int[] ghostX = new int[colorCount];
+        int whiteX;
+        Texture texture;
+        try {
+            nextSpriteX = 0;
+            int index = 0;
+            for (int i = 0; i < tetrominoCells.length; i++, index++) {
+                cellX[index] = drawCellSprite(pixmap, BoardPalette.TETROMINO_BASE[i], BoardPalette.TETROMINO_HIGHLIGHT[i]);
+                ghostX[index] = drawGhostSprite(pixmap, BoardPalette.TETROMINO_GHOST[i]);
+            }
+            for (int i = 0; i < playerCells.length; i++, index++) {
+                cellX[index] = drawCellSprite(pixmap, BoardPalette.PLAYER_BASE[i], BoardPalette.PLAYER_HIGHLIGHT[i]);
+                ghostX[index] = drawGhostSprite(pixmap, BoardPalette.PLAYER_GHOST[i]);
+            }
+            cellX[index] = drawCellSprite(pixmap, BoardPalette.FALLBACK_BASE, BoardPalette.FALLBACK_HIGHLIGHT);
+            ghostX[index] = drawGhostSprite(pixmap, BoardPalette.FALLBACK_GHOST);
+
+            // 白色像素区域，用于着色绘制纯色矩形
+            whiteX = nextSpriteX;
+            pixmap.setColor(Color.WHITE);
+            pixmap.fillRectangle(whiteX, 0, 4, 4);
+
+            texture = new Texture(pixmap);
+        } finally {
+            pixmap.dispose();
+        }
+        texture.setFilter(Texture.TextureFilter.Nearest, Texture.TextureFilter.Nearest);
+        atlas = texture;
+
+        int index = 0;
+        for (int i = 0; i < tetrominoCells.length; i++, index++) {
+            tetrominoCells[i] = region(cellX[index]);
+            tetrominoGhosts[i] = region(ghostX[index]);
+        }
+        for (int i = 0; i < playerCells.length; i++, index++) {
+            playerCells[i] = region(cellX[index]);
+            playerGhosts[i] = region(ghostX[index]);
+        }
+        grayCell = region(cellX[index]);
+        grayGhost = region(ghostX[index]);
+        // 取白色块中心的像素，避免采样到边缘
+        whitePixel = new TextureRegion(atlas, whiteX + 1, 1, 2, 2);
+    }
+
+    private TextureRegion region(int x) {
+        return new TextureRegion(atlas, x, 0, SPRITE_SIZE, SPRITE_SIZE);
+    }
+
+    private int drawCellSprite(Pixmap pixmap, Color base, Color highlight) {
+        int x = nextSpriteX;
+        nextSpriteX += SPRITE_SIZE + SPRITE_PADDING;
+        pixmap.setColor(base);
+        pixmap.fillRectangle(x, 0, SPRITE_SIZE, SPRITE_SIZE);
+        // Pixmap 的 y 轴向下，高光带位于精灵顶部
+        pixmap.setColor(highlight);
+        pixmap.fillRectangle(x, 0, SPRITE_SIZE, HIGHLIGHT_HEIGHT);
+        return x;
+    }
+
+    private int drawGhostSprite(Pixmap pixmap, Color ghost) {
+        int x = nextSpriteX;
+        nextSpriteX += SPRITE_SIZE + SPRITE_PADDING;
+        pixmap.setColor(ghost);
+        pixmap.fillRectangle(x, 0, SPRITE_SIZE, SPRITE_SIZE);
+        return x;
+    }
+
+    /**
+     * 获取经典方块颜色的精灵，索引越界时返回灰色
+     */
+    public TextureRegion getTetrominoCell(int pieceType) {
+        if (pieceType >= 0 && pieceType < tetrominoCells.length) {
+            return tetrominoCells[pieceType];
+        }
+        return grayCell;
+    }
+
+    /**
+     * 获取合作模式玩家颜色的精灵，索引越界时返回灰色
+     */
+    public TextureRegion getPlayerCell(int colorIndex) {
+        if (colorIndex >= 0 && colorIndex < playerCells.length) {
+            return playerCells[colorIndex];
+        }
+        return grayCell;
+    }
+
+    /**
+     * 获取经典方块颜色的虚影精灵（落点预览），索引越界时返回灰色
+     */
+    public TextureRegion getTetrominoGhost(int pieceType) {
+        if (pieceType >= 0 && pieceType < tetrominoGhosts.length) {
+            return tetrominoGhosts[pieceType];
+        }
+        return grayGhost;
+    }
+
+    /**
+     * 获取合作模式玩家颜色的虚影精灵，索引越界时返回灰色
+     */
+    public TextureRegion getPlayerGhost(int colorIndex) {
+        if (colorIndex >= 0 && colorIndex < playerGhosts.length) {
+            return playerGhosts[colorIndex];
+        }
+        return grayGhost;
+    }
+
+    /**
+     * 绘制棋盘外框
+     */
+    public void drawFrame(SpriteBatch batch, float boardX, float boardY, int cols, int rows, float cellSize) {
+        drawRect(batch, COLOR_PANEL, boardX - 4, boardY - 4, cols * cellSize + 8, rows * cellSize + 8);
+    }
+
+    /**
+     * 绘制游戏板静态层（背景、网格线和已锁定的方块）
+     * 缓存仍然有效时只绘制一次 FrameBuffer 纹理，否则先重新渲染到 FrameBuffer
+     * 调用时 batch 应处于 begin 状态
+     *
+     * @param owner      游戏板所属的游戏逻辑对象，切换对象时缓存失效
+     * @param version    游戏板版本号，锁定或消行后递增
+     * @param board      已锁定方块，非0表示有方块
+     * @param boardColor 合作模式的颜色板（玩家颜色索引），为 null 时按方块类型（board 值减1）取色
+     */
+    public void drawStaticLayer(SpriteBatch batch, BoardLayer layer, Object owner, int version,
+                                int[][] board, int[][] boardColor,
+                                float boardX, float boardY, int cols, int rows, float cellSize) {
+        int pixelSize = Math.max(1, Math.round(cellSize));
+        if (!layer.matches(owner, version, cols, rows, pixelSize, generation)) {
+            renderStaticLayer(batch, layer, board, boardColor, cols, rows, pixelSize);
+            layer.update(owner, version, cols, rows, pixelSize, generation);
+        }
+        batch.draw(layer.region, boardX, boardY, cols * cellSize + 1, rows * cellSize + 1);
+    }
+
+    private void renderStaticLayer(SpriteBatch batch, BoardLayer layer, int[][] board, int[][] boardColor,
+                                   int cols, int rows, int pixelSize) {
+        int width = cols * pixelSize + 1;
+        int height = rows * pixelSize + 1;
+
+        boolean drawing = batch.isDrawing();
+        if (drawing) {
+            batch.end();
+        }
+        savedProjection.set(batch.getProjectionMatrix());
+        layer.ensureSize(width, height);
+
+        layer.frameBuffer.begin();
+        Gdx.gl.glClearColor(0f, 0f, 0f, 0f);
+        Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+        layerProjection.setToOrtho2D(0, 0, width, height);
+        batch.setProjectionMatrix(layerProjection);
+        batch.begin();
+        batch.draw(getGridTexture(cols, rows, pixelSize), 0, 0, width, height);
+        for (int y = 0; y < rows; y++) {
+            int[] row = board[y];
+            int[] colorRow = boardColor != null ? boardColor[y] : null;
+            for (int x = 0; x < cols; x++) {
+                if (row[x] != 0) {
+                    TextureRegion cell = colorRow != null ? getPlayerCell(colorRow[x]) : getTetrominoCell(row[x] - 1);
+                    drawCell(batch, cell, 0, 0, rows, pixelSize, x, y);
+                }
+            }
+        }
+        batch.end();
+        layer.frameBuffer.end();
+
+        batch.setProjectionMatrix(savedProjection);
+        if (drawing) {
+            batch.begin();
+        }
+    }
+
+    /**
+     * 使所有静态层缓存失效，例如 Android 上 OpenGL 上下文重建导致 FrameBuffer 内容丢失时
+     */
+    public void invalidateLayers() {
+        generation++;
+    }
+
+    /**
+     * 使用白色像素着色绘制纯色矩形
+     */
+    public void drawRect(SpriteBatch batch, Color color, float x, float y, float width, float height) {
+        batch.setColor(color);
+        batch.draw(whitePixel, x, y, width, height);
+        batch.setColor(Color.WHITE);
+    }
+
+    public void drawRect(SpriteBatch batch, float r, float g, float b, float a, float x, float y, float width, float height) {
+        batch.setColor(r, g, b, a);
+        batch.draw(whitePixel, x, y, width, height);
+        batch.setColor(Color.WHITE);
+    }
+
+    /**
+     * 在棋盘坐标 (col, row) 处绘制一个格子，row 为逻辑行（0 在顶部），插值中的方块坐标可以是小数
+     */
+    public void drawCell(SpriteBatch batch, TextureRegion cell, float boardX, float boardY, int rows, float cellSize, float col, float row) {
+        float screenY = boardY + (rows - 1 - row) * cellSize;
+        batch.draw(cell, boardX + col * cellSize + 1, screenY + 1, cellSize - 2, cellSize - 2);
+    }
+
+    /**
+     * 绘制一个活动方块，超出棋盘的部分不绘制
+     * 方块位置可以是插值得到的小数坐标
+     */
+    public void drawPiece(SpriteBatch batch, TextureRegion cell, int[][] shape, float pieceX, float pieceY,
+                          float boardX, float boardY, int cols, int rows, float cellSize) {
+        for (int y = 0; y < shape.length; y++) {
+            for (int x = 0; x < shape[y].length; x++) {
+                if (shape[y][x] != 0) {
+                    float boardXPos = pieceX + x;
+                    float boardYPos = pieceY + y;
+                    if (boardXPos > -1 && boardXPos < cols && boardYPos > -1 && boardYPos < rows) {
+                        drawCell(batch, cell, boardX, boardY, rows, cellSize, boardXPos, boardYPos);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * 获取（必要时生成）棋盘背景和网格线纹理，格子尺寸变化时（例如窗口缩放）会生成新的纹理
+     */
+    private Texture getGridTexture(int cols, int rows, int pixelSize) {
+        long key = ((long) cols << 40) | ((long) rows << 20) | pixelSize;
+        Texture grid = gridCache.get(key);
+        if (grid != null) {
+            return grid;
+        }
+
+        int width = cols * pixelSize + 1;
+        int height = rows * pixelSize + 1;
+        Pixmap pixmap = new Pixmap(width, height, Pixmap.Format.RGBA8888);
+        try {
+            pixmap.setBlending(Pixmap.Blending.None);
+            pixmap.setColor(COLOR_BG);
+            pixmap.fill();
+            pixmap.setColor(COLOR_PANEL_BORDER);
+            for (int x = 0; x <= cols; x++) {
+                pixmap.drawLine(x * pixelSize, 0, x * pixelSize, height - 1);
+            }
+            for (int y = 0; y <= rows; y++) {
+                pixmap.drawLine(0, y * pixelSize, width - 1, y * pixelSize);
+            }
+            grid = new Texture(pixmap);
+        } finally {
+            pixmap.dispose();
+        }
+        grid.setFilter(Texture.TextureFilter.Nearest, Texture.TextureFilter.Nearest);
+        gridCache.put(key, grid);
+        return grid;
+    }
+
+    @Override
+    public void dispose() {
+        atlas.dispose();
+        for (Texture grid : gridCache.values()) {
+            grid.dispose();
+        }
+        gridCache.clear();
+    }
+}
@@ -4,11 +4,9 @@ import java.util.List;
 
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.Color;
-import com.badlogic.gdx.graphics.Pixmap;
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
-import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.scenes.scene2d.InputEvent;
 import com.badlogic.gdx.scenes.scene2d.ui.Label;
 import com.badlogic.gdx.scenes.scene2d.ui.Table;
@@ -29,7 +27,9 @@ import me.catand.cooptetris.shared.message.PlayerScoresMessage;
 import me.catand.cooptetris.shared.message.PlayerSlotMessage;
 import me.catand.cooptetris.shared.message.RoomMessage;
 import me.catand.cooptetris.shared.tetris.CoopGameLogic;
+import me.catand.cooptetris.tetris.BoardMotion;
 import me.catand.cooptetris.tetris.GameStateManager;
+import me.catand.cooptetris.tetris.PieceMotion;
 import me.catand.cooptetris.util.LanguageManager;
 import me.catand.cooptetris.util.TetrisSettings;
 
@@ -62,15 +62,18 @@ public class CoopGameState extends BaseUIState implements NetworkManager.Network
     private static final Color COLOR_TEXT = new Color(0.9f, 0.9f, 0.9f, 1f);
     private static final Color COLOR_TEXT_MUTED = new Color(0.5f, 0.52f, 0.55f, 1f);
 
+    // 出口之间的分隔格位置
+    private static final int[] SEPARATOR_X = {3, 7, 11};
+
     private final GameStateManager gameStateManager;
-    private final ShapeRenderer shapeRenderer;
 
     // UI元素
     private Table uiTable;
     private Table boardArea;
-    private Label scoreValueLabel;
-    private Label levelValueLabel;
-    private Label linesValueLabel;
+    // 数值标签只在数值变化时更新
+    private final IntLabelBinding scoreValue = new IntLabelBinding();
+    private final IntLabelBinding levelValue = new IntLabelBinding();
+    private final IntLabelBinding linesValue = new IntLabelBinding();
     private final Label[] playerNameLabels; // 出口上方的玩家名字标签
     private BitmapFont titleFont;
     private BitmapFont statsFont;
@@ -80,6 +83,10 @@ public class CoopGameState extends BaseUIState implements NetworkManager.Network
     // 游戏板渲染参数
     private float boardX, boardY;
     private float cellSize;
+    // 坐标转换用的临时向量，避免每帧分配
+    private final Vector2 tmpPosition = new Vector2();
+    // 游戏板静态层缓存
+    private final BoardLayer boardLayer = new BoardLayer();
 
     // 输入控制
     private final boolean[] isDownKeyPressed;
@@ -115,7 +122,6 @@ public class CoopGameState extends BaseUIState implements NetworkManager.Network
     public CoopGameState(UIManager uiManager, GameStateManager gameStateManager) {
         super(uiManager);
         this.gameStateManager = gameStateManager;
-        this.shapeRenderer = new ShapeRenderer();
         this.isDownKeyPressed = new boolean[4];
         this.downKeyPressTime = new float[4];
         this.lastSoftDropTime = new float[4];
@@ -216,7 +222,7 @@ public class CoopGameState extends BaseUIState implements NetworkManager.Network
     private void updatePlayerNameLabelPositions() {
         if (boardArea == null) return;
 
-        com.badlogic.gdx.math.Vector2 boardPos = boardArea.localToStageCoordinates(new com.badlogic.gdx.math.Vector2(0, 0));
+        Vector2 boardPos = boardArea.localToStageCoordinates(tmpPosition.set(0, 0));
         float boardWidth = CoopGameLogic.BOARD_WIDTH * cellSize;
         float boardHeight = CoopGameLogic.BOARD_HEIGHT * cellSize;
         float actualBoardX = boardPos.x + (boardArea.getWidth() - boardWidth) / 2;
@@ -243,7 +249,7 @@ public class CoopGameState extends BaseUIState implements NetworkManager.Network
         panel.setBackground(createPanelBackground(COLOR_PANEL));
         panel.pad(w(15f));
 
-        // 游戏板区域（由ShapeRenderer绘制）
+        // 游戏板区域（由BoardRenderer绘制）
         boardArea = new Table();
         boardArea.setBackground(createPanelBackground(COLOR_BG));
         panel.add(boardArea).width(w(400f)).height(h(500f));
@@ -331,11 +337,11 @@ public class CoopGameState extends BaseUIState implements NetworkManager.Network
 
         // 保存引用以便更新
         if (title.equals(lang().get("score.title"))) {
-            scoreValueLabel = valueLabel;
+            scoreValue.bind(valueLabel);
         } else if (title.equals(lang().get("level.title"))) {
-            levelValueLabel = valueLabel;
+            levelValue.bind(valueLabel);
         } else if (title.equals(lang().get("lines.title"))) {
-            linesValueLabel = valueLabel;
+            linesValue.bind(valueLabel);
         }
 
         statPanel.add(titleLabel).left().expandX();
@@ -372,7 +378,7 @@ public class CoopGameState extends BaseUIState implements NetworkManager.Network
 
             // 颜色方块
             Table colorBlock = new Table();
-            colorBlock.setBackground(createColoredBackground(slotColor));
+            colorBlock.setBackground(createPanelBackground(slotColor));
             row.add(colorBlock).size(w(16f), h(16f)).padRight(w(8f));
 
             // 玩家名字（使用对应的颜色）
@@ -464,7 +470,7 @@ public class CoopGameState extends BaseUIState implements NetworkManager.Network
 
     private void updateBoardPositionFromUI() {
         if (boardArea != null) {
-            com.badlogic.gdx.math.Vector2 boardPos = boardArea.localToStageCoordinates(new com.badlogic.gdx.math.Vector2(0, 0));
+            Vector2 boardPos = boardArea.localToStageCoordinates(tmpPosition.set(0, 0));
             float boardWidth = CoopGameLogic.BOARD_WIDTH * cellSize;
             float boardHeight = CoopGameLogic.BOARD_HEIGHT * cellSize;
             boardX = boardPos.x + (boardArea.getWidth() - boardWidth) / 2;
@@ -627,15 +633,9 @@ public class CoopGameState extends BaseUIState implements NetworkManager.Network
         CoopGameLogic coopGameLogic = gameStateManager.getSharedManager().getCoopGameLogic();
         if (coopGameLogic == null) return;
 
-        if (scoreValueLabel != null) {
-            scoreValueLabel.setText(String.valueOf(coopGameLogic.getScore()));
-        }
-        if (levelValueLabel != null) {
-            levelValueLabel.setText(String.valueOf(coopGameLogic.getLevel()));
-        }
-        if (linesValueLabel != null) {
-            linesValueLabel.setText(String.valueOf(coopGameLogic.getLines()));
-        }
+        scoreValue.update(coopGameLogic.getScore());
+        levelValue.update(coopGameLogic.getLevel());
+        linesValue.update(coopGameLogic.getLines());
     }
 
     private void checkGameOver() {
@@ -698,43 +698,25 @@ public class CoopGameState extends BaseUIState implements NetworkManager.Network
     /**
      * 渲染游戏板 - 由 Main.java 调用
      */
-    public void renderGame(ShapeRenderer shapeRenderer) {
-        shapeRenderer.setProjectionMatrix(stage.getCamera().combined);
-
+    public void renderGame(SpriteBatch batch, BoardRenderer boardRenderer) {
         // 更新游戏板位置（基于UI实际位置）
         updateBoardPositionFromUI();
 
-        renderGameBoard(shapeRenderer);
+        batch.setProjectionMatrix(stage.getCamera().combined);
+        batch.begin();
+        renderGameBoard(batch, boardRenderer);
+        batch.end();
     }
 
-    private void renderGameBoard(ShapeRenderer shapeRenderer) {
+    private void renderGameBoard(SpriteBatch batch, BoardRenderer boardRenderer) {
         CoopGameLogic coopGameLogic = gameStateManager.getSharedManager().getCoopGameLogic();
         if (coopGameLogic == null) return;
 
-        shapeRenderer.begin(ShapeRenderer.ShapeType.Filled);
-
-        // 绘制游戏板背景
-        shapeRenderer.setColor(COLOR_PANEL);
-        shapeRenderer.rect(boardX - 4, boardY - 4,
-            CoopGameLogic.BOARD_WIDTH * cellSize + 8,
-            CoopGameLogic.BOARD_HEIGHT * cellSize + 8);
-
-        // 绘制游戏板内部
-        shapeRenderer.setColor(COLOR_BG);
-        shapeRenderer.rect(boardX, boardY,
-            CoopGameLogic.BOARD_WIDTH * cellSize,
-            CoopGameLogic.BOARD_HEIGHT * cellSize);
-
-        // 绘制网格线
-        shapeRenderer.setColor(COLOR_PANEL_BORDER);
-        for (int x = 0; x <= CoopGameLogic.BOARD_WIDTH; x++) {
-            shapeRenderer.rect(boardX + x * cellSize, boardY, 1,
-                CoopGameLogic.BOARD_HEIGHT * cellSize);
-        }
-        for (int y = 0; y <= CoopGameLogic.BOARD_HEIGHT; y++) {
-            shapeRenderer.rect(boardX, boardY + y * cellSize,
-                CoopGameLogic.BOARD_WIDTH * cellSize, 1);
-        }
+        // 绘制游戏板外框，背景、网格和已固定的方块来自静态层缓存
+        boardRenderer.drawFrame(batch, boardX, boardY, CoopGameLogic.BOARD_WIDTH, CoopGameLogic.BOARD_HEIGHT, cellSize);
+        boardRenderer.drawStaticLayer(batch, boardLayer, coopGameLogic, coopGameLogic.getBoardVersion(),
+            coopGameLogic.getBoard(), coopGameLogic.getBoardColor(),
+            boardX, boardY, CoopGameLogic.BOARD_WIDTH, CoopGameLogic.BOARD_HEIGHT, cellSize);
 
         // 绘制出口标记（根据槽位索引 0-3）
         // 布局: [槽位0:0-2] [分隔:3] [槽位1:4-6] [分隔:7] [槽位2:8-10] [分隔:11] [槽位3:12-14]
@@ -742,83 +724,46 @@ public class CoopGameState extends BaseUIState implements NetworkManager.Network
             // 检查该槽位是否有玩家
             if (playerNames != null && i < playerNames.size() && !playerNames.get(i).isEmpty()) {
                 int exitX = CoopGameLogic.EXIT_POSITIONS[i];
-                // 使用玩家选择的颜色
+                // 使用玩家选择的颜色，每个出口3格宽
                 int colorIndex = coopGameLogic.getSlotColor(i);
-                Color playerColor = PLAYER_COLORS[colorIndex];
-                shapeRenderer.setColor(playerColor);
-                // 每个出口3格宽
-                shapeRenderer.rect(boardX + exitX * cellSize - 2, boardY + CoopGameLogic.BOARD_HEIGHT * cellSize,
+                boardRenderer.drawRect(batch, PLAYER_COLORS[colorIndex],
+                    boardX + exitX * cellSize - 2, boardY + CoopGameLogic.BOARD_HEIGHT * cellSize,
                     3 * cellSize + 4, 6);
             }
         }
 
         // 绘制分隔区域标记
-        shapeRenderer.setColor(COLOR_PANEL_BORDER);
-        int[] separatorX = {3, 7, 11}; // 分隔格位置
-        for (int sepX : separatorX) {
-            shapeRenderer.rect(boardX + sepX * cellSize, boardY + CoopGameLogic.BOARD_HEIGHT * cellSize - 2,
+        for (int sepX : SEPARATOR_X) {
+            boardRenderer.drawRect(batch, COLOR_PANEL_BORDER,
+                boardX + sepX * cellSize, boardY + CoopGameLogic.BOARD_HEIGHT * cellSize - 2,
                 cellSize, 4);
         }
 
-        // 绘制已固定的方块
-        int[][] board = coopGameLogic.getBoard();
-        for (int y = 0; y < CoopGameLogic.BOARD_HEIGHT; y++) {
-            for (int x = 0; x < CoopGameLogic.BOARD_WIDTH; x++) {
-                int cell = board[y][x];
-                if (cell != 0) {
-                    float screenY = boardY + (CoopGameLogic.BOARD_HEIGHT - 1 - y) * cellSize;
-                    int colorIndex = coopGameLogic.getCellColor(x, y);
-                    Color cellColor = (colorIndex >= 0 && colorIndex < 4)
-                        ? PLAYER_COLORS[colorIndex]
-                        : Color.GRAY;
-
-                    shapeRenderer.setColor(cellColor);
-                    shapeRenderer.rect(boardX + x * cellSize + 1, screenY + 1,
-                        cellSize - 2, cellSize - 2);
-
-                    // 高光效果
-                    shapeRenderer.setColor(cellColor.cpy().add(0.2f, 0.2f, 0.2f, 0));
-                    shapeRenderer.rect(boardX + x * cellSize + 1, screenY + cellSize - 4,
-                        cellSize - 2, 3);
-                }
-            }
+        long now = System.nanoTime();
+        BoardMotion motion = gameStateManager.getCoopMotion();
+
+        // 消行闪光
+        float flash = motion.getClearFlashAlpha(now);
+        if (flash > 0f) {
+            boardRenderer.drawRect(batch, 1f, 1f, 1f, flash, boardX, boardY,
+                CoopGameLogic.BOARD_WIDTH * cellSize, CoopGameLogic.BOARD_HEIGHT * cellSize);
         }
 
-        // 绘制每个槽位的当前物块（遍历所有4个槽位）
+        // 绘制每个槽位的当前物块（遍历所有4个槽位，位置在服务器状态之间插值）
         for (int slotIndex = 0; slotIndex < 4; slotIndex++) {
             if (coopGameLogic.isSlotActive(slotIndex)) {
                 CoopGameLogic.PlayerPiece piece = coopGameLogic.getPlayerPiece(slotIndex);
                 if (piece.isActive()) {
+                    PieceMotion pieceMotion = motion.getPiece(slotIndex);
+                    pieceMotion.sample(piece.getPieceType(), piece.getRotation(), piece.getX(), piece.getY(), now);
                     int[][] pieceShape = coopGameLogic.getPieceShape(piece.getPieceType(), piece.getRotation());
                     // 使用玩家选择的颜色
-                    int colorIndex = coopGameLogic.getSlotColor(slotIndex);
-                    Color pieceColor = PLAYER_COLORS[colorIndex];
-
-                    for (int y = 0; y < pieceShape.length; y++) {
-                        for (int x = 0; x < pieceShape[y].length; x++) {
-                            if (pieceShape[y][x] != 0) {
-                                int boardXPos = piece.getX() + x;
-                                int boardYPos = piece.getY() + y;
-                                if (boardXPos >= 0 && boardXPos < CoopGameLogic.BOARD_WIDTH
-                                    && boardYPos >= 0 && boardYPos < CoopGameLogic.BOARD_HEIGHT) {
-                                    float screenY = boardY + (CoopGameLogic.BOARD_HEIGHT - 1 - boardYPos) * cellSize;
-                                    shapeRenderer.setColor(pieceColor);
-                                    shapeRenderer.rect(boardX + boardXPos * cellSize + 1, screenY + 1,
-                                        cellSize - 2, cellSize - 2);
-
-                                    // 高光效果
-                                    shapeRenderer.setColor(pieceColor.cpy().add(0.2f, 0.2f, 0.2f, 0));
-                                    shapeRenderer.rect(boardX + boardXPos * cellSize + 1,
-                                        screenY + cellSize - 4, cellSize - 2, 3);
-                                }
-                            }
-                        }
-                    }
+                    boardRenderer.drawPiece(batch, boardRenderer.getPlayerCell(coopGameLogic.getSlotColor(slotIndex)),
+                        pieceShape, pieceMotion.getRenderX(), pieceMotion.getRenderY(),
+                        boardX, boardY, CoopGameLogic.BOARD_WIDTH, CoopGameLogic.BOARD_HEIGHT, cellSize);
                 }
             }
         }
-
-        shapeRenderer.end();
     }
 
     @Override
@@ -845,31 +790,13 @@ public class CoopGameState extends BaseUIState implements NetworkManager.Network
             playerNameFont.dispose();
             playerNameFont = null;
         }
-        shapeRenderer.dispose();
+        boardLayer.dispose();
     }
 
     private LanguageManager lang() {
         return LanguageManager.getInstance();
     }
 
-    private com.badlogic.gdx.scenes.scene2d.utils.Drawable createPanelBackground(Color color) {
-        Pixmap pixmap = new Pixmap(1, 1, Pixmap.Format.RGBA8888);
-        pixmap.setColor(color);
-        pixmap.fill();
-        Texture texture = new Texture(pixmap);
-        pixmap.dispose();
-        return new com.badlogic.gdx.scenes.scene2d.utils.TextureRegionDrawable(texture);
-    }
-
-    private com.badlogic.gdx.scenes.scene2d.utils.Drawable createColoredBackground(Color color) {
-        Pixmap pixmap = new Pixmap(1, 1, Pixmap.Format.RGBA8888);
-        pixmap.setColor(color);
-        pixmap.fill();
-        Texture texture = new Texture(pixmap);
-        pixmap.dispose();
-        return new com.badlogic.gdx.scenes.scene2d.utils.TextureRegionDrawable(texture);
-    }
-
     // ==================== NetworkManager.NetworkListener 接口实现 ====================
 
     @Override
@@ -1,10 +1,8 @@
 package me.catand.cooptetris.ui;
 
 import com.badlogic.gdx.graphics.Color;
-import com.badlogic.gdx.graphics.Pixmap;
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
-import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.scenes.scene2d.InputEvent;
 import com.badlogic.gdx.scenes.scene2d.ui.Label;
 import com.badlogic.gdx.scenes.scene2d.ui.Table;
@@ -26,7 +24,9 @@ import me.catand.cooptetris.shared.message.PlayerSlotMessage;
 import me.catand.cooptetris.shared.message.RoomMessage;
 import me.catand.cooptetris.shared.model.Tetromino;
 import me.catand.cooptetris.shared.tetris.GameLogic;
+import me.catand.cooptetris.tetris.BoardMotion;
 import me.catand.cooptetris.tetris.GameStateManager;
+import me.catand.cooptetris.tetris.PieceMotion;
 import me.catand.cooptetris.util.LanguageManager;
 import me.catand.cooptetris.util.TetrisSettings;
 
@@ -40,9 +40,10 @@ public class GameState extends BaseUIState implements NetworkManager.NetworkList
     private Label scoreLabel;
     private Label levelLabel;
     private Label linesLabel;
-    private Label scoreValueLabel;
-    private Label levelValueLabel;
-    private Label linesValueLabel;
+    // 数值标签只在数值变化时更新
+    private final IntLabelBinding scoreValue = new IntLabelBinding();
+    private final IntLabelBinding levelValue = new IntLabelBinding();
+    private final IntLabelBinding linesValue = new IntLabelBinding();
     private BitmapFont titleFont;
     private BitmapFont statsFont;
 
@@ -53,6 +54,8 @@ public class GameState extends BaseUIState implements NetworkManager.NetworkList
     private float lastSoftDropTime = 0;
     private float boardX;
     private float boardY;
+    // 游戏板静态层缓存
+    private final BoardLayer boardLayer = new BoardLayer();
 
     // 游戏结束弹窗
     private NotificationDialog gameOverDialog;
@@ -64,6 +67,7 @@ public class GameState extends BaseUIState implements NetworkManager.NetworkList
 
     // 下一个方块预览
     private Table previewArea;
+    private int previewPiece = -1; // 预览区域当前显示的方块类型
     private float previewCellSize = 20f;
 
     // 触屏输入处理器
@@ -117,7 +121,7 @@ public class GameState extends BaseUIState implements NetworkManager.NetworkList
         // 上部区域：游戏板 + HUD
         Table gameArea = new Table();
 
-        // 左侧：游戏板区域（留空，由ShapeRenderer绘制）
+        // 左侧：游戏板区域（留空，由BoardRenderer绘制）
         gameArea.add().width(w(450f)).height(h(600f));
 
         // 右侧：HUD面板
@@ -177,13 +181,13 @@ public class GameState extends BaseUIState implements NetworkManager.NetworkList
         // 保存引用以便更新
         if (title.equals(lang().get("score.title"))) {
             scoreLabel = titleLabel;
-            scoreValueLabel = valueLabel;
+            scoreValue.bind(valueLabel);
         } else if (title.equals(lang().get("level.title"))) {
             levelLabel = titleLabel;
-            levelValueLabel = valueLabel;
+            levelValue.bind(valueLabel);
         } else if (title.equals(lang().get("lines.title"))) {
             linesLabel = titleLabel;
-            linesValueLabel = valueLabel;
+            linesValue.bind(valueLabel);
         }
 
         statPanel.add(titleLabel).left().expandX();
@@ -204,6 +208,7 @@ public class GameState extends BaseUIState implements NetworkManager.NetworkList
 
         // 预览区域
         previewArea = new Table();
+        previewPiece = -1;
         previewArea.setBackground(createPanelBackground(COLOR_PANEL));
         previewPanel.add(previewArea).height(w(100f)).fillX();
 
@@ -213,10 +218,13 @@ public class GameState extends BaseUIState implements NetworkManager.NetworkList
     private void updatePreview() {
         if (previewArea == null) return;
 
-        previewArea.clear();
-
         GameLogic gameLogic = gameStateManager.getSharedManager().getLocalGameLogic();
         int nextPiece = gameLogic.getNextPiece();
+        // 下一个方块没有变化时不重建预览
+        if (nextPiece == previewPiece) return;
+        previewPiece = nextPiece;
+
+        previewArea.clear();
         int[][] pieceShape = Tetromino.SHAPES[nextPiece];
 
         // 计算预览方块的单元格大小
@@ -231,7 +239,7 @@ public class GameState extends BaseUIState implements NetworkManager.NetworkList
                 if (pieceShape[y][x] != 0) {
                     // 创建方块单元格
                     Table cell = new Table();
-                    cell.setBackground(createColoredBackground(Tetromino.COLORS[nextPiece]));
+                    cell.setBackground(createPanelBackground(BoardPalette.TETROMINO_BASE[nextPiece]));
                     pieceTable.add(cell).size(cellSize).pad(w(1f));
                 } else {
                     // 空白占位
@@ -244,15 +252,6 @@ public class GameState extends BaseUIState implements NetworkManager.NetworkList
         previewArea.add(pieceTable).center().expand();
     }
 
-    private com.badlogic.gdx.scenes.scene2d.utils.Drawable createColoredBackground(Color color) {
-        Pixmap pixmap = new Pixmap(1, 1, Pixmap.Format.RGBA8888);
-        pixmap.setColor(color);
-        pixmap.fill();
-        Texture texture = new Texture(pixmap);
-        pixmap.dispose();
-        return new com.badlogic.gdx.scenes.scene2d.utils.TextureRegionDrawable(texture);
-    }
-
     private Table createBottomPanel() {
         Table bottomPanel = new Table();
 
@@ -284,15 +283,6 @@ public class GameState extends BaseUIState implements NetworkManager.NetworkList
         return bottomPanel;
     }
 
-    private com.badlogic.gdx.scenes.scene2d.utils.Drawable createPanelBackground(Color color) {
-        Pixmap pixmap = new Pixmap(1, 1, Pixmap.Format.RGBA8888);
-        pixmap.setColor(color);
-        pixmap.fill();
-        Texture texture = new Texture(pixmap);
-        pixmap.dispose();
-        return new com.badlogic.gdx.scenes.scene2d.utils.TextureRegionDrawable(texture);
-    }
-
     @Override
     protected void clearUI() {
         if (uiTable != null) {
@@ -510,95 +500,47 @@ public class GameState extends BaseUIState implements NetworkManager.NetworkList
 
     private void updateUI() {
         GameLogic gameLogic = gameStateManager.getSharedManager().getLocalGameLogic();
-        if (scoreValueLabel != null) {
-            scoreValueLabel.setText(String.valueOf(gameLogic.getScore()));
-        }
-        if (levelValueLabel != null) {
-            levelValueLabel.setText(String.valueOf(gameLogic.getLevel()));
-        }
-        if (linesValueLabel != null) {
-            linesValueLabel.setText(String.valueOf(gameLogic.getLines()));
-        }
+        scoreValue.update(gameLogic.getScore());
+        levelValue.update(gameLogic.getLevel());
+        linesValue.update(gameLogic.getLines());
         updatePreview();
     }
 
-    public void renderGame(ShapeRenderer shapeRenderer) {
+    public void renderGame(SpriteBatch batch, BoardRenderer boardRenderer) {
         GameLogic gameLogic = gameStateManager.getSharedManager().getLocalGameLogic();
         int[][] board = gameLogic.getBoard();
 
-        shapeRenderer.setProjectionMatrix(stage.getCamera().combined);
-        shapeRenderer.begin(ShapeRenderer.ShapeType.Filled);
+        batch.setProjectionMatrix(stage.getCamera().combined);
+        batch.begin();
 
-        // 绘制游戏板背景
-        shapeRenderer.setColor(COLOR_PANEL);
-        shapeRenderer.rect(boardX - 4, boardY - 4, GameLogic.BOARD_WIDTH * cellSize + 8, GameLogic.BOARD_HEIGHT * cellSize + 8);
+        // 绘制游戏板外框，背景、网格和已固定的方块来自静态层缓存
+        boardRenderer.drawFrame(batch, boardX, boardY, GameLogic.BOARD_WIDTH, GameLogic.BOARD_HEIGHT, cellSize);
+        boardRenderer.drawStaticLayer(batch, boardLayer, gameLogic, gameLogic.getBoardVersion(), board, null,
+            boardX, boardY, GameLogic.BOARD_WIDTH, GameLogic.BOARD_HEIGHT, cellSize);
 
-        // 绘制游戏板内部
-        shapeRenderer.setColor(COLOR_BG);
-        shapeRenderer.rect(boardX, boardY, GameLogic.BOARD_WIDTH * cellSize, GameLogic.BOARD_HEIGHT * cellSize);
+        long now = System.nanoTime();
+        BoardMotion motion = gameStateManager.getLocalMotion();
 
-        // 绘制网格线
-        shapeRenderer.setColor(COLOR_PANEL_BORDER);
-        for (int x = 0; x <= GameLogic.BOARD_WIDTH; x++) {
-            shapeRenderer.rect(boardX + x * cellSize, boardY, 1, GameLogic.BOARD_HEIGHT * cellSize);
-        }
-        for (int y = 0; y <= GameLogic.BOARD_HEIGHT; y++) {
-            shapeRenderer.rect(boardX, boardY + y * cellSize, GameLogic.BOARD_WIDTH * cellSize, 1);
+        // 消行闪光
+        float flash = motion.getClearFlashAlpha(now);
+        if (flash > 0f) {
+            boardRenderer.drawRect(batch, 1f, 1f, 1f, flash, boardX, boardY,
+                GameLogic.BOARD_WIDTH * cellSize, GameLogic.BOARD_HEIGHT * cellSize);
         }
 
-        // 绘制已固定的方块
-        for (int y = 0; y < GameLogic.BOARD_HEIGHT; y++) {
-            for (int x = 0; x < GameLogic.BOARD_WIDTH; x++) {
-                int cell = board[y][x];
-                if (cell != 0) {
-                    float screenY = boardY + (GameLogic.BOARD_HEIGHT - 1 - y) * cellSize;
-                    Color cellColor = getColorForCell(cell - 1);
-                    shapeRenderer.setColor(cellColor);
-                    shapeRenderer.rect(boardX + x * cellSize + 1, screenY + 1, cellSize - 2, cellSize - 2);
-
-                    // 绘制高光效果
-                    shapeRenderer.setColor(cellColor.cpy().add(0.2f, 0.2f, 0.2f, 0));
-                    shapeRenderer.rect(boardX + x * cellSize + 1, screenY + cellSize - 4, cellSize - 2, 3);
-                }
-            }
-        }
-
-        // 绘制当前方块
+        // 绘制当前方块（位置在服务器状态之间插值）
         int currentPiece = gameLogic.getCurrentPiece();
-        int currentPieceX = gameLogic.getCurrentPieceX();
-        int currentPieceY = gameLogic.getCurrentPieceY();
-        int currentPieceRotation = gameLogic.getCurrentPieceRotation();
-
-        int[][] pieceShape = gameLogic.getPieceShape(currentPiece, currentPieceRotation);
-        Color pieceColor = getColorForCell(currentPiece);
-
-        for (int y = 0; y < pieceShape.length; y++) {
-            for (int x = 0; x < pieceShape[y].length; x++) {
-                if (pieceShape[y][x] != 0) {
-                    int boardXPos = currentPieceX + x;
-                    int boardYPos = currentPieceY + y;
-                    if (boardXPos >= 0 && boardXPos < GameLogic.BOARD_WIDTH && boardYPos >= 0 && boardYPos < GameLogic.BOARD_HEIGHT) {
-                        float screenY = boardY + (GameLogic.BOARD_HEIGHT - 1 - boardYPos) * cellSize;
-                        shapeRenderer.setColor(pieceColor);
-                        shapeRenderer.rect(boardX + boardXPos * cellSize + 1, screenY + 1, cellSize - 2, cellSize - 2);
-
-                        // 高光效果
-                        shapeRenderer.setColor(pieceColor.cpy().add(0.2f, 0.2f, 0.2f, 0));
-                        shapeRenderer.rect(boardX + boardXPos * cellSize + 1, screenY + cellSize - 4, cellSize - 2, 3);
-                    }
-                }
-            }
-        }
+        int rotation = gameLogic.getCurrentPieceRotation();
+        PieceMotion pieceMotion = motion.getPiece(0);
+        pieceMotion.sample(currentPiece, rotation, gameLogic.getCurrentPieceX(), gameLogic.getCurrentPieceY(), now);
+        int[][] pieceShape = gameLogic.getPieceShape(currentPiece, rotation);
+        boardRenderer.drawPiece(batch, boardRenderer.getTetrominoCell(currentPiece), pieceShape,
+            pieceMotion.getRenderX(), pieceMotion.getRenderY(),
+            boardX, boardY, GameLogic.BOARD_WIDTH, GameLogic.BOARD_HEIGHT, cellSize);
 
-        shapeRenderer.end();
+        batch.end();
     }
 
-    private Color getColorForCell(int cell) {
-        if (cell >= 0 && cell < Tetromino.COLORS.length) {
-            return Tetromino.COLORS[cell];
-        }
-        return Color.GRAY;
-    }
 
     private void calculateBoardPosition() {
         float baseCellSize = 32f;
@@ -632,6 +574,7 @@ public class GameState extends BaseUIState implements NetworkManager.NetworkList
             statsFont.dispose();
             statsFont = null;
         }
+        boardLayer.dispose();
     }
 
     // ==================== NetworkManager.NetworkListener 接口实现 ====================
@@ -0,0 +1,41 @@
+package me.catand.cooptetris.ui;
+
+import com.badlogic.gdx.scenes.scene2d.ui.Label;
+
+/**
+ * 整数标签绑定 - 数值变化时才更新标签文本
+ * 使用可复用的 StringBuilder 生成文本，避免每帧 String.valueOf 分配和 scene2d 重新布局
+ */
+public class IntLabelBinding {
+    private final StringBuilder text = new StringBuilder(12);
+    private Label label;
+    private int value;
+    private boolean dirty = true;
+
+    /**
+     * 绑定到新的标签（例如界面重建后），下一次 update 时一定会刷新文本
+     */
+    public void bind(Label label) {
+        this.label = label;
+        this.dirty = true;
+    }
+
+    public void unbind() {
+        this.label = null;
+    }
+
+    /**
+     * 数值与上次显示的不同时更新标签
+     */
+    public void update(int newValue) {
+        if (label == null || (!dirty && newValue == value)) {
+            return;
+        }
+        value = newValue;
+        dirty = false;
+        text.setLength(0);
+        text.append(newValue);
+        // Label.setText 会把内容复制到自己的缓冲区中，这里的 StringBuilder 可以继续复用
+        label.setText(text);
+    }
+}
@@ -0,0 +1,29 @@
+package me.catand.cooptetris.ui;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+
+/**
+ * 加载界面 - 资源加载期间显示进度条
+ * 只使用 BoardRenderer 的纯色像素绘制，不依赖皮肤和字体，第一帧即可显示
+ */
+public class LoadingScreen {
+    private static final Color COLOR_TRACK = new Color(0.12f, 0.14f, 0.17f, 1f);
+    private static final Color COLOR_BAR = new Color(0.2f, 0.8f, 1f, 1f);
+
+    public void render(SpriteBatch batch, BoardRenderer boardRenderer, float progress) {
+        float screenWidth = Gdx.graphics.getWidth();
+        float screenHeight = Gdx.graphics.getHeight();
+        float barWidth = screenWidth * 0.4f;
+        float barHeight = Math.max(4f, screenHeight * 0.012f);
+        float x = (screenWidth - barWidth) / 2f;
+        float y = (screenHeight - barHeight) / 2f;
+
+        batch.getProjectionMatrix().setToOrtho2D(0, 0, screenWidth, screenHeight);
+        batch.begin();
+        boardRenderer.drawRect(batch, COLOR_TRACK, x, y, barWidth, barHeight);
+        boardRenderer.drawRect(batch, COLOR_BAR, x, y, barWidth * Math.min(1f, progress), barHeight);
+        batch.end();
+    }
+}
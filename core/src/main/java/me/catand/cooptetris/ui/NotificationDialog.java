@@ -1,8 +1,6 @@
 package me.catand.cooptetris.ui;
 
 import com.badlogic.gdx.graphics.Color;
-import com.badlogic.gdx.graphics.Pixmap;
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.scenes.scene2d.InputEvent;
 import com.badlogic.gdx.scenes.scene2d.Stage;
@@ -305,12 +303,7 @@ public class NotificationDialog {
     }
 
     private com.badlogic.gdx.scenes.scene2d.utils.Drawable createPanelBackground(Color color) {
-        Pixmap pixmap = new Pixmap(1, 1, Pixmap.Format.RGBA8888);
-        pixmap.setColor(color);
-        pixmap.fill();
-        Texture texture = new Texture(pixmap);
-        pixmap.dispose();
-        return new com.badlogic.gdx.scenes.scene2d.utils.TextureRegionDrawable(texture);
+        return UIAssets.getPanelBackground(skin, color);
     }
 
     private float fontSize(int baseSize) {
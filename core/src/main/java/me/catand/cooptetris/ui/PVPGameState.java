@@ -1,10 +1,9 @@
 package me.catand.cooptetris.ui;
 
 import com.badlogic.gdx.graphics.Color;
-import com.badlogic.gdx.graphics.Pixmap;
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
-import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.scenes.scene2d.InputEvent;
 import com.badlogic.gdx.scenes.scene2d.ui.Label;
 import com.badlogic.gdx.scenes.scene2d.ui.Table;
@@ -30,7 +29,9 @@ import me.catand.cooptetris.shared.message.PlayerSlotMessage;
 import me.catand.cooptetris.shared.message.RoomMessage;
 import me.catand.cooptetris.shared.model.Tetromino;
 import me.catand.cooptetris.shared.tetris.GameLogic;
+import me.catand.cooptetris.tetris.BoardMotion;
 import me.catand.cooptetris.tetris.GameStateManager;
+import me.catand.cooptetris.tetris.PieceMotion;
 import me.catand.cooptetris.util.LanguageManager;
 import me.catand.cooptetris.util.TetrisSettings;
 
@@ -43,9 +44,10 @@ import me.catand.cooptetris.util.TetrisSettings;
 public class PVPGameState extends BaseUIState implements GameStateManager.PlayerScoresListener, NetworkManager.NetworkListener {
     private Table uiTable;
     private final GameStateManager gameStateManager;
-    private Label scoreValueLabel;
-    private Label levelValueLabel;
-    private Label linesValueLabel;
+    // 数值标签只在数值变化时更新
+    private final IntLabelBinding scoreValue = new IntLabelBinding();
+    private final IntLabelBinding levelValue = new IntLabelBinding();
+    private final IntLabelBinding linesValue = new IntLabelBinding();
     private BitmapFont titleFont;
     private BitmapFont statsFont;
     private BitmapFont smallFont;
@@ -61,6 +63,11 @@ public class PVPGameState extends BaseUIState implements GameStateManager.Player
     private float opponentBoardY;
     private float selfCellSize;
     private float opponentCellSize;
+    // 坐标转换用的临时向量，避免每帧分配
+    private final Vector2 tmpPosition = new Vector2();
+    // 游戏板静态层缓存
+    private final BoardLayer selfBoardLayer = new BoardLayer();
+    private final BoardLayer opponentBoardLayer = new BoardLayer();
 
     // 游戏结束弹窗
     private NotificationDialog gameOverDialog;
@@ -72,6 +79,7 @@ public class PVPGameState extends BaseUIState implements GameStateManager.Player
 
     // 下一个方块预览
     private Table previewArea;
+    private int previewPiece = -1; // 预览区域当前显示的方块类型
 
     // PVP玩家分数信息
     private List<PlayerScoresMessage.PlayerScore> playerScores = new ArrayList<>();
@@ -183,7 +191,7 @@ public class PVPGameState extends BaseUIState implements GameStateManager.Player
         nameLabel.setAlignment(Align.center);
         panel.add(nameLabel).width(w(260f)).height(h(20f)).padBottom(h(10f)).row();
 
-        // 游戏板区域（由ShapeRenderer绘制）
+        // 游戏板区域（由BoardRenderer绘制）
         selfBoardArea = new Table();
         selfBoardArea.setBackground(createPanelBackground(COLOR_BG));
         panel.add(selfBoardArea).width(w(280f)).height(h(420f)).padBottom(h(10f)).row();
@@ -297,11 +305,11 @@ public class PVPGameState extends BaseUIState implements GameStateManager.Player
 
         // 保存引用
         if (title.equals(lang().get("score.title"))) {
-            scoreValueLabel = valueLabel;
+            scoreValue.bind(valueLabel);
         } else if (title.equals(lang().get("level.title"))) {
-            levelValueLabel = valueLabel;
+            levelValue.bind(valueLabel);
         } else if (title.equals(lang().get("lines.title"))) {
-            linesValueLabel = valueLabel;
+            linesValue.bind(valueLabel);
         }
 
         row.add(titleLabel).width(w(60f)).height(h(18f)).left();
@@ -472,6 +480,7 @@ public class PVPGameState extends BaseUIState implements GameStateManager.Player
 
         // 预览区域
         previewArea = new Table();
+        previewPiece = -1;
         previewArea.setBackground(createPanelBackground(COLOR_PANEL));
         previewPanel.add(previewArea).height(w(60f)).fillX();
 
@@ -481,10 +490,13 @@ public class PVPGameState extends BaseUIState implements GameStateManager.Player
     private void updatePreview() {
         if (previewArea == null) return;
 
-        previewArea.clear();
-
         GameLogic gameLogic = gameStateManager.getSharedManager().getLocalGameLogic();
         int nextPiece = gameLogic.getNextPiece();
+        // 下一个方块没有变化时不重建预览
+        if (nextPiece == previewPiece) return;
+        previewPiece = nextPiece;
+
+        previewArea.clear();
         int[][] pieceShape = Tetromino.SHAPES[nextPiece];
 
         float cellSize = w(12f);
@@ -496,7 +508,7 @@ public class PVPGameState extends BaseUIState implements GameStateManager.Player
             for (int x = 0; x < pieceSize; x++) {
                 if (pieceShape[y][x] != 0) {
                     Table cell = new Table();
-                    cell.setBackground(createColoredBackground(Tetromino.COLORS[nextPiece]));
+                    cell.setBackground(createPanelBackground(BoardPalette.TETROMINO_BASE[nextPiece]));
                     pieceTable.add(cell).size(cellSize).pad(w(1f));
                 } else {
                     pieceTable.add().size(cellSize).pad(w(1f));
@@ -566,15 +578,6 @@ public class PVPGameState extends BaseUIState implements GameStateManager.Player
         }
     }
 
-    private com.badlogic.gdx.scenes.scene2d.utils.Drawable createColoredBackground(Color color) {
-        Pixmap pixmap = new Pixmap(1, 1, Pixmap.Format.RGBA8888);
-        pixmap.setColor(color);
-        pixmap.fill();
-        Texture texture = new Texture(pixmap);
-        pixmap.dispose();
-        return new com.badlogic.gdx.scenes.scene2d.utils.TextureRegionDrawable(texture);
-    }
-
     private Table createBottomPanel() {
         Table bottomPanel = new Table();
 
@@ -606,15 +609,6 @@ public class PVPGameState extends BaseUIState implements GameStateManager.Player
         return bottomPanel;
     }
 
-    private com.badlogic.gdx.scenes.scene2d.utils.Drawable createPanelBackground(Color color) {
-        Pixmap pixmap = new Pixmap(1, 1, Pixmap.Format.RGBA8888);
-        pixmap.setColor(color);
-        pixmap.fill();
-        Texture texture = new Texture(pixmap);
-        pixmap.dispose();
-        return new com.badlogic.gdx.scenes.scene2d.utils.TextureRegionDrawable(texture);
-    }
-
     @Override
     protected void clearUI() {
         if (uiTable != null) {
@@ -877,15 +871,9 @@ public class PVPGameState extends BaseUIState implements GameStateManager.Player
 
     private void updateUI() {
         GameLogic gameLogic = gameStateManager.getSharedManager().getLocalGameLogic();
-        if (scoreValueLabel != null) {
-            scoreValueLabel.setText(String.valueOf(gameLogic.getScore()));
-        }
-        if (levelValueLabel != null) {
-            levelValueLabel.setText(String.valueOf(gameLogic.getLevel()));
-        }
-        if (linesValueLabel != null) {
-            linesValueLabel.setText(String.valueOf(gameLogic.getLines()));
-        }
+        scoreValue.update(gameLogic.getScore());
+        levelValue.update(gameLogic.getLevel());
+        linesValue.update(gameLogic.getLines());
         updatePreview();
     }
 
@@ -901,181 +889,84 @@ public class PVPGameState extends BaseUIState implements GameStateManager.Player
         updateOpponentStats();
     }
 
-    public void renderGame(ShapeRenderer shapeRenderer) {
-        shapeRenderer.setProjectionMatrix(stage.getCamera().combined);
-
+    public void renderGame(SpriteBatch batch, BoardRenderer boardRenderer) {
         // 更新游戏板位置（基于UI实际位置）
         updateBoardPositionsFromUI();
 
+        batch.setProjectionMatrix(stage.getCamera().combined);
+        batch.begin();
+
         // 渲染自己的游戏板
-        renderSelfBoard(shapeRenderer);
+        renderSelfBoard(batch, boardRenderer);
 
         // 两人对战时渲染对手的游戏板
         if (gameStateManager.getPlayerCount() <= 2) {
-            renderOpponentBoard(shapeRenderer);
+            renderOpponentBoard(batch, boardRenderer);
         }
+
+        batch.end();
     }
 
-    private void renderSelfBoard(ShapeRenderer shapeRenderer) {
+    private void renderSelfBoard(SpriteBatch batch, BoardRenderer boardRenderer) {
         GameLogic gameLogic = gameStateManager.getSharedManager().getLocalGameLogic();
-        int[][] board = gameLogic.getBoard();
-
-        shapeRenderer.begin(ShapeRenderer.ShapeType.Filled);
-
-        // 绘制游戏板背景
-        shapeRenderer.setColor(COLOR_PANEL);
-        shapeRenderer.rect(selfBoardX - 4, selfBoardY - 4, GameLogic.BOARD_WIDTH * selfCellSize + 8, GameLogic.BOARD_HEIGHT * selfCellSize + 8);
-
-        // 绘制游戏板内部
-        shapeRenderer.setColor(COLOR_BG);
-        shapeRenderer.rect(selfBoardX, selfBoardY, GameLogic.BOARD_WIDTH * selfCellSize, GameLogic.BOARD_HEIGHT * selfCellSize);
-
-        // 绘制网格线
-        shapeRenderer.setColor(COLOR_PANEL_BORDER);
-        for (int x = 0; x <= GameLogic.BOARD_WIDTH; x++) {
-            shapeRenderer.rect(selfBoardX + x * selfCellSize, selfBoardY, 1, GameLogic.BOARD_HEIGHT * selfCellSize);
-        }
-        for (int y = 0; y <= GameLogic.BOARD_HEIGHT; y++) {
-            shapeRenderer.rect(selfBoardX, selfBoardY + y * selfCellSize, GameLogic.BOARD_WIDTH * selfCellSize, 1);
-        }
-
-        // 绘制已固定的方块
-        for (int y = 0; y < GameLogic.BOARD_HEIGHT; y++) {
-            for (int x = 0; x < GameLogic.BOARD_WIDTH; x++) {
-                int cell = board[y][x];
-                if (cell != 0) {
-                    float screenY = selfBoardY + (GameLogic.BOARD_HEIGHT - 1 - y) * selfCellSize;
-                    Color cellColor = getColorForCell(cell - 1);
-                    shapeRenderer.setColor(cellColor);
-                    shapeRenderer.rect(selfBoardX + x * selfCellSize + 1, screenY + 1, selfCellSize - 2, selfCellSize - 2);
-
-                    // 绘制高光效果
-                    shapeRenderer.setColor(cellColor.cpy().add(0.2f, 0.2f, 0.2f, 0));
-                    shapeRenderer.rect(selfBoardX + x * selfCellSize + 1, screenY + selfCellSize - 4, selfCellSize - 2, 3);
-                }
-            }
-        }
-
-        // 绘制当前方块
-        int currentPiece = gameLogic.getCurrentPiece();
-        int currentPieceX = gameLogic.getCurrentPieceX();
-        int currentPieceY = gameLogic.getCurrentPieceY();
-        int currentPieceRotation = gameLogic.getCurrentPieceRotation();
-
-        int[][] pieceShape = gameLogic.getPieceShape(currentPiece, currentPieceRotation);
-        Color pieceColor = getColorForCell(currentPiece);
-
-        for (int y = 0; y < pieceShape.length; y++) {
-            for (int x = 0; x < pieceShape[y].length; x++) {
-                if (pieceShape[y][x] != 0) {
-                    int boardXPos = currentPieceX + x;
-                    int boardYPos = currentPieceY + y;
-                    if (boardXPos >= 0 && boardXPos < GameLogic.BOARD_WIDTH && boardYPos >= 0 && boardYPos < GameLogic.BOARD_HEIGHT) {
-                        float screenY = selfBoardY + (GameLogic.BOARD_HEIGHT - 1 - boardYPos) * selfCellSize;
-                        shapeRenderer.setColor(pieceColor);
-                        shapeRenderer.rect(selfBoardX + boardXPos * selfCellSize + 1, screenY + 1, selfCellSize - 2, selfCellSize - 2);
-
-                        // 高光效果
-                        shapeRenderer.setColor(pieceColor.cpy().add(0.2f, 0.2f, 0.2f, 0));
-                        shapeRenderer.rect(selfBoardX + boardXPos * selfCellSize + 1, screenY + selfCellSize - 4, selfCellSize - 2, 3);
-                    }
-                }
-            }
-        }
-
-        shapeRenderer.end();
+        renderBoard(batch, boardRenderer, selfBoardLayer, gameLogic, gameStateManager.getLocalMotion(), selfBoardX, selfBoardY, selfCellSize);
     }
 
-    private void renderOpponentBoard(ShapeRenderer shapeRenderer) {
+    private void renderOpponentBoard(SpriteBatch batch, BoardRenderer boardRenderer) {
         // 获取对手的游戏逻辑（从remoteGameLogics中获取）
         GameLogic[] remoteLogics = gameStateManager.getSharedManager().getRemoteGameLogics();
         if (remoteLogics == null || remoteLogics.length == 0) return;
 
         // 找到第一个非自己的对手
         GameLogic opponentLogic = null;
+        BoardMotion opponentMotion = null;
         for (int i = 0; i < remoteLogics.length; i++) {
             if (i != myPlayerIndex && remoteLogics[i] != null) {
                 opponentLogic = remoteLogics[i];
+                opponentMotion = gameStateManager.getRemoteMotion(i);
                 break;
             }
         }
 
         if (opponentLogic == null) return;
 
-        int[][] board = opponentLogic.getBoard();
-
-        shapeRenderer.begin(ShapeRenderer.ShapeType.Filled);
-
-        // 绘制游戏板背景
-        shapeRenderer.setColor(COLOR_PANEL);
-        shapeRenderer.rect(opponentBoardX - 4, opponentBoardY - 4, GameLogic.BOARD_WIDTH * opponentCellSize + 8, GameLogic.BOARD_HEIGHT * opponentCellSize + 8);
-
-        // 绘制游戏板内部
-        shapeRenderer.setColor(COLOR_BG);
-        shapeRenderer.rect(opponentBoardX, opponentBoardY, GameLogic.BOARD_WIDTH * opponentCellSize, GameLogic.BOARD_HEIGHT * opponentCellSize);
+        renderBoard(batch, boardRenderer, opponentBoardLayer, opponentLogic, opponentMotion, opponentBoardX, opponentBoardY, opponentCellSize);
+    }
 
-        // 绘制网格线
-        shapeRenderer.setColor(COLOR_PANEL_BORDER);
-        for (int x = 0; x <= GameLogic.BOARD_WIDTH; x++) {
-            shapeRenderer.rect(opponentBoardX + x * opponentCellSize, opponentBoardY, 1, GameLogic.BOARD_HEIGHT * opponentCellSize);
-        }
-        for (int y = 0; y <= GameLogic.BOARD_HEIGHT; y++) {
-            shapeRenderer.rect(opponentBoardX, opponentBoardY + y * opponentCellSize, GameLogic.BOARD_WIDTH * opponentCellSize, 1);
-        }
+    private void renderBoard(SpriteBatch batch, BoardRenderer boardRenderer, BoardLayer layer, GameLogic gameLogic,
+                             BoardMotion motion, float boardX, float boardY, float cellSize) {
+        // 绘制游戏板外框，背景、网格和已固定的方块来自静态层缓存
+        boardRenderer.drawFrame(batch, boardX, boardY, GameLogic.BOARD_WIDTH, GameLogic.BOARD_HEIGHT, cellSize);
+        boardRenderer.drawStaticLayer(batch, layer, gameLogic, gameLogic.getBoardVersion(), gameLogic.getBoard(), null,
+            boardX, boardY, GameLogic.BOARD_WIDTH, GameLogic.BOARD_HEIGHT, cellSize);
 
-        // 绘制已固定的方块
-        for (int y = 0; y < GameLogic.BOARD_HEIGHT; y++) {
-            for (int x = 0; x < GameLogic.BOARD_WIDTH; x++) {
-                int cell = board[y][x];
-                if (cell != 0) {
-                    float screenY = opponentBoardY + (GameLogic.BOARD_HEIGHT - 1 - y) * opponentCellSize;
-                    Color cellColor = getColorForCell(cell - 1);
-                    shapeRenderer.setColor(cellColor);
-                    shapeRenderer.rect(opponentBoardX + x * opponentCellSize + 1, screenY + 1, opponentCellSize - 2, opponentCellSize - 2);
-
-                    // 绘制高光效果
-                    shapeRenderer.setColor(cellColor.cpy().add(0.2f, 0.2f, 0.2f, 0));
-                    shapeRenderer.rect(opponentBoardX + x * opponentCellSize + 1, screenY + opponentCellSize - 4, opponentCellSize - 2, 3);
-                }
+        int currentPiece = gameLogic.getCurrentPiece();
+        int rotation = gameLogic.getCurrentPieceRotation();
+        float pieceX = gameLogic.getCurrentPieceX();
+        float pieceY = gameLogic.getCurrentPieceY();
+        if (motion != null) {
+            long now = System.nanoTime();
+
+            // 消行闪光
+            float flash = motion.getClearFlashAlpha(now);
+            if (flash > 0f) {
+                boardRenderer.drawRect(batch, 1f, 1f, 1f, flash, boardX, boardY,
+                    GameLogic.BOARD_WIDTH * cellSize, GameLogic.BOARD_HEIGHT * cellSize);
             }
-        }
 
-        // 绘制当前方块
-        int currentPiece = opponentLogic.getCurrentPiece();
-        int currentPieceX = opponentLogic.getCurrentPieceX();
-        int currentPieceY = opponentLogic.getCurrentPieceY();
-        int currentPieceRotation = opponentLogic.getCurrentPieceRotation();
-
-        int[][] pieceShape = opponentLogic.getPieceShape(currentPiece, currentPieceRotation);
-        Color pieceColor = getColorForCell(currentPiece);
-
-        for (int y = 0; y < pieceShape.length; y++) {
-            for (int x = 0; x < pieceShape[y].length; x++) {
-                if (pieceShape[y][x] != 0) {
-                    int boardXPos = currentPieceX + x;
-                    int boardYPos = currentPieceY + y;
-                    if (boardXPos >= 0 && boardXPos < GameLogic.BOARD_WIDTH && boardYPos >= 0 && boardYPos < GameLogic.BOARD_HEIGHT) {
-                        float screenY = opponentBoardY + (GameLogic.BOARD_HEIGHT - 1 - boardYPos) * opponentCellSize;
-                        shapeRenderer.setColor(pieceColor);
-                        shapeRenderer.rect(opponentBoardX + boardXPos * opponentCellSize + 1, screenY + 1, opponentCellSize - 2, opponentCellSize - 2);
-
-                        // 高光效果
-                        shapeRenderer.setColor(pieceColor.cpy().add(0.2f, 0.2f, 0.2f, 0));
-                        shapeRenderer.rect(opponentBoardX + boardXPos * opponentCellSize + 1, screenY + opponentCellSize - 4, opponentCellSize - 2, 3);
-                    }
-                }
-            }
+            // 方块位置在服务器状态之间插值
+            PieceMotion pieceMotion = motion.getPiece(0);
+            pieceMotion.sample(currentPiece, rotation, gameLogic.getCurrentPieceX(), gameLogic.getCurrentPieceY(), now);
+            pieceX = pieceMotion.getRenderX();
+            pieceY = pieceMotion.getRenderY();
         }
 
-        shapeRenderer.end();
+        // 绘制当前方块
+        int[][] pieceShape = gameLogic.getPieceShape(currentPiece, rotation);
+        boardRenderer.drawPiece(batch, boardRenderer.getTetrominoCell(currentPiece), pieceShape, pieceX, pieceY,
+            boardX, boardY, GameLogic.BOARD_WIDTH, GameLogic.BOARD_HEIGHT, cellSize);
     }
 
-    private Color getColorForCell(int cell) {
-        if (cell >= 0 && cell < Tetromino.COLORS.length) {
-            return Tetromino.COLORS[cell];
-        }
-        return Color.GRAY;
-    }
 
     private void calculateBoardPositions() {
         // 计算游戏板单元格大小（两侧使用相同的大小）
@@ -1097,13 +988,13 @@ public class PVPGameState extends BaseUIState implements GameStateManager.Player
         // 使用UI元素的实际位置计算游戏板位置
         // 需要将局部坐标转换为舞台坐标（屏幕坐标）
         if (selfBoardArea != null) {
-            com.badlogic.gdx.math.Vector2 selfPos = selfBoardArea.localToStageCoordinates(new com.badlogic.gdx.math.Vector2(0, 0));
+            Vector2 selfPos = selfBoardArea.localToStageCoordinates(tmpPosition.set(0, 0));
             selfBoardX = selfPos.x + (selfBoardArea.getWidth() - GameLogic.BOARD_WIDTH * selfCellSize) / 2;
             selfBoardY = selfPos.y + (selfBoardArea.getHeight() - GameLogic.BOARD_HEIGHT * selfCellSize) / 2;
         }
 
         if (opponentBoardArea != null && gameStateManager.getPlayerCount() <= 2) {
-            com.badlogic.gdx.math.Vector2 opponentPos = opponentBoardArea.localToStageCoordinates(new com.badlogic.gdx.math.Vector2(0, 0));
+            Vector2 opponentPos = opponentBoardArea.localToStageCoordinates(tmpPosition.set(0, 0));
             opponentBoardX = opponentPos.x + (opponentBoardArea.getWidth() - GameLogic.BOARD_WIDTH * opponentCellSize) / 2;
             opponentBoardY = opponentPos.y + (opponentBoardArea.getHeight() - GameLogic.BOARD_HEIGHT * opponentCellSize) / 2;
         }
@@ -1129,6 +1020,8 @@ public class PVPGameState extends BaseUIState implements GameStateManager.Player
             smallFont.dispose();
             smallFont = null;
         }
+        selfBoardLayer.dispose();
+        opponentBoardLayer.dispose();
     }
 
     // ==================== NetworkManager.NetworkListener 接口实现 ====================
@@ -0,0 +1,150 @@
+package me.catand.cooptetris.ui;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+
+import me.catand.cooptetris.Main;
+import me.catand.cooptetris.util.FrameProfiler;
+import me.catand.cooptetris.util.PlatformSupport;
+
+/**
+ * 性能分析面板 - 在屏幕左上角显示 FrameProfiler 采集的数据和帧耗时直方图
+ * 文本使用复用的 StringBuilder 拼接，面板本身不产生每帧分配
+ */
+public class ProfilerOverlay {
+    private static final Color COLOR_BACKGROUND = new Color(0f, 0f, 0f, 0.7f);
+    private static final Color COLOR_TEXT = new Color(0.9f, 0.9f, 0.9f, 1f);
+    private static final Color COLOR_GOOD = new Color(0.3f, 0.9f, 0.4f, 1f);
+    private static final Color COLOR_WARN = new Color(1f, 0.7f, 0.2f, 1f);
+    private static final Color COLOR_BAD = new Color(1f, 0.3f, 0.3f, 1f);
+    private static final String GLYPHS = "0123456789.,:/()<>%+- FPSframeDrawTxShdVtHpGCRINOuCVmsKMBrecodingFontlkupavgchs";
+
+    private static final int FONT_SIZE = 14;
+    private static final float PADDING = 8f;
+    private static final float LINE_HEIGHT = 18f;
+    private static final int LINE_COUNT = 6;
+    private static final float HISTOGRAM_HEIGHT = 48f;
+    private static final float BAR_WIDTH = 28f;
+    private static final float BAR_GAP = 4f;
+
+    private final StringBuilder text = new StringBuilder(64);
+
+    public void render(SpriteBatch batch, BoardRenderer boardRenderer, FrameProfiler profiler) {
+        // 每次从字体缓存获取，语言切换重建字体后不会持有已释放的字体
+        BitmapFont font = Main.platform.getFont(FONT_SIZE, GLYPHS, false, false);
+        if (font == null) return;
+
+        float screenWidth = Gdx.graphics.getWidth();
+        float screenHeight = Gdx.graphics.getHeight();
+        // 设置SpriteBatch为屏幕坐标系
+        batch.getProjectionMatrix().setToOrtho2D(0, 0, screenWidth, screenHeight);
+        batch.begin();
+
+        int bucketCount = FrameProfiler.HISTOGRAM_BOUNDS.length + 1;
+        float panelWidth = Math.max(320f, bucketCount * (BAR_WIDTH + BAR_GAP) + PADDING * 2);
+        float panelHeight = PADDING * 3 + LINE_COUNT * LINE_HEIGHT + HISTOGRAM_HEIGHT + LINE_HEIGHT;
+        float left = PADDING;
+        float top = screenHeight - PADDING;
+        boardRenderer.drawRect(batch, COLOR_BACKGROUND, left, top - panelHeight, panelWidth, panelHeight);
+
+        float x = left + PADDING;
+        float y = top - PADDING;
+        font.setColor(frameColor(profiler.getLastFrameMillis()));
+
+        text.setLength(0);
+        text.append("FPS ").append(profiler.getFps())
+            .append("  frame ").append(round1(profiler.getLastFrameMillis())).append(" ms")
+            .append("  max ").append(round1(profiler.getMaxFrameMillis())).append(" ms");
+        font.draw(batch, text, x, y);
+        y -= LINE_HEIGHT;
+
+        font.setColor(COLOR_TEXT);
+        text.setLength(0);
+        text.append("Draw ").append(profiler.getDrawCalls())
+            .append("  Tex ").append(profiler.getTextureBindings())
+            .append("  Shd ").append(profiler.getShaderSwitches())
+            .append("  Vt ").append(profiler.getVertexCount());
+        font.draw(batch, text, x, y);
+        y -= LINE_HEIGHT;
+
+        text.setLength(0);
+        text.append("Heap ").append(profiler.getHeapUsedBytes() / (1024 * 1024))
+            .append("/").append(profiler.getHeapTotalBytes() / (1024 * 1024)).append(" MB")
+            .append("  GC ").append(profiler.getGcCount())
+            .append(" (").append(profiler.getGcTimeMillis()).append(" ms)");
+        font.draw(batch, text, x, y);
+        y -= LINE_HEIGHT;
+
+        text.setLength(0);
+        text.append("RTT ").append(profiler.getReturnTripTime()).append(" ms")
+            .append("  In ").append(round1(profiler.getMessagesInPerSecond())).append("/s")
+            .append("  Out ").append(round1(profiler.getMessagesOutPerSecond())).append("/s");
+        font.draw(batch, text, x, y);
+        y -= LINE_HEIGHT;
+
+        // 字体查询统计（累计值）
+        PlatformSupport platform = Main.platform;
+        long lookups = platform.getFontLookupCount();
+        text.setLength(0);
+        text.append("Font lookups ").append(lookups)
+            .append("  avg ").append(lookups > 0 ? round1(platform.getFontLookupNanos() / 1000f / lookups) : 0f).append(" us")
+            .append("  chk ").append(platform.getGlyphCheckCount())
+            .append("  gen ").append(platform.getFontGenerateCount());
+        font.draw(batch, text, x, y);
+        y -= LINE_HEIGHT;
+
+        text.setLength(0);
+        if (profiler.isCapturing()) {
+            font.setColor(COLOR_BAD);
+            text.append("CSV recording");
+        } else {
+            text.append("CSV off (F4)");
+        }
+        font.draw(batch, text, x, y);
+        y -= LINE_HEIGHT + PADDING;
+
+        // 帧耗时直方图，柱高为该区间帧数占比
+        int[] histogram = profiler.getHistogram();
+        int samples = Math.max(1, profiler.getSampleCount());
+        float barBottom = y - HISTOGRAM_HEIGHT;
+        for (int i = 0; i < histogram.length; i++) {
+            float barX = x + i * (BAR_WIDTH + BAR_GAP);
+            float height = HISTOGRAM_HEIGHT * histogram[i] / samples;
+            float bound = i < FrameProfiler.HISTOGRAM_BOUNDS.length
+                ? FrameProfiler.HISTOGRAM_BOUNDS[i]
+                : Float.MAX_VALUE;
+            boardRenderer.drawRect(batch, frameColor(bound - 0.01f), barX, barBottom, BAR_WIDTH, Math.max(1f, height));
+
+            text.setLength(0);
+            if (i < FrameProfiler.HISTOGRAM_BOUNDS.length) {
+                text.append('<').append((int) FrameProfiler.HISTOGRAM_BOUNDS[i]);
+            } else {
+                text.append(">").append((int) FrameProfiler.HISTOGRAM_BOUNDS[i - 1]);
+            }
+            font.setColor(COLOR_TEXT);
+            font.draw(batch, text, barX, barBottom - 2f);
+        }
+        font.setColor(Color.WHITE);
+
+        batch.end();
+    }
+
+    private static Color frameColor(float millis) {
+        if (millis < 17f) {
+            return COLOR_GOOD;
+        }
+        if (millis < 33f) {
+            return COLOR_WARN;
+        }
+        return COLOR_BAD;
+    }
+
+    /**
+     * 保留一位小数，避免 StringBuilder 追加 float 时输出过长
+     */
+    private static float round1(float value) {
+        return Math.round(value * 10f) / 10f;
+    }
+}
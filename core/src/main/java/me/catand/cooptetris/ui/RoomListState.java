@@ -1,8 +1,6 @@
 package me.catand.cooptetris.ui;
 
 import com.badlogic.gdx.graphics.Color;
-import com.badlogic.gdx.graphics.Pixmap;
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.scenes.scene2d.InputEvent;
 import com.badlogic.gdx.scenes.scene2d.Stage;
@@ -31,9 +29,11 @@ import me.catand.cooptetris.util.LanguageManager;
 public class RoomListState extends BaseUIState implements NetworkManager.NetworkListener {
 
     private Table mainTable;
-    private Table roomListTable;
+    private VirtualListView<RoomMessage.RoomInfo> roomListView;
+    private Table emptyRoomListTable;
     private Table roomListHeaderTable;
     private ScrollPane roomListScrollPane;
+    private com.badlogic.gdx.scenes.scene2d.utils.Drawable roomRowBackground;
     private TextField newRoomNameField;
     private Label statusLabel;
     private Label serverInfoLabel;
@@ -45,7 +45,6 @@ public class RoomListState extends BaseUIState implements NetworkManager.Network
     private TextButton disconnectButton;
 
     private final List<RoomMessage.RoomInfo> availableRooms;
-    private final List<Table> roomRowTables;
 
     private boolean isProcessing = false;
 
@@ -66,7 +65,6 @@ public class RoomListState extends BaseUIState implements NetworkManager.Network
     public RoomListState(UIManager uiManager) {
         super(uiManager);
         this.availableRooms = new ArrayList<>();
-        this.roomRowTables = new ArrayList<>();
     }
 
     private boolean needsRefresh = true;
@@ -174,11 +172,26 @@ public class RoomListState extends BaseUIState implements NetworkManager.Network
         roomListHeaderTable = createRoomListHeader();
         panel.add(roomListHeaderTable).fillX().padBottom(h(5f)).row();
 
-        // 房间列表
-        roomListTable = new Table();
-        roomListTable.top().left();
+        // 房间列表：只为可见的行创建控件，房间很多时也不会一次创建所有行
+        roomRowBackground = createPanelBackground(new Color(0.13f, 0.15f, 0.18f, 1f));
+        roomListView = new VirtualListView<>(h(35f) + w(8f) * 2, h(4f), new VirtualListView.Adapter<RoomMessage.RoomInfo>() {
+            @Override
+            public com.badlogic.gdx.scenes.scene2d.Actor createRow() {
+                return new RoomRow();
+            }
+
+            @Override
+            public void bindRow(com.badlogic.gdx.scenes.scene2d.Actor row, RoomMessage.RoomInfo room, int index) {
+                ((RoomRow) row).bind(room);
+            }
+        });
 
-        roomListScrollPane = new ScrollPane(roomListTable, skin);
+        emptyRoomListTable = new Table();
+        emptyRoomListTable.top();
+        Label emptyLabel = FontUtils.createLabel(lang().get("no.rooms.available"), skin, fontSize(16), TEXT_MUTED);
+        emptyRoomListTable.add(emptyLabel).center().padTop(h(50f));
+
+        roomListScrollPane = new ScrollPane(emptyRoomListTable, skin);
         roomListScrollPane.setFadeScrollBars(false);
         roomListScrollPane.setScrollingDisabled(true, false);
 
@@ -262,116 +275,144 @@ public class RoomListState extends BaseUIState implements NetworkManager.Network
     }
 
     private void updateRoomListDisplay(List<RoomMessage.RoomInfo> rooms) {
-        roomRowTables.clear();
-
-        roomListTable.clear();
-
         if (rooms == null || rooms.isEmpty()) {
-            Label emptyLabel = FontUtils.createLabel(lang().get("no.rooms.available"), skin, fontSize(16), TEXT_MUTED);
-            roomListTable.add(emptyLabel).center().padTop(h(50f)).row();
+            roomListView.setItems(new ArrayList<>());
+            roomListScrollPane.setActor(emptyRoomListTable);
             setStatus(lang().get("status.no.rooms"), TEXT_MUTED);
             return;
         }
 
-        for (RoomMessage.RoomInfo room : rooms) {
-            Table roomRow = createRoomRow(room);
-            roomRowTables.add(roomRow);
-            roomListTable.add(roomRow).fillX().padBottom(h(4f)).row();
+        if (roomListScrollPane.getActor() != roomListView) {
+            roomListScrollPane.setActor(roomListView);
         }
+        // 只有内容变化的可见行会重新绑定，保留当前滚动位置
+        roomListView.setItems(rooms);
 
         setStatus(lang().get("status.rooms.loaded").replace("%d", String.valueOf(rooms.size())), COLOR_SUCCESS);
-
-        roomListScrollPane.layout();
-        roomListScrollPane.setScrollPercentY(0);
     }
 
-    private Table createRoomRow(RoomMessage.RoomInfo room) {
-        Table row = new Table();
-        row.setBackground(createPanelBackground(new Color(0.13f, 0.15f, 0.18f, 1f)));
-        row.pad(w(8f));
-
-        // 使用显示的玩家数量（包含锁定的槽位）
-        int displayCount = room.getDisplayPlayerCount() > 0 ? room.getDisplayPlayerCount() : room.getPlayerCount();
-        int maxPlayers = room.getMaxPlayers();
-        boolean isFull = displayCount >= maxPlayers;
-        boolean isStarted = room.isStarted();
-        boolean spectatorLocked = room.isSpectatorLocked();
-
-        // 判断加入状态
-        boolean canJoinAsPlayer = !isFull && !isStarted;
-        boolean canJoinAsSpectator = !spectatorLocked && (isFull || isStarted);
-        boolean canJoin = canJoinAsPlayer || canJoinAsSpectator;
-
-        // 第一列：房间名
-        Label nameLabel = FontUtils.createLabel(room.getName(), skin, fontSize(14), COLOR_TEXT);
-        nameLabel.setEllipsis(true);
-        row.add(nameLabel).left().width(w(180f)).padRight(w(10f));
-
-        // 第二列：人数
-        // 满人但可观战时显示黄色，满人且不可观战时显示红色，未满时显示绿色
-        String playersText = displayCount + "/" + maxPlayers;
-        Color playersColor;
-        if (isFull) {
-            playersColor = canJoinAsSpectator ? COLOR_WARNING : COLOR_DANGER;
-        } else {
-            playersColor = COLOR_SUCCESS;
+    /**
+     * 房间列表中的一行，滚出视野后由 VirtualListView 回收并绑定到其他房间
+     */
+    private class RoomRow extends Table {
+        private final Label nameLabel;
+        private final Label playersLabel;
+        private final Label statusLabel;
+        private final TextButton joinBtn;
+        private RoomMessage.RoomInfo room;
+        private boolean canJoin;
+
+        RoomRow() {
+            setBackground(roomRowBackground);
+            pad(w(8f));
+
+            // 第一列：房间名
+            nameLabel = FontUtils.createLabel("", skin, fontSize(14), COLOR_TEXT);
+            nameLabel.setEllipsis(true);
+            add(nameLabel).left().width(w(180f)).padRight(w(10f));
+
+            // 第二列：人数
+            playersLabel = FontUtils.createLabel("", skin, fontSize(14), COLOR_SUCCESS);
+            add(playersLabel).center().width(w(80f)).padRight(w(10f));
+
+            // 第三列：状态
+            statusLabel = FontUtils.createLabel("", skin, fontSize(14), COLOR_SUCCESS);
+            add(statusLabel).center().width(w(100f)).padRight(w(10f));
+
+            // 第四列：加入按钮
+            joinBtn = FontUtils.createTextButton(lang().get("room.action.join"), skin, fontSize(14), COLOR_PRIMARY);
+            joinBtn.addListener(event -> {
+                if (event instanceof InputEvent && ((InputEvent) event).getType() == InputEvent.Type.touchDown) {
+                    if (canJoin && room != null) {
+                        joinRoom(room);
+                    }
+                }
+                return true;
+            });
+            add(joinBtn).center().width(w(100f)).height(h(35f));
         }
-        Label playersLabel = FontUtils.createLabel(playersText, skin, fontSize(14), playersColor);
-        row.add(playersLabel).center().width(w(80f)).padRight(w(10f));
-
-        // 第三列：状态
-        String statusText;
-        Color statusColor;
-        if (isStarted) {
-            if (canJoinAsSpectator) {
-                statusText = lang().get("room.status.spectator.available");
-                statusColor = COLOR_WARNING;
+
+        void bind(RoomMessage.RoomInfo room) {
+            this.room = room;
+
+            // 使用显示的玩家数量（包含锁定的槽位）
+            int displayCount = room.getDisplayPlayerCount() > 0 ? room.getDisplayPlayerCount() : room.getPlayerCount();
+            int maxPlayers = room.getMaxPlayers();
+            boolean isFull = displayCount >= maxPlayers;
+            boolean isStarted = room.isStarted();
+            boolean spectatorLocked = room.isSpectatorLocked();
+
+            // 判断加入状态
+            boolean canJoinAsPlayer = !isFull && !isStarted;
+            boolean canJoinAsSpectator = !spectatorLocked && (isFull || isStarted);
+            canJoin = canJoinAsPlayer || canJoinAsSpectator;
+
+            setLabel(nameLabel, room.getName() != null ? room.getName() : "", COLOR_TEXT);
+
+            // 满人但可观战时显示黄色，满人且不可观战时显示红色，未满时显示绿色
+            Color playersColor;
+            if (isFull) {
+                playersColor = canJoinAsSpectator ? COLOR_WARNING : COLOR_DANGER;
             } else {
-                statusText = lang().get("room.status.in.game");
-                statusColor = COLOR_DANGER;
+                playersColor = COLOR_SUCCESS;
             }
-        } else if (isFull) {
-            if (canJoinAsSpectator) {
-                statusText = lang().get("room.status.spectator.available");
-                statusColor = COLOR_WARNING;
+            setLabel(playersLabel, displayCount + "/" + maxPlayers, playersColor);
+
+            String statusText;
+            Color statusColor;
+            if (isStarted) {
+                if (canJoinAsSpectator) {
+                    statusText = lang().get("room.status.spectator.available");
+                    statusColor = COLOR_WARNING;
+                } else {
+                    statusText = lang().get("room.status.in.game");
+                    statusColor = COLOR_DANGER;
+                }
+            } else if (isFull) {
+                if (canJoinAsSpectator) {
+                    statusText = lang().get("room.status.spectator.available");
+                    statusColor = COLOR_WARNING;
+                } else {
+                    statusText = lang().get("room.status.full");
+                    statusColor = COLOR_DANGER;
+                }
             } else {
-                statusText = lang().get("room.status.full");
-                statusColor = COLOR_DANGER;
+                statusText = lang().get("room.status.waiting");
+                statusColor = COLOR_SUCCESS;
             }
-        } else {
-            statusText = lang().get("room.status.waiting");
-            statusColor = COLOR_SUCCESS;
-        }
-        Label statusLabel = FontUtils.createLabel(statusText, skin, fontSize(14), statusColor);
-        row.add(statusLabel).center().width(w(100f)).padRight(w(10f));
-
-        // 第四列：加入按钮
-        String buttonText;
-        Color buttonColor;
-        if (canJoinAsPlayer) {
-            buttonText = lang().get("room.action.join");
-            buttonColor = COLOR_PRIMARY;
-        } else if (canJoinAsSpectator) {
-            buttonText = lang().get("room.action.spectate");
-            buttonColor = COLOR_WARNING;
-        } else {
-            buttonText = lang().get("room.action.join");
-            buttonColor = TEXT_MUTED;
+            setLabel(statusLabel, statusText, statusColor);
+
+            String buttonText;
+            Color buttonColor;
+            if (canJoinAsPlayer) {
+                buttonText = lang().get("room.action.join");
+                buttonColor = COLOR_PRIMARY;
+            } else if (canJoinAsSpectator) {
+                buttonText = lang().get("room.action.spectate");
+                buttonColor = COLOR_WARNING;
+            } else {
+                buttonText = lang().get("room.action.join");
+                buttonColor = TEXT_MUTED;
+            }
+            if (!joinBtn.getText().toString().equals(buttonText)) {
+                joinBtn.setText(buttonText);
+                FontUtils.updateButtonFont(joinBtn, skin, fontSize(14));
+            }
+            joinBtn.setColor(buttonColor);
+            joinBtn.setDisabled(!canJoin);
         }
 
-        TextButton joinBtn = FontUtils.createTextButton(buttonText, skin, fontSize(14), buttonColor);
-        joinBtn.setDisabled(!canJoin);
-        joinBtn.addListener(event -> {
-            if (event instanceof InputEvent && ((InputEvent) event).getType() == InputEvent.Type.touchDown) {
-                if (canJoin) {
-                    joinRoom(room);
-                }
+        /**
+         * 文本变化时才更新标签和字体
+         */
+        private void setLabel(Label label, String text, Color color) {
+            if (!label.textEquals(text)) {
+                label.setText(text);
+                FontUtils.updateLabelFont(label, fontSize(14));
             }
-            return true;
-        });
-        row.add(joinBtn).center().width(w(100f)).height(h(35f));
-
-        return row;
+            // 每个标签都有自己的样式，直接替换字体颜色
+            label.getStyle().fontColor = color;
+        }
     }
 
     // ==================== 按钮样式 ====================
@@ -394,15 +435,6 @@ public class RoomListState extends BaseUIState implements NetworkManager.Network
 
     // ==================== 背景创建 ====================
 
-    private com.badlogic.gdx.scenes.scene2d.utils.Drawable createPanelBackground(Color color) {
-        Pixmap pixmap = new Pixmap(1, 1, Pixmap.Format.RGBA8888);
-        pixmap.setColor(color);
-        pixmap.fill();
-        Texture texture = new Texture(pixmap);
-        pixmap.dispose();
-        return new com.badlogic.gdx.scenes.scene2d.utils.TextureRegionDrawable(texture);
-    }
-
     // ==================== 功能方法 ====================
 
     private void refreshRoomList() {
@@ -1,8 +1,6 @@
 package me.catand.cooptetris.ui;
 
 import com.badlogic.gdx.graphics.Color;
-import com.badlogic.gdx.graphics.Pixmap;
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.scenes.scene2d.Actor;
 import com.badlogic.gdx.scenes.scene2d.InputEvent;
@@ -16,6 +14,7 @@ import com.badlogic.gdx.scenes.scene2d.ui.TextButton;
 import com.badlogic.gdx.scenes.scene2d.ui.TextField;
 import com.badlogic.gdx.scenes.scene2d.utils.ChangeListener;
 import com.badlogic.gdx.utils.Align;
+import com.badlogic.gdx.utils.Queue;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -48,7 +47,10 @@ public class RoomLobbyState extends BaseUIState implements NetworkManager.Networ
     private TextButton leaveRoomButton;
     private BitmapFont titleFont;
     private BitmapFont smallFont;
-    private final List<String> chatMessages;
+    // 聊天记录环形缓冲区，只保留最近的消息
+    private static final int MAX_CHAT_MESSAGES = 100;
+    private final Queue<String> chatMessages;
+    private final Queue<Label> chatLabels = new Queue<>();
     private String roomName;
     private int maxPlayers;
     private boolean isHost;
@@ -107,7 +109,7 @@ public class RoomLobbyState extends BaseUIState implements NetworkManager.Networ
     public RoomLobbyState(UIManager uiManager, NetworkManager networkManager, boolean isLocalServerMode) {
         super(uiManager);
         this.networkManager = networkManager;
-        this.chatMessages = new ArrayList<>();
+        this.chatMessages = new Queue<>(MAX_CHAT_MESSAGES + 1);
         this.roomName = lang().get("unknown.room");
         this.maxPlayers = 4;
         this.isHost = false;
@@ -908,6 +910,7 @@ public class RoomLobbyState extends BaseUIState implements NetworkManager.Networ
     private void initChatMessages() {
         if (chatTable != null) {
             chatTable.clear();
+            chatLabels.clear();
 
             if (chatMessages.isEmpty()) {
                 Label emptyLabel = new Label("", skin);
@@ -915,7 +918,9 @@ public class RoomLobbyState extends BaseUIState implements NetworkManager.Networ
                 chatTable.add(emptyLabel).left().row();
             } else {
                 for (String msg : chatMessages) {
-                    addChatMessageToUI(msg);
+                    Label messageLabel = createChatLabel(msg);
+                    chatLabels.addLast(messageLabel);
+                    addChatLabelToUI(messageLabel);
                 }
             }
 
@@ -924,33 +929,46 @@ public class RoomLobbyState extends BaseUIState implements NetworkManager.Networ
         }
     }
 
-    private void addChatMessageToUI(String message) {
+    private Label createChatLabel(String message) {
         Label messageLabel = FontUtils.createLabel(message, skin, fontSize(14), COLOR_TEXT);
         messageLabel.setWrap(true);
+        return messageLabel;
+    }
+
+    private void addChatLabelToUI(Label messageLabel) {
         chatTable.add(messageLabel).left().width(w(250f)).padBottom(h(4f)).row();
     }
 
     public void addChatMessage(String message) {
-        chatMessages.add(message);
+        chatMessages.addLast(message);
+        boolean trimmed = false;
+        while (chatMessages.size > MAX_CHAT_MESSAGES) {
+            chatMessages.removeFirst();
+            trimmed = true;
+        }
         if (chatTable != null) {
-            if (chatMessages.size() == 1) {
+            if (chatLabels.isEmpty()) {
                 chatTable.clear();
             }
-            addChatMessageToUI(message);
+            Label messageLabel = createChatLabel(message);
+            chatLabels.addLast(messageLabel);
+            if (trimmed) {
+                while (chatLabels.size > chatMessages.size) {
+                    chatLabels.removeFirst();
+                }
+                // Table 不能单独删除第一行，用已有的标签重新填充，不重新创建标签
+                chatTable.clearChildren();
+                for (Label label : chatLabels) {
+                    addChatLabelToUI(label);
+                }
+            } else {
+                addChatLabelToUI(messageLabel);
+            }
             chatScrollPane.layout();
             chatScrollPane.setScrollPercentY(1f);
         }
     }
 
-    private com.badlogic.gdx.scenes.scene2d.utils.Drawable createPanelBackground(Color color) {
-        Pixmap pixmap = new Pixmap(1, 1, Pixmap.Format.RGBA8888);
-        pixmap.setColor(color);
-        pixmap.fill();
-        Texture texture = new Texture(pixmap);
-        pixmap.dispose();
-        return new com.badlogic.gdx.scenes.scene2d.utils.TextureRegionDrawable(texture);
-    }
-
     private void startGame() {
         if (!isHost) {
             return;
@@ -1,8 +1,7 @@
 package me.catand.cooptetris.ui;
 
+import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.Color;
-import com.badlogic.gdx.graphics.Pixmap;
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.scenes.scene2d.InputEvent;
 import com.badlogic.gdx.scenes.scene2d.ui.Label;
@@ -252,17 +251,10 @@ public class ServerConnectionState extends BaseUIState implements NetworkManager
         setStatus(lang.get("status.creating.server"), COLOR_WARNING);
 
         // 启动本地服务器（使用与单人游戏相同的端口逻辑，从56148开始）
+        // 端口绑定在后台完成，完成后回到主线程连接，界面不会被阻塞
         if (uiManager.getLocalServerManager() != null) {
-            int port = uiManager.getLocalServerManager().startServer(56148);
-            if (port == -1) {
-                // 服务器启动失败
-                isConnecting = false;
-                isCreatingLocalServer = false;
-                setStatus(lang.get("error.local.server.failed"), COLOR_DANGER);
-                return;
-            }
-            // 使用实际启动的端口连接
-            connect("127.0.0.1", port, playerName);
+            uiManager.getLocalServerManager().startServerAsync(56148).thenAccept(port ->
+                Gdx.app.postRunnable(() -> onLocalServerStarted(port, playerName)));
         } else {
             isConnecting = false;
             isCreatingLocalServer = false;
@@ -270,6 +262,21 @@ public class ServerConnectionState extends BaseUIState implements NetworkManager
         }
     }
 
+    private void onLocalServerStarted(int port, String playerName) {
+        if (!isCreatingLocalServer) {
+            return;
+        }
+        if (port == -1) {
+            // 服务器启动失败
+            isConnecting = false;
+            isCreatingLocalServer = false;
+            setStatus(LanguageManager.getInstance().get("error.local.server.failed"), COLOR_DANGER);
+            return;
+        }
+        // 使用实际启动的端口连接
+        connect("127.0.0.1", port, playerName);
+    }
+
     private void connectToServer() {
         if (isConnecting) return;
 
@@ -321,7 +328,10 @@ public class ServerConnectionState extends BaseUIState implements NetworkManager
 
         NetworkManager networkManager = uiManager.getNetworkManager();
         if (networkManager != null) {
-            boolean success = networkManager.connect(address, port, playerName);
+            // 本机创建的服务器通过进程内通道连接，不占用回环 TCP
+            boolean success = isCreatingLocalServer
+                ? networkManager.connectLocal(uiManager.getLocalServerManager(), playerName)
+                : networkManager.connect(address, port, playerName);
             if (!success) {
                 // 连接失败，重置状态
                 isConnecting = false;
@@ -348,15 +358,6 @@ public class ServerConnectionState extends BaseUIState implements NetworkManager
         statusLabel.setColor(color);
     }
 
-    private com.badlogic.gdx.scenes.scene2d.utils.Drawable createPanelBackground(Color color) {
-        Pixmap pixmap = new Pixmap(1, 1, Pixmap.Format.RGBA8888);
-        pixmap.setColor(color);
-        pixmap.fill();
-        Texture texture = new Texture(pixmap);
-        pixmap.dispose();
-        return new com.badlogic.gdx.scenes.scene2d.utils.TextureRegionDrawable(texture);
-    }
-
     @Override
     protected void clearUI() {
         NetworkManager networkManager = uiManager.getNetworkManager();
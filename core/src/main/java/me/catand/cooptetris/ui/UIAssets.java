@@ -0,0 +1,68 @@
+package me.catand.cooptetris.ui;
+
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.scenes.scene2d.ui.Skin;
+import com.badlogic.gdx.scenes.scene2d.utils.Drawable;
+import com.badlogic.gdx.utils.Disposable;
+
+import lombok.Getter;
+
+/**
+ * 界面资源 - 通过 AssetManager 异步加载皮肤及其图集，加载期间由 {@link LoadingScreen} 显示进度
+ * - AssetManager 对已加载的资源做引用计数，重复 load/unload 不会重复上传纹理
+ * - 面板背景不再为每种颜色创建 1x1 纹理，而是对皮肤图集中的 white 区域着色，所有面板共用同一张纹理
+ */
+public class UIAssets implements Disposable {
+    public static final String SKIN = "ui/uiskin.json";
+    private static final String WHITE_REGION = "white";
+    private static final String PANEL_PREFIX = "panel-";
+
+    // 每帧用于加载资源的时间（毫秒），其余时间用于绘制加载界面
+    private static final int LOAD_BUDGET_MILLIS = 8;
+
+    @Getter
+    private final AssetManager assetManager = new AssetManager();
+
+    /**
+     * 加入启动时需要的资源，之后由 {@link #update()} 逐帧加载
+     */
+    public void queueStartupAssets() {
+        // SkinLoader 会同时加载同名的 uiskin.atlas
+        assetManager.load(SKIN, Skin.class);
+    }
+
+    /**
+     * @return 所有资源是否加载完成
+     */
+    public boolean update() {
+        return assetManager.update(LOAD_BUDGET_MILLIS);
+    }
+
+    public float getProgress() {
+        return assetManager.getProgress();
+    }
+
+    public Skin getSkin() {
+        return assetManager.get(SKIN, Skin.class);
+    }
+
+    /**
+     * 获取指定颜色的纯色面板背景
+     * 着色后的 Drawable 按颜色保存在皮肤中，之后的界面直接复用，生命周期与皮肤一致
+     */
+    public static Drawable getPanelBackground(Skin skin, Color color) {
+        String name = PANEL_PREFIX + color;
+        Drawable drawable = skin.optional(name, Drawable.class);
+        if (drawable == null) {
+            drawable = skin.newDrawable(WHITE_REGION, color);
+            skin.add(name, drawable, Drawable.class);
+        }
+        return drawable;
+    }
+
+    @Override
+    public void dispose() {
+        assetManager.dispose();
+    }
+}
@@ -26,6 +26,9 @@ import me.catand.cooptetris.util.UIScaler;
  * 使用ScreenViewport让UI直接以屏幕像素为单位，
  */
 public class UIManager {
+    // 界面中使用的设计字号，启动时预热这些字号的字形
+    private static final int[] PREWARM_FONT_SIZES = {12, 14, 16, 18, 20, 24, 28, 32, 36, 48};
+
     @Getter
     private final Stage stage;
     @Getter
@@ -39,13 +42,14 @@ public class UIManager {
     private LocalServerManager localServerManager;
     public me.catand.cooptetris.tetris.GameStateManager gameStateManager;
 
-    public UIManager() {
+    public UIManager(UIAssets assets) {
         // 初始化UIScaler
         UIScaler.getInstance().update();
 
         // 使用ScreenViewport - UI元素直接使用屏幕像素坐标
         stage = new Stage(new ScreenViewport());
-        skin = new Skin(Gdx.files.internal("ui/uiskin.json"));
+        // 皮肤由 UIAssets 异步加载，生命周期归 AssetManager 管理
+        skin = assets.getSkin();
 
         // 尝试加载支持中文的字体
         updateSkinFonts();
@@ -72,6 +76,13 @@ public class UIManager {
             int scaledSize = Math.round(baseSize * scale);
 
             BitmapFont font = Main.platform.getFont(scaledSize, "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789", false, false);
+
+            // 预热界面使用的各个字号
+            int[] prewarmSizes = new int[PREWARM_FONT_SIZES.length];
+            for (int i = 0; i < PREWARM_FONT_SIZES.length; i++) {
+                prewarmSizes[i] = UIScaler.getInstance().toFontSize(PREWARM_FONT_SIZES[i]);
+            }
+            Main.platform.prewarmFonts(prewarmSizes);
             if (font != null) {
                 // 替换skin中的默认字体
                 skin.add("default", font, BitmapFont.class);
@@ -158,7 +169,6 @@ public class UIManager {
             uiStates.pop().dispose();
         }
         stage.dispose();
-        skin.dispose();
     }
 
     public UIState getCurrentState() {
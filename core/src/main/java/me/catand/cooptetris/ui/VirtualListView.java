@@ -0,0 +1,155 @@
+package me.catand.cooptetris.ui;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.scenes.scene2d.Actor;
+import com.badlogic.gdx.scenes.scene2d.ui.WidgetGroup;
+import com.badlogic.gdx.scenes.scene2d.utils.Cullable;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.IntMap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 虚拟化列表 - 只为可见的行创建控件，滚出视野的行回收到池中复用
+ * 作为 ScrollPane 的直接子控件使用，ScrollPane 每帧通过 {@link Cullable} 告知可见区域
+ * 更新数据时只重新绑定内容发生变化的可见行
+ */
+public class VirtualListView<T> extends WidgetGroup implements Cullable {
+
+    /**
+     * 行控件的创建与数据绑定
+     */
+    public interface Adapter<T> {
+        Actor createRow();
+
+        void bindRow(Actor row, T item, int index);
+    }
+
+    private final Adapter<T> adapter;
+    private final float rowHeight;
+    private final float rowSpacing;
+    private final List<T> items = new ArrayList<>();
+
+    private final IntMap<Actor> visibleRows = new IntMap<>();
+    private final Array<Actor> pool = new Array<>();
+    private final IntArray recycled = new IntArray();
+    private final Rectangle cullingArea = new Rectangle();
+    private boolean hasCullingArea;
+    private int firstVisible;
+    private int lastVisible = -1;
+
+    public VirtualListView(float rowHeight, float rowSpacing, Adapter<T> adapter) {
+        this.rowHeight = rowHeight;
+        this.rowSpacing = rowSpacing;
+        this.adapter = adapter;
+    }
+
+    /**
+     * 替换列表数据，可见行中内容未变化的不会重新绑定
+     */
+    public void setItems(List<T> newItems) {
+        boolean sizeChanged = newItems.size() != items.size();
+        for (IntMap.Entry<Actor> entry : visibleRows.entries()) {
+            int index = entry.key;
+            if (index < newItems.size() && !Objects.equals(items.get(index), newItems.get(index))) {
+                adapter.bindRow(entry.value, newItems.get(index), index);
+            }
+        }
+        items.clear();
+        items.addAll(newItems);
+
+        if (sizeChanged) {
+            // 高度变化需要 ScrollPane 重新布局，越界的行在 updateVisibleRows 中回收
+            invalidateHierarchy();
+        } else {
+            updateVisibleRows();
+        }
+    }
+
+    public int getItemCount() {
+        return items.size();
+    }
+
+    @Override
+    public float getPrefHeight() {
+        return items.size() * (rowHeight + rowSpacing);
+    }
+
+    @Override
+    public float getPrefWidth() {
+        return 0;
+    }
+
+    @Override
+    public void setCullingArea(Rectangle cullingArea) {
+        if (cullingArea == null) {
+            hasCullingArea = false;
+        } else {
+            hasCullingArea = true;
+            this.cullingArea.set(cullingArea);
+        }
+        updateVisibleRows();
+    }
+
+    @Override
+    public void layout() {
+        // 尺寸变化后重新定位所有可见行
+        for (IntMap.Entry<Actor> entry : visibleRows.entries()) {
+            positionRow(entry.value, entry.key);
+        }
+        updateVisibleRows();
+    }
+
+    private void updateVisibleRows() {
+        int count = items.size();
+        int first = 0;
+        int last = -1;
+        float stride = rowHeight + rowSpacing;
+        // ScrollPane 在布局时就会设置可见区域，之前不创建任何行
+        if (hasCullingArea && count > 0) {
+            // 行从上往下排列，y 轴向上
+            float height = getHeight();
+            first = Math.max(0, (int) ((height - cullingArea.y - cullingArea.height) / stride));
+            last = Math.min(count - 1, (int) ((height - cullingArea.y) / stride));
+        }
+        if (first == firstVisible && last == lastVisible && visibleRows.size == Math.max(0, last - first + 1)) {
+            return;
+        }
+
+        // 回收离开可见范围的行
+        recycled.clear();
+        IntMap.Keys keys = visibleRows.keys();
+        while (keys.hasNext) {
+            int index = keys.next();
+            if (index < first || index > last) {
+                recycled.add(index);
+            }
+        }
+        for (int i = 0; i < recycled.size; i++) {
+            Actor row = visibleRows.remove(recycled.get(i));
+            removeActor(row, false);
+            pool.add(row);
+        }
+
+        // 为新进入可见范围的行绑定数据
+        for (int index = first; index <= last; index++) {
+            if (visibleRows.containsKey(index)) continue;
+            Actor row = pool.size > 0 ? pool.pop() : adapter.createRow();
+            adapter.bindRow(row, items.get(index), index);
+            positionRow(row, index);
+            addActor(row);
+            visibleRows.put(index, row);
+        }
+
+        firstVisible = first;
+        lastVisible = last;
+    }
+
+    private void positionRow(Actor row, int index) {
+        float y = getHeight() - (index + 1) * (rowHeight + rowSpacing) + rowSpacing;
+        row.setBounds(0, y, getWidth(), rowHeight);
+    }
+}
@@ -0,0 +1,325 @@
+package me.catand.cooptetris.util;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.PixmapIO;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.PixmapPacker;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 字体磁盘缓存 - 把 FreeType 生成的字形页保存为 PNG，每个字体保存一个 .fnt 文件
+ * 之后启动时直接加载这些文件，跳过 FreeType 光栅化
+ * - 所有字体共用一个 PixmapPacker，因此缓存中的字形页也是共享的，加载时只创建一组纹理
+ * - 版本戳包含格式版本、页大小、字体文件和字符集，任何一项变化都会使缓存失效
+ * - 使用了缓存的会话中，如果某个字体缺少字形而回退到 FreeType，缓存会在退出时删除，下次启动重新生成
+ * - 版本戳不匹配的缓存直接忽略，本次会话生成的字体会覆盖它
+ */
+public class FontCache implements Disposable {
+    private static final int FORMAT_VERSION = 1;
+    private static final String INDEX_FILE = "index.properties";
+
+    private final FileHandle dir;
+    private final String stamp;
+
+    private Properties index;
+    private boolean indexChecked;
+    private final Array<Texture> pageTextures = new Array<>();
+    private final Array<TextureRegion> pageRegions = new Array<>();
+    private final Array<BitmapFont> loadedFonts = new Array<>();
+
+    // 本次会话是否使用了磁盘缓存
+    private boolean loaded;
+    // 缓存内容不完整，需要重新生成
+    private boolean stale;
+    private int savedGlyphCount = -1;
+    private final AtomicBoolean saving = new AtomicBoolean();
+
+    public FontCache(FileHandle dir, String stamp) {
+        this.dir = dir;
+        this.stamp = FORMAT_VERSION + "|" + stamp;
+    }
+
+    /**
+     * 从缓存加载字体，缓存不存在或已失效时返回 null
+     */
+    public BitmapFont load(String name, boolean flipped) {
+        Properties index = readIndex();
+        if (index == null) return null;
+        String metrics = index.getProperty(name + ".metrics");
+        FileHandle fntFile = dir.child(name + ".fnt");
+        if (metrics == null || !fntFile.exists()) return null;
+
+        try {
+            if (pageTextures.size == 0) {
+                int pages = Integer.parseInt(index.getProperty("pages", "0"));
+                for (int i = 0; i < pages; i++) {
+                    Texture texture = new Texture(dir.child(pageFileName(i)));
+                    pageTextures.add(texture);
+                    pageRegions.add(new TextureRegion(texture));
+                }
+            }
+
+            BitmapFont.BitmapFontData data = new BitmapFont.BitmapFontData(fntFile, flipped);
+            applyMetrics(data, metrics);
+            BitmapFont font = new BitmapFont(data, pageRegions, true);
+            font.getData().missingGlyph = font.getData().getGlyph('�');
+            loadedFonts.add(font);
+            loaded = true;
+            return font;
+        } catch (Exception e) {
+            System.err.println("FontCache: 读取字体缓存失败: " + e.getMessage());
+            this.index = null;
+            stale = loaded;
+            return null;
+        }
+    }
+
+    private Properties readIndex() {
+        if (indexChecked) return index;
+        indexChecked = true;
+        FileHandle indexFile = dir.child(INDEX_FILE);
+        if (!indexFile.exists()) return null;
+        Properties properties = new Properties();
+        try (Reader reader = indexFile.reader("UTF-8")) {
+            properties.load(reader);
+        } catch (Exception e) {
+            return null;
+        }
+        if (!stamp.equals(properties.getProperty("stamp"))) {
+            System.out.println("FontCache: 字体缓存已过期，将重新生成");
+            return null;
+        }
+        index = properties;
+        return index;
+    }
+
+    /**
+     * 标记缓存内容不完整（某个缓存字体缺少需要的字形）
+     */
+    public void markStale() {
+        stale = true;
+    }
+
+    /**
+     * 只有全部字体都由 FreeType 生成时字形才集中在同一个 PixmapPacker 中，此时才能写入缓存
+     */
+    public boolean canSave() {
+        return !loaded;
+    }
+
+    /**
+     * 把当前字体和字形页写入缓存
+     * 必须在渲染线程调用：字形数据和页面像素在这里复制，PNG 编码和写文件可以放到后台线程
+     *
+     * @param fonts 缓存名称到字体的映射
+     */
+    public void save(Map<String, BitmapFont> fonts, PixmapPacker packer, boolean async) {
+        if (!canSave() || packer == null || fonts.isEmpty()) return;
+
+        int glyphCount = 0;
+        for (BitmapFont font : fonts.values()) {
+            glyphCount += countGlyphs(font.getData());
+        }
+        if (glyphCount == savedGlyphCount) return;
+        if (!saving.compareAndSet(false, true)) return;
+        savedGlyphCount = glyphCount;
+
+        // 在渲染线程中生成快照，之后字形继续增加也不会影响写入的内容
+        Properties newIndex = new Properties();
+        newIndex.setProperty("stamp", stamp);
+        String[] names = new String[fonts.size()];
+        String[] fntData = new String[fonts.size()];
+        int i = 0;
+        for (Map.Entry<String, BitmapFont> entry : fonts.entrySet()) {
+            BitmapFont.BitmapFontData data = entry.getValue().getData();
+            names[i] = entry.getKey();
+            fntData[i] = writeFnt(entry.getKey(), data, packer);
+            newIndex.setProperty(entry.getKey() + ".metrics", writeMetrics(data));
+            i++;
+        }
+        Array<PixmapPacker.Page> pages = packer.getPages();
+        Pixmap[] pageCopies = new Pixmap[pages.size];
+        for (int p = 0; p < pages.size; p++) {
+            Pixmap source = pages.get(p).getPixmap();
+            Pixmap copy = new Pixmap(source.getWidth(), source.getHeight(), source.getFormat());
+            copy.setBlending(Pixmap.Blending.None);
+            copy.drawPixmap(source, 0, 0);
+            pageCopies[p] = copy;
+        }
+        newIndex.setProperty("pages", String.valueOf(pageCopies.length));
+
+        Runnable write = () -> {
+            try {
+                writeFiles(names, fntData, pageCopies, newIndex);
+                System.out.println("FontCache: 已保存 " + names.length + " 个字体和 " + pageCopies.length + " 个字形页");
+            } catch (Exception e) {
+                System.err.println("FontCache: 保存字体缓存失败: " + e.getMessage());
+            } finally {
+                for (Pixmap copy : pageCopies) {
+                    copy.dispose();
+                }
+                saving.set(false);
+            }
+        };
+        if (async) {
+            // 非守护线程，退出时等待写入完成
+            Thread thread = new Thread(write, "FontCacheWriter");
+            thread.start();
+        } else {
+            write.run();
+        }
+    }
+
+    private void writeFiles(String[] names, String[] fntData, Pixmap[] pages, Properties newIndex) throws IOException {
+        // 先写入临时目录，完成后再替换，避免留下不完整的缓存
+        FileHandle tmp = dir.sibling(dir.name() + ".tmp");
+        tmp.deleteDirectory();
+        tmp.mkdirs();
+        for (int i = 0; i < pages.length; i++) {
+            PixmapIO.writePNG(tmp.child(pageFileName(i)), pages[i]);
+        }
+        for (int i = 0; i < names.length; i++) {
+            tmp.child(names[i] + ".fnt").writeString(fntData[i], false, "UTF-8");
+        }
+        try (Writer writer = tmp.child(INDEX_FILE).writer(false, "UTF-8")) {
+            newIndex.store(writer, null);
+        }
+
+        dir.deleteDirectory();
+        File target = dir.file();
+        if (!tmp.file().renameTo(target)) {
+            tmp.moveTo(dir);
+        }
+    }
+
+    private static String pageFileName(int page) {
+        return "page" + page + ".png";
+    }
+
+    private static int countGlyphs(BitmapFont.BitmapFontData data) {
+        int count = 0;
+        for (BitmapFont.Glyph[] page : data.glyphs) {
+            if (page == null) continue;
+            for (BitmapFont.Glyph glyph : page) {
+                if (glyph != null) count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 按 BMFont 文本格式输出字形数据，y 偏移的换算与 BitmapFontData.load 相反
+     */
+    private static String writeFnt(String name, BitmapFont.BitmapFontData data, PixmapPacker packer) {
+        Array<BitmapFont.Glyph> glyphs = new Array<>();
+        for (BitmapFont.Glyph[] page : data.glyphs) {
+            if (page == null) continue;
+            for (BitmapFont.Glyph glyph : page) {
+                if (glyph != null) glyphs.add(glyph);
+            }
+        }
+
+        int pages = packer.getPages().size;
+        StringBuilder sb = new StringBuilder(128 + glyphs.size * 96);
+        sb.append("info face=\"").append(name).append("\" size=0 bold=0 italic=0 charset=\"\" unicode=1")
+            .append(" stretchH=100 smooth=1 aa=1 padding=0,0,0,0 spacing=0,0\n");
+        int base = (int) (data.capHeight + (data.flipped ? -data.ascent : data.ascent));
+        sb.append("common lineHeight=").append((int) data.lineHeight).append(" base=").append(base)
+            .append(" scaleW=").append(packer.getPageWidth()).append(" scaleH=").append(packer.getPageHeight())
+            .append(" pages=").append(pages).append(" packed=0\n");
+        for (int p = 0; p < pages; p++) {
+            sb.append("page id=").append(p).append(" file=\"").append(pageFileName(p)).append("\"\n");
+        }
+        sb.append("chars count=").append(glyphs.size).append('\n');
+        for (BitmapFont.Glyph g : glyphs) {
+            int yoffset = data.flipped ? g.yoffset : -(g.height + g.yoffset);
+            sb.append("char id=").append(g.id)
+                .append(" x=").append(g.srcX)
+                .append(" y=").append(g.srcY)
+                .append(" width=").append(g.width)
+                .append(" height=").append(g.height)
+                .append(" xoffset=").append(g.xoffset)
+                .append(" yoffset=").append(yoffset)
+                .append(" xadvance=").append(g.xadvance)
+                .append(" page=").append(g.page)
+                .append(" chnl=0\n");
+        }
+
+        // 只检查缓存中存在的字形之间的字距
+        StringBuilder kernings = new StringBuilder();
+        int kerningCount = 0;
+        for (BitmapFont.Glyph first : glyphs) {
+            if (first.kerning == null) continue;
+            for (BitmapFont.Glyph second : glyphs) {
+                int amount = first.getKerning((char) second.id);
+                if (amount != 0) {
+                    kernings.append("kerning first=").append(first.id)
+                        .append(" second=").append(second.id)
+                        .append(" amount=").append(amount).append('\n');
+                    kerningCount++;
+                }
+            }
+        }
+        sb.append("kernings count=").append(kerningCount).append('\n').append(kernings);
+        return sb.toString();
+    }
+
+    /**
+     * BitmapFontData.load 会根据字形重新估算度量值，与 FreeType 的结果略有差异，因此单独保存原始值
+     */
+    private static String writeMetrics(BitmapFont.BitmapFontData data) {
+        return String.format(Locale.ROOT, "%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s",
+            data.ascent, data.descent, data.down, data.capHeight, data.lineHeight,
+            data.spaceXadvance, data.xHeight, data.padTop, data.padRight, data.padBottom, data.padLeft);
+    }
+
+    private static void applyMetrics(BitmapFont.BitmapFontData data, String metrics) {
+        String[] values = metrics.split(",");
+        data.ascent = Float.parseFloat(values[0]);
+        data.descent = Float.parseFloat(values[1]);
+        data.down = Float.parseFloat(values[2]);
+        data.capHeight = Float.parseFloat(values[3]);
+        data.lineHeight = Float.parseFloat(values[4]);
+        data.spaceXadvance = Float.parseFloat(values[5]);
+        data.xHeight = Float.parseFloat(values[6]);
+        data.padTop = Float.parseFloat(values[7]);
+        data.padRight = Float.parseFloat(values[8]);
+        data.padBottom = Float.parseFloat(values[9]);
+        data.padLeft = Float.parseFloat(values[10]);
+    }
+
+    /**
+     * 会话结束时调用，缓存不完整则删除，下次启动重新生成
+     */
+    public void finish() {
+        if (loaded && stale && !saving.get()) {
+            dir.deleteDirectory();
+        }
+    }
+
+    @Override
+    public void dispose() {
+        for (BitmapFont font : loadedFonts) {
+            font.dispose();
+        }
+        loadedFonts.clear();
+        for (Texture texture : pageTextures) {
+            texture.dispose();
+        }
+        pageTextures.clear();
+        pageRegions.clear();
+    }
+}
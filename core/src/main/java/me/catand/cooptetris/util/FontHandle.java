@@ -0,0 +1,98 @@
+package me.catand.cooptetris.util;
+
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.freetype.FreeTypeFontGenerator;
+
+import java.util.BitSet;
+import java.util.HashMap;
+
+/**
+ * 字体句柄 - 对应一组 (字号, 描边, 翻转) 参数，按字体生成器保存当前字体和已确认可渲染的字符
+ * 已经确认过的字符只需要一次位图查询，只有新出现的字符才会检查字形，
+ * 界面重建大量标签时不再对每段文本逐字查询字形
+ */
+public class FontHandle {
+    private static final class Coverage {
+        BitmapFont font;
+        final BitSet characters = new BitSet();
+    }
+
+    private final PlatformSupport platform;
+    private final int size;
+    private final boolean flipped;
+    private final boolean border;
+    private final HashMap<FreeTypeFontGenerator, Coverage> coverages = new HashMap<>();
+
+    FontHandle(PlatformSupport platform, int size, boolean flipped, boolean border) {
+        this.platform = platform;
+        this.size = size;
+        this.flipped = flipped;
+        this.border = border;
+    }
+
+    /**
+     * 获取能够渲染指定文本的字体
+     */
+    public BitmapFont get(String text) {
+        long start = System.nanoTime();
+        BitmapFont font = resolve(text);
+        platform.recordFontLookup(System.nanoTime() - start);
+        return font;
+    }
+
+    private BitmapFont resolve(String text) {
+        FreeTypeFontGenerator generator = platform.resolveGenerator(text);
+        if (generator == null) {
+            return null;
+        }
+
+        Coverage coverage = coverages.get(generator);
+        if (coverage == null) {
+            coverage = new Coverage();
+            coverages.put(generator, coverage);
+        }
+
+        // 字体被重新生成或从缓存替换后，之前的确认结果作废
+        BitmapFont current = platform.getLoadedFont(generator, size, flipped, border);
+        if (current != coverage.font) {
+            coverage.font = current;
+            coverage.characters.clear();
+        }
+
+        if (current != null && covers(coverage, generator, text)) {
+            return current;
+        }
+
+        BitmapFont font = platform.obtainFont(generator, size, text, flipped, border);
+        if (font != coverage.font) {
+            coverage.font = font;
+            coverage.characters.clear();
+        }
+        if (font != null) {
+            // obtainFont 返回的字体一定能渲染这段文本
+            for (int i = 0, n = text.length(); i < n; i++) {
+                coverage.characters.set(text.charAt(i));
+            }
+        }
+        return font;
+    }
+
+    /**
+     * 只检查尚未确认的字符：缓存字体缺少的字符需要回退到 FreeType，
+     * 增量字体的 getGlyph 会直接生成缺少的字形，控制字符和字体本身没有的字符使用 missingGlyph
+     */
+    private boolean covers(Coverage coverage, FreeTypeFontGenerator generator, String text) {
+        BitSet characters = coverage.characters;
+        BitmapFont.BitmapFontData data = coverage.font.getData();
+        for (int i = 0, n = text.length(); i < n; i++) {
+            char c = text.charAt(i);
+            if (c < ' ' || characters.get(c)) continue;
+            platform.recordGlyphCheck();
+            if (data.getGlyph(c) == null && generator.hasGlyph(c)) {
+                return false;
+            }
+            characters.set(c);
+        }
+        return true;
+    }
+}
@@ -0,0 +1,289 @@
+package me.catand.cooptetris.util;
+
+import com.badlogic.gdx.graphics.profiling.GLProfiler;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+
+import lombok.Getter;
+import me.catand.cooptetris.network.NetworkManager;
+
+/**
+ * 帧耗时分析器 - 采集每帧的耗时、渲染调用、内存和网络数据
+ * - 不依赖渲染，GLProfiler 和 NetworkManager 都可以为 null，无图形环境（headless）下也能采集并写入CSV，
+ *   此时渲染调用各列为 -1
+ * - 最近若干帧的耗时保存在环形缓冲区中，同时维护耗时分布直方图
+ * - CSV 记录模式下每帧写入一行，用于在不同设备间对比性能
+ */
+public class FrameProfiler {
+    // 保留的帧数
+    public static final int HISTORY_SIZE = 300;
+    // 直方图各区间的上限（毫秒），最后一个区间收集超过最大上限的帧
+    public static final float[] HISTOGRAM_BOUNDS = {4f, 8f, 12f, 17f, 25f, 33f, 50f};
+    // 每秒统计一次速率类数据
+    private static final long RATE_INTERVAL_NANOS = 1_000_000_000L;
+
+    static final String CSV_HEADER = "time_ms,frame_ms,fps,draw_calls,texture_bindings,shader_switches,vertices,"
+        + "heap_used_kb,heap_total_kb,gc_count,gc_time_ms,rtt_ms,msgs_in_per_sec,msgs_out_per_sec";
+
+    private final GLProfiler glProfiler;
+    private final NetworkManager networkManager;
+
+    // 帧耗时环形缓冲区与直方图
+    private final float[] frameTimes = new float[HISTORY_SIZE];
+    private final byte[] frameBuckets = new byte[HISTORY_SIZE];
+    @Getter
+    private final int[] histogram = new int[HISTOGRAM_BOUNDS.length + 1];
+    private int historyIndex;
+    @Getter
+    private int sampleCount;
+
+    private long frameStartNanos;
+    private long lastFrameEndNanos;
+    private long captureStartNanos;
+
+    // 最近一帧的数据，渲染调用统计在 GLProfiler 不可用或未启用时为 -1
+    @Getter
+    private float lastFrameMillis;
+    @Getter
+    private float maxFrameMillis;
+    @Getter
+    private int fps;
+    @Getter
+    private int drawCalls = -1;
+    @Getter
+    private int textureBindings = -1;
+    @Getter
+    private int shaderSwitches = -1;
+    @Getter
+    private int vertexCount = -1;
+    @Getter
+    private long heapUsedBytes;
+    @Getter
+    private long heapTotalBytes;
+    @Getter
+    private long gcCount = -1;
+    @Getter
+    private long gcTimeMillis = -1;
+    @Getter
+    private int returnTripTime = -1;
+    @Getter
+    private float messagesInPerSecond;
+    @Getter
+    private float messagesOutPerSecond;
+
+    // 速率统计
+    private long rateWindowStartNanos;
+    private long rateFrameCount;
+    private long lastReceivedCount;
+    private long lastSentCount;
+    private boolean gcBeansAvailable = true;
+
+    // CSV 记录
+    private BufferedWriter csvWriter;
+    @Getter
+    private File csvFile;
+    private final StringBuilder csvLine = new StringBuilder(128);
+
+    public FrameProfiler(GLProfiler glProfiler, NetworkManager networkManager) {
+        this.glProfiler = glProfiler;
+        this.networkManager = networkManager;
+    }
+
+    /**
+     * 帧开始时调用
+     */
+    public void beginFrame() {
+        frameStartNanos = System.nanoTime();
+        if (glProfiler != null && glProfiler.isEnabled()) {
+            glProfiler.reset();
+        }
+    }
+
+    /**
+     * 帧结束时调用，记录本帧数据
+     * 帧耗时为两次 endFrame 之间的间隔（包含垂直同步等待），首帧使用本帧的 CPU 耗时
+     */
+    public void endFrame() {
+        long now = System.nanoTime();
+        long elapsed = lastFrameEndNanos != 0 ? now - lastFrameEndNanos : now - frameStartNanos;
+        lastFrameEndNanos = now;
+        lastFrameMillis = elapsed / 1_000_000f;
+        recordFrameTime(lastFrameMillis);
+
+        if (glProfiler != null && glProfiler.isEnabled()) {
+            drawCalls = glProfiler.getDrawCalls();
+            textureBindings = glProfiler.getTextureBindings();
+            shaderSwitches = glProfiler.getShaderSwitches();
+            vertexCount = (int) glProfiler.getVertexCount().total;
+        } else {
+            drawCalls = -1;
+            textureBindings = -1;
+            shaderSwitches = -1;
+            vertexCount = -1;
+        }
+
+        Runtime runtime = Runtime.getRuntime();
+        heapTotalBytes = runtime.totalMemory();
+        heapUsedBytes = heapTotalBytes - runtime.freeMemory();
+
+        rateFrameCount++;
+        if (rateWindowStartNanos == 0) {
+            rateWindowStartNanos = now;
+            if (networkManager != null) {
+                lastReceivedCount = networkManager.getReceivedMessageCount();
+                lastSentCount = networkManager.getSentMessageCount();
+            }
+        } else if (now - rateWindowStartNanos >= RATE_INTERVAL_NANOS) {
+            updateRates(now);
+        }
+
+        if (csvWriter != null) {
+            writeCsvLine(now);
+        }
+    }
+
+    private void recordFrameTime(float millis) {
+        int bucket = bucketOf(millis);
+        if (sampleCount == HISTORY_SIZE) {
+            histogram[frameBuckets[historyIndex]]--;
+        } else {
+            sampleCount++;
+        }
+        frameTimes[historyIndex] = millis;
+        frameBuckets[historyIndex] = (byte) bucket;
+        histogram[bucket]++;
+        historyIndex = (historyIndex + 1) % HISTORY_SIZE;
+
+        float max = 0f;
+        for (int i = 0; i < sampleCount; i++) {
+            if (frameTimes[i] > max) {
+                max = frameTimes[i];
+            }
+        }
+        maxFrameMillis = max;
+    }
+
+    private static int bucketOf(float millis) {
+        for (int i = 0; i < HISTOGRAM_BOUNDS.length; i++) {
+            if (millis < HISTOGRAM_BOUNDS[i]) {
+                return i;
+            }
+        }
+        return HISTOGRAM_BOUNDS.length;
+    }
+
+    /**
+     * 每秒更新一次帧率、网络速率、往返时间和GC统计
+     */
+    private void updateRates(long now) {
+        float seconds = (now - rateWindowStartNanos) / 1_000_000_000f;
+        fps = Math.round(rateFrameCount / seconds);
+        rateFrameCount = 0;
+        rateWindowStartNanos = now;
+
+        if (networkManager != null) {
+            long received = networkManager.getReceivedMessageCount();
+            long sent = networkManager.getSentMessageCount();
+            messagesInPerSecond = (received - lastReceivedCount) / seconds;
+            messagesOutPerSecond = (sent - lastSentCount) / seconds;
+            lastReceivedCount = received;
+            lastSentCount = sent;
+            returnTripTime = networkManager.getReturnTripTime();
+            // 发送下一次探测，结果在下一秒读取
+            networkManager.requestReturnTripTime();
+        }
+
+        updateGcStats();
+    }
+
+    private void updateGcStats() {
+        if (!gcBeansAvailable) return;
+        try {
+            long count = 0;
+            long time = 0;
+            for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+                count += Math.max(0, bean.getCollectionCount());
+                time += Math.max(0, bean.getCollectionTime());
+            }
+            gcCount = count;
+            gcTimeMillis = time;
+        } catch (LinkageError | RuntimeException e) {
+            // Android 上没有 java.lang.management，GC 统计显示为 -1
+            gcBeansAvailable = false;
+            gcCount = -1;
+            gcTimeMillis = -1;
+        }
+    }
+
+    /**
+     * 获取第 i 新的帧耗时（0 为最近一帧）
+     */
+    public float getFrameTime(int i) {
+        int index = (historyIndex - 1 - i + HISTORY_SIZE * 2) % HISTORY_SIZE;
+        return frameTimes[index];
+    }
+
+    // ==================== CSV 记录 ====================
+
+    public boolean isCapturing() {
+        return csvWriter != null;
+    }
+
+    /**
+     * 开始把每帧数据写入CSV文件
+     */
+    public void startCapture(File file) throws IOException {
+        stopCapture();
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.exists()) {
+            parent.mkdirs();
+        }
+        csvWriter = new BufferedWriter(new FileWriter(file));
+        csvWriter.write(CSV_HEADER);
+        csvWriter.newLine();
+        csvFile = file;
+        captureStartNanos = System.nanoTime();
+        System.out.println("FrameProfiler: 开始记录性能数据到 " + file.getAbsolutePath());
+    }
+
+    public void stopCapture() {
+        if (csvWriter == null) return;
+        try {
+            csvWriter.close();
+        } catch (IOException e) {
+            System.err.println("FrameProfiler: 关闭CSV文件失败: " + e.getMessage());
+        }
+        csvWriter = null;
+        System.out.println("FrameProfiler: 性能数据已保存到 " + csvFile.getAbsolutePath());
+    }
+
+    private void writeCsvLine(long now) {
+        csvLine.setLength(0);
+        csvLine.append((now - captureStartNanos) / 1_000_000L).append(',')
+            .append(lastFrameMillis).append(',')
+            .append(fps).append(',')
+            .append(drawCalls).append(',')
+            .append(textureBindings).append(',')
+            .append(shaderSwitches).append(',')
+            .append(vertexCount).append(',')
+            .append(heapUsedBytes / 1024).append(',')
+            .append(heapTotalBytes / 1024).append(',')
+            .append(gcCount).append(',')
+            .append(gcTimeMillis).append(',')
+            .append(returnTripTime).append(',')
+            .append(messagesInPerSecond).append(',')
+            .append(messagesOutPerSecond);
+        try {
+            csvWriter.append(csvLine);
+            csvWriter.newLine();
+        } catch (IOException e) {
+            System.err.println("FrameProfiler: 写入CSV失败，停止记录: " + e.getMessage());
+            stopCapture();
+        }
+    }
+}
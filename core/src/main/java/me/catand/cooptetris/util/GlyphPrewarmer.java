@@ -0,0 +1,67 @@
+package me.catand.cooptetris.util;
+
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * 字形预热器 - 把字符集中的字形分摊到多帧中提前光栅化
+ * FreeType 增量字体在第一次遇到新字符时才生成字形，并且会向共享的 PixmapPacker 和纹理写入数据，
+ * 只能在渲染线程中进行。这里每帧只使用固定的时间预算，避免在游戏中途（例如收到包含新中文字符的聊天消息时）卡顿
+ */
+public class GlyphPrewarmer {
+    private static final class Task {
+        final BitmapFont font;
+        final String characters;
+        int index;
+
+        Task(BitmapFont font, String characters) {
+            this.font = font;
+            this.characters = characters;
+        }
+    }
+
+    private final Array<Task> tasks = new Array<>();
+
+    /**
+     * 添加预热任务，同一字体只保留一个任务
+     */
+    public void add(BitmapFont font, String characters) {
+        if (font == null || characters == null || characters.isEmpty()) return;
+        for (Task task : tasks) {
+            if (task.font == font) return;
+        }
+        tasks.add(new Task(font, characters));
+    }
+
+    public boolean isIdle() {
+        return tasks.size == 0;
+    }
+
+    /**
+     * 在时间预算内生成字形
+     *
+     * @return 本次调用是否完成了所有剩余任务
+     */
+    public boolean update(long budgetNanos) {
+        if (tasks.size == 0) return false;
+
+        long deadline = System.nanoTime() + budgetNanos;
+        while (tasks.size > 0) {
+            Task task = tasks.first();
+            BitmapFont.BitmapFontData data = task.font.getData();
+            while (task.index < task.characters.length()) {
+                // 增量字体的 getGlyph 会在字形不存在时生成它
+                data.getGlyph(task.characters.charAt(task.index++));
+                if (System.nanoTime() >= deadline) {
+                    return false;
+                }
+            }
+            tasks.removeIndex(0);
+        }
+        return true;
+    }
+
+    public void clear() {
+        tasks.clear();
+    }
+}
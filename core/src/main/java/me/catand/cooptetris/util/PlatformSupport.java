@@ -7,7 +7,14 @@ import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.graphics.g2d.PixmapPacker;
 import com.badlogic.gdx.graphics.g2d.freetype.FreeTypeFontGenerator;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import lombok.Getter;
 
 public abstract class PlatformSupport {
 
@@ -58,6 +65,27 @@ public abstract class PlatformSupport {
     protected int pageSize;
     protected PixmapPacker packer;
 
+    // 每帧用于预热字形的时间预算
+    private static final long PREWARM_BUDGET_NANOS = 2_000_000L;
+    private final GlyphPrewarmer prewarmer = new GlyphPrewarmer();
+    private final HashMap<FreeTypeFontGenerator, String> prewarmCharacters = new HashMap<>();
+    private FontCache fontCache;
+
+    // 字体句柄与文本到字体生成器的映射，界面重复使用的文本不再重新匹配
+    private static final int GENERATOR_CACHE_LIMIT = 1024;
+    private final HashMap<Integer, FontHandle> fontHandles = new HashMap<>();
+    private final HashMap<String, FreeTypeFontGenerator> generatorCache = new HashMap<>();
+
+    // 字体查询统计
+    @Getter
+    private long fontLookupCount;
+    @Getter
+    private long fontLookupNanos;
+    @Getter
+    private long glyphCheckCount;
+    @Getter
+    private long fontGenerateCount;
+
     public abstract void setupFontGenerators(int pageSize);
 
     protected abstract FreeTypeFontGenerator getGeneratorForString(String input);
@@ -69,6 +97,7 @@ public abstract class PlatformSupport {
     }
 
     public void resetGenerators(boolean setupAfter) {
+        clearFontState();
         if (fonts != null) {
             for (FreeTypeFontGenerator generator : fonts.keySet()) {
                 for (BitmapFont f : fonts.get(generator).values()) {
@@ -91,6 +120,7 @@ public abstract class PlatformSupport {
 
     public void reloadGenerators() {
         if (packer != null) {
+            clearFontState();
             for (FreeTypeFontGenerator generator : fonts.keySet()) {
                 for (BitmapFont f : fonts.get(generator).values()) {
                     f.dispose();
@@ -110,23 +140,78 @@ public abstract class PlatformSupport {
     //flipped is needed because Shattered's graphics are y-down, while GDX graphics are y-up.
     //this is very confusing, I know.
     public BitmapFont getFont(int size, String text, boolean flipped, boolean border) {
-        FreeTypeFontGenerator generator = getGeneratorForString(text);
+        return getFontHandle(size, flipped, border).get(text);
+    }
 
-        if (generator == null) {
-            return null;
+    /**
+     * 获取 (字号, 翻转, 描边) 对应的字体句柄，句柄会记录已经确认可渲染的字符
+     */
+    public FontHandle getFontHandle(int size, boolean flipped, boolean border) {
+        int key = fontKey(size, flipped, border);
+        FontHandle handle = fontHandles.get(key);
+        if (handle == null) {
+            handle = new FontHandle(this, size, flipped, border);
+            fontHandles.put(key, handle);
         }
+        return handle;
+    }
 
+    private static int fontKey(int size, boolean flipped, boolean border) {
         int key = size;
         if (border) key += Short.MAX_VALUE;
         if (flipped) key = -key;
+        return key;
+    }
+
+    FreeTypeFontGenerator resolveGenerator(String text) {
+        FreeTypeFontGenerator generator = generatorCache.get(text);
+        if (generator == null) {
+            generator = getGeneratorForString(text);
+            if (generator == null) return null;
+            if (generatorCache.size() >= GENERATOR_CACHE_LIMIT) {
+                generatorCache.clear();
+            }
+            generatorCache.put(text, generator);
+        }
+        return generator;
+    }
+
+    BitmapFont getLoadedFont(FreeTypeFontGenerator generator, int size, boolean flipped, boolean border) {
+        return fonts.get(generator).get(fontKey(size, flipped, border));
+    }
+
+    void recordFontLookup(long nanos) {
+        fontLookupCount++;
+        fontLookupNanos += nanos;
+    }
+
+    void recordGlyphCheck() {
+        glyphCheckCount++;
+    }
+
+    /**
+     * 获取或生成能够渲染指定文本的字体：优先使用已有字体和磁盘缓存，否则由 FreeType 生成
+     */
+    BitmapFont obtainFont(FreeTypeFontGenerator generator, int size, String text, boolean flipped, boolean border) {
+        int key = fontKey(size, flipped, border);
 
         BitmapFont existingFont = fonts.get(generator).get(key);
+        boolean fromCache = false;
+
+        if (existingFont == null) {
+            // 优先使用磁盘缓存中的字体，跳过 FreeType 光栅化
+            existingFont = getFontCache().load(cacheName(generator, key), flipped);
+            if (existingFont != null) {
+                fonts.get(generator).put(key, existingFont);
+            }
+        }
 
         if (existingFont != null) {
             // Check if existing font can render all characters in text
-            if (canRenderText(existingFont, text)) {
+            if (canRenderText(existingFont, generator, text)) {
                 return existingFont;
             }
+            fromCache = true;
         }
 
         // Need to create or regenerate font with new characters
@@ -149,8 +234,15 @@ public abstract class PlatformSupport {
 
         try {
             BitmapFont font = generator.generateFont(parameters);
+            fontGenerateCount++;
             font.getData().missingGlyph = font.getData().getGlyph('�');
             fonts.get(generator).put(key, font);
+            if (fromCache) {
+                // 缓存的字体缺少字形，旧字体仍可能被界面引用，由缓存负责释放
+                getFontCache().markStale();
+            }
+            // 其余字符分摊到之后的帧中生成
+            prewarmer.add(font, getPrewarmCharacters(generator));
             return font;
         } catch (Exception e) {
             e.printStackTrace();
@@ -158,13 +250,114 @@ public abstract class PlatformSupport {
         }
     }
 
-    private boolean canRenderText(BitmapFont font, String text) {
-        for (char c : text.toCharArray()) {
-            if (font.getData().getGlyph(c) == null) {
+    /**
+     * 只检查尚未生成的字形：缓存字体缺少的字符需要回退到 FreeType，
+     * 而增量字体的 getGlyph 会直接生成缺少的字形，控制字符和字体本身没有的字符则使用 missingGlyph
+     */
+    private boolean canRenderText(BitmapFont font, FreeTypeFontGenerator generator, String text) {
+        BitmapFont.BitmapFontData data = font.getData();
+        for (int i = 0, n = text.length(); i < n; i++) {
+            char c = text.charAt(i);
+            if (c < ' ') continue;
+            if (data.getGlyph(c) == null && generator.hasGlyph(c)) {
                 return false;
             }
         }
         return true;
     }
 
+    /**
+     * 提前创建常用字号的字体，并把 LanguageManager 的字符集加入预热队列
+     * 字体本身只生成替代字形，其余字形由 {@link #updateFonts()} 分摊到之后的帧中生成
+     */
+    public void prewarmFonts(int... sizes) {
+        if (fonts == null) return;
+        for (FreeTypeFontGenerator generator : fonts.keySet()) {
+            if (getPrewarmCharacters(generator).isEmpty()) continue;
+            for (int size : sizes) {
+                obtainFont(generator, size, "", false, false);
+            }
+        }
+    }
+
+    /**
+     * 每帧调用：在时间预算内预热字形，全部完成后写入字体缓存
+     */
+    public void updateFonts() {
+        if (prewarmer.update(PREWARM_BUDGET_NANOS)) {
+            saveFontCache(true);
+        }
+    }
+
+    /**
+     * 把当前的字体写入磁盘缓存，退出时同步写入
+     */
+    public void saveFontCache(boolean async) {
+        if (fonts == null || fontCache == null) return;
+        if (fontCache.canSave()) {
+            Map<String, BitmapFont> entries = new LinkedHashMap<>();
+            for (Map.Entry<FreeTypeFontGenerator, HashMap<Integer, BitmapFont>> generatorFonts : fonts.entrySet()) {
+                for (Map.Entry<Integer, BitmapFont> font : generatorFonts.getValue().entrySet()) {
+                    entries.put(cacheName(generatorFonts.getKey(), font.getKey()), font.getValue());
+                }
+            }
+            fontCache.save(entries, packer, async);
+        }
+        if (!async) {
+            fontCache.finish();
+        }
+    }
+
+    private FontCache getFontCache() {
+        if (fontCache == null) {
+            // 版本戳：页大小、字体文件、语言（Android 的 CJK 字体按语言选择字形）和字符集
+            List<String> names = new ArrayList<>();
+            for (FreeTypeFontGenerator generator : fonts.keySet()) {
+                names.add(generator.toString());
+            }
+            Collections.sort(names);
+            String stamp = pageSize + "|" + names + "|" + TetrisSettings.language()
+                + "|" + LanguageManager.getAllCharacters().hashCode();
+            fontCache = new FontCache(Gdx.files.local("cache/fonts"), stamp);
+        }
+        return fontCache;
+    }
+
+    private void clearFontState() {
+        fontHandles.clear();
+        generatorCache.clear();
+        prewarmer.clear();
+        prewarmCharacters.clear();
+        if (fontCache != null) {
+            fontCache.finish();
+            fontCache.dispose();
+            fontCache = null;
+        }
+    }
+
+    private static String cacheName(FreeTypeFontGenerator generator, int key) {
+        return generator + "_" + (key < 0 ? "f" + (-key) : String.valueOf(key));
+    }
+
+    /**
+     * 某个字体生成器需要预热的字符：基础字体只负责非亚洲字符，亚洲字体的文本中也会混有拉丁字符
+     */
+    private String getPrewarmCharacters(FreeTypeFontGenerator generator) {
+        String characters = prewarmCharacters.get(generator);
+        if (characters == null) {
+            FreeTypeFontGenerator basic = getGeneratorForString("a");
+            String all = LanguageManager.getAllCharacters();
+            StringBuilder sb = new StringBuilder(all.length());
+            for (int i = 0; i < all.length(); i++) {
+                char c = all.charAt(i);
+                if (generator != basic || getGeneratorForString(String.valueOf(c)) == generator) {
+                    sb.append(c);
+                }
+            }
+            characters = sb.toString();
+            prewarmCharacters.put(generator, characters);
+        }
+        return characters;
+    }
+
 }
@@ -40,6 +40,9 @@ public class TetrisSettings extends GameSettings {
     public static final String KEY_WINDOW_HEIGHT = "window_height";
     public static final String KEY_WINDOW_MAXIMIZED = "window_maximized";
 
+    // ==================== 调试设置 ====================
+    public static final String KEY_SHOW_PROFILER = "show_profiler";
+
     // ==================== 第一套控制键位设置 ====================
 
     public static void leftKey(InputBinding key) {
@@ -203,6 +206,16 @@ public class TetrisSettings extends GameSettings {
         return getBoolean(KEY_WINDOW_MAXIMIZED, false);
     }
 
+    // ==================== 调试设置 ====================
+
+    public static void showProfiler(boolean value) {
+        put(KEY_SHOW_PROFILER, value);
+    }
+
+    public static boolean showProfiler() {
+        return getBoolean(KEY_SHOW_PROFILER, false);
+    }
+
     // ==================== 重置所有设置 ====================
 
     public static void resetToDefaults() {
@@ -223,5 +236,6 @@ public class TetrisSettings extends GameSettings {
         fullscreen(false);
         windowResolution(new Point(800, 600));
         windowMaximized(false);
+        showProfiler(false);
     }
 }
@@ -0,0 +1,120 @@
+package me.catand.cooptetris.ui;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+
+import java.lang.management.ManagementFactory;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import me.catand.cooptetris.shared.tetris.GameLogic;
+
+/**
+ * 游戏板渲染路径的分配测试：在无显示环境下（NoopGL20）重复渲染游戏帧，当前线程的分配字节数应为 0
+ * 帧内包含外框、静态层、消行闪光、虚影和活动方块，并定期递增游戏板版本号触发静态层重绘
+ */
+public class BoardRendererAllocationTest {
+    private static final int WARMUP_FRAMES = 20000;
+    private static final int MEASURED_FRAMES = 2000;
+    // 每隔多少帧游戏板版本号递增一次，模拟方块锁定
+    private static final int LOCK_INTERVAL = 16;
+    private static final float CELL_SIZE = 30f;
+
+    private static HeadlessApplication application;
+    private static com.sun.management.ThreadMXBean threads;
+
+    private final int[][] board = new int[GameLogic.BOARD_HEIGHT][GameLogic.BOARD_WIDTH];
+    private final GameLogic gameLogic = new GameLogic();
+    private int version;
+
+    @BeforeAll
+    public static void setUpHeadless() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean, "JVM 不支持按线程统计分配");
+        threads = (com.sun.management.ThreadMXBean) bean;
+        assumeTrue(threads.isThreadAllocatedMemorySupported(), "JVM 不支持按线程统计分配");
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        application = new HeadlessApplication(new ApplicationAdapter() {
+        });
+        Gdx.gl = Gdx.gl20 = new NoopGL20();
+    }
+
+    @AfterAll
+    public static void tearDownHeadless() {
+        if (application != null) {
+            application.exit();
+        }
+    }
+
+    @Test
+    public void renderFrameDoesNotAllocate() {
+        BoardRenderer renderer = new BoardRenderer();
+        BoardLayer layer = new BoardLayer();
+        SpriteBatch batch = new SpriteBatch();
+        try {
+            for (int y = GameLogic.BOARD_HEIGHT - 4; y < GameLogic.BOARD_HEIGHT; y++) {
+                for (int x = 0; x < GameLogic.BOARD_WIDTH - 1; x++) {
+                    board[y][x] = (x + y) % 7 + 1;
+                }
+            }
+
+            for (int frame = 0; frame < WARMUP_FRAMES; frame++) {
+                renderFrame(batch, renderer, layer, frame);
+            }
+            // 统计调用本身可能分配（例如 JDK 11 中的临时数组），先测出这部分并扣除
+            for (int i = 0; i < WARMUP_FRAMES; i++) {
+                allocatedBytes();
+            }
+            long before = allocatedBytes();
+            long overhead = allocatedBytes() - before;
+
+            long start = allocatedBytes();
+            for (int frame = 0; frame < MEASURED_FRAMES; frame++) {
+                renderFrame(batch, renderer, layer, frame);
+            }
+            long allocated = allocatedBytes() - start - overhead;
+
+            assertEquals(0, allocated, "渲染 " + MEASURED_FRAMES + " 帧分配了 " + allocated + " 字节");
+        } finally {
+            batch.dispose();
+            layer.dispose();
+            renderer.dispose();
+        }
+    }
+
+    private void renderFrame(SpriteBatch batch, BoardRenderer renderer, BoardLayer layer, int frame) {
+        if (frame % LOCK_INTERVAL == 0) {
+            version++;
+        }
+        int piece = frame % 7;
+        int rotation = (frame / 7) % 4;
+        int[][] shape = gameLogic.getPieceShape(piece, rotation);
+        // 插值中的方块坐标为小数
+        float pieceX = 3 + (frame % 5) * 0.2f;
+        float pieceY = (frame % GameLogic.BOARD_HEIGHT) * 0.75f;
+
+        batch.begin();
+        renderer.drawFrame(batch, 0f, 0f, GameLogic.BOARD_WIDTH, GameLogic.BOARD_HEIGHT, CELL_SIZE);
+        renderer.drawStaticLayer(batch, layer, gameLogic, version, board, null,
+            0f, 0f, GameLogic.BOARD_WIDTH, GameLogic.BOARD_HEIGHT, CELL_SIZE);
+        renderer.drawRect(batch, 1f, 1f, 1f, 0.5f, 0f, 0f,
+            GameLogic.BOARD_WIDTH * CELL_SIZE, GameLogic.BOARD_HEIGHT * CELL_SIZE);
+        renderer.drawPiece(batch, renderer.getTetrominoGhost(piece), shape, pieceX, GameLogic.BOARD_HEIGHT - 6,
+            0f, 0f, GameLogic.BOARD_WIDTH, GameLogic.BOARD_HEIGHT, CELL_SIZE);
+        renderer.drawPiece(batch, renderer.getTetrominoCell(piece), shape, pieceX, pieceY,
+            0f, 0f, GameLogic.BOARD_WIDTH, GameLogic.BOARD_HEIGHT, CELL_SIZE);
+        batch.end();
+    }
+
+    private static long allocatedBytes() {
+        return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
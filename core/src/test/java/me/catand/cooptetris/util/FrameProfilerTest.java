@@ -0,0 +1,64 @@
+package me.catand.cooptetris.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * FrameProfiler 的 CSV 记录测试：不创建 GL 上下文和网络连接，记录若干帧后检查表头和每一行
+ */
+public class FrameProfilerTest {
+    private static final int FRAMES = 50;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void capturesCsvWithoutGl() throws IOException {
+        FrameProfiler profiler = new FrameProfiler(null, null);
+        File file = tempDir.resolve("profiles/frames.csv").toFile();
+
+        profiler.startCapture(file);
+        assertTrue(profiler.isCapturing());
+        for (int i = 0; i < FRAMES; i++) {
+            profiler.beginFrame();
+            profiler.endFrame();
+        }
+        profiler.stopCapture();
+        assertFalse(profiler.isCapturing());
+
+        List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+        assertEquals(FRAMES + 1, lines.size());
+        assertEquals(FrameProfiler.CSV_HEADER, lines.get(0));
+
+        int columns = FrameProfiler.CSV_HEADER.split(",").length;
+        long lastTime = 0;
+        for (int i = 1; i < lines.size(); i++) {
+            String[] values = lines.get(i).split(",", -1);
+            assertEquals(columns, values.length, "第 " + i + " 行: " + lines.get(i));
+
+            long time = Long.parseLong(values[0]);
+            assertTrue(time >= lastTime, "时间戳应当单调递增");
+            lastTime = time;
+            assertTrue(Float.parseFloat(values[1]) >= 0f);
+            // 没有 GLProfiler 时渲染调用各列为 -1
+            for (int column = 3; column <= 6; column++) {
+                assertEquals("-1", values[column]);
+            }
+            assertTrue(Long.parseLong(values[7]) > 0, "已用堆内存");
+            // 没有 NetworkManager 时往返时间为 -1
+            assertEquals("-1", values[11]);
+        }
+        assertEquals(FRAMES, profiler.getSampleCount());
+    }
+}
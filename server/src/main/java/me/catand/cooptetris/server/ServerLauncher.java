@@ -1,24 +1,136 @@
 package me.catand.cooptetris.server;
 
-import com.badlogic.gdx.Application;
-import com.badlogic.gdx.ApplicationAdapter;
-import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.LifecycleListener;
-import com.badlogic.gdx.utils.Clipboard;
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+
+import me.catand.cooptetris.shared.server.MatchHistory;
+import me.catand.cooptetris.shared.server.ServerConfig;
 import me.catand.cooptetris.shared.server.ServerManager;
+import me.catand.cooptetris.shared.server.ShardRouter;
 
 /**
  * Launches the server application.
+ * <p>
+ * 用法: ServerLauncher [--config server.properties] [--key=value ...]
+ * 配置项名称见 {@link ServerConfig#set}，命令行参数覆盖配置文件
+ * <p>
+ * 分片部署：一个进程以 --role=router 运行作为客户端入口，分片通过路由的 shard.port 注册；其余进程以
+ * --role=shard --shard.router=路由地址:shard.port 运行，各自监听不同端口
  */
 public class ServerLauncher {
     public static void main(String[] args) {
-        // 启动服务器
-        ServerManager serverManager = new ServerManager(52791);
+        ServerConfig config = loadConfig(args);
+        if (config == null) {
+            System.exit(1);
+            return;
+        }
+
+        // 输出生效配置，便于按机器规格调优时核对
+        System.out.println("ServerLauncher: 生效配置:");
+        for (Map.Entry<String, Object> entry : config.toMap().entrySet()) {
+            System.out.println("  " + entry.getKey() + " = " + entry.getValue());
+        }
+
+        if (config.isRouter()) {
+            startRouter(config);
+            return;
+        }
+
+        ServerManager serverManager = start(config);
+        if (serverManager == null) {
+            System.exit(1);
+            return;
+        }
 
+        // 停服时先排空：不再接受新房间，等待进行中的游戏结束，超时的游戏移交给其他分片或保存快照
         Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            serverManager.drain(config.getDrainMillis(), new File(config.getSnapshotDir()));
             serverManager.stop();
         }));
-        
-        System.out.println("ServerLauncher: 服务器启动完成，监听端口 52791");
+    }
+
+    /**
+     * 按已校验的配置启动服务器：恢复快照中的房间并打开对局历史存储
+     * 不注册停服钩子，由调用方负责排空和停止
+     *
+     * @return 启动的服务器，端口绑定失败时返回 null
+     */
+    public static ServerManager start(ServerConfig config) {
+        ServerManager serverManager = new ServerManager(config);
+        if (!serverManager.isRunning()) {
+            return null;
+        }
+
+        // 恢复上一个实例停服时保存的房间
+        int restored = serverManager.restoreSnapshots(new File(config.getSnapshotDir()));
+        if (restored > 0) {
+            System.out.println("ServerLauncher: 已从快照恢复 " + restored + " 个房间");
+        }
+
+        // 打开对局历史存储，清理过期记录，运行期间按间隔继续清理
+        try {
+            MatchHistory matchHistory = new MatchHistory(new File(config.getHistoryDir()));
+            matchHistory.compact(config.getHistoryRetentionMillis());
+            matchHistory.scheduleCompaction(config.getHistoryRetentionMillis(), config.getHistoryCompactMinutes() * 60L * 1000);
+            serverManager.setMatchHistory(matchHistory);
+        } catch (IOException e) {
+            System.err.println("ServerLauncher: 对局历史存储打开失败，本次运行不记录对局: " + e.getMessage());
+        }
+
+        System.out.println("ServerLauncher: 服务器启动完成，监听端口 " + config.getPort());
+        return serverManager;
+    }
+
+    /**
+     * 以分片路由角色运行，本进程不承载房间
+     */
+    private static void startRouter(ServerConfig config) {
+        ShardRouter router = new ShardRouter(config);
+        try {
+            router.start();
+        } catch (IOException e) {
+            System.err.println("ServerLauncher: 路由启动失败: " + e.getMessage());
+            System.exit(1);
+            return;
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(router::stop));
+        System.out.println("ServerLauncher: 路由启动完成，监听端口 " + config.getPort());
+    }
+
+    /**
+     * 依次应用默认值、配置文件和命令行参数，配置无效时输出原因并返回 null
+     */
+    private static ServerConfig loadConfig(String[] args) {
+        ServerConfig config = new ServerConfig();
+        try {
+            // 未指定配置文件时，工作目录下存在默认配置文件才读取
+            String path = findConfigPath(args);
+            File file = new File(path != null ? path : ServerConfig.DEFAULT_FILE);
+            if (path != null || file.isFile()) {
+                config.load(file);
+                System.out.println("ServerLauncher: 已读取配置文件 " + file.getAbsolutePath());
+            }
+            config.applyArgs(args);
+            config.validate();
+            return config;
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("ServerLauncher: " + e.getMessage());
+            System.err.println("Usage: ServerLauncher [--config <file>] [--<key>=<value> ...]");
+            System.err.println("Keys: " + String.join(", ", config.toMap().keySet()));
+            return null;
+        }
+    }
+
+    private static String findConfigPath(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].startsWith("--config=")) {
+                return args[i].substring("--config=".length());
+            }
+            if (args[i].equals("--config") && i + 1 < args.length) {
+                return args[i + 1];
+            }
+        }
+        return null;
     }
 }
@@ -0,0 +1,106 @@
+package me.catand.cooptetris.server;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.esotericsoftware.kryonet.Client;
+import com.esotericsoftware.kryonet.Connection;
+import com.esotericsoftware.kryonet.Listener;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.nio.file.Path;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import me.catand.cooptetris.shared.message.ConnectMessage;
+import me.catand.cooptetris.shared.message.NetworkMessage;
+import me.catand.cooptetris.shared.message.RoomMessage;
+import me.catand.cooptetris.shared.server.ServerConfig;
+import me.catand.cooptetris.shared.server.ServerManager;
+
+/**
+ * 服务器冒烟测试：经 ServerLauncher 启动服务器，用 KryoNet 客户端完成连接和房间列表交换，结束时停止服务器
+ * 以 nativeTest 运行时覆盖原生镜像的反射配置，以 -Pagent 运行 test 时为 reflect-config.json 采集配置
+ */
+public class ServerSmokeTest {
+    private static final int TIMEOUT_MS = 5000;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void connectAndListRooms() throws Exception {
+        int port = findFreePort();
+        ServerConfig config = new ServerConfig();
+        config.set("port", String.valueOf(port));
+        config.set("snapshot.dir", directory.resolve("snapshots").toString());
+        config.set("history.dir", directory.resolve("history").toString());
+        config.validate();
+        ServerManager server = ServerLauncher.start(config);
+        assertNotNull(server);
+
+        BlockingQueue<NetworkMessage> received = new LinkedBlockingQueue<>();
+        Client client = new Client(16384, 16384);
+        ServerManager.registerMessages(client.getKryo());
+        client.addListener(new Listener() {
+            @Override
+            public void received(Connection connection, Object object) {
+                if (object instanceof NetworkMessage) {
+                    received.add((NetworkMessage) object);
+                }
+            }
+        });
+        client.start();
+        try {
+            client.connect(TIMEOUT_MS, "127.0.0.1", port);
+
+            ConnectMessage connect = new ConnectMessage();
+            connect.setPlayerName("smoke");
+            connect.setLanguage("en");
+            client.sendTCP(connect);
+            ConnectMessage connected = awaitMessage(received, ConnectMessage.class);
+            assertTrue(connected.isSuccess(), connected.getMessage());
+            assertNotNull(connected.getClientId());
+            assertNotNull(connected.getSessionToken());
+
+            client.sendTCP(new RoomMessage(RoomMessage.RoomAction.LIST));
+            RoomMessage list = awaitMessage(received, RoomMessage.class);
+            assertEquals(RoomMessage.RoomAction.LIST, list.getAction());
+            assertTrue(list.isSuccess());
+            assertEquals(0, list.getListOffset());
+            assertEquals(0, list.getListTotal());
+            assertTrue(list.getRooms() == null || list.getRooms().isEmpty());
+        } finally {
+            client.stop();
+            server.stop();
+        }
+    }
+
+    /**
+     * 等待指定类型的消息，跳过服务器主动推送的其他消息
+     */
+    private static <T extends NetworkMessage> T awaitMessage(BlockingQueue<NetworkMessage> received, Class<T> type)
+        throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        long remaining;
+        while ((remaining = deadline - System.currentTimeMillis()) > 0) {
+            NetworkMessage message = received.poll(remaining, TimeUnit.MILLISECONDS);
+            if (type.isInstance(message)) {
+                return type.cast(message);
+            }
+        }
+        throw new AssertionError("没有在 " + TIMEOUT_MS + " 毫秒内收到 " + type.getSimpleName());
+    }
+
+    private static int findFreePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
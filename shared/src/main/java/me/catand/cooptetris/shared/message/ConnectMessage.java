@@ -11,6 +11,10 @@ public class ConnectMessage extends NetworkMessage {
     private String message;
     private String clientId;
     private String language; // 客户端语言设置
+    // 会话令牌：连接成功时由服务器下发，断线重连时客户端带上以恢复游戏中的会话
+    private String sessionToken;
+    private boolean resumed; // 是否恢复了断线前的会话
+    private byte[] resumeState; // 恢复会话时附带的游戏逻辑快照，没有进行中的游戏时为 null
 
     public ConnectMessage() {
         super("connect");
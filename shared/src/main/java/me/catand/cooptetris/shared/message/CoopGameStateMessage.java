@@ -2,6 +2,7 @@ package me.catand.cooptetris.shared.message;
 
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import me.catand.cooptetris.shared.util.ObjectPool;
 
 /**
  * 合作模式游戏状态消息
@@ -10,7 +11,7 @@ import lombok.EqualsAndHashCode;
  */
 @Data
 @EqualsAndHashCode(callSuper = false)
-public class CoopGameStateMessage extends NetworkMessage {
+public class CoopGameStateMessage extends NetworkMessage implements ObjectPool.Poolable {
 	// 共享游戏板状态
 	private int[][] board;
 	private int[][] boardColor; // 每个格子的颜色（玩家选择的颜色索引 0-3）
@@ -30,6 +31,58 @@ public class CoopGameStateMessage extends NetworkMessage {
 		super("coopGameState");
 	}
 
+	/**
+	 * 复制另一条消息的内容
+	 * board/boardColor 为不可变快照，直接共享引用；物块状态和颜色选择复制到本消息自己的数组中
+	 */
+	public void set(CoopGameStateMessage other) {
+		board = other.board;
+		boardColor = other.boardColor;
+		score = other.score;
+		level = other.level;
+		lines = other.lines;
+		gameOver = other.gameOver;
+		playerCount = other.playerCount;
+
+		PlayerPieceState[] otherPieces = other.playerPieces;
+		if (otherPieces == null) {
+			playerPieces = null;
+		} else {
+			if (playerPieces == null || playerPieces.length != otherPieces.length) {
+				playerPieces = new PlayerPieceState[otherPieces.length];
+				for (int i = 0; i < playerPieces.length; i++) {
+					playerPieces[i] = new PlayerPieceState();
+				}
+			}
+			for (int i = 0; i < otherPieces.length; i++) {
+				PlayerPieceState piece = otherPieces[i];
+				playerPieces[i].set(piece.slotIndex, piece.pieceType, piece.x, piece.y, piece.rotation, piece.active);
+			}
+		}
+
+		int[] otherColors = other.slotColorIndices;
+		if (otherColors == null) {
+			slotColorIndices = null;
+		} else {
+			if (slotColorIndices == null || slotColorIndices.length != otherColors.length) {
+				slotColorIndices = new int[otherColors.length];
+			}
+			System.arraycopy(otherColors, 0, slotColorIndices, 0, otherColors.length);
+		}
+	}
+
+	/**
+	 * 重置状态以便复用，保留各数组（包括 PlayerPieceState 实例）供下次填充
+	 */
+	@Override
+	public void reset() {
+		score = 0;
+		level = 0;
+		lines = 0;
+		gameOver = false;
+		playerCount = 0;
+	}
+
 	/**
 	 * 玩家物块状态
 	 */
@@ -52,5 +105,14 @@ public class CoopGameStateMessage extends NetworkMessage {
 			this.rotation = rotation;
 			this.active = active;
 		}
+
+		public void set(int slotIndex, int pieceType, int x, int y, int rotation, boolean active) {
+			this.slotIndex = slotIndex;
+			this.pieceType = pieceType;
+			this.x = x;
+			this.y = y;
+			this.rotation = rotation;
+			this.active = active;
+		}
 	}
 }
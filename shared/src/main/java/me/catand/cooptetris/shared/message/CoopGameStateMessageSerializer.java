@@ -0,0 +1,109 @@
+package me.catand.cooptetris.shared.message;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.Serializer;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+
+import me.catand.cooptetris.shared.util.ObjectPool;
+
+/**
+ * CoopGameStateMessage 的序列化器
+ * 接收时从对象池取出消息，游戏板、颜色板和物块状态都复用消息中已有的对象，处理完后需调用 {@link #free} 归还
+ */
+public class CoopGameStateMessageSerializer extends Serializer<CoopGameStateMessage> {
+	private final ObjectPool<CoopGameStateMessage> pool = new ObjectPool<CoopGameStateMessage>() {
+		@Override
+		protected CoopGameStateMessage newObject() {
+			return new CoopGameStateMessage();
+		}
+	};
+
+	@Override
+	public void write(Kryo kryo, Output output, CoopGameStateMessage message) {
+		GameStateMessageSerializer.writeBoard(output, message.getBoard());
+		GameStateMessageSerializer.writeBoard(output, message.getBoardColor());
+		output.writeVarInt(message.getScore(), true);
+		output.writeVarInt(message.getLevel(), true);
+		output.writeVarInt(message.getLines(), true);
+		output.writeBoolean(message.isGameOver());
+		output.writeVarInt(message.getPlayerCount(), true);
+
+		CoopGameStateMessage.PlayerPieceState[] pieces = message.getPlayerPieces();
+		int pieceCount = pieces != null ? pieces.length : 0;
+		output.writeVarInt(pieceCount, true);
+		for (int i = 0; i < pieceCount; i++) {
+			CoopGameStateMessage.PlayerPieceState piece = pieces[i];
+			output.writeVarInt(piece.getSlotIndex(), true);
+			output.writeVarInt(piece.getPieceType(), true);
+			output.writeVarInt(piece.getX(), false);
+			output.writeVarInt(piece.getY(), false);
+			output.writeVarInt(piece.getRotation(), true);
+			output.writeBoolean(piece.isActive());
+		}
+
+		int[] colors = message.getSlotColorIndices();
+		int colorCount = colors != null ? colors.length : 0;
+		output.writeVarInt(colorCount, true);
+		for (int i = 0; i < colorCount; i++) {
+			output.writeVarInt(colors[i], false);
+		}
+	}
+
+	@Override
+	public CoopGameStateMessage read(Kryo kryo, Input input, Class<? extends CoopGameStateMessage> type) {
+		CoopGameStateMessage message = pool.obtain();
+		message.setBoard(GameStateMessageSerializer.readBoard(input, message.getBoard()));
+		message.setBoardColor(GameStateMessageSerializer.readBoard(input, message.getBoardColor()));
+		message.setScore(input.readVarInt(true));
+		message.setLevel(input.readVarInt(true));
+		message.setLines(input.readVarInt(true));
+		message.setGameOver(input.readBoolean());
+		message.setPlayerCount(input.readVarInt(true));
+
+		int pieceCount = input.readVarInt(true);
+		CoopGameStateMessage.PlayerPieceState[] pieces = message.getPlayerPieces();
+		if (pieces == null || pieces.length != pieceCount) {
+			pieces = new CoopGameStateMessage.PlayerPieceState[pieceCount];
+			for (int i = 0; i < pieceCount; i++) {
+				pieces[i] = new CoopGameStateMessage.PlayerPieceState();
+			}
+			message.setPlayerPieces(pieces);
+		}
+		for (int i = 0; i < pieceCount; i++) {
+			pieces[i].set(
+				input.readVarInt(true),
+				input.readVarInt(true),
+				input.readVarInt(false),
+				input.readVarInt(false),
+				input.readVarInt(true),
+				input.readBoolean()
+			);
+		}
+
+		int colorCount = input.readVarInt(true);
+		int[] colors = message.getSlotColorIndices();
+		if (colors == null || colors.length != colorCount) {
+			colors = new int[colorCount];
+			message.setSlotColorIndices(colors);
+		}
+		for (int i = 0; i < colorCount; i++) {
+			colors[i] = input.readVarInt(false);
+		}
+		return message;
+	}
+
+	/**
+	 * 从对象池取出消息，用于不经过序列化收到的消息，处理完后同样调用 {@link #free} 归还
+	 */
+	public CoopGameStateMessage obtain() {
+		return pool.obtain();
+	}
+
+	/**
+	 * 归还处理完毕的消息
+	 */
+	public void free(CoopGameStateMessage message) {
+		pool.free(message);
+	}
+}
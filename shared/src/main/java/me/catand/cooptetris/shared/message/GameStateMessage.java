@@ -2,10 +2,11 @@ package me.catand.cooptetris.shared.message;
 
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import me.catand.cooptetris.shared.util.ObjectPool;
 
 @Data
 @EqualsAndHashCode(callSuper = false)
-public class GameStateMessage extends NetworkMessage {
+public class GameStateMessage extends NetworkMessage implements ObjectPool.Poolable {
     private int[][] board;
     private int currentPiece;
     private int currentPieceX;
@@ -20,4 +21,36 @@ public class GameStateMessage extends NetworkMessage {
     public GameStateMessage() {
         super("gameState");
     }
+
+    /**
+     * 复制另一条消息的内容（board 为不可变快照，直接共享引用）
+     */
+    public void set(GameStateMessage other) {
+        board = other.board;
+        currentPiece = other.currentPiece;
+        currentPieceX = other.currentPieceX;
+        currentPieceY = other.currentPieceY;
+        currentPieceRotation = other.currentPieceRotation;
+        nextPiece = other.nextPiece;
+        score = other.score;
+        level = other.level;
+        lines = other.lines;
+        playerIndex = other.playerIndex;
+    }
+
+    /**
+     * 重置状态以便复用，保留board数组供下次接收时直接填充
+     */
+    @Override
+    public void reset() {
+        currentPiece = 0;
+        currentPieceX = 0;
+        currentPieceY = 0;
+        currentPieceRotation = 0;
+        nextPiece = 0;
+        score = 0;
+        level = 0;
+        lines = 0;
+        playerIndex = 0;
+    }
 }
@@ -0,0 +1,105 @@
+package me.catand.cooptetris.shared.message;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.Serializer;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+
+import me.catand.cooptetris.shared.util.ObjectPool;
+
+/**
+ * GameStateMessage 的序列化器
+ * 接收时从对象池取出消息并把游戏板直接读入其已有的数组，处理完后需调用 {@link #free} 归还
+ */
+public class GameStateMessageSerializer extends Serializer<GameStateMessage> {
+    private final ObjectPool<GameStateMessage> pool = new ObjectPool<GameStateMessage>() {
+        @Override
+        protected GameStateMessage newObject() {
+            return new GameStateMessage();
+        }
+    };
+
+    @Override
+    public void write(Kryo kryo, Output output, GameStateMessage message) {
+        writeBoard(output, message.getBoard());
+        output.writeVarInt(message.getCurrentPiece(), true);
+        output.writeVarInt(message.getCurrentPieceX(), false);
+        output.writeVarInt(message.getCurrentPieceY(), false);
+        output.writeVarInt(message.getCurrentPieceRotation(), true);
+        output.writeVarInt(message.getNextPiece(), true);
+        output.writeVarInt(message.getScore(), true);
+        output.writeVarInt(message.getLevel(), true);
+        output.writeVarInt(message.getLines(), true);
+        output.writeVarInt(message.getPlayerIndex(), false);
+    }
+
+    @Override
+    public GameStateMessage read(Kryo kryo, Input input, Class<? extends GameStateMessage> type) {
+        GameStateMessage message = pool.obtain();
+        message.setBoard(readBoard(input, message.getBoard()));
+        message.setCurrentPiece(input.readVarInt(true));
+        message.setCurrentPieceX(input.readVarInt(false));
+        message.setCurrentPieceY(input.readVarInt(false));
+        message.setCurrentPieceRotation(input.readVarInt(true));
+        message.setNextPiece(input.readVarInt(true));
+        message.setScore(input.readVarInt(true));
+        message.setLevel(input.readVarInt(true));
+        message.setLines(input.readVarInt(true));
+        message.setPlayerIndex(input.readVarInt(false));
+        return message;
+    }
+
+    /**
+     * 从对象池取出消息，用于不经过序列化收到的消息，处理完后同样调用 {@link #free} 归还
+     */
+    public GameStateMessage obtain() {
+        return pool.obtain();
+    }
+
+    /**
+     * 归还处理完毕的消息
+     */
+    public void free(GameStateMessage message) {
+        pool.free(message);
+    }
+
+    /**
+     * 写入二维数组：行数、列数、逐格变长整数（null 写入行数0）
+     */
+    static void writeBoard(Output output, int[][] board) {
+        if (board == null || board.length == 0) {
+            output.writeVarInt(0, true);
+            return;
+        }
+        int width = board[0].length;
+        output.writeVarInt(board.length, true);
+        output.writeVarInt(width, true);
+        for (int[] row : board) {
+            for (int x = 0; x < width; x++) {
+                output.writeVarInt(row[x], false);
+            }
+        }
+    }
+
+    /**
+     * 读取二维数组，尺寸相同时直接填充传入的数组，否则重新分配
+     */
+    static int[][] readBoard(Input input, int[][] reuse) {
+        int height = input.readVarInt(true);
+        if (height == 0) {
+            return reuse;
+        }
+        int width = input.readVarInt(true);
+        int[][] board = reuse;
+        if (board == null || board.length != height || board[0].length != width) {
+            board = new int[height][width];
+        }
+        for (int y = 0; y < height; y++) {
+            int[] row = board[y];
+            for (int x = 0; x < width; x++) {
+                row[x] = input.readVarInt(false);
+            }
+        }
+        return board;
+    }
+}
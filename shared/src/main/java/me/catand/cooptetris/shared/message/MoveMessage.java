@@ -14,6 +14,15 @@ public class MoveMessage extends NetworkMessage {
         ROTATE_CLOCKWISE
     }
 
+    // 每种移动类型一个共享实例，按键时直接复用，不要修改其内容
+    private static final MoveMessage[] SHARED = new MoveMessage[MoveType.values().length];
+
+    static {
+        for (MoveType moveType : MoveType.values()) {
+            SHARED[moveType.ordinal()] = new MoveMessage(moveType);
+        }
+    }
+
     private MoveType moveType;
 
     public MoveMessage() {
@@ -24,4 +33,11 @@ public class MoveMessage extends NetworkMessage {
         super("move");
         this.moveType = moveType;
     }
+
+    /**
+     * 获取指定移动类型的共享消息实例
+     */
+    public static MoveMessage of(MoveType moveType) {
+        return SHARED[moveType.ordinal()];
+    }
 }
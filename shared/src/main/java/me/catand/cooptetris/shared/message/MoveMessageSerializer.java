@@ -0,0 +1,28 @@
+package me.catand.cooptetris.shared.message;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.KryoException;
+import com.esotericsoftware.kryo.Serializer;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+
+/**
+ * MoveMessage 的序列化器，只传输移动类型序号，接收时返回共享实例而不创建新对象
+ */
+public class MoveMessageSerializer extends Serializer<MoveMessage> {
+    private static final MoveMessage.MoveType[] MOVE_TYPES = MoveMessage.MoveType.values();
+
+    @Override
+    public void write(Kryo kryo, Output output, MoveMessage message) {
+        output.writeVarInt(message.getMoveType().ordinal(), true);
+    }
+
+    @Override
+    public MoveMessage read(Kryo kryo, Input input, Class<? extends MoveMessage> type) {
+        int ordinal = input.readVarInt(true);
+        if (ordinal < 0 || ordinal >= MOVE_TYPES.length) {
+            throw new KryoException("Invalid move type: " + ordinal);
+        }
+        return MoveMessage.of(MOVE_TYPES[ordinal]);
+    }
+}
@@ -2,7 +2,9 @@ package me.catand.cooptetris.shared.message;
 
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import me.catand.cooptetris.shared.util.ObjectPool;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -10,7 +12,7 @@ import java.util.List;
  */
 @Data
 @EqualsAndHashCode(callSuper = false)
-public class PlayerScoresMessage extends NetworkMessage {
+public class PlayerScoresMessage extends NetworkMessage implements ObjectPool.Poolable {
 
     /**
      * 单个玩家的分数信息
@@ -27,6 +29,10 @@ public class PlayerScoresMessage extends NetworkMessage {
         public PlayerScore() {}
 
         public PlayerScore(int playerIndex, String playerName, int score, int lines, int level, boolean gameOver) {
+            set(playerIndex, playerName, score, lines, level, gameOver);
+        }
+
+        public void set(int playerIndex, String playerName, int score, int lines, int level, boolean gameOver) {
             this.playerIndex = playerIndex;
             this.playerName = playerName;
             this.score = score;
@@ -36,7 +42,7 @@ public class PlayerScoresMessage extends NetworkMessage {
         }
     }
 
-    private List<PlayerScore> playerScores;
+    private List<PlayerScore> playerScores = new ArrayList<>();
     private int yourIndex; // 当前接收消息的玩家的索引
 
     public PlayerScoresMessage() {
@@ -48,4 +54,50 @@ public class PlayerScoresMessage extends NetworkMessage {
         this.playerScores = playerScores;
         this.yourIndex = yourIndex;
     }
+
+    /**
+     * 填充第 position 项分数，复用列表中已有的 PlayerScore 实例，只在列表变长时创建新实例
+     */
+    public void setScore(int position, int playerIndex, String playerName, int score, int lines, int level, boolean gameOver) {
+        if (playerScores == null) {
+            playerScores = new ArrayList<>();
+        }
+        if (position == playerScores.size()) {
+            playerScores.add(new PlayerScore());
+        }
+        playerScores.get(position).set(playerIndex, playerName, score, lines, level, gameOver);
+    }
+
+    /**
+     * 去掉第 count 项之后的分数，填充完成后调用
+     */
+    public void setScoreCount(int count) {
+        for (int i = playerScores.size() - 1; i >= count; i--) {
+            playerScores.remove(i);
+        }
+    }
+
+    /**
+     * 复制另一条消息的内容，分数项复制到本消息自己的 PlayerScore 实例中
+     */
+    public void set(PlayerScoresMessage other) {
+        yourIndex = other.yourIndex;
+        List<PlayerScore> otherScores = other.playerScores;
+        int count = otherScores == null ? 0 : otherScores.size();
+        for (int i = 0; i < count; i++) {
+            PlayerScore score = otherScores.get(i);
+            setScore(i, score.playerIndex, score.playerName, score.score, score.lines, score.level, score.gameOver);
+        }
+        if (playerScores != null) {
+            setScoreCount(count);
+        }
+    }
+
+    /**
+     * 重置状态以便复用，保留分数列表（包括 PlayerScore 实例）供下次填充
+     */
+    @Override
+    public void reset() {
+        yourIndex = 0;
+    }
 }
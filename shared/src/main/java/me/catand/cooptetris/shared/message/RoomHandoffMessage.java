@@ -0,0 +1,23 @@
+package me.catand.cooptetris.shared.message;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+/**
+ * 房间移交 - 排空中的分片把未结束的游戏交给另一个分片继续
+ * 源分片经路由发送带快照的请求，路由转发给选中的分片；接手的分片恢复房间后回复结果（不带快照），路由转回源分片，
+ * 源分片再把房间中的玩家重定向到接手的分片
+ */
+@Data
+@EqualsAndHashCode(callSuper = false)
+public class RoomHandoffMessage extends NetworkMessage {
+    private String roomId;
+    private byte[] snapshot; // RoomSnapshot 的序列化数据，回复中为 null
+    private boolean accepted;
+    private String shardHost; // 接手房间的分片地址，回复中填写
+    private int shardPort;
+
+    public RoomHandoffMessage() {
+        super("roomHandoff");
+    }
+}
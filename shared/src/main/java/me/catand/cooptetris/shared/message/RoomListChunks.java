@@ -0,0 +1,100 @@
+package me.catand.cooptetris.shared.message;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 房间列表分段 - 房间较多时一条消息会超出 KryoNet 的对象缓冲区
+ * 发送方按估算的序列化大小拆成多段，每段带上起始位置和房间总数，接收方按顺序拼接
+ */
+public final class RoomListChunks {
+    // 每段房间信息的估算大小上限，小于默认的对象缓冲区并为消息的其他字段留出空间
+    public static final int CHUNK_BYTES = 8192;
+
+    private RoomListChunks() {
+    }
+
+    /**
+     * 拆分房间列表，空列表也返回一个空段，保证接收方能收到列表消息
+     */
+    public static List<List<RoomMessage.RoomInfo>> split(List<RoomMessage.RoomInfo> rooms) {
+        if (rooms == null || rooms.isEmpty()) {
+            return Collections.singletonList(Collections.emptyList());
+        }
+        List<List<RoomMessage.RoomInfo>> chunks = new ArrayList<>();
+        List<RoomMessage.RoomInfo> chunk = new ArrayList<>();
+        int size = 0;
+        for (RoomMessage.RoomInfo room : rooms) {
+            int roomSize = estimateSize(room);
+            if (!chunk.isEmpty() && size + roomSize > CHUNK_BYTES) {
+                chunks.add(chunk);
+                chunk = new ArrayList<>();
+                size = 0;
+            }
+            chunk.add(room);
+            size += roomSize;
+        }
+        chunks.add(chunk);
+        return chunks;
+    }
+
+    /**
+     * 分段后的房间列表消息
+     */
+    public static List<RoomMessage> listMessages(List<RoomMessage.RoomInfo> rooms) {
+        List<RoomMessage> messages = new ArrayList<>();
+        int total = rooms != null ? rooms.size() : 0;
+        int offset = 0;
+        for (List<RoomMessage.RoomInfo> chunk : split(rooms)) {
+            RoomMessage message = new RoomMessage(RoomMessage.RoomAction.LIST);
+            message.setSuccess(true);
+            message.setRooms(chunk);
+            message.setListOffset(offset);
+            message.setListTotal(total);
+            messages.add(message);
+            offset += chunk.size();
+        }
+        return messages;
+    }
+
+    /**
+     * 序列化大小的上限估算：字符串按每字符 3 字节（UTF-8），整数按变长编码最长 5 字节
+     */
+    static int estimateSize(RoomMessage.RoomInfo room) {
+        return 48 + stringSize(room.getId()) + stringSize(room.getName()) + stringSize(room.getShardHost());
+    }
+
+    private static int stringSize(String value) {
+        return value != null ? 5 + value.length() * 3 : 1;
+    }
+
+    /**
+     * 接收方拼接分段，只在单个线程上使用或由调用方同步
+     */
+    public static class Assembler {
+        private List<RoomMessage.RoomInfo> rooms = new ArrayList<>();
+
+        /**
+         * 加入一段，收齐 total 个房间时返回完整列表，否则返回 null
+         * 起始位置对不上（丢失了前面的分段）时丢弃已收到的部分，等待下一次完整的列表
+         */
+        public List<RoomMessage.RoomInfo> accept(int offset, int total, List<RoomMessage.RoomInfo> chunk) {
+            if (offset == 0) {
+                rooms = new ArrayList<>(total);
+            } else if (offset != rooms.size()) {
+                rooms = new ArrayList<>();
+                return null;
+            }
+            if (chunk != null) {
+                rooms.addAll(chunk);
+            }
+            if (rooms.size() < total) {
+                return null;
+            }
+            List<RoomMessage.RoomInfo> complete = rooms;
+            rooms = new ArrayList<>();
+            return complete;
+        }
+    }
+}
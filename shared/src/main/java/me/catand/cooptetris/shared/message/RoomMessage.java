@@ -17,7 +17,8 @@ public class RoomMessage extends NetworkMessage {
         STATUS,
         KICK,
         CHAT,
-        SET_GAME_MODE
+        SET_GAME_MODE,
+        REDIRECT // 房间位于其他分片，客户端需连接 shardHost:shardPort 后重新发送 redirectAction 请求
     }
 
     private RoomAction action;
@@ -32,6 +33,15 @@ public class RoomMessage extends NetworkMessage {
     private String chatMessage;
     private boolean isHost;
     private GameMode gameMode;
+    // 分片重定向
+    private String shardHost;
+    private int shardPort;
+    private RoomAction redirectAction;
+    // 恢复房间时证明身份的令牌：REDIRECT 中为玩家在原分片的会话令牌，JOIN 中由客户端原样带回
+    private String resumeToken;
+    // 房间列表分段发送：本段第一个房间在完整列表中的位置，以及完整列表的房间数，见 RoomListChunks
+    private int listOffset;
+    private int listTotal;
 
     public RoomMessage() {
         super("room");
@@ -52,6 +62,8 @@ public class RoomMessage extends NetworkMessage {
         private int displayPlayerCount; // 显示的玩家数量（包含锁定的槽位）
         private boolean spectatorLocked; // 观战是否被锁定
         private int spectatorCount; // 观战者数量
+        private String shardHost; // 房间所在分片的地址，为 null 时房间在当前服务器上
+        private int shardPort;
 
         public RoomInfo() {
         }
@@ -0,0 +1,27 @@
+package me.catand.cooptetris.shared.message;
+
+import java.util.List;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+/**
+ * 分片后端定期发给路由的状态，路由据此汇总房间列表并分配新房间
+ */
+@Data
+@EqualsAndHashCode(callSuper = false)
+public class ShardStatusMessage extends NetworkMessage {
+    private String shardId;
+    private String host; // 客户端连接该分片使用的地址
+    private int port;
+    private int clientCount;
+    private int maxRooms;
+    private boolean draining; // 正在排空，路由不再向该分片分配新房间
+    private List<RoomMessage.RoomInfo> rooms;
+    // 房间较多时分段上报，见 RoomListChunks
+    private int roomOffset;
+    private int roomTotal;
+
+    public ShardStatusMessage() {
+        super("shardStatus");
+    }
+}
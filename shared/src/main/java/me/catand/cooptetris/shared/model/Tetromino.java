@@ -1,7 +1,5 @@
 package me.catand.cooptetris.shared.model;
 
-import com.badlogic.gdx.graphics.Color;
-
 public class Tetromino {
     public static final int I = 0;
     public static final int J = 1;
@@ -56,15 +54,26 @@ public class Tetromino {
         }
     };
 
-    public static final Color[] COLORS = {
-        Color.CYAN,     // I
-        Color.BLUE,     // J
-        Color.ORANGE,   // L
-        Color.YELLOW,   // O
-        Color.GREEN,    // S
-        Color.MAGENTA,   // T
-        Color.RED       // Z
-    };
+    // 预先计算的四个旋转状态 [方块类型][旋转状态]，为共享数组，不可修改
+    private static final int[][][][] ROTATED_SHAPES = new int[SHAPES.length][4][][];
+
+    static {
+        for (int piece = 0; piece < SHAPES.length; piece++) {
+            int[][] shape = SHAPES[piece];
+            for (int rotation = 0; rotation < 4; rotation++) {
+                ROTATED_SHAPES[piece][rotation] = shape;
+                shape = rotateClockwise(shape);
+            }
+        }
+    }
+
+    /**
+     * 获取指定旋转状态下的形状，返回共享的缓存数组，调用方不可修改
+     */
+    public static int[][] getShape(int piece, int rotation) {
+        int rotations = rotation % 4;
+        return ROTATED_SHAPES[piece][rotations < 0 ? 0 : rotations];
+    }
 
     public static int[][] rotateClockwise(int[][] piece) {
         int size = piece.length;
@@ -0,0 +1,73 @@
+package me.catand.cooptetris.shared.server;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 服务器范围的背压统计 - 各连接在房间线程和编码线程上累加，由回收线程定期输出本周期的增量
+ */
+public class BackpressureStats {
+	private final AtomicLong bufferFullCount = new AtomicLong(); // 写缓冲超过阈值的次数
+	private final AtomicLong droppedFrameCount = new AtomicLong(); // 被新状态帧覆盖而丢弃的帧数
+	private final AtomicLong deferredMessageCount = new AtomicLong(); // 进入控制队列的消息数
+	private final AtomicLong degradedCount = new AtomicLong(); // 进入降级模式的次数
+	// 上次输出时的累计值，只在回收线程上使用
+	private long reportedBufferFull;
+	private long reportedDroppedFrames;
+	private long reportedDeferred;
+	private long reportedDegraded;
+
+	void recordBufferFull() {
+		bufferFullCount.incrementAndGet();
+	}
+
+	void recordDroppedFrame() {
+		droppedFrameCount.incrementAndGet();
+	}
+
+	void recordDeferredMessage() {
+		deferredMessageCount.incrementAndGet();
+	}
+
+	void recordDegraded() {
+		degradedCount.incrementAndGet();
+	}
+
+	public long getBufferFullCount() {
+		return bufferFullCount.get();
+	}
+
+	public long getDroppedFrameCount() {
+		return droppedFrameCount.get();
+	}
+
+	public long getDeferredMessageCount() {
+		return deferredMessageCount.get();
+	}
+
+	public long getDegradedCount() {
+		return degradedCount.get();
+	}
+
+	/**
+	 * 自上次调用以来的增量和累计值，没有新的背压事件时返回 null
+	 */
+	String report() {
+		long bufferFull = getBufferFullCount();
+		long droppedFrames = getDroppedFrameCount();
+		long deferred = getDeferredMessageCount();
+		long degraded = getDegradedCount();
+		if (bufferFull == reportedBufferFull && droppedFrames == reportedDroppedFrames
+			&& deferred == reportedDeferred && degraded == reportedDegraded) {
+			return null;
+		}
+		String report = "缓冲区拥塞 " + (bufferFull - reportedBufferFull) + "（累计 " + bufferFull + "），"
+			+ "丢弃状态帧 " + (droppedFrames - reportedDroppedFrames) + "（累计 " + droppedFrames + "），"
+			+ "排队控制消息 " + (deferred - reportedDeferred) + "（累计 " + deferred + "），"
+			+ "进入降级 " + (degraded - reportedDegraded) + "（累计 " + degraded + "）";
+		reportedBufferFull = bufferFull;
+		reportedDroppedFrames = droppedFrames;
+		reportedDeferred = deferred;
+		reportedDegraded = degraded;
+		return report;
+	}
+}
@@ -1,28 +1,77 @@
 package me.catand.cooptetris.shared.server;
 
-import com.esotericsoftware.kryonet.Connection;
-
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 import lombok.Data;
+import me.catand.cooptetris.shared.message.CoopGameStateMessage;
+import me.catand.cooptetris.shared.message.GameStateMessage;
 import me.catand.cooptetris.shared.message.NetworkMessage;
+import me.catand.cooptetris.shared.message.PlayerScoresMessage;
+import me.catand.cooptetris.shared.tetris.CoopGameLogic;
 
 @Data
 public class ClientConnection {
-	private final Connection connection;
+	// 写缓冲占用超过该比例时暂停写入，剩余消息继续排队
+	private static final float HIGH_WATER_MARK = 0.5f;
+	// 控制消息积压上限，超过则认为客户端已失去响应
+	private static final int MAX_CONTROL_QUEUE = 256;
+	// 发生拥塞后保持降级的时间（毫秒）
+	private static final long DEGRADED_DURATION = 3000;
+	// 降级期间状态帧的最小发送间隔（毫秒）
+	private static final long DEGRADED_FRAME_INTERVAL = 250;
+
+	// 断线重连恢复会话时替换为新连接的通道
+	private volatile ClientTransport transport;
 	private final String clientId;
 	private String playerName;
 	private String language; // 客户端语言设置
-	private Room currentRoom;
+	private volatile Room currentRoom;
 	private final ServerManager serverManager;
-	private boolean connected;
+	private volatile boolean connected;
 	private int gameLogicIndex; // 玩家对应的游戏逻辑索引（用于PVP模式）
 	private int slotIndex; // 玩家在房间中的槽位索引（0-3，用于COOP模式）
 	private int colorIndex; // 玩家选择的颜色索引（0-3）
 	private boolean spectator; // 是否是观战者
+	private final long connectedAt; // 建立连接的时间，用于回收未完成握手的连接
+	private String sessionToken; // 会话令牌，握手成功后下发，断线重连时用于找回会话
+	// 连接意外断开后保留会话等待重连，期间不发送消息；每次挂起递增 suspendEpoch，区分过期检查属于哪一次挂起
+	private boolean suspended;
+	private int suspendEpoch;
+
+	// 发送队列：控制消息按顺序排队，状态帧只保留每个来源的最新一帧
+	// 状态帧复制到连接自己持有的消息对象中，调用方发送后即可归还池化消息
+	private final ArrayDeque<NetworkMessage> controlQueue = new ArrayDeque<>();
+	private final GameStateMessage[] pendingGameStates = new GameStateMessage[CoopGameLogic.MAX_PLAYERS];
+	private final boolean[] gameStatePending = new boolean[CoopGameLogic.MAX_PLAYERS];
+	private final CoopGameStateMessage pendingCoopState = new CoopGameStateMessage();
+	private final PlayerScoresMessage pendingScores = new PlayerScoresMessage();
+	// 编码线程写出时使用的状态帧副本和本批消息，只在唯一的编码线程上访问
+	private final GameStateMessage[] sendingGameStates = new GameStateMessage[CoopGameLogic.MAX_PLAYERS];
+	private final CoopGameStateMessage sendingCoopState = new CoopGameStateMessage();
+	private final PlayerScoresMessage sendingScores = new PlayerScoresMessage();
+	private final List<NetworkMessage> flushBatch = new ArrayList<>();
+	private volatile boolean writing; // 编码线程正在锁外写出本批消息
+	private boolean coopStatePending;
+	private boolean scoresPending;
+	private final AtomicBoolean flushScheduled = new AtomicBoolean(); // 是否已安排编码线程发送
+	private long degradedUntil; // 降级截止时间
+	private long lastFrameSentTime;
 
-	public ClientConnection(Connection connection, ServerManager serverManager) {
-		this.connection = connection;
+	// 背压统计，同时累加到服务器范围的 BackpressureStats，断开时输出本连接的累计值
+	private final AtomicLong bufferFullCount = new AtomicLong(); // 写缓冲超过阈值的次数
+	private final AtomicLong droppedFrameCount = new AtomicLong(); // 被新状态帧覆盖而丢弃的帧数
+	private final AtomicLong deferredMessageCount = new AtomicLong(); // 进入控制队列的消息数
+	private final AtomicLong degradedCount = new AtomicLong(); // 进入降级模式的次数
+
+	public ClientConnection(ClientTransport transport, ServerManager serverManager) {
+		this.transport = transport;
 		this.serverManager = serverManager;
 		this.clientId = UUID.randomUUID().toString();
 		this.language = "en"; // 默认语言为英文
@@ -31,31 +80,339 @@ public class ClientConnection {
 		this.slotIndex = -1;
 		this.colorIndex = -1; // 初始未选择颜色
 		this.spectator = false; // 初始不是观战者
+		this.connectedAt = System.currentTimeMillis();
+		for (int i = 0; i < pendingGameStates.length; i++) {
+			pendingGameStates[i] = new GameStateMessage();
+			sendingGameStates[i] = new GameStateMessage();
+		}
 	}
 
+	/**
+	 * 发送消息。消息先进入发送队列，由编码线程序列化并写出，调用线程不做序列化
+	 * 控制消息按顺序排队，状态帧只保留每个来源的最新一帧。调用返回后消息对象即可被调用方复用
+	 */
 	public void sendMessage(NetworkMessage message) {
+		boolean ok;
+		synchronized (this) {
+			if (!connected) return;
+			if (message instanceof GameStateMessage || message instanceof CoopGameStateMessage || message instanceof PlayerScoresMessage) {
+				ok = storePendingFrame(message);
+			} else {
+				ok = queueControl(message);
+			}
+		}
+		// 在锁外断开，避免断开时向其他连接广播造成锁顺序问题
+		if (ok) {
+			requestFlush();
+		} else {
+			disconnect();
+		}
+	}
+
+	/**
+	 * 连续发送多条控制消息，中间不会插入其他线程发送的消息，用于分段的房间列表
+	 */
+	public void sendMessages(List<? extends NetworkMessage> messages) {
+		boolean ok = true;
+		synchronized (this) {
+			if (!connected) return;
+			for (int i = 0; ok && i < messages.size(); i++) {
+				ok = queueControl(messages.get(i));
+			}
+		}
+		if (ok) {
+			requestFlush();
+		} else {
+			disconnect();
+		}
+	}
+
+	private boolean queueControl(NetworkMessage message) {
+		if (controlQueue.size() >= MAX_CONTROL_QUEUE) {
+			System.out.println("ClientConnection: 玩家 " + playerName + " 控制消息积压超过上限，断开连接");
+			return false;
+		}
+		if (!controlQueue.isEmpty()) {
+			deferredMessageCount.incrementAndGet();
+			serverManager.getBackpressureStats().recordDeferredMessage();
+		}
+		controlQueue.add(message);
+		return true;
+	}
+
+	/**
+	 * 安排编码线程发送排队中的消息，已安排但尚未开始的发送任务会一并处理新消息
+	 */
+	private void requestFlush() {
+		if (!flushScheduled.compareAndSet(false, true)) {
+			return;
+		}
 		try {
-			connection.sendTCP(message);
-		} catch (Exception e) {
+			serverManager.getEncodeExecutor().execute(() -> {
+				flushScheduled.set(false);
+				flushPending();
+			});
+		} catch (RejectedExecutionException e) {
+			// 服务器正在停止
+			flushScheduled.set(false);
+		}
+	}
+
+	/**
+	 * 写缓冲排空时由服务器网络线程调用，把剩余的消息交给编码线程发送
+	 */
+	public void onWriteIdle() {
+		boolean pending;
+		synchronized (this) {
+			pending = connected && hasPending();
+		}
+		if (pending) {
+			requestFlush();
+		}
+	}
+
+	/**
+	 * 保存为待发送的最新状态帧，覆盖同一来源尚未发送的旧帧
+	 */
+	private boolean storePendingFrame(NetworkMessage message) {
+		if (message instanceof GameStateMessage) {
+			GameStateMessage state = (GameStateMessage) message;
+			int index = state.getPlayerIndex();
+			if (index < 0 || index >= pendingGameStates.length) {
+				// 调用方发送后会复用池化消息，排队前复制一份
+				GameStateMessage copy = new GameStateMessage();
+				copy.set(state);
+				return queueControl(copy);
+			}
+			if (gameStatePending[index]) {
+				countDroppedFrame();
+			}
+			pendingGameStates[index].set(state);
+			gameStatePending[index] = true;
+		} else if (message instanceof CoopGameStateMessage) {
+			if (coopStatePending) {
+				countDroppedFrame();
+			}
+			pendingCoopState.set((CoopGameStateMessage) message);
+			coopStatePending = true;
+		} else {
+			if (scoresPending) {
+				countDroppedFrame();
+			}
+			pendingScores.set((PlayerScoresMessage) message);
+			scoresPending = true;
+		}
+		return true;
+	}
+
+	/**
+	 * 在编码线程上执行：持锁取出一批消息（控制消息在前，然后是各来源的最新状态帧），释放锁后再序列化写出，
+	 * 房间线程发送消息时不需要等待序列化。写缓冲超过阈值时停止写入，未写出的消息放回队列，等待缓冲区排空后再发送
+	 */
+	public void flushPending() {
+		List<NetworkMessage> batch = flushBatch;
+		int frameStart;
+		synchronized (this) {
+			if (!connected || !hasPending()) return;
+			batch.addAll(controlQueue);
+			controlQueue.clear();
+			frameStart = batch.size();
+			long now = System.currentTimeMillis();
+			if (now >= degradedUntil || now - lastFrameSentTime >= DEGRADED_FRAME_INTERVAL) {
+				for (int i = 0; i < pendingGameStates.length; i++) {
+					if (gameStatePending[i]) {
+						gameStatePending[i] = false;
+						sendingGameStates[i].set(pendingGameStates[i]);
+						batch.add(sendingGameStates[i]);
+					}
+				}
+				if (coopStatePending) {
+					coopStatePending = false;
+					sendingCoopState.set(pendingCoopState);
+					batch.add(sendingCoopState);
+				}
+				if (scoresPending) {
+					scoresPending = false;
+					sendingScores.set(pendingScores);
+					batch.add(sendingScores);
+				}
+				if (batch.size() > frameStart) {
+					lastFrameSentTime = now;
+				}
+			}
+			writing = true;
+		}
+
+		boolean ok = true;
+		int written = 0;
+		while (ok && written < batch.size() && connected && hasWriteRoom()) {
+			ok = write(batch.get(written));
+			written++;
+		}
+		if (ok && written < batch.size()) {
+			requeue(batch, written, frameStart);
+		}
+		batch.clear();
+		writing = false;
+		if (!ok) {
 			disconnect();
 		}
 	}
 
+	/**
+	 * 队列中的消息都已写出并且传输层没有未发送的字节，停服前用来等待最后的消息发出
+	 */
+	public synchronized boolean isFlushed() {
+		return !connected || (!writing && !hasPending() && transport.getPendingWriteBytes() == 0);
+	}
+
+	/**
+	 * 把未写出的消息放回队列：控制消息放回队首并保持顺序，状态帧只在没有更新的帧时放回
+	 */
+	private synchronized void requeue(List<NetworkMessage> batch, int from, int frameStart) {
+		if (!connected) return;
+		for (int i = Math.min(frameStart, batch.size()) - 1; i >= from; i--) {
+			controlQueue.addFirst(batch.get(i));
+		}
+		for (int i = Math.max(from, frameStart); i < batch.size(); i++) {
+			NetworkMessage message = batch.get(i);
+			if (message instanceof GameStateMessage) {
+				int index = ((GameStateMessage) message).getPlayerIndex();
+				if (gameStatePending[index]) {
+					countDroppedFrame();
+				} else {
+					pendingGameStates[index].set((GameStateMessage) message);
+					gameStatePending[index] = true;
+				}
+			} else if (message instanceof CoopGameStateMessage) {
+				if (coopStatePending) {
+					countDroppedFrame();
+				} else {
+					pendingCoopState.set((CoopGameStateMessage) message);
+					coopStatePending = true;
+				}
+			} else if (scoresPending) {
+				countDroppedFrame();
+			} else {
+				pendingScores.set((PlayerScoresMessage) message);
+				scoresPending = true;
+			}
+		}
+		markCongested();
+	}
+
+	private boolean hasPending() {
+		if (!controlQueue.isEmpty() || coopStatePending || scoresPending) {
+			return true;
+		}
+		for (boolean pending : gameStatePending) {
+			if (pending) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private boolean hasWriteRoom() {
+		return transport.getPendingWriteBytes() < serverManager.getWriteBufferSize() * HIGH_WATER_MARK;
+	}
+
+	private void markCongested() {
+		bufferFullCount.incrementAndGet();
+		serverManager.getBackpressureStats().recordBufferFull();
+		long now = System.currentTimeMillis();
+		if (now >= degradedUntil) {
+			degradedCount.incrementAndGet();
+			serverManager.getBackpressureStats().recordDegraded();
+			System.out.println("ClientConnection: 玩家 " + playerName + " 发送缓冲区拥塞，降低状态更新频率");
+		}
+		degradedUntil = now + DEGRADED_DURATION;
+	}
+
+	private void countDroppedFrame() {
+		droppedFrameCount.incrementAndGet();
+		serverManager.getBackpressureStats().recordDroppedFrame();
+	}
+
+	private boolean write(NetworkMessage message) {
+		try {
+			transport.send(message);
+			return true;
+		} catch (Exception e) {
+			System.err.println("ClientConnection: 发送消息失败: " + e.getMessage());
+			return false;
+		}
+	}
+
+	/**
+	 * 连接意外断开时挂起会话：停止发送并丢弃排队的消息，玩家保留在房间中等待重连
+	 * 未完成握手或已经断开的连接不能挂起
+	 * @return 是否挂起成功
+	 */
+	public synchronized boolean suspend() {
+		if (!connected || sessionToken == null) return false;
+		connected = false;
+		suspended = true;
+		suspendEpoch++;
+		clearPending();
+		return true;
+	}
+
+	/**
+	 * 客户端重连后换用新连接继续会话
+	 * @return 会话仍处于挂起状态时返回 true，宽限期已过返回 false
+	 */
+	public synchronized boolean resume(ClientTransport newTransport) {
+		if (!suspended) return false;
+		suspended = false;
+		transport = newTransport;
+		degradedUntil = 0;
+		connected = true;
+		return true;
+	}
+
+	/**
+	 * 宽限期结束，会话仍是指定的那一次挂起时结束会话
+	 * @return 是否需要把玩家移出房间
+	 */
+	public synchronized boolean expireSession(int epoch) {
+		if (!suspended || epoch != suspendEpoch) return false;
+		suspended = false;
+		return true;
+	}
+
+	private void clearPending() {
+		controlQueue.clear();
+		scoresPending = false;
+		coopStatePending = false;
+		Arrays.fill(gameStatePending, false);
+	}
+
 	public void disconnect() {
-		if (connected) {
+		synchronized (this) {
+			if (!connected) return;
 			connected = false;
+			controlQueue.clear();
+			scoresPending = false;
+		}
 
-			if (currentRoom != null) {
-				currentRoom.removePlayer(this);
-			}
+		// 房间状态只在房间线程上修改
+		Room room = currentRoom;
+		if (room != null) {
+			room.execute(() -> room.removePlayer(this));
+		}
 
-			serverManager.removeClient(this);
+		serverManager.removeClient(this);
+		if (bufferFullCount.get() > 0 || droppedFrameCount.get() > 0) {
+			System.out.println("ClientConnection: 玩家 " + playerName + " 断开，缓冲区拥塞 " + bufferFullCount.get()
+				+ " 次，丢弃状态帧 " + droppedFrameCount.get() + " 帧，排队控制消息 " + deferredMessageCount.get()
+				+ " 条，进入降级 " + degradedCount.get() + " 次");
+		}
 
-			try {
-				connection.close();
-			} catch (Exception e) {
-				e.printStackTrace();
-			}
+		try {
+			transport.close();
+		} catch (Exception e) {
+			e.printStackTrace();
 		}
 	}
 }
@@ -0,0 +1,29 @@
+package me.catand.cooptetris.shared.server;
+
+import me.catand.cooptetris.shared.message.NetworkMessage;
+
+/**
+ * 服务器到单个客户端的传输通道
+ * - {@link KryoClientTransport}: 远程客户端，经 KryoNet TCP 连接序列化发送
+ * - {@link LocalClientTransport}: 与内置服务器同进程的房主客户端，直接传递消息对象
+ */
+public interface ClientTransport {
+	/**
+	 * 发送消息，失败时抛出异常
+	 */
+	void send(NetworkMessage message);
+
+	/**
+	 * 尚未写出的字节数，用于背压判断
+	 */
+	int getPendingWriteBytes();
+
+	boolean isOpen();
+
+	void close();
+
+	/**
+	 * 远端地址，仅用于日志
+	 */
+	String getRemoteAddress();
+}
@@ -0,0 +1,43 @@
+package me.catand.cooptetris.shared.server;
+
+import com.esotericsoftware.kryonet.Connection;
+
+import lombok.Getter;
+import me.catand.cooptetris.shared.message.NetworkMessage;
+
+/**
+ * KryoNet TCP 传输通道，sendTCP 会立即把消息序列化到写缓冲
+ */
+public class KryoClientTransport implements ClientTransport {
+	@Getter
+	private final Connection connection;
+
+	public KryoClientTransport(Connection connection) {
+		this.connection = connection;
+	}
+
+	@Override
+	public void send(NetworkMessage message) {
+		connection.sendTCP(message);
+	}
+
+	@Override
+	public int getPendingWriteBytes() {
+		return connection.getTcpWriteBufferSize();
+	}
+
+	@Override
+	public boolean isOpen() {
+		return connection.isConnected();
+	}
+
+	@Override
+	public void close() {
+		connection.close();
+	}
+
+	@Override
+	public String getRemoteAddress() {
+		return String.valueOf(connection.getRemoteAddressTCP());
+	}
+}
@@ -0,0 +1,88 @@
+package me.catand.cooptetris.shared.server;
+
+import me.catand.cooptetris.shared.message.NetworkMessage;
+
+/**
+ * 进程内传输通道 - 内置服务器与房主客户端直接交换消息对象，不经过套接字和序列化
+ * - 客户端发出的消息直接交给服务器分发到房间线程，发送后不能再修改消息内容
+ * - 服务器发出的消息在编码线程上直接交给接收方。服务器发送后会复用池化的状态帧，
+ *   接收方需要在 received 返回前复制要保留的内容
+ */
+public class LocalClientTransport implements ClientTransport {
+
+	/**
+	 * 客户端一侧的消息接收方
+	 */
+	public interface Receiver {
+		void received(NetworkMessage message);
+
+		void disconnected();
+	}
+
+	private final ServerManager serverManager;
+	private final Receiver receiver;
+	private ClientConnection client;
+	private volatile boolean open = true;
+
+	LocalClientTransport(ServerManager serverManager, Receiver receiver) {
+		this.serverManager = serverManager;
+		this.receiver = receiver;
+	}
+
+	/**
+	 * 绑定服务器一侧的连接
+	 */
+	void start(ClientConnection client) {
+		this.client = client;
+	}
+
+	/**
+	 * 客户端调用：把消息交给服务器，由所属房间的线程按顺序处理
+	 */
+	public void sendToServer(NetworkMessage message) {
+		if (open) {
+			serverManager.dispatchMessage(client, message);
+		}
+	}
+
+	/**
+	 * 客户端调用：主动断开，服务器清理该连接
+	 */
+	public void disconnect() {
+		if (open) {
+			serverManager.dispatchDisconnect(client);
+		}
+	}
+
+	@Override
+	public void send(NetworkMessage message) {
+		if (!open) {
+			throw new IllegalStateException("Local transport is closed");
+		}
+		receiver.received(message);
+	}
+
+	@Override
+	public int getPendingWriteBytes() {
+		// 消息直接交给接收方，不存在写缓冲
+		return 0;
+	}
+
+	@Override
+	public boolean isOpen() {
+		return open;
+	}
+
+	@Override
+	public void close() {
+		if (open) {
+			open = false;
+			receiver.disconnected();
+		}
+	}
+
+	@Override
+	public String getRemoteAddress() {
+		return "local";
+	}
+}
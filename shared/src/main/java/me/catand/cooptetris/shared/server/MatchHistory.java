@@ -0,0 +1,517 @@
+package me.catand.cooptetris.shared.server;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+import me.catand.cooptetris.shared.tetris.CoopGameLogic;
+import me.catand.cooptetris.shared.tetris.GameMode;
+
+/**
+ * 对局历史存储 - 追加写入的内存映射日志
+ * 数据按段文件存放（matches-000001.log ...），每段包含固定数量的定长二进制记录，
+ * 只有最后一段可写。启动时逐条校验记录以恢复崩溃前的状态，并在内存中按玩家名称建立索引。
+ * 追加只写入映射内存，刷盘由单独的写入线程完成，期间到达的多条记录合并为一次 force()。
+ */
+public class MatchHistory {
+	private static final int SEGMENT_MAGIC = 0x43544D48; // "CTMH"
+	private static final short FORMAT_VERSION = 1;
+	private static final int HEADER_SIZE = 16;
+	private static final int RECORD_SIZE = 256;
+	static final int RECORDS_PER_SEGMENT = 4096; // 每段约1MB
+	private static final int SEGMENT_SIZE = HEADER_SIZE + RECORD_SIZE * RECORDS_PER_SEGMENT;
+	private static final int RECORD_MARKER = 0x4D524543; // 记录提交标记，最后写入
+	private static final int NAME_BYTES = 32;
+	private static final int PLAYER_SIZE = 4 + NAME_BYTES + 12;
+	private static final int PLAYERS_OFFSET = 44;
+
+	private static final String SEGMENT_PREFIX = "matches-";
+	private static final String SEGMENT_SUFFIX = ".log";
+	private static final String COMPACT_SUFFIX = ".compact";
+	private static final String CORRUPT_SUFFIX = ".corrupt";
+	private static final long CLOSE_TIMEOUT_SECONDS = 5;
+
+	private final Path directory;
+	private final List<Segment> segments = new ArrayList<>();
+	// 玩家名称 -> 记录位置（段序号 << 32 | 段内序号），按写入顺序排列
+	private final Map<String, List<Long>> playerIndex = new HashMap<>();
+	private final CRC32 crc = new CRC32();
+	private final byte[] nameBuffer = new byte[NAME_BYTES];
+	private int nextSegmentId = 1;
+	// 等待刷盘的段，由 this 保护；已安排刷盘任务时不再重复提交
+	private final List<Segment> dirtySegments = new ArrayList<>();
+	private boolean flushScheduled;
+	// 关闭后 append 抛出 IOException，不再访问已清空的段列表
+	private boolean closed;
+	// 压缩在锁外重写段文件，同一时间只允许一次压缩
+	private final Object compactLock = new Object();
+	// 刷盘和定期压缩都在这个线程上执行
+	private final ScheduledExecutorService writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "MatchHistoryWriter");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	/**
+	 * 段文件
+	 */
+	private static class Segment {
+		final int id;
+		final Path path;
+		final FileChannel channel;
+		final MappedByteBuffer buffer;
+		int count; // 有效记录数
+
+		Segment(int id, Path path) throws IOException {
+			this.id = id;
+			this.path = path;
+			this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+			this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, SEGMENT_SIZE);
+		}
+
+		void close() throws IOException {
+			buffer.force();
+			channel.close();
+		}
+	}
+
+	public MatchHistory(File directory) throws IOException {
+		this.directory = directory.toPath();
+		Files.createDirectories(this.directory);
+		recover();
+		System.out.println("MatchHistory: 对局历史已加载，段数: " + segments.size() + ", 记录数: " + getRecordCount());
+	}
+
+	/**
+	 * 打开所有段文件并校验记录，丢弃崩溃时未写完的尾部记录
+	 */
+	private void recover() throws IOException {
+		// 清理压缩过程中断留下的临时文件
+		File[] leftovers = directory.toFile().listFiles((dir, fileName) -> fileName.endsWith(COMPACT_SUFFIX));
+		if (leftovers != null) {
+			for (File leftover : leftovers) {
+				Files.deleteIfExists(leftover.toPath());
+			}
+		}
+
+		File[] files = directory.toFile().listFiles((dir, fileName) ->
+			fileName.startsWith(SEGMENT_PREFIX) && fileName.endsWith(SEGMENT_SUFFIX));
+		if (files != null) {
+			Arrays.sort(files);
+			for (File file : files) {
+				int id = parseSegmentId(file.getName());
+				if (id <= 0) {
+					continue;
+				}
+				// 无效的段也占用序号，之后创建的段不会沿用它的文件名
+				nextSegmentId = Math.max(nextSegmentId, id + 1);
+				Segment segment = new Segment(id, file.toPath());
+				if (!readHeader(segment)) {
+					segment.channel.close();
+					Path corrupt = file.toPath().resolveSibling(file.getName() + CORRUPT_SUFFIX);
+					Files.move(file.toPath(), corrupt, StandardCopyOption.REPLACE_EXISTING);
+					System.err.println("MatchHistory: 段文件头无效，已移至: " + corrupt.getFileName());
+					continue;
+				}
+				segment.count = countValidRecords(segment);
+				segments.add(segment);
+			}
+		}
+
+		if (segments.isEmpty()) {
+			segments.add(createSegment(directory.resolve(segmentFileName(nextSegmentId)), nextSegmentId++));
+		} else {
+			// 清除活动段中未提交的残留记录，保证之后的追加从干净的位置开始
+			Segment active = segments.get(segments.size() - 1);
+			if (active.count < RECORDS_PER_SEGMENT) {
+				active.buffer.putInt(recordOffset(active.count), 0);
+				active.buffer.force();
+			}
+		}
+		rebuildIndex();
+	}
+
+	private static int parseSegmentId(String fileName) {
+		try {
+			return Integer.parseInt(fileName.substring(SEGMENT_PREFIX.length(), fileName.length() - SEGMENT_SUFFIX.length()));
+		} catch (NumberFormatException e) {
+			return -1;
+		}
+	}
+
+	private static String segmentFileName(int id) {
+		return String.format("%s%06d%s", SEGMENT_PREFIX, id, SEGMENT_SUFFIX);
+	}
+
+	static int recordOffset(int slot) {
+		return HEADER_SIZE + slot * RECORD_SIZE;
+	}
+
+	private Segment createSegment(Path path, int id) throws IOException {
+		Segment segment = new Segment(id, path);
+		segment.buffer.putInt(0, SEGMENT_MAGIC);
+		segment.buffer.putShort(4, FORMAT_VERSION);
+		segment.buffer.putInt(8, RECORD_SIZE);
+		segment.buffer.putInt(12, RECORDS_PER_SEGMENT);
+		return segment;
+	}
+
+	private static boolean readHeader(Segment segment) {
+		return segment.buffer.getInt(0) == SEGMENT_MAGIC
+			&& segment.buffer.getShort(4) == FORMAT_VERSION
+			&& segment.buffer.getInt(8) == RECORD_SIZE
+			&& segment.buffer.getInt(12) == RECORDS_PER_SEGMENT;
+	}
+
+	/**
+	 * 从段头开始顺序校验，遇到第一条无效记录即停止（只追加写入，损坏只可能出现在尾部）
+	 */
+	private int countValidRecords(Segment segment) {
+		int count = 0;
+		while (count < RECORDS_PER_SEGMENT && isValidRecord(segment.buffer, recordOffset(count))) {
+			count++;
+		}
+		return count;
+	}
+
+	private boolean isValidRecord(ByteBuffer buffer, int offset) {
+		return buffer.getInt(offset) == RECORD_MARKER && buffer.getInt(offset + 4) == checksum(buffer, offset);
+	}
+
+	private int checksum(ByteBuffer buffer, int offset) {
+		ByteBuffer body = buffer.duplicate();
+		body.limit(offset + RECORD_SIZE);
+		body.position(offset + 8);
+		crc.reset();
+		crc.update(body);
+		return (int) crc.getValue();
+	}
+
+	private void rebuildIndex() {
+		playerIndex.clear();
+		for (int i = 0; i < segments.size(); i++) {
+			Segment segment = segments.get(i);
+			for (int slot = 0; slot < segment.count; slot++) {
+				indexRecord(segment.buffer, i, slot);
+			}
+		}
+	}
+
+	private void indexRecord(ByteBuffer buffer, int segmentIndex, int slot) {
+		int offset = recordOffset(slot);
+		int playerCount = buffer.get(offset + 29);
+		long location = ((long) segmentIndex << 32) | slot;
+		for (int p = 0; p < playerCount; p++) {
+			String name = readName(buffer, offset + PLAYERS_OFFSET + p * PLAYER_SIZE);
+			playerIndex.computeIfAbsent(name, k -> new ArrayList<>()).add(location);
+		}
+	}
+
+	/**
+	 * 追加一条对局记录，写入映射内存后返回，由写入线程刷盘
+	 * 进程崩溃时已写入的记录仍在操作系统的页缓存中，只有系统崩溃才会丢失尚未刷盘的记录
+	 */
+	public synchronized void append(MatchRecord record) throws IOException {
+		if (closed) {
+			throw new IOException("Match history is closed");
+		}
+		Segment active = segments.get(segments.size() - 1);
+		if (active.count >= RECORDS_PER_SEGMENT) {
+			// 当前段已满，封存并创建新段，已满的段在此之前已安排刷盘
+			active = createSegment(directory.resolve(segmentFileName(nextSegmentId)), nextSegmentId++);
+			segments.add(active);
+		}
+
+		int slot = active.count;
+		writeRecord(active.buffer, recordOffset(slot), record);
+		active.count++;
+		indexRecord(active.buffer, segments.size() - 1, slot);
+		scheduleFlush(active);
+	}
+
+	/**
+	 * 登记需要刷盘的段，没有待执行的刷盘任务时提交一个
+	 */
+	private void scheduleFlush(Segment segment) {
+		if (!dirtySegments.contains(segment)) {
+			dirtySegments.add(segment);
+		}
+		if (!flushScheduled && !writer.isShutdown()) {
+			flushScheduled = true;
+			writer.execute(this::flushDirtySegments);
+		}
+	}
+
+	/**
+	 * 在写入线程上刷盘：取出当前登记的段后释放锁，force() 期间追加不被阻塞
+	 */
+	private void flushDirtySegments() {
+		Segment[] pending;
+		synchronized (this) {
+			pending = dirtySegments.toArray(new Segment[0]);
+			dirtySegments.clear();
+			flushScheduled = false;
+		}
+		for (Segment segment : pending) {
+			try {
+				segment.buffer.force();
+			} catch (RuntimeException e) {
+				System.err.println("MatchHistory: 刷盘失败: " + e.getMessage());
+			}
+		}
+	}
+
+	private void writeRecord(ByteBuffer buffer, int offset, MatchRecord record) {
+		// 先清除提交标记，再写入内容，最后写校验和与标记
+		buffer.putInt(offset, 0);
+		buffer.putLong(offset + 8, record.getFinishedAt());
+		buffer.putInt(offset + 16, record.getDurationMillis());
+		buffer.putLong(offset + 20, record.getGameSeed());
+		buffer.put(offset + 28, (byte) record.getGameMode().ordinal());
+		int playerCount = Math.min(record.getPlayers().size(), CoopGameLogic.MAX_PLAYERS);
+		buffer.put(offset + 29, (byte) playerCount);
+		buffer.putShort(offset + 30, (short) 0);
+		buffer.putInt(offset + 32, record.getScore());
+		buffer.putInt(offset + 36, record.getLines());
+		buffer.putInt(offset + 40, record.getLevel());
+
+		for (int p = 0; p < CoopGameLogic.MAX_PLAYERS; p++) {
+			int playerOffset = offset + PLAYERS_OFFSET + p * PLAYER_SIZE;
+			if (p < playerCount) {
+				MatchRecord.PlayerResult player = record.getPlayers().get(p);
+				buffer.put(playerOffset, (byte) player.getSlotIndex());
+				buffer.put(playerOffset + 1, (byte) player.getColorIndex());
+				buffer.put(playerOffset + 2, (byte) (player.isGameOver() ? 1 : 0));
+				writeName(buffer, playerOffset + 3, player.getPlayerName());
+				buffer.putInt(playerOffset + 4 + NAME_BYTES, player.getScore());
+				buffer.putInt(playerOffset + 8 + NAME_BYTES, player.getLines());
+				buffer.putInt(playerOffset + 12 + NAME_BYTES, player.getLevel());
+			} else {
+				for (int i = 0; i < PLAYER_SIZE; i++) {
+					buffer.put(playerOffset + i, (byte) 0);
+				}
+			}
+		}
+		for (int i = offset + PLAYERS_OFFSET + CoopGameLogic.MAX_PLAYERS * PLAYER_SIZE; i < offset + RECORD_SIZE; i++) {
+			buffer.put(i, (byte) 0);
+		}
+
+		buffer.putInt(offset + 4, checksum(buffer, offset));
+		buffer.putInt(offset, RECORD_MARKER);
+	}
+
+	/**
+	 * 写入名称：1字节长度 + 32字节UTF-8，超长时在字符边界处截断
+	 */
+	private static void writeName(ByteBuffer buffer, int offset, String name) {
+		byte[] bytes = (name != null ? name : "").getBytes(StandardCharsets.UTF_8);
+		int length = Math.min(bytes.length, NAME_BYTES);
+		while (length < bytes.length && length > 0 && (bytes[length] & 0xC0) == 0x80) {
+			length--;
+		}
+		buffer.put(offset, (byte) length);
+		for (int i = 0; i < NAME_BYTES; i++) {
+			buffer.put(offset + 1 + i, i < length ? bytes[i] : 0);
+		}
+	}
+
+	private String readName(ByteBuffer buffer, int playerOffset) {
+		int length = Math.min(buffer.get(playerOffset + 3) & 0xFF, NAME_BYTES);
+		for (int i = 0; i < length; i++) {
+			nameBuffer[i] = buffer.get(playerOffset + 4 + i);
+		}
+		return new String(nameBuffer, 0, length, StandardCharsets.UTF_8);
+	}
+
+	private MatchRecord readRecord(ByteBuffer buffer, int offset) {
+		MatchRecord record = new MatchRecord();
+		record.setFinishedAt(buffer.getLong(offset + 8));
+		record.setDurationMillis(buffer.getInt(offset + 16));
+		record.setGameSeed(buffer.getLong(offset + 20));
+		int mode = buffer.get(offset + 28);
+		record.setGameMode(mode >= 0 && mode < GameMode.values().length ? GameMode.values()[mode] : GameMode.COOP);
+		record.setScore(buffer.getInt(offset + 32));
+		record.setLines(buffer.getInt(offset + 36));
+		record.setLevel(buffer.getInt(offset + 40));
+
+		int playerCount = buffer.get(offset + 29);
+		for (int p = 0; p < playerCount; p++) {
+			int playerOffset = offset + PLAYERS_OFFSET + p * PLAYER_SIZE;
+			record.getPlayers().add(new MatchRecord.PlayerResult(
+				readName(buffer, playerOffset),
+				buffer.get(playerOffset),
+				buffer.get(playerOffset + 1),
+				buffer.getInt(playerOffset + 4 + NAME_BYTES),
+				buffer.getInt(playerOffset + 8 + NAME_BYTES),
+				buffer.getInt(playerOffset + 12 + NAME_BYTES),
+				buffer.get(playerOffset + 2) != 0
+			));
+		}
+		return record;
+	}
+
+	/**
+	 * 查询指定玩家的对局记录，按时间从新到旧排列
+	 * @param limit 最多返回的记录数
+	 */
+	public synchronized List<MatchRecord> findByPlayer(String playerName, int limit) {
+		List<MatchRecord> result = new ArrayList<>();
+		List<Long> locations = playerIndex.get(playerName);
+		if (locations == null) {
+			return result;
+		}
+		for (int i = locations.size() - 1; i >= 0 && result.size() < limit; i--) {
+			long location = locations.get(i);
+			Segment segment = segments.get((int) (location >>> 32));
+			result.add(readRecord(segment.buffer, recordOffset((int) location)));
+		}
+		return result;
+	}
+
+	public synchronized int getRecordCount() {
+		int count = 0;
+		for (Segment segment : segments) {
+			count += segment.count;
+		}
+		return count;
+	}
+
+	/**
+	 * 压缩已封存的段：删除早于保留期限的记录，整段过期的段文件直接删除
+	 * 重写的段先写入临时文件，再原子替换原文件。已封存的段只有压缩会修改，复制和刷盘在锁外进行，
+	 * 追加只在替换段列表和重建索引时等待
+	 * @return 删除的记录数
+	 */
+	public int compact(long retentionMillis) throws IOException {
+		synchronized (compactLock) {
+			long cutoff = System.currentTimeMillis() - retentionMillis;
+			List<Segment> sealed;
+			synchronized (this) {
+				if (closed) {
+					return 0;
+				}
+				// 活动段（最后一段）不参与压缩
+				sealed = new ArrayList<>(segments.subList(0, segments.size() - 1));
+			}
+
+			int removed = 0;
+			List<Segment> expired = new ArrayList<>();
+			Map<Segment, Segment> rewritten = new HashMap<>();
+			for (Segment segment : sealed) {
+				int live = 0;
+				for (int slot = 0; slot < segment.count; slot++) {
+					if (segment.buffer.getLong(recordOffset(slot) + 8) >= cutoff) {
+						live++;
+					}
+				}
+				if (live == segment.count) {
+					continue;
+				}
+
+				removed += segment.count - live;
+				if (live == 0) {
+					expired.add(segment);
+					continue;
+				}
+
+				Path tempPath = directory.resolve(segment.path.getFileName() + COMPACT_SUFFIX);
+				Segment compacted = createSegment(tempPath, segment.id);
+				for (int slot = 0; slot < segment.count; slot++) {
+					int offset = recordOffset(slot);
+					if (segment.buffer.getLong(offset + 8) >= cutoff) {
+						int target = recordOffset(compacted.count++);
+						for (int b = 0; b < RECORD_SIZE; b++) {
+							compacted.buffer.put(target + b, segment.buffer.get(offset + b));
+						}
+					}
+				}
+				compacted.close();
+				rewritten.put(segment, compacted);
+			}
+			if (removed == 0) {
+				return 0;
+			}
+
+			synchronized (this) {
+				if (closed) {
+					for (Segment compacted : rewritten.values()) {
+						Files.deleteIfExists(compacted.path);
+					}
+					return 0;
+				}
+				for (Segment segment : expired) {
+					segment.channel.close();
+					Files.deleteIfExists(segment.path);
+					segments.remove(segment);
+				}
+				for (Map.Entry<Segment, Segment> entry : rewritten.entrySet()) {
+					Segment segment = entry.getKey();
+					segment.channel.close();
+					Files.move(entry.getValue().path, segment.path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+					Segment reopened = new Segment(segment.id, segment.path);
+					reopened.count = entry.getValue().count;
+					segments.set(segments.indexOf(segment), reopened);
+				}
+				rebuildIndex();
+			}
+			System.out.println("MatchHistory: 压缩完成，删除过期记录: " + removed);
+			return removed;
+		}
+	}
+
+	/**
+	 * 在写入线程上定期压缩，服务器长时间运行时过期记录也会被清理
+	 */
+	public void scheduleCompaction(long retentionMillis, long intervalMillis) {
+		writer.scheduleWithFixedDelay(() -> {
+			try {
+				compact(retentionMillis);
+			} catch (IOException e) {
+				System.err.println("MatchHistory: 压缩失败: " + e.getMessage());
+			}
+		}, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+	}
+
+	public void close() {
+		// 先等待已提交的刷盘完成，写入线程需要获取锁，不能在持有锁时等待
+		writer.shutdown();
+		try {
+			writer.awaitTermination(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		synchronized (this) {
+			closed = true;
+			closeSegments();
+		}
+	}
+
+	private void closeSegments() {
+		dirtySegments.clear();
+		for (Segment segment : segments) {
+			try {
+				segment.close();
+			} catch (IOException e) {
+				System.err.println("MatchHistory: 关闭段文件失败: " + e.getMessage());
+			}
+		}
+		segments.clear();
+		playerIndex.clear();
+	}
+}
@@ -0,0 +1,61 @@
+package me.catand.cooptetris.shared.server;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Data;
+import me.catand.cooptetris.shared.tetris.GameMode;
+
+/**
+ * 对局记录 - 一局结束的游戏的结果，由 MatchHistory 以定长二进制记录持久化
+ */
+@Data
+public class MatchRecord {
+	/**
+	 * 单个玩家在对局中的结果
+	 */
+	@Data
+	public static class PlayerResult {
+		private String playerName;
+		private int slotIndex;
+		private int colorIndex;
+		private int score;
+		private int lines;
+		private int level;
+		private boolean gameOver;
+
+		public PlayerResult() {}
+
+		public PlayerResult(String playerName, int slotIndex, int colorIndex, int score, int lines, int level, boolean gameOver) {
+			this.playerName = playerName;
+			this.slotIndex = slotIndex;
+			this.colorIndex = colorIndex;
+			this.score = score;
+			this.lines = lines;
+			this.level = level;
+			this.gameOver = gameOver;
+		}
+	}
+
+	private long finishedAt; // 结束时间（毫秒时间戳）
+	private int durationMillis; // 对局时长
+	private GameMode gameMode;
+	private long gameSeed;
+	// 合作模式为共享的分数，PVP模式为所有玩家之和
+	private int score;
+	private int lines;
+	private int level;
+	private final List<PlayerResult> players = new ArrayList<>();
+
+	/**
+	 * 检查指定玩家是否参与了该对局
+	 */
+	public boolean hasPlayer(String playerName) {
+		for (PlayerResult player : players) {
+			if (player.getPlayerName().equals(playerName)) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -1,10 +1,21 @@
 package me.catand.cooptetris.shared.server;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 import lombok.Data;
+import me.catand.cooptetris.shared.message.ConnectMessage;
 import me.catand.cooptetris.shared.message.CoopGameStateMessage;
 import me.catand.cooptetris.shared.message.CountdownMessage;
 import me.catand.cooptetris.shared.message.GameStateMessage;
@@ -15,10 +26,17 @@ import me.catand.cooptetris.shared.message.RoomMessage;
 import me.catand.cooptetris.shared.tetris.CoopGameLogic;
 import me.catand.cooptetris.shared.tetris.GameLogic;
 import me.catand.cooptetris.shared.tetris.GameMode;
+import me.catand.cooptetris.shared.util.ObjectPool;
 import me.catand.cooptetris.shared.util.Random;
 
 @Data
 public class Room {
+	// 恢复的房间等待玩家重新加入的最长时间（毫秒）
+	private static final long RESUME_WAIT_MS = 10 * 60 * 1000;
+	// 分数排行：按分数降序
+	private static final Comparator<PlayerScoresMessage.PlayerScore> SCORE_ORDER =
+		(a, b) -> Integer.compare(b.getScore(), a.getScore());
+
 	private final String id;
 	private final String name;
 	private final List<ClientConnection> players;
@@ -29,10 +47,22 @@ public class Room {
 	private final ServerManager serverManager;
 	private ClientConnection host;
 	private final boolean isDefaultLobby;
-	private Thread gameLoopThread;
-	private boolean gameLoopRunning;
+	// 房间固定使用的执行线程，消息处理、自动下落和倒计时都在该线程上执行
+	private final ScheduledExecutorService executor;
+	private volatile ScheduledFuture<?> gameLoopTask;
+	private ScheduledFuture<?> countdownTask;
 	private GameMode gameMode;
 	private long gameSeed; // 游戏随机数种子，用于同步方块生成
+	private long gameStartTime; // 本局开始时间，用于记录对局时长
+	private boolean matchRecorded; // 本局结果是否已写入对局历史
+	private volatile long lastActivityTime; // 最近一次玩家活动时间，用于回收空闲房间
+	// 从快照恢复的房间：等待玩家重新加入，房主开始游戏时从快照继续
+	private volatile RoomSnapshot pendingResume;
+	private long restoredAt;
+	// 已凭令牌取回快照中位置的玩家：客户端 ID -> 快照中的玩家
+	private final Map<String, RoomSnapshot.PlayerEntry> resumeClaims = new HashMap<>();
+	// 从排空中的分片接手的房间：快照中的玩家全部回来后自动继续，不等房主开始
+	private boolean autoResume;
 
 	// 玩家槽位管理
 	private final PlayerSlot[] playerSlots;
@@ -41,12 +71,37 @@ public class Room {
 	private final List<ClientConnection> spectators = new ArrayList<>();
 	private boolean spectatorLocked = false; // 观战是否被锁定（禁用）
 
+	// 状态消息对象池，sendMessage 返回后立即归还：sendMessage 只排队不序列化，
+	// ClientConnection 排队时把状态帧复制到连接自己的消息对象中，所以池化消息可以马上复用
+	private final ObjectPool<GameStateMessage> gameStateMessagePool = new ObjectPool<GameStateMessage>() {
+		@Override
+		protected GameStateMessage newObject() {
+			return new GameStateMessage();
+		}
+	};
+	private final ObjectPool<CoopGameStateMessage> coopGameStateMessagePool = new ObjectPool<CoopGameStateMessage>() {
+		@Override
+		protected CoopGameStateMessage newObject() {
+			return new CoopGameStateMessage();
+		}
+	};
+	private final ObjectPool<PlayerScoresMessage> playerScoresMessagePool = new ObjectPool<PlayerScoresMessage>() {
+		@Override
+		protected PlayerScoresMessage newObject() {
+			return new PlayerScoresMessage();
+		}
+	};
+
 	public Room(String name, int maxPlayers, ServerManager serverManager) {
 		this(name, maxPlayers, serverManager, false);
 	}
 
 	public Room(String name, int maxPlayers, ServerManager serverManager, boolean isDefaultLobby) {
-		this.id = UUID.randomUUID().toString();
+		this(UUID.randomUUID().toString(), name, maxPlayers, serverManager, isDefaultLobby);
+	}
+
+	private Room(String id, String name, int maxPlayers, ServerManager serverManager, boolean isDefaultLobby) {
+		this.id = id;
 		this.name = name;
 		this.players = new ArrayList<>();
 		this.maxPlayers = maxPlayers;
@@ -54,10 +109,11 @@ public class Room {
 		this.serverManager = serverManager;
 		this.gameLogics = new ArrayList<>();
 		this.isDefaultLobby = isDefaultLobby;
-		this.gameLoopThread = null;
-		this.gameLoopRunning = false;
+		this.executor = isDefaultLobby ? serverManager.getRoomExecutors().getLobby() : serverManager.getRoomExecutors().assign();
+		this.gameLoopTask = null;
 		this.gameMode = GameMode.COOP;
 		this.gameSeed = 0;
+		this.lastActivityTime = System.currentTimeMillis();
 
 		// 初始化玩家槽位（固定4个槽位）
 		// 颜色直接绑定到槽位：0=蓝, 1=红, 2=绿, 3=黄
@@ -122,15 +178,26 @@ public class Room {
 	}
 
 	public boolean addPlayer(ClientConnection client) {
+		return addPlayer(client, null);
+	}
+
+	/**
+	 * 加入房间，resumeToken 与快照中的会话令牌一致时回到原来的槽位
+	 */
+	public boolean addPlayer(ClientConnection client, String resumeToken) {
 		if (players.size() < maxPlayers && !started) {
-			// 查找可用的槽位
-			PlayerSlot availableSlot = findFirstAvailableSlot();
+			// 查找可用的槽位，恢复的房间优先回到快照中的槽位
+			PlayerSlot availableSlot = findResumeSlot(client, resumeToken);
+			if (availableSlot == null) {
+				availableSlot = findFirstAvailableSlot();
+			}
 			if (availableSlot == null) {
 				return false; // 没有可用槽位
 			}
 
 			players.add(client);
 			client.setCurrentRoom(this);
+			lastActivityTime = System.currentTimeMillis();
 
 			// 将玩家放入槽位
 			availableSlot.setPlayer(client);
@@ -163,6 +230,10 @@ public class Room {
 				serverManager.broadcastRoomListUpdate();
 			}
 
+			if (autoResume && !isCountingDown && allResumePlayersPresent()) {
+				startCountdown();
+			}
+
 			return true;
 		}
 		return false;
@@ -173,6 +244,7 @@ public class Room {
 		if (index != -1) {
 			players.remove(index);
 			client.setCurrentRoom(null);
+			resumeClaims.remove(client.getClientId());
 
 			// 从槽位中移除玩家
 			PlayerSlot slot = findPlayerSlot(client.getClientId());
@@ -225,6 +297,71 @@ public class Room {
 		}
 	}
 
+	/**
+	 * 玩家连接意外断开，会话已挂起。游戏进行中保留槽位和游戏逻辑等待重连，
+	 * 宽限期结束仍未重连再移出房间；未开始游戏、观战者或宽限期为 0 时立即移出
+	 */
+	public void suspendPlayer(ClientConnection client, int epoch) {
+		long graceMillis = serverManager.getConfig().getSessionGraceMillis();
+		if (!started || isDefaultLobby || graceMillis <= 0 || !players.contains(client)) {
+			expireSession(client, epoch);
+			return;
+		}
+		System.out.println("Room: 玩家 " + client.getPlayerName() + " 连接中断，房间 " + name + " 保留其槽位 " + graceMillis + " 毫秒等待重连");
+		try {
+			executor.schedule(wrap(() -> expireSession(client, epoch)), graceMillis, TimeUnit.MILLISECONDS);
+		} catch (RejectedExecutionException e) {
+			// 服务器正在停止
+		}
+	}
+
+	private void expireSession(ClientConnection client, int epoch) {
+		if (!client.expireSession(epoch)) {
+			// 已在宽限期内重连
+			return;
+		}
+		if (started && players.contains(client)) {
+			System.out.println("Room: 玩家 " + client.getPlayerName() + " 未在宽限期内重连，移出房间 " + name);
+		}
+		removePlayer(client);
+		serverManager.removeClient(client);
+	}
+
+	/**
+	 * 玩家重连后回到房间：随连接响应附带自己的游戏逻辑快照，客户端收到后一次恢复游戏画面
+	 * @return 玩家仍在房间中时发送响应并返回 true，已被移出房间返回 false
+	 */
+	public boolean resumePlayer(ClientConnection client, ConnectMessage response) {
+		if (!players.contains(client)) {
+			return false;
+		}
+		lastActivityTime = System.currentTimeMillis();
+		response.setResumed(true);
+		if (started) {
+			if (gameMode == GameMode.COOP && coopGameLogic != null) {
+				ByteBuffer buffer = ByteBuffer.allocate(CoopGameLogic.SNAPSHOT_SIZE);
+				coopGameLogic.writeSnapshot(buffer);
+				response.setResumeState(buffer.array());
+			} else {
+				int gameLogicIndex = client.getGameLogicIndex();
+				if (gameLogicIndex >= 0 && gameLogicIndex < gameLogics.size()) {
+					ByteBuffer buffer = ByteBuffer.allocate(GameLogic.SNAPSHOT_SIZE);
+					gameLogics.get(gameLogicIndex).writeSnapshot(buffer);
+					response.setResumeState(buffer.array());
+				}
+			}
+		}
+		client.sendMessage(response);
+		System.out.println("Room: 玩家 " + client.getPlayerName() + " 重新连接到房间 " + name);
+
+		broadcastRoomStatus();
+		broadcastPlayerSlots();
+		if (started) {
+			broadcastGameState();
+		}
+		return true;
+	}
+
 	/**
 	 * 处理玩家请求移动到指定槽位
 	 * @return 是否成功
@@ -319,11 +456,6 @@ public class Room {
 			NotificationMessage kickNotification = createLocalizedKickNotification(language);
 			playerToKick.sendMessage(kickNotification);
 
-			try {
-				Thread.sleep(100);
-			} catch (InterruptedException e) {
-				Thread.currentThread().interrupt();
-			}
 
 			playerToKick.sendMessage(new RoomMessage(RoomMessage.RoomAction.KICK));
 			removePlayer(playerToKick);
@@ -371,11 +503,6 @@ public class Room {
 			NotificationMessage kickNotification = createLocalizedKickNotification(language);
 			playerToKick.sendMessage(kickNotification);
 
-			try {
-				Thread.sleep(100);
-			} catch (InterruptedException e) {
-				Thread.currentThread().interrupt();
-			}
 
 			playerToKick.sendMessage(new RoomMessage(RoomMessage.RoomAction.KICK));
 			removePlayer(playerToKick);
@@ -541,11 +668,6 @@ public class Room {
 				NotificationMessage kickNotification = createLocalizedKickNotification(language);
 				spectator.sendMessage(kickNotification);
 
-				try {
-					Thread.sleep(100);
-				} catch (InterruptedException e) {
-					Thread.currentThread().interrupt();
-				}
 
 				spectator.sendMessage(new RoomMessage(RoomMessage.RoomAction.KICK));
 				removePlayer(spectator);
@@ -634,30 +756,189 @@ public class Room {
 		// 广播倒计时开始消息给所有玩家
 		broadcastCountdownMessage(countdownSeconds, true);
 
-		// 启动倒计时线程
-		new Thread(() -> {
-			while (countdownSeconds > 0 && isCountingDown) {
-				try {
-					Thread.sleep(1000); // 等待1秒
-					countdownSeconds--;
+		// 在房间线程上每秒倒数一次
+		countdownTask = executor.scheduleAtFixedRate(wrap(this::countdownTick), 1, 1, TimeUnit.SECONDS);
+	}
 
-					if (countdownSeconds > 0) {
-						// 广播剩余秒数
-						broadcastCountdownMessage(countdownSeconds, true);
-					}
-				} catch (InterruptedException e) {
-					e.printStackTrace();
-					break;
+	private void countdownTick() {
+		if (!isCountingDown) {
+			countdownTask.cancel(false);
+			return;
+		}
+		countdownSeconds--;
+		if (countdownSeconds > 0) {
+			// 广播剩余秒数
+			broadcastCountdownMessage(countdownSeconds, true);
+			return;
+		}
+		// 倒计时结束，真正开始游戏
+		countdownTask.cancel(false);
+		isCountingDown = false;
+		broadcastCountdownMessage(0, false);
+		actuallyStartGame();
+	}
+
+	/**
+	 * 从快照恢复游戏逻辑。合作模式沿用共享的游戏板，新加入的玩家激活自己的槽位；
+	 * PVP模式按玩家取回的快照位置找回各自的游戏逻辑，快照中没有的玩家开始新的一局
+	 */
+	private void restoreGame(RoomSnapshot snapshot) {
+		if (gameMode == GameMode.COOP) {
+			coopGameLogic = new CoopGameLogic();
+			if (!readSnapshot(snapshot.getCoopState(), coopGameLogic::readSnapshot)) {
+				// 快照无效时重新开始一局
+				coopGameLogic.reset(gameSeed, players.size());
+			}
+			for (ClientConnection player : players) {
+				int slotIndex = player.getSlotIndex();
+				if (slotIndex >= 0 && slotIndex < CoopGameLogic.MAX_PLAYERS && !coopGameLogic.isSlotActive(slotIndex)) {
+					coopGameLogic.activateSlot(slotIndex);
+					coopGameLogic.setSlotColorIndex(slotIndex, player.getColorIndex() >= 0 ? player.getColorIndex() : slotIndex);
 				}
 			}
+			// 只添加一个GameLogic作为占位，保持兼容性
+			gameLogics.add(new GameLogic());
+		} else {
+			for (int i = 0; i < players.size(); i++) {
+				RoomSnapshot.PlayerEntry entry = resumeClaims.get(players.get(i).getClientId());
+				int index = entry != null ? entry.getGameLogicIndex() : -1;
+				GameLogic logic = new GameLogic();
+				byte[] state = index >= 0 && index < snapshot.getGameLogicStates().size() ? snapshot.getGameLogicStates().get(index) : null;
+				if (!readSnapshot(state, logic::readSnapshot)) {
+					logic.reset(gameSeed);
+				}
+				gameLogics.add(logic);
+				players.get(i).setGameLogicIndex(i);
+			}
+		}
+		System.out.println("Room: 房间 " + name + " 从快照恢复游戏，快照保存于 " + snapshot.getSavedAt());
+	}
 
-			if (isCountingDown) {
-				// 倒计时结束，真正开始游戏
-				isCountingDown = false;
-				broadcastCountdownMessage(0, false);
-				actuallyStartGame();
+	/**
+	 * 读取游戏逻辑的二进制快照，没有快照或校验失败时返回 false
+	 */
+	private boolean readSnapshot(byte[] state, Consumer<ByteBuffer> reader) {
+		if (state == null) {
+			return false;
+		}
+		try {
+			reader.accept(ByteBuffer.wrap(state));
+			return true;
+		} catch (IllegalArgumentException e) {
+			System.err.println("Room: 房间 " + name + " 的游戏快照无效: " + e.getMessage());
+			return false;
+		}
+	}
+
+	/**
+	 * 保存进行中的游戏，需要在房间线程上调用
+	 */
+	public RoomSnapshot createSnapshot() {
+		RoomSnapshot snapshot = new RoomSnapshot();
+		snapshot.setRoomId(id);
+		snapshot.setRoomName(name);
+		snapshot.setMaxPlayers(maxPlayers);
+		snapshot.setGameMode(gameMode);
+		snapshot.setGameSeed(gameSeed);
+		snapshot.setGameStartTime(gameStartTime);
+		snapshot.setSavedAt(System.currentTimeMillis());
+		for (ClientConnection player : players) {
+			RoomSnapshot.PlayerEntry entry = new RoomSnapshot.PlayerEntry();
+			entry.setPlayerName(player.getPlayerName());
+			entry.setResumeToken(player.getSessionToken());
+			entry.setSlotIndex(player.getSlotIndex());
+			entry.setColorIndex(player.getColorIndex());
+			entry.setGameLogicIndex(player.getGameLogicIndex());
+			snapshot.getPlayers().add(entry);
+		}
+		if (gameMode == GameMode.COOP) {
+			ByteBuffer buffer = ByteBuffer.allocate(CoopGameLogic.SNAPSHOT_SIZE);
+			coopGameLogic.writeSnapshot(buffer);
+			snapshot.setCoopState(buffer.array());
+		} else {
+			for (GameLogic logic : gameLogics) {
+				ByteBuffer buffer = ByteBuffer.allocate(GameLogic.SNAPSHOT_SIZE);
+				logic.writeSnapshot(buffer);
+				snapshot.getGameLogicStates().add(buffer.array());
+			}
+		}
+		return snapshot;
+	}
+
+	/**
+	 * 用快照创建房间，房间 ID 保持不变，玩家可以按原来的 ID 重新加入
+	 * autoResume 为 true（从其他分片接手）时，快照中的玩家全部回来后自动倒计时继续
+	 */
+	public static Room restore(RoomSnapshot snapshot, ServerManager serverManager, boolean autoResume) {
+		Room room = new Room(snapshot.getRoomId(), snapshot.getRoomName(), snapshot.getMaxPlayers(), serverManager, false);
+		room.gameMode = snapshot.getGameMode();
+		room.pendingResume = snapshot;
+		room.restoredAt = System.currentTimeMillis();
+		room.autoResume = autoResume;
+		return room;
+	}
+
+	/**
+	 * 快照中的玩家是否都已重新加入
+	 */
+	private boolean allResumePlayersPresent() {
+		RoomSnapshot snapshot = pendingResume;
+		if (snapshot == null) {
+			return false;
+		}
+		for (RoomSnapshot.PlayerEntry entry : snapshot.getPlayers()) {
+			if (!resumeClaims.containsValue(entry)) {
+				return false;
 			}
-		}).start();
+		}
+		return true;
+	}
+
+	/**
+	 * 房间已移交给其他分片：把玩家重定向过去，每个玩家带上快照中自己的会话令牌，连接后凭令牌回到原来的槽位
+	 * 观战者不重定向，避免先到的观战者占用玩家的槽位
+	 */
+	public void redirectPlayers(String shardHost, int shardPort) {
+		for (ClientConnection player : players) {
+			RoomMessage redirect = new RoomMessage(RoomMessage.RoomAction.REDIRECT);
+			redirect.setSuccess(true);
+			redirect.setRoomId(id);
+			redirect.setShardHost(shardHost);
+			redirect.setShardPort(shardPort);
+			redirect.setRedirectAction(RoomMessage.RoomAction.JOIN);
+			redirect.setResumeToken(player.getSessionToken());
+			player.sendMessage(redirect);
+		}
+	}
+
+	/**
+	 * 恢复的房间是否仍在等待玩家重新加入，等待期间没有玩家也不回收
+	 */
+	public boolean isAwaitingResume(long now) {
+		return pendingResume != null && now - restoredAt < RESUME_WAIT_MS;
+	}
+
+	/**
+	 * 快照中持有该令牌的玩家原来的槽位，令牌不符、已被取回，或槽位已被占用或锁定时返回 null
+	 */
+	private PlayerSlot findResumeSlot(ClientConnection client, String resumeToken) {
+		RoomSnapshot snapshot = pendingResume;
+		if (snapshot == null) {
+			return null;
+		}
+		RoomSnapshot.PlayerEntry entry = snapshot.findPlayer(resumeToken);
+		if (entry == null || resumeClaims.containsValue(entry)) {
+			return null;
+		}
+		PlayerSlot slot = getSlot(entry.getSlotIndex());
+		if (slot == null || !slot.isEmpty() || slot.isLocked()) {
+			return null;
+		}
+		if (entry.getColorIndex() >= 0) {
+			client.setColorIndex(entry.getColorIndex());
+		}
+		resumeClaims.put(client.getClientId(), entry);
+		return slot;
 	}
 
 	private void broadcastCountdownMessage(int seconds, boolean isStarting) {
@@ -674,15 +955,23 @@ public class Room {
 
 	private void actuallyStartGame() {
 		started = true;
+		RoomSnapshot resume = pendingResume;
+		pendingResume = null;
 
-		// 生成游戏种子，用于同步所有客户端的方块生成
-		gameSeed = Random.Long();
+		// 生成游戏种子，用于同步所有客户端的方块生成，从快照恢复时沿用原来的种子
+		gameSeed = resume != null ? resume.getGameSeed() : Random.Long();
+		gameStartTime = resume != null ? resume.getGameStartTime() : System.currentTimeMillis();
+		matchRecorded = false;
+		lastActivityTime = System.currentTimeMillis();
 
 		// 清除旧的游戏逻辑
 		gameLogics.clear();
 		coopGameLogic = null;
 
-		if (gameMode == GameMode.COOP) {
+		if (resume != null) {
+			restoreGame(resume);
+			resumeClaims.clear();
+		} else if (gameMode == GameMode.COOP) {
 			// 合作模式：使用新的 CoopGameLogic
 			coopGameLogic = new CoopGameLogic();
 
@@ -741,6 +1030,7 @@ public class Room {
 
 	public void handleMove(ClientConnection client, int moveType) {
 		if (!started) return;
+		lastActivityTime = System.currentTimeMillis();
 
 		if (gameMode == GameMode.COOP && coopGameLogic != null) {
 			// 合作模式：根据玩家的槽位索引移动对应的物块
@@ -765,6 +1055,7 @@ public class Room {
 					break;
 			}
 
+			checkMatchFinished();
 			broadcastGameState();
 		} else {
 			// PVP模式：原有逻辑
@@ -790,6 +1081,7 @@ public class Room {
 						break;
 				}
 
+				checkMatchFinished();
 				broadcastGameState();
 			}
 		}
@@ -811,6 +1103,7 @@ public class Room {
 			for (ClientConnection spectator : spectatorsCopy) {
 				spectator.sendMessage(message);
 			}
+			coopGameStateMessagePool.free(message);
 		} else {
 			// PVP模式：广播所有玩家的游戏状态给所有人
 			// 发送给每个玩家：包含所有玩家的游戏状态
@@ -820,18 +1113,13 @@ public class Room {
 
 				// 发送自己的游戏状态（设置playerIndex为自己的索引）
 				if (playerGameLogicIndex >= 0 && playerGameLogicIndex < gameLogics.size()) {
-					GameStateMessage myState = createGameStateMessage(gameLogics.get(playerGameLogicIndex));
-					myState.setPlayerIndex(playerGameLogicIndex);
-					client.sendMessage(myState);
+					sendGameState(client, playerGameLogicIndex);
 				}
 
 				// 发送其他玩家的游戏状态（用于显示对手游戏板）
 				for (int j = 0; j < gameLogics.size(); j++) {
 					if (j != playerGameLogicIndex) {
-						// 为每个对手创建独立的游戏状态消息副本
-						GameStateMessage opponentState = createGameStateMessage(gameLogics.get(j));
-						opponentState.setPlayerIndex(j); // 标记这是哪个玩家的状态
-						client.sendMessage(opponentState);
+						sendGameState(client, j); // 标记这是哪个玩家的状态
 					}
 				}
 			}
@@ -839,9 +1127,7 @@ public class Room {
 			// 向观战者发送所有玩家的游戏状态
 			for (ClientConnection spectator : spectatorsCopy) {
 				for (int j = 0; j < gameLogics.size(); j++) {
-					GameStateMessage state = createGameStateMessage(gameLogics.get(j));
-					state.setPlayerIndex(j);
-					spectator.sendMessage(state);
+					sendGameState(spectator, j);
 				}
 			}
 
@@ -850,47 +1136,60 @@ public class Room {
 		}
 	}
 
+	/**
+	 * 发送指定玩家的游戏状态，消息从对象池取出，发送后归还
+	 */
+	private void sendGameState(ClientConnection client, int gameLogicIndex) {
+		GameStateMessage state = createGameStateMessage(gameLogics.get(gameLogicIndex));
+		state.setPlayerIndex(gameLogicIndex);
+		client.sendMessage(state);
+		gameStateMessagePool.free(state);
+	}
+
 	/**
 	 * 广播所有玩家的分数信息（用于PVP模式）
 	 */
 	private void broadcastPlayerScores() {
-		List<PlayerScoresMessage.PlayerScore> scores = new ArrayList<>();
-
+		PlayerScoresMessage message = playerScoresMessagePool.obtain();
+		int count = 0;
 		for (int i = 0; i < players.size(); i++) {
 			ClientConnection player = players.get(i);
 			int gameLogicIndex = player.getGameLogicIndex();
 			if (gameLogicIndex >= 0 && gameLogicIndex < gameLogics.size()) {
 				GameLogic gameLogic = gameLogics.get(gameLogicIndex);
-				scores.add(new PlayerScoresMessage.PlayerScore(
+				message.setScore(count++,
 					i,
 					player.getPlayerName(),
 					gameLogic.getScore(),
 					gameLogic.getLines(),
 					gameLogic.getLevel(),
 					gameLogic.isGameOver()
-				));
+				);
 			}
 		}
+		message.setScoreCount(count);
 
 		// 按分数降序排序
-		scores.sort((a, b) -> Integer.compare(b.getScore(), a.getScore()));
+		message.getPlayerScores().sort(SCORE_ORDER);
 
-		// 发送给每个玩家
+		// 同一条消息依次发给每个玩家，发送时连接会复制一份，因此只需修改接收者索引
 		for (int i = 0; i < players.size(); i++) {
-			PlayerScoresMessage message = new PlayerScoresMessage(scores, i);
+			message.setYourIndex(i);
 			players.get(i).sendMessage(message);
 		}
 
 		// 发送给观战者（playerIndex为-1表示观战者）
+		message.setYourIndex(-1);
 		for (ClientConnection spectator : spectators) {
-			PlayerScoresMessage message = new PlayerScoresMessage(scores, -1);
 			spectator.sendMessage(message);
 		}
+		playerScoresMessagePool.free(message);
 	}
 
 	private GameStateMessage createGameStateMessage(GameLogic gameLogic) {
-		GameStateMessage message = new GameStateMessage();
-		message.setBoard(gameLogic.getBoard());
+		GameStateMessage message = gameStateMessagePool.obtain();
+		// 使用不可变快照而不是正在被修改的游戏板数组
+		message.setBoard(gameLogic.getBoardSnapshot());
 		message.setCurrentPiece(gameLogic.getCurrentPiece());
 		message.setCurrentPieceX(gameLogic.getCurrentPieceX());
 		message.setCurrentPieceY(gameLogic.getCurrentPieceY());
@@ -903,22 +1202,36 @@ public class Room {
 	}
 
 	private CoopGameStateMessage createCoopGameStateMessage() {
-		CoopGameStateMessage message = new CoopGameStateMessage();
-		message.setBoard(coopGameLogic.getBoard());
-		message.setBoardColor(coopGameLogic.getBoardColor());
+		CoopGameStateMessage message = coopGameStateMessagePool.obtain();
+		// 使用不可变快照而不是正在被修改的游戏板数组
+		message.setBoard(coopGameLogic.getBoardSnapshot());
+		message.setBoardColor(coopGameLogic.getBoardColorSnapshot());
 		message.setScore(coopGameLogic.getScore());
 		message.setLevel(coopGameLogic.getLevel());
 		message.setLines(coopGameLogic.getLines());
 		message.setGameOver(coopGameLogic.isGameOver());
 		message.setPlayerCount(players.size());
 
-		// 设置每个槽位的物块状态（只包含有玩家的槽位）
-		CoopGameStateMessage.PlayerPieceState[] playerPieceStates = new CoopGameStateMessage.PlayerPieceState[players.size()];
+		// 设置每个槽位的物块状态（只包含有玩家的槽位），数量不变时复用上次的状态对象
+		int activeCount = 0;
+		for (int slotIndex = 0; slotIndex < CoopGameLogic.MAX_PLAYERS; slotIndex++) {
+			if (coopGameLogic.isSlotActive(slotIndex)) {
+				activeCount++;
+			}
+		}
+		CoopGameStateMessage.PlayerPieceState[] playerPieceStates = message.getPlayerPieces();
+		if (playerPieceStates == null || playerPieceStates.length != activeCount) {
+			playerPieceStates = new CoopGameStateMessage.PlayerPieceState[activeCount];
+			for (int i = 0; i < activeCount; i++) {
+				playerPieceStates[i] = new CoopGameStateMessage.PlayerPieceState();
+			}
+			message.setPlayerPieces(playerPieceStates);
+		}
 		int stateIndex = 0;
 		for (int slotIndex = 0; slotIndex < CoopGameLogic.MAX_PLAYERS; slotIndex++) {
 			if (coopGameLogic.isSlotActive(slotIndex)) {
 				CoopGameLogic.PlayerPiece piece = coopGameLogic.getPlayerPiece(slotIndex);
-				playerPieceStates[stateIndex] = new CoopGameStateMessage.PlayerPieceState(
+				playerPieceStates[stateIndex].set(
 					slotIndex, // 使用槽位索引作为玩家索引
 					piece.getPieceType(),
 					piece.getX(),
@@ -929,7 +1242,6 @@ public class Room {
 				stateIndex++;
 			}
 		}
-		message.setPlayerPieces(playerPieceStates);
 
 		// 设置每个槽位的颜色选择
 		message.setSlotColorIndices(coopGameLogic.getSlotColorIndices());
@@ -984,12 +1296,6 @@ public class Room {
 					NotificationMessage kickNotification = createLocalizedKickNotification(language);
 					player.sendMessage(kickNotification);
 
-					// 短暂延迟后移除玩家，确保通知先到达
-					try {
-						Thread.sleep(100);
-					} catch (InterruptedException e) {
-						Thread.currentThread().interrupt();
-					}
 
 					player.sendMessage(new RoomMessage(RoomMessage.RoomAction.KICK));
 					removePlayer(player);
@@ -1031,47 +1337,63 @@ public class Room {
 	}
 
 	/**
-	 * 启动游戏循环线程，处理方块自动下落
+	 * 在房间线程上启动游戏循环，处理方块自动下落
+	 * 与玩家操作在同一线程上执行，游戏逻辑不需要额外同步
 	 */
 	private void startGameLoop() {
-		if (gameLoopThread == null || !gameLoopThread.isAlive()) {
-			gameLoopRunning = true;
-			gameLoopThread = new Thread(() -> {
-				long lastTime = System.currentTimeMillis();
-				final long DROP_INTERVAL = 1000; // 1秒
-
-				while (gameLoopRunning && started) {
-					long currentTime = System.currentTimeMillis();
-					if (currentTime - lastTime >= DROP_INTERVAL) {
-						// 处理游戏逻辑
-						updateGameState();
-						lastTime = currentTime;
-					}
-
-					try {
-						Thread.sleep(100); // 避免CPU占用过高
-					} catch (InterruptedException e) {
-						e.printStackTrace();
-					}
+		if (!isGameLoopActive()) {
+			final long dropInterval = serverManager.getConfig().getGravityMillis();
+			final long tickInterval = serverManager.getConfig().getGameTickMillis();
+			final long[] lastTime = {System.currentTimeMillis()};
+			gameLoopTask = executor.scheduleAtFixedRate(wrap(() -> {
+				if (!started) {
+					stopGameLoop();
+					return;
 				}
-			});
-			gameLoopThread.start();
+				long currentTime = System.currentTimeMillis();
+				if (currentTime - lastTime[0] >= dropInterval) {
+					// 处理游戏逻辑
+					updateGameState();
+					lastTime[0] = currentTime;
+				}
+			}), tickInterval, tickInterval, TimeUnit.MILLISECONDS);
 		}
 	}
 
 	/**
-	 * 停止游戏循环线程
+	 * 停止游戏循环
 	 */
 	private void stopGameLoop() {
-		gameLoopRunning = false;
-		if (gameLoopThread != null && gameLoopThread.isAlive()) {
+		ScheduledFuture<?> task = gameLoopTask;
+		if (task != null) {
+			task.cancel(false);
+		}
+		gameLoopTask = null;
+	}
+
+	/**
+	 * 在房间线程上执行任务，房间以外的线程修改房间状态时都要经过这里
+	 */
+	public void execute(Runnable task) {
+		try {
+			executor.execute(wrap(task));
+		} catch (RejectedExecutionException e) {
+			// 服务器正在停止
+		}
+	}
+
+	/**
+	 * 记录任务中的异常，避免定时任务因异常被取消或异常被执行器吞掉
+	 */
+	private Runnable wrap(Runnable task) {
+		return () -> {
 			try {
-				gameLoopThread.join(1000); // 等待线程结束，最多1秒
-			} catch (InterruptedException e) {
+				task.run();
+			} catch (Exception e) {
+				System.err.println("Room: 房间 " + name + " 执行任务失败: " + e.getMessage());
 				e.printStackTrace();
 			}
-		}
-		gameLoopThread = null;
+		};
 	}
 
 	/**
@@ -1097,7 +1419,126 @@ public class Room {
 				gameLogic.moveDown();
 			}
 		}
+		checkMatchFinished();
 		// 广播游戏状态更新，确保所有客户端同步
 		broadcastGameState();
 	}
+
+	/**
+	 * 检查本局是否结束（合作模式游戏结束，或PVP模式所有玩家都已失败），结束时写入对局历史
+	 */
+	private void checkMatchFinished() {
+		if (!started || matchRecorded) return;
+
+		if (isGameFinished()) {
+			matchRecorded = true;
+			recordMatchResult();
+		}
+	}
+
+	/**
+	 * 本局是否已结束（合作模式游戏结束，或PVP模式所有玩家都已失败）
+	 * 只能在房间线程上调用，其他线程经 ServerManager 提交到房间线程上检查
+	 */
+	public boolean isGameFinished() {
+		if (gameMode == GameMode.COOP) {
+			return coopGameLogic != null && coopGameLogic.isGameOver();
+		}
+		if (gameLogics.isEmpty()) {
+			return false;
+		}
+		for (GameLogic gameLogic : gameLogics) {
+			if (!gameLogic.isGameOver()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	public boolean isGameLoopActive() {
+		ScheduledFuture<?> task = gameLoopTask;
+		return task != null && !task.isDone();
+	}
+
+	/**
+	 * 释放游戏状态：停止游戏循环并丢弃游戏逻辑，房间回到等待开始的状态
+	 * 由回收器在游戏结束或长时间无人操作后调用
+	 */
+	public void releaseGame() {
+		isCountingDown = false;
+		started = false;
+		stopGameLoop();
+		gameLogics.clear();
+		coopGameLogic = null;
+		for (ClientConnection player : new ArrayList<>(players)) {
+			player.setGameLogicIndex(-1);
+		}
+
+		if (!players.isEmpty()) {
+			broadcastRoomStatus();
+			if (serverManager != null) {
+				serverManager.broadcastRoomListUpdate();
+			}
+		}
+	}
+
+	/**
+	 * 根据游戏逻辑和槽位信息生成对局记录并写入对局历史
+	 */
+	private void recordMatchResult() {
+		MatchHistory matchHistory = serverManager.getMatchHistory();
+		if (matchHistory == null) return;
+
+		MatchRecord record = new MatchRecord();
+		record.setFinishedAt(System.currentTimeMillis());
+		record.setDurationMillis((int) Math.min(Integer.MAX_VALUE, record.getFinishedAt() - gameStartTime));
+		record.setGameMode(gameMode);
+		record.setGameSeed(gameSeed);
+
+		List<ClientConnection> playersCopy = new ArrayList<>(players);
+		if (gameMode == GameMode.COOP) {
+			record.setScore(coopGameLogic.getScore());
+			record.setLines(coopGameLogic.getLines());
+			record.setLevel(coopGameLogic.getLevel());
+			for (ClientConnection player : playersCopy) {
+				int slotIndex = player.getSlotIndex();
+				if (slotIndex < 0 || !coopGameLogic.isSlotActive(slotIndex)) continue;
+				record.getPlayers().add(new MatchRecord.PlayerResult(
+					player.getPlayerName(),
+					slotIndex,
+					coopGameLogic.getSlotColorIndices()[slotIndex],
+					coopGameLogic.getScore(),
+					coopGameLogic.getLines(),
+					coopGameLogic.getLevel(),
+					true
+				));
+			}
+		} else {
+			for (ClientConnection player : playersCopy) {
+				int gameLogicIndex = player.getGameLogicIndex();
+				if (gameLogicIndex < 0 || gameLogicIndex >= gameLogics.size()) continue;
+				GameLogic gameLogic = gameLogics.get(gameLogicIndex);
+				PlayerSlot slot = findPlayerSlot(player.getClientId());
+				record.getPlayers().add(new MatchRecord.PlayerResult(
+					player.getPlayerName(),
+					player.getSlotIndex(),
+					slot != null ? slot.getColorIndex() : player.getColorIndex(),
+					gameLogic.getScore(),
+					gameLogic.getLines(),
+					gameLogic.getLevel(),
+					gameLogic.isGameOver()
+				));
+				record.setScore(record.getScore() + gameLogic.getScore());
+				record.setLines(record.getLines() + gameLogic.getLines());
+				record.setLevel(Math.max(record.getLevel(), gameLogic.getLevel()));
+			}
+		}
+
+		try {
+			matchHistory.append(record);
+			System.out.println("Room: 对局结果已记录，房间: " + name + ", 玩家数: " + record.getPlayers().size() + ", 分数: " + record.getScore());
+		} catch (IOException e) {
+			System.err.println("Room: 对局结果记录失败: " + e.getMessage());
+		}
+	}
 }
@@ -0,0 +1,62 @@
+package me.catand.cooptetris.shared.server;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import lombok.Getter;
+
+/**
+ * 房间执行器 - 服务器的游戏阶段
+ * 每个房间固定分配到一个单线程执行器，房间的消息处理、自动下落和倒计时都在该线程上按顺序执行，
+ * 一个房间负载过重只会拖慢同一线程上的房间。不在房间中的客户端消息由独立的大厅线程处理
+ */
+public class RoomExecutors {
+	@Getter
+	private final ScheduledExecutorService lobby;
+	private final ScheduledExecutorService[] lanes;
+	private final AtomicInteger next = new AtomicInteger();
+
+	public RoomExecutors(int threads) {
+		lobby = Executors.newSingleThreadScheduledExecutor(runnable -> newThread(runnable, "RoomLobby"));
+		lanes = new ScheduledExecutorService[threads];
+		for (int i = 0; i < threads; i++) {
+			String name = "RoomWorker-" + i;
+			lanes[i] = Executors.newSingleThreadScheduledExecutor(runnable -> newThread(runnable, name));
+		}
+	}
+
+	private static Thread newThread(Runnable runnable, String name) {
+		Thread thread = new Thread(runnable, name);
+		thread.setDaemon(true);
+		return thread;
+	}
+
+	/**
+	 * 为新房间分配执行器，按顺序轮流分配
+	 */
+	public ScheduledExecutorService assign() {
+		return lanes[Math.floorMod(next.getAndIncrement(), lanes.length)];
+	}
+
+	public void shutdown() {
+		lobby.shutdownNow();
+		for (ScheduledExecutorService lane : lanes) {
+			lane.shutdownNow();
+		}
+	}
+
+	/**
+	 * 等待 shutdown 之后仍在执行的任务结束，所有线程都已退出时返回 true
+	 */
+	public boolean awaitTermination(long timeoutMillis) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + timeoutMillis;
+		boolean terminated = lobby.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS);
+		for (ScheduledExecutorService lane : lanes) {
+			long remaining = Math.max(0, deadline - System.currentTimeMillis());
+			terminated &= lane.awaitTermination(remaining, TimeUnit.MILLISECONDS);
+		}
+		return terminated;
+	}
+}
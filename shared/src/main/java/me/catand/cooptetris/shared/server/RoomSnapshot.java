@@ -0,0 +1,114 @@
+package me.catand.cooptetris.shared.server;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Data;
+import me.catand.cooptetris.shared.tetris.GameMode;
+
+/**
+ * 房间快照 - 停服时保存进行中的游戏，另一个服务器实例读取后恢复房间
+ * 分片模式下经路由直接交给另一个分片（见 RoomHandoffMessage），否则写入文件由重启后的实例读取
+ * 玩家重新加入恢复的房间时凭保存时的会话令牌回到原来的槽位，房主开始游戏时从快照继续
+ */
+@Data
+public class RoomSnapshot {
+	public static final String FILE_SUFFIX = ".snapshot";
+
+	private String roomId;
+	private String roomName;
+	private int maxPlayers;
+	private GameMode gameMode;
+	private long gameSeed;
+	private long gameStartTime;
+	private long savedAt;
+	private List<PlayerEntry> players = new ArrayList<>();
+	// PVP模式每个玩家一个 GameLogic 二进制快照，按 PlayerEntry.gameLogicIndex 对应
+	private List<byte[]> gameLogicStates = new ArrayList<>();
+	// 合作模式共享的 CoopGameLogic 二进制快照，PVP模式为 null
+	private byte[] coopState;
+
+	@Data
+	public static class PlayerEntry {
+		private String playerName;
+		// 保存时玩家的会话令牌，只有持有令牌的客户端能取回槽位和游戏，不按名称匹配
+		private String resumeToken;
+		private int slotIndex;
+		private int colorIndex;
+		private int gameLogicIndex;
+	}
+
+	/**
+	 * 按会话令牌查找快照中的玩家，令牌为空或找不到时返回 null
+	 */
+	public PlayerEntry findPlayer(String resumeToken) {
+		if (resumeToken == null || resumeToken.isEmpty()) {
+			return null;
+		}
+		for (PlayerEntry entry : players) {
+			if (resumeToken.equals(entry.getResumeToken())) {
+				return entry;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * 写入文件，先写临时文件再替换，写入中途停止不会留下损坏的快照
+	 */
+	public void write(File file) throws IOException {
+		File temp = new File(file.getPath() + ".tmp");
+		try (Output output = new Output(new FileOutputStream(temp))) {
+			createKryo().writeObject(output, this);
+		}
+		Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+	}
+
+	public static RoomSnapshot read(File file) throws IOException {
+		try (Input input = new Input(new FileInputStream(file))) {
+			return createKryo().readObject(input, RoomSnapshot.class);
+		} catch (RuntimeException e) {
+			throw new IOException("Invalid room snapshot: " + file.getName(), e);
+		}
+	}
+
+	/**
+	 * 序列化为字节数组，用于在分片之间移交
+	 */
+	public byte[] toBytes() {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(1024);
+		try (Output output = new Output(bytes)) {
+			createKryo().writeObject(output, this);
+		}
+		return bytes.toByteArray();
+	}
+
+	public static RoomSnapshot fromBytes(byte[] data) throws IOException {
+		try (Input input = new Input(data)) {
+			return createKryo().readObject(input, RoomSnapshot.class);
+		} catch (RuntimeException e) {
+			throw new IOException("Invalid room snapshot", e);
+		}
+	}
+
+	private static Kryo createKryo() {
+		Kryo kryo = new Kryo();
+		kryo.register(RoomSnapshot.class);
+		kryo.register(PlayerEntry.class);
+		kryo.register(ArrayList.class);
+		kryo.register(GameMode.class);
+		kryo.register(byte[].class);
+		return kryo;
+	}
+}
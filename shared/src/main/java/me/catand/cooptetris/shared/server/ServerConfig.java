@@ -0,0 +1,277 @@
+package me.catand.cooptetris.shared.server;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import lombok.Getter;
+import me.catand.cooptetris.shared.message.RoomListChunks;
+import me.catand.cooptetris.shared.tetris.CoopGameLogic;
+
+/**
+ * 服务器配置 - 默认值与原先的硬编码一致
+ * 加载顺序：默认值 -> 配置文件（properties 格式）-> 命令行参数 --key=value，后者覆盖前者
+ */
+@Getter
+public class ServerConfig {
+	public static final String DEFAULT_FILE = "server.properties";
+	// 运行角色：独立服务器 / 分片路由 / 分片后端
+	public static final String ROLE_STANDALONE = "standalone";
+	public static final String ROLE_ROUTER = "router";
+	public static final String ROLE_SHARD = "shard";
+
+	private int port = 52791;
+	private int roomCapacity = 4;
+	private int lobbyCapacity = 10;
+	private int maxRooms = 256;
+	private int maxClients = 1024;
+	// KryoNet 每个连接的写缓冲和对象缓冲大小
+	private int writeBufferSize = 32768;
+	private int objectBufferSize = 16384;
+	// 网络线程每次等待网络事件的最长时间（毫秒），也决定心跳和超时检查的精度
+	private int networkTickMillis = 250;
+	// 房间游戏循环的检查间隔与方块自动下落间隔（毫秒）
+	private int gameTickMillis = 100;
+	private int gravityMillis = 1000;
+	private int keepAliveMillis = 8000;
+	private int timeoutMillis = 20000;
+	// 房间线程数（游戏阶段）。编码只有一个线程：KryoNet 的 Server 所有连接共用一个 KryoSerialization，
+	// 其读写方法是同步的，多个编码线程也只能依次序列化
+	private int workerThreads = Runtime.getRuntime().availableProcessors();
+	private String role = ROLE_STANDALONE;
+	// 分片后端：路由的分片端口地址（host:port）、客户端连接本分片使用的地址，以及向路由上报房间的间隔（毫秒）
+	private String shardRouter = "";
+	private String shardHost = "127.0.0.1";
+	private int shardReportMillis = 2000;
+	// 路由：接受分片注册的端口与绑定地址（为空时绑定所有地址），应只对分片所在的内网开放
+	private int shardPort = 52792;
+	private String shardBind = "";
+	// 停服时等待进行中的游戏结束的最长时间（毫秒），超时仍未结束的房间保存快照到 snapshot.dir
+	private int drainMillis = 30000;
+	private String snapshotDir = "room-snapshots";
+	// 游戏中连接意外断开后保留玩家槽位和游戏逻辑等待重连的时间（毫秒），0 表示立即移出房间
+	private int sessionGraceMillis = 30000;
+	// 回收线程：连接后未完成握手（发送玩家名称）的时限、游戏结束后保留游戏状态的时间，以及游戏中无任何玩家操作的时限（毫秒）
+	private int handshakeTimeoutMillis = 30 * 1000;
+	private int finishedRoomIdleMillis = 5 * 60 * 1000;
+	private int roomIdleTimeoutMillis = 15 * 60 * 1000;
+	// 对局历史：存储目录、记录保留天数，以及运行期间压缩过期记录的间隔（分钟）
+	private String historyDir = "match-history";
+	private int historyRetentionDays = 180;
+	private int historyCompactMinutes = 360;
+
+	/**
+	 * 从 properties 文件读取配置，文件中未出现的项保持当前值
+	 */
+	public void load(File file) throws IOException {
+		Properties properties = new Properties();
+		try (InputStream in = new FileInputStream(file)) {
+			properties.load(in);
+		}
+		for (String key : properties.stringPropertyNames()) {
+			set(key, properties.getProperty(key).trim());
+		}
+	}
+
+	/**
+	 * 应用命令行参数，支持 --key=value 和 --key value 两种形式，--config 由调用方处理
+	 */
+	public void applyArgs(String[] args) {
+		for (int i = 0; i < args.length; i++) {
+			String arg = args[i];
+			if (!arg.startsWith("--")) {
+				throw new IllegalArgumentException("Unexpected argument: " + arg);
+			}
+			String key = arg.substring(2);
+			String value;
+			int equals = key.indexOf('=');
+			if (equals >= 0) {
+				value = key.substring(equals + 1);
+				key = key.substring(0, equals);
+			} else if (i + 1 < args.length) {
+				value = args[++i];
+			} else {
+				throw new IllegalArgumentException("Missing value for --" + key);
+			}
+			if (!key.equals("config")) {
+				set(key, value);
+			}
+		}
+	}
+
+	/**
+	 * 按配置项名称设置值，名称未知或数值项不是整数时抛出 IllegalArgumentException
+	 */
+	public void set(String key, String value) {
+		switch (key) {
+			case "role": role = value; return;
+			case "shard.router": shardRouter = value; return;
+			case "shard.host": shardHost = value; return;
+			case "shard.bind": shardBind = value; return;
+			case "snapshot.dir": snapshotDir = value; return;
+			case "history.dir": historyDir = value; return;
+		}
+		int number;
+		try {
+			number = Integer.parseInt(value);
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("Invalid value for " + key + ": " + value);
+		}
+		switch (key) {
+			case "port": port = number; break;
+			case "room.capacity": roomCapacity = number; break;
+			case "lobby.capacity": lobbyCapacity = number; break;
+			case "max.rooms": maxRooms = number; break;
+			case "max.clients": maxClients = number; break;
+			case "net.write.buffer": writeBufferSize = number; break;
+			case "net.object.buffer": objectBufferSize = number; break;
+			case "net.tick.ms": networkTickMillis = number; break;
+			case "net.keepalive.ms": keepAliveMillis = number; break;
+			case "net.timeout.ms": timeoutMillis = number; break;
+			case "game.tick.ms": gameTickMillis = number; break;
+			case "game.gravity.ms": gravityMillis = number; break;
+			case "worker.threads": workerThreads = number; break;
+			case "shard.report.ms": shardReportMillis = number; break;
+			case "shard.port": shardPort = number; break;
+			case "drain.ms": drainMillis = number; break;
+			case "session.grace.ms": sessionGraceMillis = number; break;
+			case "reap.handshake.ms": handshakeTimeoutMillis = number; break;
+			case "reap.finished.ms": finishedRoomIdleMillis = number; break;
+			case "reap.idle.ms": roomIdleTimeoutMillis = number; break;
+			case "history.retention.days": historyRetentionDays = number; break;
+			case "history.compact.minutes": historyCompactMinutes = number; break;
+			default:
+				throw new IllegalArgumentException("Unknown config key: " + key);
+		}
+	}
+
+	/**
+	 * 检查配置取值范围，出错时抛出 IllegalArgumentException 列出所有问题
+	 */
+	public void validate() {
+		StringBuilder errors = new StringBuilder();
+		check(errors, port >= 1 && port <= 65535, "port must be between 1 and 65535");
+		check(errors, roomCapacity >= 1 && roomCapacity <= CoopGameLogic.MAX_PLAYERS, "room.capacity must be between 1 and " + CoopGameLogic.MAX_PLAYERS);
+		check(errors, lobbyCapacity >= 1, "lobby.capacity must be at least 1");
+		check(errors, maxRooms >= 1, "max.rooms must be at least 1");
+		check(errors, maxClients >= 1, "max.clients must be at least 1");
+		// 房间列表按 RoomListChunks.CHUNK_BYTES 分段，对象缓冲需要放下一段和消息的其他字段
+		check(errors, objectBufferSize >= RoomListChunks.CHUNK_BYTES * 2, "net.object.buffer must be at least " + RoomListChunks.CHUNK_BYTES * 2);
+		// KryoNet 要求写缓冲能放下至少一个完整对象
+		check(errors, writeBufferSize >= objectBufferSize, "net.write.buffer must not be smaller than net.object.buffer");
+		check(errors, networkTickMillis >= 1, "net.tick.ms must be at least 1");
+		check(errors, keepAliveMillis >= 0, "net.keepalive.ms must not be negative");
+		check(errors, timeoutMillis == 0 || timeoutMillis > keepAliveMillis, "net.timeout.ms must be 0 or greater than net.keepalive.ms");
+		check(errors, gameTickMillis >= 1, "game.tick.ms must be at least 1");
+		check(errors, gravityMillis >= gameTickMillis, "game.gravity.ms must not be smaller than game.tick.ms");
+		check(errors, workerThreads >= 1, "worker.threads must be at least 1");
+		check(errors, role.equals(ROLE_STANDALONE) || role.equals(ROLE_ROUTER) || role.equals(ROLE_SHARD),
+			"role must be one of " + ROLE_STANDALONE + ", " + ROLE_ROUTER + ", " + ROLE_SHARD);
+		check(errors, drainMillis >= 0, "drain.ms must not be negative");
+		check(errors, !snapshotDir.isEmpty(), "snapshot.dir must not be empty");
+		check(errors, sessionGraceMillis >= 0, "session.grace.ms must not be negative");
+		check(errors, handshakeTimeoutMillis >= 1000, "reap.handshake.ms must be at least 1000");
+		check(errors, finishedRoomIdleMillis >= 0, "reap.finished.ms must not be negative");
+		check(errors, roomIdleTimeoutMillis >= 60000, "reap.idle.ms must be at least 60000");
+		check(errors, !historyDir.isEmpty(), "history.dir must not be empty");
+		check(errors, historyRetentionDays >= 1, "history.retention.days must be at least 1");
+		check(errors, historyCompactMinutes >= 1, "history.compact.minutes must be at least 1");
+		if (isRouter()) {
+			check(errors, shardPort >= 1 && shardPort <= 65535, "shard.port must be between 1 and 65535");
+			check(errors, shardPort != port, "shard.port must differ from port");
+		}
+		if (isShard()) {
+			check(errors, getShardRouterPort() > 0, "shard.router must be host:port when role is " + ROLE_SHARD);
+			check(errors, !shardHost.isEmpty(), "shard.host must not be empty");
+			check(errors, shardReportMillis >= 100, "shard.report.ms must be at least 100");
+		}
+		if (errors.length() > 0) {
+			throw new IllegalArgumentException("Invalid server config:" + errors);
+		}
+	}
+
+	private static void check(StringBuilder errors, boolean ok, String message) {
+		if (!ok) {
+			errors.append("\n  ").append(message);
+		}
+	}
+
+	/**
+	 * 对局历史的保留时长（毫秒）
+	 */
+	public long getHistoryRetentionMillis() {
+		return historyRetentionDays * 24L * 60 * 60 * 1000;
+	}
+
+	public boolean isShard() {
+		return ROLE_SHARD.equals(role);
+	}
+
+	public boolean isRouter() {
+		return ROLE_ROUTER.equals(role);
+	}
+
+	/**
+	 * 路由地址中的主机名
+	 */
+	public String getShardRouterHost() {
+		int colon = shardRouter.lastIndexOf(':');
+		return colon > 0 ? shardRouter.substring(0, colon) : shardRouter;
+	}
+
+	/**
+	 * 路由地址中的端口，格式无效时返回 -1
+	 */
+	public int getShardRouterPort() {
+		int colon = shardRouter.lastIndexOf(':');
+		if (colon <= 0) {
+			return -1;
+		}
+		try {
+			int port = Integer.parseInt(shardRouter.substring(colon + 1));
+			return port >= 1 && port <= 65535 ? port : -1;
+		} catch (NumberFormatException e) {
+			return -1;
+		}
+	}
+
+	/**
+	 * 生效配置，按配置项名称排列，用于启动时输出
+	 */
+	public Map<String, Object> toMap() {
+		Map<String, Object> map = new LinkedHashMap<>();
+		map.put("port", port);
+		map.put("room.capacity", roomCapacity);
+		map.put("lobby.capacity", lobbyCapacity);
+		map.put("max.rooms", maxRooms);
+		map.put("max.clients", maxClients);
+		map.put("net.write.buffer", writeBufferSize);
+		map.put("net.object.buffer", objectBufferSize);
+		map.put("net.tick.ms", networkTickMillis);
+		map.put("net.keepalive.ms", keepAliveMillis);
+		map.put("net.timeout.ms", timeoutMillis);
+		map.put("game.tick.ms", gameTickMillis);
+		map.put("game.gravity.ms", gravityMillis);
+		map.put("worker.threads", workerThreads);
+		map.put("role", role);
+		map.put("shard.router", shardRouter);
+		map.put("shard.host", shardHost);
+		map.put("shard.report.ms", shardReportMillis);
+		map.put("shard.port", shardPort);
+		map.put("shard.bind", shardBind);
+		map.put("drain.ms", drainMillis);
+		map.put("snapshot.dir", snapshotDir);
+		map.put("session.grace.ms", sessionGraceMillis);
+		map.put("reap.handshake.ms", handshakeTimeoutMillis);
+		map.put("reap.finished.ms", finishedRoomIdleMillis);
+		map.put("reap.idle.ms", roomIdleTimeoutMillis);
+		map.put("history.dir", historyDir);
+		map.put("history.retention.days", historyRetentionDays);
+		map.put("history.compact.minutes", historyCompactMinutes);
+		return map;
+	}
+}
@@ -5,22 +5,46 @@ import com.esotericsoftware.kryonet.Connection;
 import com.esotericsoftware.kryonet.Listener;
 import com.esotericsoftware.kryonet.Server;
 
+import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 import lombok.Getter;
+import lombok.Setter;
 import me.catand.cooptetris.shared.message.ConnectMessage;
 import me.catand.cooptetris.shared.message.CountdownMessage;
 import me.catand.cooptetris.shared.message.CoopGameStateMessage;
+import me.catand.cooptetris.shared.message.CoopGameStateMessageSerializer;
 import me.catand.cooptetris.shared.message.GameStartMessage;
 import me.catand.cooptetris.shared.message.GameStateMessage;
+import me.catand.cooptetris.shared.message.GameStateMessageSerializer;
 import me.catand.cooptetris.shared.message.MoveMessage;
+import me.catand.cooptetris.shared.message.MoveMessageSerializer;
 import me.catand.cooptetris.shared.message.NetworkMessage;
 import me.catand.cooptetris.shared.message.NotificationMessage;
 import me.catand.cooptetris.shared.message.PlayerScoresMessage;
 import me.catand.cooptetris.shared.message.PlayerSlotMessage;
+import me.catand.cooptetris.shared.message.RoomHandoffMessage;
+import me.catand.cooptetris.shared.message.RoomListChunks;
 import me.catand.cooptetris.shared.message.RoomMessage;
+import me.catand.cooptetris.shared.message.ShardStatusMessage;
 import me.catand.cooptetris.shared.tetris.GameMode;
 
 public class ServerManager {
@@ -29,39 +53,108 @@ public class ServerManager {
 		DEDICATED_SERVER  // 专有服务器
 	}
 
+	// 回收器配置
+	private static final long REAP_INTERVAL_SECONDS = 30;
+	private static final long ROOM_CHECK_TIMEOUT_MS = 5000; // 等待各房间线程完成检查的时限
+	// 排空配置
+	private static final long DRAIN_POLL_MS = 500; // 检查进行中游戏的间隔
+	private static final long SNAPSHOT_TIMEOUT_MS = 5000; // 等待房间线程生成快照的时限
+	private static final long HANDOFF_TIMEOUT_MS = 5000; // 等待其他分片接手房间的时限
+	private static final long REDIRECT_FLUSH_MS = 2000; // 停止前等待重定向消息发出的时限
+	private static final long STOP_TIMEOUT_MS = 5000; // 停止时等待房间线程上的任务结束的时限
+
 	private Server server;
+	private Thread networkThread;
+	// 缓冲大小、心跳超时、房间容量和上限等配置
+	@Getter
+	private final ServerConfig config;
 	private final List<ClientConnection> clients;
+	// 按 KryoNet 连接查找客户端，用于高频的空闲回调
+	private final Map<Connection, ClientConnection> connectionMap = new ConcurrentHashMap<>();
+	// 按会话令牌查找客户端，用于断线重连
+	private final Map<String, ClientConnection> sessions = new ConcurrentHashMap<>();
+	// 消息处理流水线：网络线程读取并反序列化，房间线程执行游戏逻辑，编码线程序列化并写出
+	@Getter
+	private final RoomExecutors roomExecutors;
+	@Getter
+	private final ExecutorService encodeExecutor;
 	private final List<Room> rooms;
-	private boolean running;
+	@Getter
+	private volatile boolean running;
+	// 停服排空中：不再创建房间和开始新游戏，等待进行中的游戏结束
+	@Getter
+	private volatile boolean draining;
+	// 端口绑定失败的原因，启动成功时为 null
+	@Getter
+	private IOException startupError;
 	@Getter
     private final ServerType serverType;
 	private Room defaultRoom;
+	// 对局历史存储（仅专用服务器启用，可为空）
+	@Getter
+	@Setter
+	private MatchHistory matchHistory;
+
+	// 分片模式下与路由的连接，独立运行时为 null
+	private volatile ShardLink shardLink;
+
+	// 定期回收空闲房间和半断开连接
+	private ScheduledExecutorService reaper;
+	// 所有连接的背压统计，回收线程定期输出
+	@Getter
+	private final BackpressureStats backpressureStats = new BackpressureStats();
+	// 回收统计
+	@Getter
+	private long reclaimedConnections;
+	@Getter
+	private long reclaimedRooms;
+	@Getter
+	private long stoppedGameLoops;
 
 	public ServerManager(int port) {
 		this(port, ServerType.DEDICATED_SERVER);
 	}
 
 	public ServerManager(int port, ServerType serverType) {
-		clients = new ArrayList<>();
-		rooms = new ArrayList<>();
+		this(port, serverType, new ServerConfig());
+	}
+
+	public ServerManager(ServerConfig config) {
+		this(config.getPort(), ServerType.DEDICATED_SERVER, config);
+	}
+
+	public ServerManager(int port, ServerType serverType, ServerConfig config) {
+		this.config = config;
+		// 网络线程、游戏循环线程和回收线程会同时访问，使用写时复制列表
+		clients = new CopyOnWriteArrayList<>();
+		rooms = new CopyOnWriteArrayList<>();
 		this.serverType = serverType;
+		roomExecutors = new RoomExecutors(config.getWorkerThreads());
+		// 单个编码线程：KryoNet 所有连接共用同一个同步的 KryoSerialization，多线程不能并行序列化
+		encodeExecutor = Executors.newSingleThreadExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "Encoder");
+			thread.setDaemon(true);
+			return thread;
+		});
 
 		try {
 			System.out.println("ServerManager: 正在启动服务器...");
 			// 创建kryonet服务器
-			server = new Server(32768, 16384);
+			server = new Server(config.getWriteBufferSize(), config.getObjectBufferSize());
 
 			// 注册消息类
-			registerMessages();
+			registerMessages(server.getKryo());
 			System.out.println("ServerManager: 消息类注册完成");
 
 			// 启动服务器
 			server.bind(port);
 			System.out.println("ServerManager: 端口绑定完成: " + port);
 
-			// 启动服务器
-			server.start();
+			// 启动网络线程，按配置的间隔等待网络事件（代替 server.start() 固定的 250 毫秒）
 			running = true;
+			Server networkServer = server;
+			networkThread = new Thread(() -> runNetworkLoop(networkServer), "Server");
+			networkThread.start();
 			System.out.println("ServerManager: 服务器启动成功，监听端口: " + port);
 			System.out.println("ServerManager: 服务器类型: " + (serverType == ServerType.LOCAL_SERVER ? "本地服务器" : "专用服务器"));
 
@@ -69,9 +162,17 @@ public class ServerManager {
 			server.addListener(new Listener() {
 				@Override
 				public void connected(Connection connection) {
+					if (clients.size() >= config.getMaxClients()) {
+						System.out.println("ServerManager: 连接数已达上限 " + config.getMaxClients() + "，拒绝连接: " + connection.getRemoteAddressTCP());
+						connection.close();
+						return;
+					}
 					// 创建新的客户端连接
-					ClientConnection client = new ClientConnection(connection, ServerManager.this);
+					connection.setKeepAliveTCP(config.getKeepAliveMillis());
+					connection.setTimeout(config.getTimeoutMillis());
+					ClientConnection client = new ClientConnection(new KryoClientTransport(connection), ServerManager.this);
 					clients.add(client);
+					connectionMap.put(connection, client);
 					System.out.println("ServerManager: 客户端连接: " + connection.getRemoteAddressTCP());
 				}
 
@@ -79,33 +180,50 @@ public class ServerManager {
 				public void received(Connection connection, Object object) {
 					if (object instanceof NetworkMessage) {
 						// 找到对应的客户端连接
-						for (ClientConnection client : clients) {
-							if (client.getConnection() == connection) {
-								handleMessage(client, (NetworkMessage) object);
-								break;
-							}
+						ClientConnection client = connectionMap.get(connection);
+						if (client != null) {
+							dispatchMessage(client, (NetworkMessage) object);
 						}
 					}
 				}
 
+				@Override
+				public void idle(Connection connection) {
+					// 写缓冲已排空，由编码线程发送排队中的消息
+					ClientConnection client = connectionMap.get(connection);
+					if (client != null) {
+						client.onWriteIdle();
+					}
+				}
+
 				@Override
 				public void disconnected(Connection connection) {
 					// 找到对应的客户端连接并移除
-					for (int i = 0; i < clients.size(); i++) {
-						ClientConnection client = clients.get(i);
-						if (client.getConnection() == connection) {
-							String playerName = client.getPlayerName() != null ? client.getPlayerName() : "未命名";
-							// 从房间中移除
-							if (client.getCurrentRoom() != null) {
-								System.out.println("ServerManager: 玩家 " + playerName + " 断开连接，从房间 " + client.getCurrentRoom().getName() + " 中移除");
-								client.getCurrentRoom().removePlayer(client);
-							} else {
-								System.out.println("ServerManager: 玩家 " + playerName + " 断开连接");
-							}
-							clients.remove(i);
-							break;
-						}
+					ClientConnection client = connectionMap.remove(connection);
+					if (client == null) {
+						return;
+					}
+					String playerName = client.getPlayerName() != null ? client.getPlayerName() : "未命名";
+					Room room = client.getCurrentRoom();
+					// 挂起会话，由房间线程决定保留槽位等待重连还是立即移出
+					if (room != null && client.suspend()) {
+						int epoch = client.getSuspendEpoch();
+						System.out.println("ServerManager: 玩家 " + playerName + " 连接中断，挂起会话");
+						room.execute(() -> room.suspendPlayer(client, epoch));
+						return;
+					}
+					if (client.isSuspended()) {
+						// 重连时旧连接已被挂起
+						return;
+					}
+					// 在房间线程上从房间中移除
+					if (room != null) {
+						System.out.println("ServerManager: 玩家 " + playerName + " 断开连接，从房间 " + room.getName() + " 中移除");
+						room.execute(() -> room.removePlayer(client));
+					} else {
+						System.out.println("ServerManager: 玩家 " + playerName + " 断开连接");
 					}
+					removeClient(client);
 				}
 			});
 
@@ -113,19 +231,55 @@ public class ServerManager {
 			// 服务器启动时默认创建一个房间
 			createDefaultRoom();
 			System.out.println("ServerManager: 默认房间创建完成");
+
+			startReaper();
+
+			// 分片后端向路由上报房间
+			if (config.isShard()) {
+				shardLink = new ShardLink(this, port);
+				shardLink.start();
+			}
 			System.out.println("ServerManager: 服务器初始化完成，等待客户端连接...");
 		} catch (IOException e) {
 			System.err.println("ServerManager: 服务器启动失败: " + e.getMessage());
-			e.printStackTrace();
+			startupError = e;
+			if (server != null) {
+				server.stop();
+				server = null;
+			}
+			roomExecutors.shutdown();
+			encodeExecutor.shutdownNow();
 		}
 	}
 
 	/**
-	 * 注册消息类
+	 * 在后台线程启动服务器，端口绑定完成后返回的 Future 立即完成，绑定失败时以异常完成
+	 * 调用方不需要轮询或等待固定时间
 	 */
-	private void registerMessages() {
-		Kryo kryo = server.getKryo();
+	public static CompletableFuture<ServerManager> startAsync(int port, ServerType serverType) {
+		CompletableFuture<ServerManager> future = new CompletableFuture<>();
+		Thread thread = new Thread(() -> {
+			try {
+				ServerManager manager = new ServerManager(port, serverType);
+				if (manager.isRunning()) {
+					future.complete(manager);
+				} else {
+					future.completeExceptionally(manager.getStartupError() != null
+						? manager.getStartupError() : new IOException("Server failed to start on port " + port));
+				}
+			} catch (Exception e) {
+				future.completeExceptionally(e);
+			}
+		}, "ServerStartup-" + port);
+		thread.setDaemon(true);
+		thread.start();
+		return future;
+	}
 
+	/**
+	 * 注册消息类，分片路由、分片后端和服务器冒烟测试的客户端使用相同的注册顺序
+	 */
+	public static void registerMessages(Kryo kryo) {
 		// 注册基本类型
 		kryo.register(boolean.class);
 		kryo.register(int.class);
@@ -141,15 +295,15 @@ public class ServerManager {
 		kryo.register(RoomMessage.RoomAction.class);
 		kryo.register(RoomMessage.RoomInfo.class);
 		kryo.register(GameStartMessage.class);
-		kryo.register(GameStateMessage.class);
-		kryo.register(MoveMessage.class);
+		kryo.register(GameStateMessage.class, new GameStateMessageSerializer());
+		kryo.register(MoveMessage.class, new MoveMessageSerializer());
 		kryo.register(MoveMessage.MoveType.class);
 		kryo.register(NotificationMessage.class);
 		kryo.register(NotificationMessage.NotificationType.class);
 		kryo.register(PlayerScoresMessage.class);
 		kryo.register(PlayerScoresMessage.PlayerScore.class);
 		kryo.register(CountdownMessage.class);
-		kryo.register(CoopGameStateMessage.class);
+		kryo.register(CoopGameStateMessage.class, new CoopGameStateMessageSerializer());
 		kryo.register(CoopGameStateMessage.PlayerPieceState.class);
 		kryo.register(CoopGameStateMessage.PlayerPieceState[].class);
 		kryo.register(PlayerSlotMessage.class);
@@ -160,6 +314,15 @@ public class ServerManager {
 
 		// 注册String列表类型（用于玩家名字列表）
 		kryo.register(java.util.List.class);
+
+		// 分片模式
+		kryo.register(ShardStatusMessage.class);
+
+		// 断线重连附带的游戏逻辑快照
+		kryo.register(byte[].class);
+
+		// 排空时分片之间移交房间
+		kryo.register(RoomHandoffMessage.class);
 	}
 
 
@@ -170,10 +333,71 @@ public class ServerManager {
 	 */
 	public void createDefaultRoom() {
 		// 创建默认房间（设置为默认聊天室，没有房主）
-		defaultRoom = new Room("Lobby", 10, this, true);
+		defaultRoom = new Room("Lobby", config.getLobbyCapacity(), this, true);
 		rooms.add(defaultRoom);
 		System.out.println("ServerManager: 默认房间创建成功: Lobby (ID: " + defaultRoom.getId() + ")");
-		System.out.println("ServerManager: 默认房间最大玩家数: 10");
+		System.out.println("ServerManager: 默认房间最大玩家数: " + config.getLobbyCapacity());
+	}
+
+	/**
+	 * 建立进程内连接，供内置服务器的房主客户端使用，消息不经过套接字和序列化
+	 * 远程玩家仍然通过 TCP 端口连接
+	 */
+	public LocalClientTransport connectLocal(LocalClientTransport.Receiver receiver) {
+		LocalClientTransport transport = new LocalClientTransport(this, receiver);
+		ClientConnection client = new ClientConnection(transport, this);
+		clients.add(client);
+		transport.start(client);
+		System.out.println("ServerManager: 本地客户端已通过进程内通道连接");
+		return transport;
+	}
+
+	/**
+	 * 把客户端消息交给所属房间的线程处理，同一房间的消息按到达顺序执行
+	 * 不在房间中的客户端由大厅线程处理，加入房间的请求直接交给目标房间的线程
+	 */
+	void dispatchMessage(ClientConnection client, NetworkMessage message) {
+		Room room = targetRoom(client, message);
+		Executor executor = room != null ? room.getExecutor() : roomExecutors.getLobby();
+		try {
+			executor.execute(() -> runMessage(client, message, room));
+		} catch (RejectedExecutionException e) {
+			// 服务器正在停止
+		}
+	}
+
+	private Room targetRoom(ClientConnection client, NetworkMessage message) {
+		if (message instanceof RoomMessage && ((RoomMessage) message).getAction() == RoomMessage.RoomAction.JOIN) {
+			Room target = findRoomById(((RoomMessage) message).getRoomId());
+			if (target != null) {
+				return target;
+			}
+		}
+		return client.getCurrentRoom();
+	}
+
+	private void runMessage(ClientConnection client, NetworkMessage message, Room room) {
+		if (!client.isConnected()) {
+			return;
+		}
+		// 排队期间客户端换了房间，改由新房间的线程处理
+		if (targetRoom(client, message) != room) {
+			dispatchMessage(client, message);
+			return;
+		}
+		try {
+			handleMessage(client, message);
+		} catch (Exception e) {
+			System.err.println("ServerManager: 处理消息失败: " + e.getMessage());
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * 断开客户端，房间相关的清理由房间线程执行
+	 */
+	void dispatchDisconnect(ClientConnection client) {
+		client.disconnect();
 	}
 
 	public void handleMessage(ClientConnection client, NetworkMessage message) {
@@ -198,6 +422,10 @@ public class ServerManager {
 		String language = message.getLanguage();
 		System.out.println("ServerManager: 收到连接请求，玩家名称: " + playerName + ", 语言: " + language);
 
+		if (playerName != null && !playerName.isEmpty() && message.getSessionToken() != null && resumeSession(client, message)) {
+			return;
+		}
+
 		if (playerName != null && !playerName.isEmpty()) {
 			client.setPlayerName(playerName);
 			// 保存客户端语言设置
@@ -208,6 +436,10 @@ public class ServerManager {
 			response.setSuccess(true);
 			response.setClientId(client.getClientId());
 			response.setMessage("Connected successfully");
+			String sessionToken = UUID.randomUUID().toString();
+			client.setSessionToken(sessionToken);
+			sessions.put(sessionToken, client);
+			response.setSessionToken(sessionToken);
 			client.sendMessage(response);
 
 			System.out.println("ServerManager: 玩家 " + playerName + " 连接成功，客户端ID: " + client.getClientId() + ", 语言: " + client.getLanguage());
@@ -226,6 +458,54 @@ public class ServerManager {
 		}
 	}
 
+	/**
+	 * 断线重连：按会话令牌找到挂起的会话，把新连接交给原来的客户端对象，玩家回到原来的槽位和游戏逻辑
+	 * 服务器还没发现旧连接断开（心跳超时前客户端已重连）时先挂起旧连接
+	 * @return 是否恢复成功，失败时按新连接处理
+	 */
+	private boolean resumeSession(ClientConnection client, ConnectMessage message) {
+		ClientConnection previous = sessions.get(message.getSessionToken());
+		if (previous == null || previous == client || !message.getPlayerName().equals(previous.getPlayerName())) {
+			return false;
+		}
+		Room room = previous.getCurrentRoom();
+		if (room == null) {
+			return false;
+		}
+		ClientTransport oldTransport = previous.getTransport();
+		if (previous.suspend()) {
+			// 先移除映射，旧连接关闭时的断开事件不再处理
+			if (oldTransport instanceof KryoClientTransport) {
+				connectionMap.remove(((KryoClientTransport) oldTransport).getConnection());
+			}
+			oldTransport.close();
+		}
+		if (!previous.resume(client.getTransport())) {
+			// 宽限期已过
+			return false;
+		}
+		// 新连接之后的消息交给原来的客户端
+		connectionMap.replaceAll((connection, value) -> value == client ? previous : value);
+		clients.remove(client);
+		if (message.getLanguage() != null && !message.getLanguage().isEmpty()) {
+			previous.setLanguage(message.getLanguage());
+		}
+
+		room.execute(() -> {
+			ConnectMessage response = new ConnectMessage();
+			response.setSuccess(true);
+			response.setClientId(previous.getClientId());
+			response.setSessionToken(previous.getSessionToken());
+			response.setMessage("Session resumed");
+			if (!room.resumePlayer(previous, response)) {
+				// 等待期间已被移出房间，按新连接继续
+				previous.sendMessage(response);
+			}
+		});
+		System.out.println("ServerManager: 玩家 " + previous.getPlayerName() + " 重连成功，恢复会话，客户端ID: " + previous.getClientId());
+		return true;
+	}
+
 	private void handleRoomMessage(ClientConnection client, RoomMessage message) {
 		switch (message.getAction()) {
 			case CREATE:
@@ -271,10 +551,25 @@ public class ServerManager {
 		String roomName = message.getRoomName();
 		System.out.println("ServerManager: 玩家 " + client.getPlayerName() + " 请求创建房间: " + roomName);
 
-		if (roomName != null && !roomName.isEmpty()) {
-			Room room = new Room(roomName, 4, this);
-			rooms.add(room);
+		if (draining) {
+			RoomMessage response = new RoomMessage(RoomMessage.RoomAction.CREATE);
+			response.setSuccess(false);
+			response.setMessage("Server is shutting down");
+			client.sendMessage(response);
+
+			System.out.println("ServerManager: 房间创建失败: 服务器正在停止");
+		} else if (rooms.size() >= config.getMaxRooms()) {
+			RoomMessage response = new RoomMessage(RoomMessage.RoomAction.CREATE);
+			response.setSuccess(false);
+			response.setMessage("Room limit reached");
+			client.sendMessage(response);
+
+			System.out.println("ServerManager: 房间创建失败: 房间数已达上限 " + config.getMaxRooms());
+		} else if (roomName != null && !roomName.isEmpty()) {
+			Room room = new Room(roomName, config.getRoomCapacity(), this);
+			// 房间加入列表前只有创建者能访问，直接在当前线程加入，之后的操作都交给房间线程
 			room.addPlayer(client);
+			rooms.add(room);
 
 			RoomMessage response = new RoomMessage(RoomMessage.RoomAction.CREATE);
 			response.setSuccess(true);
@@ -290,7 +585,7 @@ public class ServerManager {
 			broadcastRoomListUpdate();
 
 			// 再次发送玩家槽位信息给创建者（确保客户端能收到）
-			room.broadcastPlayerSlots();
+			room.execute(room::broadcastPlayerSlots);
 		} else {
 			RoomMessage response = new RoomMessage(RoomMessage.RoomAction.CREATE);
 			response.setSuccess(false);
@@ -306,10 +601,11 @@ public class ServerManager {
 		System.out.println("ServerManager: 玩家 " + client.getPlayerName() + " 请求加入房间: " + roomId);
 
 		Room room = findRoomById(roomId);
+		RoomMessage.RoomInfo remote = room == null && shardLink != null ? shardLink.findRemoteRoom(roomId) : null;
 
 		if (room != null) {
 			// 首先尝试作为普通玩家加入
-			if (room.addPlayer(client)) {
+			if (room.addPlayer(client, message.getResumeToken())) {
 				RoomMessage response = new RoomMessage(RoomMessage.RoomAction.JOIN);
 				response.setSuccess(true);
 				response.setRoomId(room.getId());
@@ -354,6 +650,17 @@ public class ServerManager {
 
 				System.out.println("ServerManager: 玩家 " + client.getPlayerName() + " 加入房间失败: 房间已满或游戏已开始");
 			}
+		} else if (remote != null) {
+			// 房间在其他分片上，让客户端连接该分片后重新加入
+			RoomMessage response = new RoomMessage(RoomMessage.RoomAction.REDIRECT);
+			response.setSuccess(true);
+			response.setRoomId(roomId);
+			response.setShardHost(remote.getShardHost());
+			response.setShardPort(remote.getShardPort());
+			response.setRedirectAction(RoomMessage.RoomAction.JOIN);
+			client.sendMessage(response);
+
+			System.out.println("ServerManager: 玩家 " + client.getPlayerName() + " 加入的房间位于分片 " + remote.getShardHost() + ":" + remote.getShardPort() + "，已重定向");
 		} else {
 			RoomMessage response = new RoomMessage(RoomMessage.RoomAction.JOIN);
 			response.setSuccess(false);
@@ -388,28 +695,52 @@ public class ServerManager {
 	}
 
 	private void handleListRooms(ClientConnection client) {
+		List<RoomMessage.RoomInfo> roomInfos = buildRoomInfos(client.getLanguage());
+
+		client.sendMessages(RoomListChunks.listMessages(roomInfos));
+
+		System.out.println("ServerManager: 玩家 " + client.getPlayerName() + " 请求房间列表，返回 " + roomInfos.size() + " 个房间");
+	}
+
+	/**
+	 * 房间列表：本服务器的房间，分片模式下再加上路由汇总的其他分片的房间
+	 */
+	private List<RoomMessage.RoomInfo> buildRoomInfos(String language) {
 		List<RoomMessage.RoomInfo> roomInfos = new ArrayList<>();
 		for (Room room : rooms) {
 			// 根据客户端语言获取本地化的房间名称
-			String roomName = getLocalizedRoomName(room, client.getLanguage());
-			roomInfos.add(new RoomMessage.RoomInfo(
-				room.getId(),
-				roomName,
-				room.getActualPlayerCount(),
-				room.getMaxPlayers(),
-				room.isStarted(),
-				room.getDisplayPlayerCount(), // 显示的玩家数量（包含锁定的槽位）
-				room.isSpectatorLocked(),     // 观战是否被锁定
-				room.getSpectators().size()   // 观战者数量
-			));
-		}
-
-		RoomMessage response = new RoomMessage(RoomMessage.RoomAction.LIST);
-		response.setSuccess(true);
-		response.setRooms(roomInfos);
-		client.sendMessage(response);
+			roomInfos.add(createRoomInfo(room, getLocalizedRoomName(room, language)));
+		}
+		if (shardLink != null) {
+			roomInfos.addAll(shardLink.getRemoteRooms());
+		}
+		return roomInfos;
+	}
 
-		System.out.println("ServerManager: 玩家 " + client.getPlayerName() + " 请求房间列表，返回 " + roomInfos.size() + " 个房间");
+	/**
+	 * 上报给路由的房间列表，默认聊天室每个分片各有一个，不参与汇总
+	 */
+	List<RoomMessage.RoomInfo> buildShardRoomInfos() {
+		List<RoomMessage.RoomInfo> roomInfos = new ArrayList<>();
+		for (Room room : rooms) {
+			if (!room.isDefaultLobby()) {
+				roomInfos.add(createRoomInfo(room, room.getName()));
+			}
+		}
+		return roomInfos;
+	}
+
+	private static RoomMessage.RoomInfo createRoomInfo(Room room, String roomName) {
+		return new RoomMessage.RoomInfo(
+			room.getId(),
+			roomName,
+			room.getActualPlayerCount(),
+			room.getMaxPlayers(),
+			room.isStarted(),
+			room.getDisplayPlayerCount(), // 显示的玩家数量（包含锁定的槽位）
+			room.isSpectatorLocked(),     // 观战是否被锁定
+			room.getSpectators().size()   // 观战者数量
+		);
 	}
 
 	private void handleStartGame(ClientConnection client) {
@@ -417,7 +748,13 @@ public class ServerManager {
 		if (room != null) {
 			System.out.println("ServerManager: 玩家 " + client.getPlayerName() + " 请求开始游戏: " + room.getName());
 
-			if (room.startGame(client)) {
+			if (draining) {
+				RoomMessage response = new RoomMessage(RoomMessage.RoomAction.START);
+				response.setSuccess(false);
+				response.setMessage("Server is shutting down");
+				client.sendMessage(response);
+				System.out.println("ServerManager: 游戏开始失败: 服务器正在停止");
+			} else if (room.startGame(client)) {
 				RoomMessage response = new RoomMessage(RoomMessage.RoomAction.START);
 				response.setSuccess(true);
 				response.setMessage("Game started successfully");
@@ -607,6 +944,12 @@ public class ServerManager {
 
 	public void removeClient(ClientConnection client) {
 		clients.remove(client);
+		if (client.getSessionToken() != null) {
+			sessions.remove(client.getSessionToken(), client);
+		}
+		if (client.getTransport() instanceof KryoClientTransport) {
+			connectionMap.remove(((KryoClientTransport) client.getTransport()).getConnection());
+		}
 	}
 
 	public void removeRoom(Room room) {
@@ -630,26 +973,10 @@ public class ServerManager {
 		int recipientCount = 0;
 		for (ClientConnection client : clients) {
 			if (client.getCurrentRoom() == null) {
-				List<RoomMessage.RoomInfo> roomInfos = new ArrayList<>();
-				for (Room r : rooms) {
-					// 根据客户端语言获取本地化的房间名称
-					String roomName = getLocalizedRoomName(r, client.getLanguage());
-					roomInfos.add(new RoomMessage.RoomInfo(
-						r.getId(),
-						roomName,
-						r.getActualPlayerCount(),
-						r.getMaxPlayers(),
-						r.isStarted(),
-						r.getDisplayPlayerCount(), // 显示的玩家数量（包含锁定的槽位）
-						r.isSpectatorLocked(),     // 观战是否被锁定
-						r.getSpectators().size()   // 观战者数量
-					));
-				}
+				// 每个客户端根据自己的语言获取本地化的房间名称
+				List<RoomMessage.RoomInfo> roomInfos = buildRoomInfos(client.getLanguage());
 
-				RoomMessage listMessage = new RoomMessage(RoomMessage.RoomAction.LIST);
-				listMessage.setSuccess(true);
-				listMessage.setRooms(roomInfos);
-				client.sendMessage(listMessage);
+				client.sendMessages(RoomListChunks.listMessages(roomInfos));
 				recipientCount++;
 			}
 		}
@@ -659,6 +986,10 @@ public class ServerManager {
 		}
 	}
 
+	public int getClientCount() {
+		return clients.size();
+	}
+
 	private Room findRoomById(String roomId) {
 		for (Room room : rooms) {
 			if (room.getId().equals(roomId)) {
@@ -686,9 +1017,377 @@ public class ServerManager {
 		return room.getName();
 	}
 
-    public void stop() {
+	/**
+	 * 启动回收线程，定期清理半断开的连接和空闲房间
+	 */
+	private void startReaper() {
+		reaper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "ServerReaper");
+			thread.setDaemon(true);
+			return thread;
+		});
+		reaper.scheduleWithFixedDelay(() -> {
+			try {
+				reapIdleResources();
+			} catch (Exception e) {
+				System.err.println("ServerManager: 回收空闲资源失败: " + e.getMessage());
+				e.printStackTrace();
+			}
+		}, REAP_INTERVAL_SECONDS, REAP_INTERVAL_SECONDS, TimeUnit.SECONDS);
+	}
+
+	/**
+	 * 回收半断开的连接、空房间，以及已结束或长时间无人操作的游戏
+	 */
+	void reapIdleResources() {
+		long now = System.currentTimeMillis();
+		int connectionCount = 0;
+
+		for (ClientConnection client : clients) {
+			if (client.isSuspended()) {
+				// 等待重连，由房间线程在宽限期结束时清理
+				continue;
+			}
+			boolean halfDead = !client.isConnected() || !client.getTransport().isOpen();
+			boolean handshakeTimeout = client.getPlayerName() == null && now - client.getConnectedAt() > config.getHandshakeTimeoutMillis();
+			if (halfDead || handshakeTimeout) {
+				System.out.println("ServerManager: 回收" + (halfDead ? "已断开" : "未完成握手") + "的连接: " + client.getClientId());
+				if (client.isConnected()) {
+					client.disconnect();
+				} else {
+					// disconnect 已执行过但清理被竞争打断，直接补做清理
+					Room room = client.getCurrentRoom();
+					if (room != null) {
+						room.execute(() -> room.removePlayer(client));
+					}
+					removeClient(client);
+				}
+				connectionCount++;
+			}
+		}
+
+		// 房间状态只由房间线程修改，每个房间的检查和释放都在它自己的线程上执行
+		AtomicInteger reapedRooms = new AtomicInteger();
+		AtomicInteger reapedGameLoops = new AtomicInteger();
+		runOnRoomThreads(room -> reapRoom(room, now, reapedRooms, reapedGameLoops));
+		int roomCount = reapedRooms.get();
+		int gameLoopCount = reapedGameLoops.get();
+
+		if (connectionCount > 0 || roomCount > 0 || gameLoopCount > 0) {
+			reclaimedConnections += connectionCount;
+			reclaimedRooms += roomCount;
+			stoppedGameLoops += gameLoopCount;
+			System.out.println("ServerManager: 本次回收连接 " + connectionCount + " 个，房间 " + roomCount + " 个，游戏循环 " + gameLoopCount + " 个；"
+				+ "累计回收连接 " + reclaimedConnections + "，房间 " + reclaimedRooms + "，游戏循环 " + stoppedGameLoops
+				+ "；当前连接 " + clients.size() + "，房间 " + rooms.size());
+		}
+		String backpressure = backpressureStats.report();
+		if (backpressure != null) {
+			System.out.println("ServerManager: 背压统计: " + backpressure);
+		}
+	}
+
+	/**
+	 * 在房间线程上执行：回收残留的空房间，释放已结束或长时间无人操作的游戏
+	 */
+	private void reapRoom(Room room, long now, AtomicInteger roomCount, AtomicInteger gameLoopCount) {
+		if (room.getPlayers().isEmpty() && room.getSpectators().isEmpty() && !room.isDefaultLobby() && !room.isAwaitingResume(now)) {
+			// 玩家离开时的清理被竞争打断，房间残留
+			if (room.isGameLoopActive()) {
+				gameLoopCount.incrementAndGet();
+			}
+			room.releaseGame();
+			removeRoom(room);
+			System.out.println("ServerManager: 回收空房间: " + room.getName());
+			roomCount.incrementAndGet();
+		} else if (room.isStarted()) {
+			long idle = now - room.getLastActivityTime();
+			boolean finishedIdle = room.isGameFinished() && idle > config.getFinishedRoomIdleMillis();
+			if (finishedIdle || idle > config.getRoomIdleTimeoutMillis()) {
+				if (room.isGameLoopActive()) {
+					gameLoopCount.incrementAndGet();
+				}
+				room.releaseGame();
+				System.out.println("ServerManager: 释放" + (finishedIdle ? "已结束" : "长时间无操作") + "的游戏: " + room.getName());
+			}
+		}
+	}
+
+	/**
+	 * 在每个房间自己的线程上执行 task 并等待全部完成，最多等待 ROOM_CHECK_TIMEOUT_MS
+	 * 其他线程不能直接读取房间的玩家列表和游戏状态，需要读取时经过这里
+	 */
+	private void runOnRoomThreads(Consumer<Room> task) {
+		List<CompletableFuture<Void>> pending = new ArrayList<>(rooms.size());
+		for (Room room : rooms) {
+			try {
+				pending.add(CompletableFuture.runAsync(() -> task.accept(room), room.getExecutor()));
+			} catch (RejectedExecutionException e) {
+				// 服务器正在停止
+				return;
+			}
+		}
+		long deadline = System.currentTimeMillis() + ROOM_CHECK_TIMEOUT_MS;
+		for (CompletableFuture<Void> future : pending) {
+			try {
+				future.get(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			} catch (ExecutionException e) {
+				System.err.println("ServerManager: 房间线程上的检查失败: " + e.getCause());
+			} catch (TimeoutException e) {
+				System.err.println("ServerManager: 等待房间线程完成检查超时");
+				return;
+			}
+		}
+	}
+
+	public int getWriteBufferSize() {
+		return config.getWriteBufferSize();
+	}
+
+	/**
+	 * 网络线程主循环，与 KryoNet 的 Server.run 相同，只是等待间隔来自配置
+	 */
+	private void runNetworkLoop(Server networkServer) {
+		int tick = config.getNetworkTickMillis();
+		while (running) {
+			try {
+				networkServer.update(tick);
+			} catch (IOException e) {
+				System.err.println("ServerManager: 网络更新失败: " + e.getMessage());
+				networkServer.close();
+			}
+		}
+	}
+
+	/**
+	 * 排空服务器：停止创建房间和开始新游戏，等待进行中的游戏结束
+	 * 超过期限仍未结束的游戏生成快照：分片模式下先经路由交给另一个分片，并把玩家重定向过去，游戏不需要等本实例重启；
+	 * 没有分片接手（或不是分片模式）时写入 snapshotDir，由下一个服务器实例通过 {@link #restoreSnapshots} 恢复
+	 *
+	 * @return 移交和保存的快照数量
+	 */
+	public int drain(long timeoutMillis, File snapshotDir) {
+		draining = true;
+		System.out.println("ServerManager: 开始排空，最长等待 " + timeoutMillis + " 毫秒");
+		broadcastNotification(new NotificationMessage(NotificationMessage.NotificationType.WARNING,
+			"Server Restarting", "The server is restarting. Games in progress will be moved to another server or saved and resumed after reconnecting."));
+
+		long deadline = System.currentTimeMillis() + timeoutMillis;
+		while (countRunningGames() > 0 && System.currentTimeMillis() < deadline) {
+			try {
+				Thread.sleep(DRAIN_POLL_MS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				break;
+			}
+		}
+
+		int saved = 0;
+		int handedOff = 0;
+		for (Room room : rooms) {
+			try {
+				// 检查和快照都在房间线程上进行，与游戏循环和玩家操作互斥；没有进行中的游戏时返回 null
+				RoomSnapshot snapshot = CompletableFuture.supplyAsync(() -> {
+					if (!room.isStarted() || room.isGameFinished()) {
+						return null;
+					}
+					RoomSnapshot result = room.createSnapshot();
+					room.releaseGame();
+					return result;
+				}, room.getExecutor()).get(SNAPSHOT_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+				if (snapshot == null) {
+					continue;
+				}
+				HandoffResult handoff = handOff(room, snapshot);
+				if (handoff == HandoffResult.ACCEPTED) {
+					handedOff++;
+					continue;
+				}
+				if (handoff == HandoffResult.UNKNOWN) {
+					// 其他分片可能已经恢复了房间，再写快照文件会让重启后出现两个同 ID 的房间
+					System.err.println("ServerManager: 房间 " + room.getName() + " (ID: " + room.getId() + ") 移交结果未知，不保存快照");
+					continue;
+				}
+				Files.createDirectories(snapshotDir.toPath());
+				snapshot.write(new File(snapshotDir, room.getId() + RoomSnapshot.FILE_SUFFIX));
+				saved++;
+				System.out.println("ServerManager: 已保存房间快照: " + room.getName() + " (ID: " + room.getId() + ")");
+			} catch (Exception e) {
+				System.err.println("ServerManager: 保存房间快照失败: " + room.getName() + ": " + e.getMessage());
+			}
+		}
+		if (handedOff > 0) {
+			awaitFlushed(REDIRECT_FLUSH_MS);
+		}
+		System.out.println("ServerManager: 排空完成，移交房间 " + handedOff + " 个，保存快照 " + saved + " 个");
+		return handedOff + saved;
+	}
+
+	/**
+	 * 房间移交的结果：被接手、明确被拒绝（或请求没有发出），或者超时、路由断开导致结果未知
+	 */
+	private enum HandoffResult {
+		ACCEPTED,
+		REJECTED,
+		UNKNOWN
+	}
+
+	/**
+	 * 经路由把房间交给另一个分片，接手成功后在房间线程上把玩家重定向过去
+	 * 只有 REJECTED 时由调用方写入快照文件
+	 */
+	private HandoffResult handOff(Room room, RoomSnapshot snapshot) {
+		ShardLink link = shardLink;
+		if (link == null) {
+			return HandoffResult.REJECTED;
+		}
+		CompletableFuture<RoomHandoffMessage> pending = link.handOff(room.getId(), snapshot.toBytes());
+		RoomHandoffMessage result;
+		try {
+			result = pending.get(HANDOFF_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			link.abandonHandoff(room.getId(), pending);
+			return HandoffResult.UNKNOWN;
+		} catch (ExecutionException | TimeoutException e) {
+			link.abandonHandoff(room.getId(), pending);
+			System.err.println("ServerManager: 移交房间 " + room.getName() + " 没有得到回复: " + e);
+			return HandoffResult.UNKNOWN;
+		}
+		if (result == null || !result.isAccepted()) {
+			System.out.println("ServerManager: 没有分片接手房间 " + room.getName() + "，改为保存快照");
+			return HandoffResult.REJECTED;
+		}
+		try {
+			CompletableFuture.runAsync(() -> room.redirectPlayers(result.getShardHost(), result.getShardPort()), room.getExecutor())
+				.get(SNAPSHOT_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+		} catch (Exception e) {
+			// 房间已在其他分片上，玩家断线后可以凭保留的令牌重新加入
+			System.err.println("ServerManager: 重定向房间 " + room.getName() + " 的玩家失败: " + e.getMessage());
+		}
+		System.out.println("ServerManager: 房间 " + room.getName() + " (ID: " + room.getId() + ") 已移交到分片 "
+			+ result.getShardHost() + ":" + result.getShardPort());
+		return HandoffResult.ACCEPTED;
+	}
+
+	/**
+	 * 等待所有客户端的待发消息写出，最多等待 timeoutMillis，之后停止服务器关闭连接
+	 */
+	private void awaitFlushed(long timeoutMillis) {
+		long deadline = System.currentTimeMillis() + timeoutMillis;
+		while (System.currentTimeMillis() < deadline) {
+			boolean flushed = true;
+			for (ClientConnection client : clients) {
+				if (!client.isFlushed()) {
+					flushed = false;
+					break;
+				}
+			}
+			if (flushed) {
+				return;
+			}
+			try {
+				Thread.sleep(50);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+		}
+	}
+
+	/**
+	 * 接手其他分片移交的房间，由 ShardLink 在收到路由转发的快照时调用
+	 * 本分片也在排空、房间已满或已有同 ID 的房间时拒绝
+	 *
+	 * @return 是否接手
+	 */
+	boolean acceptHandoff(byte[] data) {
+		if (draining || data == null || rooms.size() >= config.getMaxRooms()) {
+			return false;
+		}
+		try {
+			RoomSnapshot snapshot = RoomSnapshot.fromBytes(data);
+			if (findRoomById(snapshot.getRoomId()) != null) {
+				return false;
+			}
+			rooms.add(Room.restore(snapshot, this, true));
+			System.out.println("ServerManager: 已接手其他分片移交的房间: " + snapshot.getRoomName() + " (ID: " + snapshot.getRoomId() + ")");
+		} catch (IOException e) {
+			System.err.println("ServerManager: 读取移交的房间快照失败: " + e.getMessage());
+			return false;
+		}
+		broadcastRoomListUpdate();
+		return true;
+	}
+
+	private int countRunningGames() {
+		AtomicInteger count = new AtomicInteger();
+		runOnRoomThreads(room -> {
+			if (room.isStarted() && !room.isGameFinished()) {
+				count.incrementAndGet();
+			}
+		});
+		return count.get();
+	}
+
+	private void broadcastNotification(NotificationMessage notification) {
+		for (ClientConnection client : clients) {
+			client.sendMessage(notification);
+		}
+	}
+
+	/**
+	 * 恢复上一个服务器实例排空时保存的房间，读取后删除快照文件
+	 *
+	 * @return 恢复的房间数量
+	 */
+	public int restoreSnapshots(File snapshotDir) {
+		File[] files = snapshotDir.listFiles((dir, name) -> name.endsWith(RoomSnapshot.FILE_SUFFIX));
+		if (files == null) {
+			return 0;
+		}
+		int restored = 0;
+		for (File file : files) {
+			try {
+				RoomSnapshot snapshot = RoomSnapshot.read(file);
+				if (findRoomById(snapshot.getRoomId()) == null) {
+					rooms.add(Room.restore(snapshot, this, false));
+					restored++;
+					System.out.println("ServerManager: 已恢复房间: " + snapshot.getRoomName() + " (ID: " + snapshot.getRoomId() + ")");
+				}
+			} catch (IOException e) {
+				System.err.println("ServerManager: 读取房间快照失败: " + e.getMessage());
+			}
+			if (!file.delete()) {
+				System.err.println("ServerManager: 删除房间快照失败: " + file.getName());
+			}
+		}
+		if (restored > 0) {
+			broadcastRoomListUpdate();
+		}
+		return restored;
+	}
+
+	public void stop() {
 		System.out.println("ServerManager: 正在停止服务器...");
 		running = false;
+		if (reaper != null) {
+			reaper.shutdownNow();
+			reaper = null;
+		}
+		if (shardLink != null) {
+			shardLink.stop();
+			shardLink = null;
+		}
+		// 进程内连接不会随 KryoNet 服务器一起关闭
+		for (ClientConnection client : clients) {
+			if (client.getTransport() instanceof LocalClientTransport) {
+				client.disconnect();
+			}
+		}
 		try {
 			if (server != null) {
 				server.stop();
@@ -699,6 +1398,20 @@ public class ServerManager {
 			System.err.println("ServerManager: 服务器停止失败: " + e.getMessage());
 			e.printStackTrace();
 		}
+		roomExecutors.shutdown();
+		// 房间线程可能正在记录对局结果，等它们退出后再关闭对局历史
+		try {
+			if (!roomExecutors.awaitTermination(STOP_TIMEOUT_MS)) {
+				System.err.println("ServerManager: 房间线程未在 " + STOP_TIMEOUT_MS + " 毫秒内结束");
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		encodeExecutor.shutdownNow();
+		if (matchHistory != null) {
+			matchHistory.close();
+			matchHistory = null;
+		}
 	}
 
 }
@@ -0,0 +1,206 @@
+package me.catand.cooptetris.shared.server;
+
+import com.esotericsoftware.kryonet.Client;
+import com.esotericsoftware.kryonet.Connection;
+import com.esotericsoftware.kryonet.Listener;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import me.catand.cooptetris.shared.message.RoomHandoffMessage;
+import me.catand.cooptetris.shared.message.RoomListChunks;
+import me.catand.cooptetris.shared.message.RoomMessage;
+import me.catand.cooptetris.shared.message.ShardStatusMessage;
+
+/**
+ * 分片后端与路由之间的连接
+ * 定期向路由上报本分片的房间，并接收路由汇总的其他分片的房间，用于房间列表和加入重定向
+ * 排空时经路由把未结束的房间移交给其他分片，也接手其他分片移交过来的房间
+ * 路由不可用时本分片照常运行，只是看不到其他分片的房间
+ */
+public class ShardLink {
+	private static final int CONNECT_TIMEOUT_MS = 5000;
+
+	private final ServerManager serverManager;
+	private final ServerConfig config;
+	private final int port;
+	private final String shardId = UUID.randomUUID().toString();
+	private final Client client;
+	private ScheduledExecutorService reporter;
+	// 路由最近一次下发的其他分片的房间
+	private volatile List<RoomMessage.RoomInfo> remoteRooms = Collections.emptyList();
+	// 拼接路由分段下发的房间列表，只在 KryoNet 客户端线程上使用
+	private final RoomListChunks.Assembler listAssembler = new RoomListChunks.Assembler();
+	// 等待路由回复的房间移交，按房间 ID 索引
+	private final Map<String, CompletableFuture<RoomHandoffMessage>> pendingHandoffs = new ConcurrentHashMap<>();
+
+	ShardLink(ServerManager serverManager, int port) {
+		this.serverManager = serverManager;
+		this.config = serverManager.getConfig();
+		this.port = port;
+		// 房间列表分段收发，缓冲区与服务器端使用相同的配置
+		client = new Client(config.getWriteBufferSize(), config.getObjectBufferSize());
+		ServerManager.registerMessages(client.getKryo());
+		client.addListener(new Listener() {
+			@Override
+			public void received(Connection connection, Object object) {
+				if (object instanceof RoomMessage && ((RoomMessage) object).getAction() == RoomMessage.RoomAction.LIST) {
+					RoomMessage message = (RoomMessage) object;
+					List<RoomMessage.RoomInfo> rooms = listAssembler.accept(message.getListOffset(), message.getListTotal(), message.getRooms());
+					if (rooms != null) {
+						updateRemoteRooms(rooms);
+					}
+				} else if (object instanceof RoomHandoffMessage) {
+					handleHandoff((RoomHandoffMessage) object);
+				}
+			}
+
+			@Override
+			public void disconnected(Connection connection) {
+				remoteRooms = Collections.emptyList();
+				// 路由断开后不会再收到回复，请求可能已被转发，等待中的移交结果未知
+				for (CompletableFuture<RoomHandoffMessage> pending : pendingHandoffs.values()) {
+					pending.completeExceptionally(new IOException("Router disconnected"));
+				}
+				pendingHandoffs.clear();
+				System.out.println("ShardLink: 与路由的连接已断开，稍后重连");
+			}
+		});
+	}
+
+	void start() {
+		client.start();
+		reporter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "ShardLink");
+			thread.setDaemon(true);
+			return thread;
+		});
+		reporter.scheduleWithFixedDelay(this::report, 0, config.getShardReportMillis(), TimeUnit.MILLISECONDS);
+	}
+
+	void stop() {
+		if (reporter != null) {
+			reporter.shutdownNow();
+			reporter = null;
+		}
+		client.stop();
+	}
+
+	/**
+	 * 上报本分片状态，未连接时先连接路由
+	 */
+	private void report() {
+		try {
+			if (!client.isConnected()) {
+				client.connect(CONNECT_TIMEOUT_MS, config.getShardRouterHost(), config.getShardRouterPort());
+				System.out.println("ShardLink: 已连接路由 " + config.getShardRouter());
+			}
+			List<RoomMessage.RoomInfo> rooms = serverManager.buildShardRoomInfos();
+			int offset = 0;
+			for (List<RoomMessage.RoomInfo> chunk : RoomListChunks.split(rooms)) {
+				ShardStatusMessage status = new ShardStatusMessage();
+				status.setShardId(shardId);
+				status.setHost(config.getShardHost());
+				status.setPort(port);
+				status.setClientCount(serverManager.getClientCount());
+				status.setMaxRooms(config.getMaxRooms());
+				status.setDraining(serverManager.isDraining());
+				status.setRooms(chunk);
+				status.setRoomOffset(offset);
+				status.setRoomTotal(rooms.size());
+				client.sendTCP(status);
+				offset += chunk.size();
+			}
+		} catch (IOException e) {
+			System.out.println("ShardLink: 连接路由 " + config.getShardRouter() + " 失败: " + e.getMessage());
+		} catch (Exception e) {
+			System.err.println("ShardLink: 上报状态失败: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * 经路由把房间交给另一个分片，结果为路由转回的回复；未连接路由、请求没有发出时结果为 null
+	 * 请求发出后路由断开时以异常结束，此时其他分片可能已经接手
+	 */
+	CompletableFuture<RoomHandoffMessage> handOff(String roomId, byte[] snapshot) {
+		CompletableFuture<RoomHandoffMessage> result = new CompletableFuture<>();
+		if (!client.isConnected()) {
+			result.complete(null);
+			return result;
+		}
+		pendingHandoffs.put(roomId, result);
+		RoomHandoffMessage request = new RoomHandoffMessage();
+		request.setRoomId(roomId);
+		request.setSnapshot(snapshot);
+		client.sendTCP(request);
+		return result;
+	}
+
+	/**
+	 * 不再等待移交的回复，之后到达的回复直接丢弃
+	 */
+	void abandonHandoff(String roomId, CompletableFuture<RoomHandoffMessage> pending) {
+		pendingHandoffs.remove(roomId, pending);
+	}
+
+	/**
+	 * 带快照的是路由转发来的移交请求，恢复房间后回复结果；不带快照的是本分片移交请求的回复
+	 */
+	private void handleHandoff(RoomHandoffMessage message) {
+		if (message.getSnapshot() == null) {
+			CompletableFuture<RoomHandoffMessage> pending = pendingHandoffs.remove(message.getRoomId());
+			if (pending != null) {
+				pending.complete(message);
+			}
+			return;
+		}
+		RoomHandoffMessage response = new RoomHandoffMessage();
+		response.setRoomId(message.getRoomId());
+		response.setAccepted(serverManager.acceptHandoff(message.getSnapshot()));
+		response.setShardHost(config.getShardHost());
+		response.setShardPort(port);
+		client.sendTCP(response);
+	}
+
+	/**
+	 * 保存路由下发的房间列表，去掉本分片自己的房间
+	 */
+	private void updateRemoteRooms(List<RoomMessage.RoomInfo> rooms) {
+		if (rooms == null) {
+			remoteRooms = Collections.emptyList();
+			return;
+		}
+		List<RoomMessage.RoomInfo> remote = new ArrayList<>(rooms.size());
+		for (RoomMessage.RoomInfo room : rooms) {
+			if (!(config.getShardHost().equals(room.getShardHost()) && room.getShardPort() == port)) {
+				remote.add(room);
+			}
+		}
+		remoteRooms = Collections.unmodifiableList(remote);
+	}
+
+	public List<RoomMessage.RoomInfo> getRemoteRooms() {
+		return remoteRooms;
+	}
+
+	/**
+	 * 在其他分片上查找房间，找不到返回 null
+	 */
+	public RoomMessage.RoomInfo findRemoteRoom(String roomId) {
+		for (RoomMessage.RoomInfo room : remoteRooms) {
+			if (room.getId().equals(roomId)) {
+				return room;
+			}
+		}
+		return null;
+	}
+}
@@ -0,0 +1,323 @@
+package me.catand.cooptetris.shared.server;
+
+import com.esotericsoftware.kryonet.Connection;
+import com.esotericsoftware.kryonet.Listener;
+import com.esotericsoftware.kryonet.Server;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import lombok.Getter;
+import me.catand.cooptetris.shared.message.ConnectMessage;
+import me.catand.cooptetris.shared.message.NetworkMessage;
+import me.catand.cooptetris.shared.message.RoomHandoffMessage;
+import me.catand.cooptetris.shared.message.RoomListChunks;
+import me.catand.cooptetris.shared.message.RoomMessage;
+import me.catand.cooptetris.shared.message.ShardStatusMessage;
+
+/**
+ * 分片路由 - 客户端的统一入口，本身不运行房间
+ * - 分片后端连接路由并定期上报房间，路由把汇总后的房间列表回发给各分片
+ * - 客户端在路由上获取房间列表，创建房间时被重定向到负载最低且未在排空的分片，加入房间时被重定向到房间所在的分片
+ * - 排空中的分片经路由把未结束的房间移交给负载最低的其他分片，路由转发快照和接手结果
+ * 分片只能在单独的分片端口（shard.port，可用 shard.bind 限定为内网地址）上注册，客户端端口不接受分片状态，
+ * 避免任意客户端伪造房间或把玩家重定向到其他地址
+ */
+public class ShardRouter {
+	private final ServerConfig config;
+	private Server server;
+	private Server shardServer;
+	// 已上报状态的分片，按分片连接索引
+	private final Map<Connection, ShardStatusMessage> shards = new ConcurrentHashMap<>();
+	// 拼接分片分段上报的房间，按连接索引
+	private final Map<Connection, RoomListChunks.Assembler> statusAssemblers = new ConcurrentHashMap<>();
+	// 转发中的房间移交：房间 ID 到发起移交的分片连接
+	private final Map<String, Connection> pendingHandoffs = new ConcurrentHashMap<>();
+	@Getter
+	private volatile boolean running;
+
+	public ShardRouter(ServerConfig config) {
+		this.config = config;
+	}
+
+	/**
+	 * 绑定端口并启动路由，失败时抛出 IOException
+	 */
+	public void start() throws IOException {
+		server = createServer(new Listener() {
+			@Override
+			public void received(Connection connection, Object object) {
+				if (object instanceof NetworkMessage) {
+					try {
+						handleClientMessage(connection, (NetworkMessage) object);
+					} catch (Exception e) {
+						System.err.println("ShardRouter: 处理消息失败: " + e.getMessage());
+						e.printStackTrace();
+					}
+				}
+			}
+		});
+		shardServer = createServer(new Listener() {
+			@Override
+			public void received(Connection connection, Object object) {
+				try {
+					if (object instanceof ShardStatusMessage) {
+						handleShardStatus(connection, (ShardStatusMessage) object);
+					} else if (object instanceof RoomHandoffMessage) {
+						handleHandoff(connection, (RoomHandoffMessage) object);
+					}
+				} catch (Exception e) {
+					System.err.println("ShardRouter: 处理分片消息失败: " + e.getMessage());
+					e.printStackTrace();
+				}
+			}
+
+			@Override
+			public void disconnected(Connection connection) {
+				statusAssemblers.remove(connection);
+				pendingHandoffs.values().removeIf(source -> source == connection);
+				ShardStatusMessage status = shards.remove(connection);
+				if (status != null) {
+					System.out.println("ShardRouter: 分片 " + status.getHost() + ":" + status.getPort() + " 已断开");
+				}
+			}
+		});
+		try {
+			server.bind(config.getPort());
+			if (config.getShardBind().isEmpty()) {
+				shardServer.bind(config.getShardPort());
+			} else {
+				shardServer.bind(new InetSocketAddress(config.getShardBind(), config.getShardPort()), null);
+			}
+		} catch (IOException e) {
+			stop();
+			throw e;
+		}
+		server.start();
+		shardServer.start();
+		running = true;
+		System.out.println("ShardRouter: 路由启动成功，客户端端口: " + config.getPort() + "，分片端口: "
+			+ (config.getShardBind().isEmpty() ? "" : config.getShardBind() + ":") + config.getShardPort());
+	}
+
+	private Server createServer(Listener listener) {
+		Server created = new Server(config.getWriteBufferSize(), config.getObjectBufferSize());
+		ServerManager.registerMessages(created.getKryo());
+		created.addListener(new Listener() {
+			@Override
+			public void connected(Connection connection) {
+				connection.setKeepAliveTCP(config.getKeepAliveMillis());
+				connection.setTimeout(config.getTimeoutMillis());
+			}
+		});
+		created.addListener(listener);
+		return created;
+	}
+
+	public void stop() {
+		running = false;
+		if (server != null) {
+			server.stop();
+			server = null;
+		}
+		if (shardServer != null) {
+			shardServer.stop();
+			shardServer = null;
+		}
+		shards.clear();
+		statusAssemblers.clear();
+		pendingHandoffs.clear();
+	}
+
+	/**
+	 * 客户端端口上的消息，分片状态在这里会被忽略
+	 */
+	private void handleClientMessage(Connection connection, NetworkMessage message) {
+		if (message instanceof ConnectMessage) {
+			handleConnect(connection, (ConnectMessage) message);
+		} else if (message instanceof RoomMessage) {
+			RoomMessage roomMessage = (RoomMessage) message;
+			switch (roomMessage.getAction()) {
+				case LIST:
+					sendList(connection);
+					break;
+				case CREATE:
+					handleCreateRoom(connection, roomMessage);
+					break;
+				case JOIN:
+					handleJoinRoom(connection, roomMessage);
+					break;
+				default:
+					// 其他房间操作只在分片上进行
+					break;
+			}
+		}
+	}
+
+	private void handleShardStatus(Connection connection, ShardStatusMessage status) {
+		List<RoomMessage.RoomInfo> rooms = statusAssemblers.computeIfAbsent(connection, c -> new RoomListChunks.Assembler())
+			.accept(status.getRoomOffset(), status.getRoomTotal(), status.getRooms());
+		if (rooms == null) {
+			// 等待其余分段
+			return;
+		}
+		status.setRooms(rooms);
+		if (shards.put(connection, status) == null) {
+			System.out.println("ShardRouter: 分片 " + status.getHost() + ":" + status.getPort() + " 已注册");
+		}
+		// 回发汇总后的房间列表，分片据此展示和重定向其他分片的房间
+		sendList(connection);
+	}
+
+	private void handleConnect(Connection connection, ConnectMessage message) {
+		ConnectMessage response = new ConnectMessage();
+		if (message.getPlayerName() != null && !message.getPlayerName().isEmpty()) {
+			response.setSuccess(true);
+			response.setClientId(UUID.randomUUID().toString());
+			response.setMessage("Connected successfully");
+		} else {
+			response.setSuccess(false);
+			response.setMessage("Invalid player name");
+		}
+		connection.sendTCP(response);
+	}
+
+	/**
+	 * 选择房间数最少且未满、未在排空的分片，房间数相同时选连接数少的；没有可用分片时返回 null
+	 * @param exclude 不参与选择的分片连接，可以为 null
+	 */
+	private Map.Entry<Connection, ShardStatusMessage> selectShard(Connection exclude) {
+		Map.Entry<Connection, ShardStatusMessage> target = null;
+		for (Map.Entry<Connection, ShardStatusMessage> entry : shards.entrySet()) {
+			ShardStatusMessage status = entry.getValue();
+			int roomCount = roomCount(status);
+			if (entry.getKey() == exclude || status.isDraining() || roomCount >= status.getMaxRooms()) {
+				continue;
+			}
+			ShardStatusMessage best = target != null ? target.getValue() : null;
+			if (best == null || roomCount < roomCount(best)
+				|| (roomCount == roomCount(best) && status.getClientCount() < best.getClientCount())) {
+				target = entry;
+			}
+		}
+		return target;
+	}
+
+	/**
+	 * 房间移交：带快照的请求转发给选中的分片，接手分片的回复转回发起移交的分片
+	 */
+	private void handleHandoff(Connection connection, RoomHandoffMessage message) {
+		if (message.getSnapshot() == null) {
+			Connection source = pendingHandoffs.remove(message.getRoomId());
+			if (source != null) {
+				source.sendTCP(message);
+			}
+			return;
+		}
+
+		Map.Entry<Connection, ShardStatusMessage> target = selectShard(connection);
+		if (target == null) {
+			RoomHandoffMessage response = new RoomHandoffMessage();
+			response.setRoomId(message.getRoomId());
+			response.setAccepted(false);
+			connection.sendTCP(response);
+			System.out.println("ShardRouter: 房间 " + message.getRoomId() + " 移交失败: 没有可用的分片");
+			return;
+		}
+		pendingHandoffs.put(message.getRoomId(), connection);
+		target.getKey().sendTCP(message);
+		System.out.println("ShardRouter: 房间 " + message.getRoomId() + " 移交到分片 "
+			+ target.getValue().getHost() + ":" + target.getValue().getPort());
+	}
+
+	/**
+	 * 创建房间：重定向到房间数最少且未满的分片，房间数相同时选连接数少的
+	 */
+	private void handleCreateRoom(Connection connection, RoomMessage message) {
+		Map.Entry<Connection, ShardStatusMessage> selected = selectShard(null);
+		ShardStatusMessage target = selected != null ? selected.getValue() : null;
+
+		if (target == null) {
+			RoomMessage response = new RoomMessage(RoomMessage.RoomAction.CREATE);
+			response.setSuccess(false);
+			response.setMessage("Room limit reached");
+			connection.sendTCP(response);
+			System.out.println("ShardRouter: 房间创建失败: 没有可用的分片");
+			return;
+		}
+
+		RoomMessage response = new RoomMessage(RoomMessage.RoomAction.REDIRECT);
+		response.setSuccess(true);
+		response.setRoomName(message.getRoomName());
+		response.setShardHost(target.getHost());
+		response.setShardPort(target.getPort());
+		response.setRedirectAction(RoomMessage.RoomAction.CREATE);
+		connection.sendTCP(response);
+	}
+
+	private void handleJoinRoom(Connection connection, RoomMessage message) {
+		for (ShardStatusMessage status : shards.values()) {
+			if (status.getRooms() == null) {
+				continue;
+			}
+			for (RoomMessage.RoomInfo room : status.getRooms()) {
+				if (room.getId().equals(message.getRoomId())) {
+					RoomMessage response = new RoomMessage(RoomMessage.RoomAction.REDIRECT);
+					response.setSuccess(true);
+					response.setRoomId(room.getId());
+					response.setShardHost(status.getHost());
+					response.setShardPort(status.getPort());
+					response.setRedirectAction(RoomMessage.RoomAction.JOIN);
+					connection.sendTCP(response);
+					return;
+				}
+			}
+		}
+
+		RoomMessage response = new RoomMessage(RoomMessage.RoomAction.JOIN);
+		response.setSuccess(false);
+		response.setMessage("Room not found");
+		connection.sendTCP(response);
+	}
+
+	/**
+	 * 分段发送汇总的房间列表。写缓冲放不下下一段时停止，接收方丢弃不完整的列表，等待下一次发送
+	 */
+	private void sendList(Connection connection) {
+		for (RoomMessage message : RoomListChunks.listMessages(collectRooms())) {
+			int pending = connection.getTcpWriteBufferSize();
+			if (pending > 0 && pending + RoomListChunks.CHUNK_BYTES * 2 > config.getWriteBufferSize()) {
+				System.out.println("ShardRouter: 连接 " + connection.getID() + " 写缓冲已满，本次房间列表未发送完");
+				return;
+			}
+			connection.sendTCP(message);
+		}
+	}
+
+	/**
+	 * 汇总所有分片的房间，每个房间标注所在分片的地址
+	 */
+	private List<RoomMessage.RoomInfo> collectRooms() {
+		List<RoomMessage.RoomInfo> roomInfos = new ArrayList<>();
+		for (ShardStatusMessage status : shards.values()) {
+			if (status.getRooms() == null) {
+				continue;
+			}
+			for (RoomMessage.RoomInfo room : status.getRooms()) {
+				room.setShardHost(status.getHost());
+				room.setShardPort(status.getPort());
+				roomInfos.add(room);
+			}
+		}
+		return roomInfos;
+	}
+
+	private static int roomCount(ShardStatusMessage status) {
+		return status.getRooms() != null ? status.getRooms().size() : 0;
+	}
+}
@@ -1,6 +1,9 @@
 package me.catand.cooptetris.shared.tetris;
 
+import java.nio.ByteBuffer;
+
 import lombok.Data;
+import me.catand.cooptetris.shared.util.GameRandom;
 import me.catand.cooptetris.shared.util.Random;
 
 /**
@@ -23,6 +26,11 @@ public class CoopGameLogic {
 	public static final int BOARD_WIDTH = 15;  // 3*4+3 = 15格（4个槽位各3格 + 3个分隔格）
 	public static final int BOARD_HEIGHT = 20;
 	public static final int MAX_PLAYERS = 4;
+	// 快照数据：标志和玩家数 2 字节 + 分数/等级/行数 12 + 种子/随机数状态 16 + 每个槽位 6 + 游戏板（每格 4 位）
+	private static final int SNAPSHOT_SLOT_SIZE = 6;
+	private static final int SNAPSHOT_BOARD_SIZE = (BOARD_WIDTH * BOARD_HEIGHT + 1) / 2;
+	private static final int SNAPSHOT_PAYLOAD_SIZE = 30 + MAX_PLAYERS * SNAPSHOT_SLOT_SIZE + SNAPSHOT_BOARD_SIZE;
+	public static final int SNAPSHOT_SIZE = LogicSnapshot.HEADER_SIZE + SNAPSHOT_PAYLOAD_SIZE + LogicSnapshot.CHECKSUM_SIZE;
 
 	// 可用颜色：蓝、红、绿、黄
 	public static final int[] AVAILABLE_COLORS = {0, 1, 2, 3};
@@ -38,6 +46,8 @@ public class CoopGameLogic {
 	private int lines;
 	private boolean gameOver;
 	private long randomSeed;
+	// 物块生成使用的随机数生成器，状态随快照保存
+	private final GameRandom random = new GameRandom();
 	private int activePlayerCount; // 实际活跃玩家数量
 
 	// 槽位激活状态（哪些槽位有玩家）
@@ -46,6 +56,12 @@ public class CoopGameLogic {
 	// 每个槽位玩家的颜色选择（-1表示未选择）
 	private int[] slotColorIndices;
 
+	// 已锁定方块及其颜色的不可变快照，只在重置、锁定和消行后重新发布，可安全地跨线程广播
+	private volatile int[][] boardSnapshot;
+	private volatile int[][] boardColorSnapshot;
+	// 游戏板版本号，锁定方块内容变化时递增
+	private int boardVersion;
+
 	// 出口位置（每个出口3格宽，出口之间1格分隔）
 	// 布局: [槽位0:0-2] [分隔:3] [槽位1:4-6] [分隔:7] [槽位2:8-10] [分隔:11] [槽位3:12-14]
 	// 出口起始X坐标（物块生成位置）
@@ -72,6 +88,19 @@ public class CoopGameLogic {
 		}
 	};
 
+	// 预先计算的旋转形状 [砖块类型][旋转状态]，为共享数组，不可修改
+	private static final int[][][][] COOP_ROTATED_SHAPES = new int[PIECE_COUNT][4][][];
+
+	static {
+		for (int pieceType = 0; pieceType < PIECE_COUNT; pieceType++) {
+			int[][] shape = COOP_SHAPES[pieceType];
+			for (int rotation = 0; rotation < 4; rotation++) {
+				COOP_ROTATED_SHAPES[pieceType][rotation] = shape;
+				shape = rotateShapeClockwise(shape);
+			}
+		}
+	}
+
 	public CoopGameLogic() {
 		board = new int[BOARD_HEIGHT][BOARD_WIDTH];
 		boardColor = new int[BOARD_HEIGHT][BOARD_WIDTH];
@@ -90,12 +119,8 @@ public class CoopGameLogic {
 	public void reset(long seed, int playerCount) {
 		this.randomSeed = seed;
 		this.activePlayerCount = Math.min(playerCount, MAX_PLAYERS);
-		Random.pushGenerator(seed);
-		try {
-			reset();
-		} finally {
-			Random.popGenerator();
-		}
+		random.setSeed(seed);
+		clearState();
 	}
 
 	public void reset(long seed) {
@@ -103,6 +128,11 @@ public class CoopGameLogic {
 	}
 
 	public void reset() {
+		random.setSeed(Random.Long());
+		clearState();
+	}
+
+	private void clearState() {
 		for (int i = 0; i < BOARD_HEIGHT; i++) {
 			for (int j = 0; j < BOARD_WIDTH; j++) {
 				board[i][j] = 0;
@@ -121,6 +151,38 @@ public class CoopGameLogic {
 		level = 1;
 		lines = 0;
 		gameOver = false;
+		publishBoardSnapshot();
+	}
+
+	/**
+	 * 发布当前游戏板和颜色板的快照，内容未变化的行直接复用上一个快照中的行数组
+	 */
+	private void publishBoardSnapshot() {
+		int[][] previousBoard = boardSnapshot;
+		int[][] previousColor = boardColorSnapshot;
+		int[][] snapshot = GameLogic.snapshotBoard(board, previousBoard);
+		int[][] colorSnapshot = GameLogic.snapshotBoard(boardColor, previousColor);
+		if (snapshot != previousBoard || colorSnapshot != previousColor) {
+			boardSnapshot = snapshot;
+			boardColorSnapshot = colorSnapshot;
+			boardVersion++;
+		}
+	}
+
+	/**
+	 * 客户端用服务器同步的数据覆盖游戏板和颜色板，内容变化时递增版本号
+	 */
+	public void updateBoardFromMessage(int[][] board, int[][] boardColor) {
+		boolean changed = false;
+		if (board != null) {
+			changed = GameLogic.copyBoard(board, this.board);
+		}
+		if (boardColor != null) {
+			changed |= GameLogic.copyBoard(boardColor, this.boardColor);
+		}
+		if (changed) {
+			boardVersion++;
+		}
 	}
 
 	/**
@@ -192,10 +254,10 @@ public class CoopGameLogic {
 	 */
 	public void spawnNewPieceForSlot(int slotIndex) {
 		PlayerPiece piece = playerPieces[slotIndex];
-		piece.setPieceType(Random.Int(PIECE_COUNT)); // 只有两种砖块: 0或1
+		piece.setPieceType(random.nextInt(PIECE_COUNT)); // 只有两种砖块: 0或1
 		piece.setX(EXIT_POSITIONS[slotIndex]); // 在对应出口起始位置生成
 		piece.setY(0);
-		piece.setRotation(Random.Int(4));
+		piece.setRotation(random.nextInt(4));
 		piece.setActive(true);
 
 		// 检查是否可以放置
@@ -261,6 +323,7 @@ public class CoopGameLogic {
 				// 锁定物块（只有碰到游戏板或边界时才锁定）
 				lockPiece(slotIndex);
 				clearLines();
+				publishBoardSnapshot();
 				spawnNewPieceForSlot(slotIndex);
 			}
 			// 如果是因为碰到其他玩家，则不锁定，只是停止下落
@@ -442,6 +505,113 @@ public class CoopGameLogic {
 		level = lines / 10 + 1;
 	}
 
+	/**
+	 * 写入二进制快照：分数、随机数状态、各槽位的颜色和物块，以及游戏板
+	 * 游戏板每格 4 位，值为 方块类型 * 5 + (颜色 + 1)
+	 * @return 写入的字节数，即 SNAPSHOT_SIZE
+	 */
+	public int writeSnapshot(ByteBuffer buffer) {
+		int start = LogicSnapshot.begin(buffer, LogicSnapshot.KIND_COOP, SNAPSHOT_PAYLOAD_SIZE);
+		buffer.put((byte) (gameOver ? 1 : 0));
+		buffer.put((byte) activePlayerCount);
+		buffer.putInt(score);
+		buffer.putInt(level);
+		buffer.putInt(lines);
+		buffer.putLong(randomSeed);
+		buffer.putLong(random.getState());
+		for (int i = 0; i < MAX_PLAYERS; i++) {
+			PlayerPiece piece = playerPieces[i];
+			buffer.put((byte) slotColorIndices[i]);
+			buffer.put((byte) piece.getPieceType());
+			buffer.put((byte) piece.getX());
+			buffer.put((byte) piece.getY());
+			buffer.put((byte) piece.getRotation());
+			buffer.put((byte) ((piece.isActive() ? 1 : 0) | (slotActive[i] ? 2 : 0)));
+		}
+		int packed = 0;
+		for (int i = 0; i < BOARD_WIDTH * BOARD_HEIGHT; i++) {
+			int y = i / BOARD_WIDTH;
+			int x = i % BOARD_WIDTH;
+			int cell = board[y][x] * 5 + boardColor[y][x] + 1;
+			if ((i & 1) == 0) {
+				packed = cell << 4;
+			} else {
+				buffer.put((byte) (packed | cell));
+			}
+		}
+		if ((BOARD_WIDTH * BOARD_HEIGHT & 1) != 0) {
+			buffer.put((byte) packed);
+		}
+		return LogicSnapshot.end(buffer, start);
+	}
+
+	/**
+	 * 从二进制快照恢复，校验失败时抛出 IllegalArgumentException，游戏状态保持不变
+	 */
+	public void readSnapshot(ByteBuffer buffer) {
+		int payloadEnd = LogicSnapshot.verify(buffer, LogicSnapshot.KIND_COOP, SNAPSHOT_PAYLOAD_SIZE);
+		// 先检查槽位和游戏板再修改状态
+		int slotStart = payloadEnd - SNAPSHOT_BOARD_SIZE - MAX_PLAYERS * SNAPSHOT_SLOT_SIZE;
+		for (int i = 0; i < MAX_PLAYERS; i++) {
+			int offset = slotStart + i * SNAPSHOT_SLOT_SIZE;
+			LogicSnapshot.checkRange(buffer.get(offset), -1, AVAILABLE_COLORS.length - 1);
+			int pieceType = LogicSnapshot.checkRange(buffer.get(offset + 1), 0, PIECE_COUNT - 1);
+			int rotation = LogicSnapshot.checkRange(buffer.get(offset + 4), 0, 3);
+			int[][] shape = getCoopShape(pieceType, rotation);
+			int x = buffer.get(offset + 2);
+			int y = buffer.get(offset + 3);
+			if ((buffer.get(offset + 5) & 1) != 0) {
+				// 活动的物块每一格都在游戏板内
+				LogicSnapshot.checkPiece(shape, x, y, BOARD_WIDTH, BOARD_HEIGHT);
+			} else {
+				// 未活动的物块保留最后的位置，只检查形状矩阵与游戏板有重叠
+				LogicSnapshot.checkRange(x, 1 - shape.length, BOARD_WIDTH - 1);
+				LogicSnapshot.checkRange(y, 1 - shape.length, BOARD_HEIGHT - 1);
+			}
+		}
+		for (int i = payloadEnd - SNAPSHOT_BOARD_SIZE; i < payloadEnd; i++) {
+			LogicSnapshot.checkRange(buffer.get(i) >> 4 & 0x0F, 0, PIECE_COUNT * 5 + 4);
+			LogicSnapshot.checkRange(buffer.get(i) & 0x0F, 0, PIECE_COUNT * 5 + 4);
+		}
+		int playerCount = LogicSnapshot.checkRange(buffer.get(buffer.position() + 1), 0, MAX_PLAYERS);
+
+		gameOver = buffer.get() != 0;
+		buffer.get();
+		activePlayerCount = playerCount;
+		score = buffer.getInt();
+		level = buffer.getInt();
+		lines = buffer.getInt();
+		randomSeed = buffer.getLong();
+		random.setState(buffer.getLong());
+		for (int i = 0; i < MAX_PLAYERS; i++) {
+			PlayerPiece piece = playerPieces[i];
+			slotColorIndices[i] = buffer.get();
+			piece.setPieceType(buffer.get());
+			piece.setX(buffer.get());
+			piece.setY(buffer.get());
+			piece.setRotation(buffer.get());
+			int flags = buffer.get();
+			piece.setActive((flags & 1) != 0);
+			slotActive[i] = (flags & 2) != 0;
+		}
+		int packed = 0;
+		for (int i = 0; i < BOARD_WIDTH * BOARD_HEIGHT; i++) {
+			int cell;
+			if ((i & 1) == 0) {
+				packed = buffer.get();
+				cell = packed >> 4 & 0x0F;
+			} else {
+				cell = packed & 0x0F;
+			}
+			int y = i / BOARD_WIDTH;
+			int x = i % BOARD_WIDTH;
+			board[y][x] = cell / 5;
+			boardColor[y][x] = cell % 5 - 1;
+		}
+		LogicSnapshot.finish(buffer, payloadEnd);
+		publishBoardSnapshot();
+	}
+
 	/**
 	 * 获取指定槽位的当前物块
 	 */
@@ -470,7 +640,7 @@ public class CoopGameLogic {
 	}
 
 	/**
-	 * 获取合作模式砖块形状（带旋转）
+	 * 获取合作模式砖块形状（带旋转），返回共享的缓存数组，调用方不可修改
 	 */
 	private int[][] getCoopShape(int pieceType, int rotation) {
 		// 确保pieceType在有效范围内
@@ -478,30 +648,14 @@ public class CoopGameLogic {
 			pieceType = 0;
 		}
 
-		int[][] shape = copyShape(COOP_SHAPES[pieceType]);
 		int rotations = rotation % 4;
-		for (int i = 0; i < rotations; i++) {
-			shape = rotateShapeClockwise(shape);
-		}
-		return shape;
-	}
-
-	/**
-	 * 复制形状矩阵
-	 */
-	private int[][] copyShape(int[][] original) {
-		int size = original.length;
-		int[][] copy = new int[size][size];
-		for (int i = 0; i < size; i++) {
-			System.arraycopy(original[i], 0, copy[i], 0, size);
-		}
-		return copy;
+		return COOP_ROTATED_SHAPES[pieceType][rotations < 0 ? 0 : rotations];
 	}
 
 	/**
 	 * 顺时针旋转形状矩阵
 	 */
-	private int[][] rotateShapeClockwise(int[][] piece) {
+	private static int[][] rotateShapeClockwise(int[][] piece) {
 		int size = piece.length;
 		int[][] rotated = new int[size][size];
 		for (int i = 0; i < size; i++) {
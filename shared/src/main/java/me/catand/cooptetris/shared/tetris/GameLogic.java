@@ -1,13 +1,20 @@
 package me.catand.cooptetris.shared.tetris;
 
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
 import lombok.Data;
 import me.catand.cooptetris.shared.model.Tetromino;
+import me.catand.cooptetris.shared.util.GameRandom;
 import me.catand.cooptetris.shared.util.Random;
 
 @Data
 public class GameLogic {
     public static final int BOARD_WIDTH = 10;
     public static final int BOARD_HEIGHT = 20;
+    // 快照数据：方块 5 字节 + 标志 1 + 分数/等级/行数 12 + 种子/随机数状态 16 + 游戏板
+    private static final int SNAPSHOT_PAYLOAD_SIZE = 34 + BOARD_WIDTH * BOARD_HEIGHT / 2;
+    public static final int SNAPSHOT_SIZE = LogicSnapshot.HEADER_SIZE + SNAPSHOT_PAYLOAD_SIZE + LogicSnapshot.CHECKSUM_SIZE;
 
     private int[][] board;
     private int currentPiece;
@@ -20,6 +27,13 @@ public class GameLogic {
     private int lines;
     private boolean gameOver;
     private long randomSeed; // 随机数种子，用于同步
+    // 方块生成使用的随机数生成器，状态随快照保存
+    private final GameRandom random = new GameRandom();
+
+    // 已锁定方块的不可变快照，只在重置、锁定和消行后重新发布，可安全地跨线程广播
+    private volatile int[][] boardSnapshot;
+    // 游戏板版本号，锁定方块内容变化时递增
+    private int boardVersion;
 
     public GameLogic() {
         board = new int[BOARD_HEIGHT][BOARD_WIDTH];
@@ -33,24 +47,23 @@ public class GameLogic {
      */
     public void reset(long seed) {
         this.randomSeed = seed;
-        // 推入新的随机数生成器，使用指定种子
-        Random.pushGenerator(seed);
-        try {
-            reset();
-        } finally {
-            // 重置完成后弹出随机数生成器
-            Random.popGenerator();
-        }
+        random.setSeed(seed);
+        clearState();
     }
 
     public void reset() {
+        random.setSeed(Random.Long());
+        clearState();
+    }
+
+    private void clearState() {
         for (int i = 0; i < BOARD_HEIGHT; i++) {
             for (int j = 0; j < BOARD_WIDTH; j++) {
                 board[i][j] = 0;
             }
         }
-        currentPiece = Random.Int(7);
-        nextPiece = Random.Int(7);
+        currentPiece = random.nextInt(7);
+        nextPiece = random.nextInt(7);
         currentPieceX = BOARD_WIDTH / 2 - 2;
         currentPieceY = 0;
         currentPieceRotation = 0;
@@ -58,6 +71,7 @@ public class GameLogic {
         level = 1;
         lines = 0;
         gameOver = false;
+        publishBoardSnapshot();
     }
 
     public boolean moveLeft() {
@@ -85,6 +99,8 @@ public class GameLogic {
             lockPiece();
             // 清除行
             clearLines();
+            // 发布新的游戏板快照
+            publishBoardSnapshot();
             // 生成新方块
             spawnNewPiece();
             return false;
@@ -135,13 +151,8 @@ public class GameLogic {
     }
 
     private boolean canMove(int x, int y, int rotation) {
-        int[][] shape = Tetromino.SHAPES[currentPiece];
-
         // 根据旋转状态获取旋转后的形状
-        int rotations = rotation % 4;
-        for (int i = 0; i < rotations; i++) {
-            shape = Tetromino.rotateClockwise(shape);
-        }
+        int[][] shape = Tetromino.getShape(currentPiece, rotation);
 
         int size = shape.length;
 
@@ -163,13 +174,8 @@ public class GameLogic {
     }
 
     private void lockPiece() {
-        int[][] shape = Tetromino.SHAPES[currentPiece];
-
         // 根据当前旋转状态获取旋转后的形状
-        int rotations = currentPieceRotation % 4;
-        for (int i = 0; i < rotations; i++) {
-            shape = Tetromino.rotateClockwise(shape);
-        }
+        int[][] shape = Tetromino.getShape(currentPiece, currentPieceRotation);
 
         int size = shape.length;
 
@@ -234,11 +240,11 @@ public class GameLogic {
 
     private void spawnNewPiece() {
         currentPiece = nextPiece;
-        nextPiece = Random.Int(7);
+        nextPiece = random.nextInt(7);
         currentPieceX = BOARD_WIDTH / 2 - 2;
         currentPieceY = 0;
         // 随机生成旋转状态，使方块朝向不固定
-        currentPieceRotation = Random.Int(4);
+        currentPieceRotation = random.nextInt(4);
 
         if (!canMove(currentPieceX, currentPieceY, currentPieceRotation)) {
             gameOver = true;
@@ -246,7 +252,10 @@ public class GameLogic {
     }
 
     public void updateFromMessage(int[][] board, int currentPiece, int currentPieceX, int currentPieceY, int currentPieceRotation, int nextPiece, int score, int level, int lines) {
-        this.board = board;
+        // 消息对象会被回收复用，因此复制游戏板内容而不是直接引用消息中的数组
+        if (board != null && copyBoard(board, this.board)) {
+            boardVersion++;
+        }
         this.currentPiece = currentPiece;
         this.currentPieceX = currentPieceX;
         this.currentPieceY = currentPieceY;
@@ -257,6 +266,129 @@ public class GameLogic {
         this.lines = lines;
     }
 
+    /**
+     * 发布当前游戏板的快照，内容未变化的行直接复用上一个快照中的行数组
+     */
+    private void publishBoardSnapshot() {
+        int[][] previous = boardSnapshot;
+        int[][] snapshot = snapshotBoard(board, previous);
+        if (snapshot != previous) {
+            boardSnapshot = snapshot;
+            boardVersion++;
+        }
+    }
+
+    /**
+     * 生成游戏板的不可变快照（写时复制，以行为单位）
+     * 已发布的快照及其行数组之后不会再被修改
+     * @return 内容与上一个快照完全相同时返回 previous 本身
+     */
+    static int[][] snapshotBoard(int[][] board, int[][] previous) {
+        int height = board.length;
+        if (previous == null || previous.length != height) {
+            int[][] snapshot = new int[height][];
+            for (int y = 0; y < height; y++) {
+                snapshot[y] = board[y].clone();
+            }
+            return snapshot;
+        }
+
+        int[][] snapshot = null;
+        for (int y = 0; y < height; y++) {
+            if (!Arrays.equals(board[y], previous[y])) {
+                if (snapshot == null) {
+                    snapshot = previous.clone();
+                }
+                snapshot[y] = board[y].clone();
+            }
+        }
+        return snapshot != null ? snapshot : previous;
+    }
+
+    /**
+     * 写入二进制快照：方块、分数、随机数状态和每格 4 位的游戏板
+     * @return 写入的字节数，即 SNAPSHOT_SIZE
+     */
+    public int writeSnapshot(ByteBuffer buffer) {
+        int start = LogicSnapshot.begin(buffer, LogicSnapshot.KIND_GAME, SNAPSHOT_PAYLOAD_SIZE);
+        buffer.put((byte) currentPiece);
+        buffer.put((byte) currentPieceX);
+        buffer.put((byte) currentPieceY);
+        buffer.put((byte) currentPieceRotation);
+        buffer.put((byte) nextPiece);
+        buffer.put((byte) (gameOver ? 1 : 0));
+        buffer.putInt(score);
+        buffer.putInt(level);
+        buffer.putInt(lines);
+        buffer.putLong(randomSeed);
+        buffer.putLong(random.getState());
+        for (int y = 0; y < BOARD_HEIGHT; y++) {
+            int[] row = board[y];
+            for (int x = 0; x < BOARD_WIDTH; x += 2) {
+                buffer.put((byte) (row[x] << 4 | row[x + 1]));
+            }
+        }
+        return LogicSnapshot.end(buffer, start);
+    }
+
+    /**
+     * 从二进制快照恢复，校验失败时抛出 IllegalArgumentException，游戏状态保持不变
+     */
+    public void readSnapshot(ByteBuffer buffer) {
+        int payloadEnd = LogicSnapshot.verify(buffer, LogicSnapshot.KIND_GAME, SNAPSHOT_PAYLOAD_SIZE);
+        int piece = LogicSnapshot.checkRange(buffer.get(), 0, 6);
+        int pieceX = buffer.get();
+        int pieceY = buffer.get();
+        int rotation = LogicSnapshot.checkRange(buffer.get(), 0, 3);
+        int next = LogicSnapshot.checkRange(buffer.get(), 0, 6);
+        LogicSnapshot.checkPiece(Tetromino.getShape(piece, rotation), pieceX, pieceY, BOARD_WIDTH, BOARD_HEIGHT);
+        // 先检查游戏板再修改状态
+        int boardStart = payloadEnd - BOARD_HEIGHT * BOARD_WIDTH / 2;
+        for (int i = boardStart; i < payloadEnd; i++) {
+            LogicSnapshot.checkRange(buffer.get(i) >> 4 & 0x0F, 0, 7);
+            LogicSnapshot.checkRange(buffer.get(i) & 0x0F, 0, 7);
+        }
+
+        currentPiece = piece;
+        currentPieceX = pieceX;
+        currentPieceY = pieceY;
+        currentPieceRotation = rotation;
+        nextPiece = next;
+        gameOver = buffer.get() != 0;
+        score = buffer.getInt();
+        level = buffer.getInt();
+        lines = buffer.getInt();
+        randomSeed = buffer.getLong();
+        random.setState(buffer.getLong());
+        for (int y = 0; y < BOARD_HEIGHT; y++) {
+            int[] row = board[y];
+            for (int x = 0; x < BOARD_WIDTH; x += 2) {
+                int cells = buffer.get();
+                row[x] = cells >> 4 & 0x0F;
+                row[x + 1] = cells & 0x0F;
+            }
+        }
+        LogicSnapshot.finish(buffer, payloadEnd);
+        publishBoardSnapshot();
+    }
+
+    /**
+     * 把 source 的内容复制到 target
+     * @return 是否有格子发生变化
+     */
+    static boolean copyBoard(int[][] source, int[][] target) {
+        boolean changed = false;
+        for (int y = 0; y < target.length && y < source.length; y++) {
+            int[] from = source[y];
+            int[] to = target[y];
+            if (!changed && !Arrays.equals(from, to)) {
+                changed = true;
+            }
+            System.arraycopy(from, 0, to, 0, Math.min(from.length, to.length));
+        }
+        return changed;
+    }
+
     /**
      * 获取指定方块和旋转状态的形状
      *
@@ -265,14 +397,7 @@ public class GameLogic {
      * @return 方块的形状数组
      */
     public int[][] getPieceShape(int piece, int rotation) {
-        int[][] shape = Tetromino.SHAPES[piece];
-
-        // 根据旋转状态获取旋转后的形状
-        int rotations = rotation % 4;
-        for (int i = 0; i < rotations; i++) {
-            shape = Tetromino.rotateClockwise(shape);
-        }
-
-        return shape;
+        // 返回共享的缓存形状，渲染时不再产生临时数组
+        return Tetromino.getShape(piece, rotation);
     }
 }
@@ -1,5 +1,7 @@
 package me.catand.cooptetris.shared.tetris;
 
+import java.nio.ByteBuffer;
+
 import me.catand.cooptetris.shared.message.CoopGameStateMessage;
 import me.catand.cooptetris.shared.message.GameStateMessage;
 import me.catand.cooptetris.shared.message.MoveMessage;
@@ -123,12 +125,7 @@ public class GameStateManager {
         if (!isCoopMode || coopGameLogic == null) return;
 
         // 更新游戏板
-        int[][] board = message.getBoard();
-        int[][] boardColor = message.getBoardColor();
-        for (int y = 0; y < CoopGameLogic.BOARD_HEIGHT; y++) {
-            System.arraycopy(board[y], 0, coopGameLogic.getBoard()[y], 0, CoopGameLogic.BOARD_WIDTH);
-            System.arraycopy(boardColor[y], 0, coopGameLogic.getBoardColor()[y], 0, CoopGameLogic.BOARD_WIDTH);
-        }
+        coopGameLogic.updateBoardFromMessage(message.getBoard(), message.getBoardColor());
 
         // 更新游戏状态
         coopGameLogic.setScore(message.getScore());
@@ -166,6 +163,24 @@ public class GameStateManager {
         }
     }
 
+    /**
+     * 断线重连后用服务器下发的快照恢复自己的游戏逻辑，快照无效时等待后续的状态更新
+     */
+    public void restoreSnapshot(byte[] state) {
+        if (state == null || !isMultiplayer) return;
+        try {
+            if (isCoopMode) {
+                if (coopGameLogic != null) {
+                    coopGameLogic.readSnapshot(ByteBuffer.wrap(state));
+                }
+            } else {
+                localGameLogic.readSnapshot(ByteBuffer.wrap(state));
+            }
+        } catch (IllegalArgumentException e) {
+            System.out.println("GameStateManager: 恢复游戏快照失败: " + e.getMessage());
+        }
+    }
+
     public GameLogic getLocalGameLogic() {
         return localGameLogic;
     }
@@ -0,0 +1,118 @@
+package me.catand.cooptetris.shared.tetris;
+
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+
+/**
+ * 游戏逻辑二进制快照的公共格式
+ * 头部：魔数(4) + 版本(1) + 类型(1) + 数据长度(2)，随后是数据，最后是头部和数据的 CRC32(4)
+ * 游戏板每格 4 位，两格一个字节。写入调用方提供的缓冲区，不产生临时对象，可以每帧保存
+ */
+public final class LogicSnapshot {
+	public static final int MAGIC = 0x43544753; // "CTGS"
+	public static final byte VERSION = 1;
+	public static final byte KIND_GAME = 1;
+	public static final byte KIND_COOP = 2;
+	public static final int HEADER_SIZE = 8;
+	public static final int CHECKSUM_SIZE = 4;
+
+	private static final ThreadLocal<CRC32> CRC = ThreadLocal.withInitial(CRC32::new);
+
+	private LogicSnapshot() {
+	}
+
+	/**
+	 * 写入头部，返回快照起始位置
+	 */
+	static int begin(ByteBuffer buffer, byte kind, int payloadSize) {
+		int start = buffer.position();
+		buffer.putInt(MAGIC);
+		buffer.put(VERSION);
+		buffer.put(kind);
+		buffer.putShort((short) payloadSize);
+		return start;
+	}
+
+	/**
+	 * 写入校验和，返回快照总字节数
+	 */
+	static int end(ByteBuffer buffer, int start) {
+		buffer.putInt(checksum(buffer, start, buffer.position() - start));
+		return buffer.position() - start;
+	}
+
+	/**
+	 * 校验头部和校验和，通过后缓冲区位于数据起始处，返回数据结束位置
+	 * 读取数据前完成校验，失败时抛出 IllegalArgumentException，游戏逻辑保持不变
+	 */
+	static int verify(ByteBuffer buffer, byte kind, int payloadSize) {
+		int start = buffer.position();
+		if (buffer.remaining() < HEADER_SIZE + CHECKSUM_SIZE) {
+			throw new IllegalArgumentException("Snapshot truncated");
+		}
+		if (buffer.getInt(start) != MAGIC) {
+			throw new IllegalArgumentException("Not a game snapshot");
+		}
+		if (buffer.get(start + 4) != VERSION) {
+			throw new IllegalArgumentException("Unsupported snapshot version " + buffer.get(start + 4));
+		}
+		if (buffer.get(start + 5) != kind) {
+			throw new IllegalArgumentException("Snapshot kind mismatch");
+		}
+		int length = buffer.getShort(start + 6) & 0xFFFF;
+		if (length != payloadSize || buffer.remaining() < HEADER_SIZE + length + CHECKSUM_SIZE) {
+			throw new IllegalArgumentException("Snapshot size mismatch");
+		}
+		int payloadEnd = start + HEADER_SIZE + length;
+		if (buffer.getInt(payloadEnd) != checksum(buffer, start, HEADER_SIZE + length)) {
+			throw new IllegalArgumentException("Snapshot checksum mismatch");
+		}
+		buffer.position(start + HEADER_SIZE);
+		return payloadEnd;
+	}
+
+	/**
+	 * 读取数据后跳过校验和
+	 */
+	static void finish(ByteBuffer buffer, int payloadEnd) {
+		buffer.position(payloadEnd + CHECKSUM_SIZE);
+	}
+
+	private static int checksum(ByteBuffer buffer, int offset, int length) {
+		CRC32 crc = CRC.get();
+		crc.reset();
+		if (buffer.hasArray()) {
+			crc.update(buffer.array(), buffer.arrayOffset() + offset, length);
+		} else {
+			for (int i = 0; i < length; i++) {
+				crc.update(buffer.get(offset + i));
+			}
+		}
+		return (int) crc.getValue();
+	}
+
+	/**
+	 * 检查读取的数值在 min 到 max 之间，超出范围说明数据与当前版本不符
+	 */
+	static int checkRange(int value, int min, int max) {
+		if (value < min || value > max) {
+			throw new IllegalArgumentException("Snapshot value out of range: " + value);
+		}
+		return value;
+	}
+
+	/**
+	 * 检查方块位置：坐标是形状矩阵的左上角，形状左侧和上方的空行空列允许坐标为负，
+	 * 但形状中的每个方块格都必须在游戏板内
+	 */
+	static void checkPiece(int[][] shape, int x, int y, int width, int height) {
+		for (int i = 0; i < shape.length; i++) {
+			for (int j = 0; j < shape[i].length; j++) {
+				if (shape[i][j] != 0) {
+					checkRange(x + j, 0, width - 1);
+					checkRange(y + i, 0, height - 1);
+				}
+			}
+		}
+	}
+}
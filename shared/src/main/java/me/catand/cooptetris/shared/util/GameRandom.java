@@ -0,0 +1,41 @@
+package me.catand.cooptetris.shared.util;
+
+/**
+ * 可保存状态的随机数生成器（SplitMix64），全部状态只有一个 long
+ * 游戏逻辑各自持有一个实例生成方块，快照中保存状态后可以精确恢复之后的方块序列
+ */
+public class GameRandom {
+    private long state;
+
+    public GameRandom() {
+    }
+
+    public GameRandom(long seed) {
+        this.state = seed;
+    }
+
+    public void setSeed(long seed) {
+        state = seed;
+    }
+
+    public long getState() {
+        return state;
+    }
+
+    public void setState(long state) {
+        this.state = state;
+    }
+
+    public long nextLong() {
+        long z = (state += 0x9E3779B97F4A7C15L);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    //returns a uniformly distributed int in the range [0, max)
+    public int nextInt(int max) {
+        if (max <= 0) return 0;
+        return (int) ((nextLong() >>> 1) % max);
+    }
+}
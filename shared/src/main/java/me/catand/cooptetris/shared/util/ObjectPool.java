@@ -0,0 +1,55 @@
+package me.catand.cooptetris.shared.util;
+
+import java.util.ArrayList;
+
+/**
+ * 线程安全的对象池，用于复用网络消息等高频创建的对象
+ * 接收与归还可能发生在不同线程（例如网络线程取出，渲染线程归还），因此所有操作都加锁
+ */
+public abstract class ObjectPool<T> {
+
+    /**
+     * 归还到池中时需要重置状态的对象
+     */
+    public interface Poolable {
+        void reset();
+    }
+
+    private final ArrayList<T> freeObjects;
+    private final int max;
+
+    public ObjectPool() {
+        this(16, 64);
+    }
+
+    public ObjectPool(int initialCapacity, int max) {
+        this.freeObjects = new ArrayList<>(initialCapacity);
+        this.max = max;
+    }
+
+    protected abstract T newObject();
+
+    public synchronized T obtain() {
+        int size = freeObjects.size();
+        return size == 0 ? newObject() : freeObjects.remove(size - 1);
+    }
+
+    /**
+     * 归还对象，超过上限的对象直接丢弃交给GC
+     */
+    public synchronized void free(T object) {
+        if (object == null) {
+            throw new IllegalArgumentException("object cannot be null.");
+        }
+        if (freeObjects.size() < max) {
+            if (object instanceof Poolable) {
+                ((Poolable) object).reset();
+            }
+            freeObjects.add(object);
+        }
+    }
+
+    public synchronized int getFree() {
+        return freeObjects.size();
+    }
+}
@@ -0,0 +1,182 @@
+package me.catand.cooptetris.shared.server;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import me.catand.cooptetris.shared.tetris.GameMode;
+
+/**
+ * MatchHistory 测试：崩溃后重新打开时丢弃损坏的尾部记录、清除残留的提交标记、跨段追加，以及压缩过期记录
+ */
+public class MatchHistoryTest {
+	private static final long DAY_MILLIS = 24L * 60 * 60 * 1000;
+	private static final long RETENTION_MILLIS = 180 * DAY_MILLIS;
+
+	@TempDir
+	Path directory;
+
+	@Test
+	public void dropsCorruptedTailRecordOnReopen() throws IOException {
+		long now = System.currentTimeMillis();
+		MatchHistory history = new MatchHistory(directory.toFile());
+		for (int i = 0; i < 3; i++) {
+			history.append(record("alice", now + i, i));
+		}
+		history.close();
+
+		// 模拟写入最后一条记录时崩溃：内容与校验和不符
+		writeInt(segmentPath(1), MatchHistory.recordOffset(2) + 32, 12345);
+
+		history = new MatchHistory(directory.toFile());
+		assertEquals(2, history.getRecordCount());
+		List<MatchRecord> records = history.findByPlayer("alice", 10);
+		assertEquals(2, records.size());
+		assertEquals(1, records.get(0).getScore());
+		assertEquals(0, records.get(1).getScore());
+
+		// 新记录写入被丢弃的位置，重新打开后完整保留
+		history.append(record("alice", now + 3, 3));
+		history.close();
+		history = new MatchHistory(directory.toFile());
+		assertEquals(3, history.getRecordCount());
+		assertEquals(3, history.findByPlayer("alice", 1).get(0).getScore());
+		history.close();
+	}
+
+	@Test
+	public void clearsStaleMarkerAfterLastRecord() throws IOException {
+		long now = System.currentTimeMillis();
+		MatchHistory history = new MatchHistory(directory.toFile());
+		for (int i = 0; i < 3; i++) {
+			history.append(record("bob", now + i, i));
+		}
+		history.close();
+
+		// 第 2 条记录损坏，之后的第 3 条记录虽然完整也不再有效，重新打开时清除第 2 条的提交标记
+		int tornOffset = MatchHistory.recordOffset(1);
+		writeInt(segmentPath(1), tornOffset + 32, 12345);
+		history = new MatchHistory(directory.toFile());
+		assertEquals(1, history.getRecordCount());
+		history.close();
+		assertEquals(0, readInt(segmentPath(1), tornOffset));
+
+		// 清除标记后不会再把旧的第 3 条记录当作有效记录
+		history = new MatchHistory(directory.toFile());
+		assertEquals(1, history.getRecordCount());
+		history.close();
+	}
+
+	@Test
+	public void rollsOverToNewSegment() throws IOException {
+		long now = System.currentTimeMillis();
+		int total = MatchHistory.RECORDS_PER_SEGMENT + 10;
+		MatchHistory history = new MatchHistory(directory.toFile());
+		for (int i = 0; i < total; i++) {
+			history.append(record("carol", now + i, i));
+		}
+		assertEquals(total, history.getRecordCount());
+		assertTrue(Files.exists(segmentPath(2)));
+		history.close();
+
+		history = new MatchHistory(directory.toFile());
+		assertEquals(total, history.getRecordCount());
+		List<MatchRecord> records = history.findByPlayer("carol", total);
+		assertEquals(total, records.size());
+		// 从新到旧排列，跨越两个段
+		assertEquals(total - 1, records.get(0).getScore());
+		assertEquals(0, records.get(total - 1).getScore());
+		history.close();
+	}
+
+	@Test
+	public void compactionRemovesExpiredRecords() throws IOException {
+		long now = System.currentTimeMillis();
+		long expired = now - RETENTION_MILLIS - DAY_MILLIS;
+		int perSegment = MatchHistory.RECORDS_PER_SEGMENT;
+		MatchHistory history = new MatchHistory(directory.toFile());
+		// 第 1 段全部过期，第 2 段大部分过期，第 3 段为活动段
+		for (int i = 0; i < perSegment; i++) {
+			history.append(record("old", expired + i, i));
+		}
+		for (int i = 0; i < perSegment - 96; i++) {
+			history.append(record("old", expired + i, i));
+		}
+		for (int i = 0; i < 106; i++) {
+			history.append(record("kept", now + i, i));
+		}
+		assertTrue(Files.exists(segmentPath(3)));
+
+		int removed = history.compact(RETENTION_MILLIS);
+		assertEquals(perSegment * 2 - 96, removed);
+		assertEquals(106, history.getRecordCount());
+		assertFalse(Files.exists(segmentPath(1)));
+		assertTrue(history.findByPlayer("old", 10).isEmpty());
+		List<MatchRecord> kept = history.findByPlayer("kept", 200);
+		assertEquals(106, kept.size());
+		assertEquals(105, kept.get(0).getScore());
+		assertEquals(0, kept.get(105).getScore());
+		// 索引重建后继续追加
+		history.append(record("kept", now + 106, 106));
+		assertEquals(106, history.findByPlayer("kept", 1).get(0).getScore());
+		history.close();
+
+		history = new MatchHistory(directory.toFile());
+		assertEquals(107, history.getRecordCount());
+		assertEquals(107, history.findByPlayer("kept", 200).size());
+		assertEquals(0, history.compact(RETENTION_MILLIS));
+		history.close();
+	}
+
+	@Test
+	public void rejectsAppendAfterClose() throws IOException {
+		MatchHistory history = new MatchHistory(directory.toFile());
+		history.close();
+		assertThrows(IOException.class, () -> history.append(record("dave", System.currentTimeMillis(), 0)));
+	}
+
+	private static MatchRecord record(String playerName, long finishedAt, int score) {
+		MatchRecord record = new MatchRecord();
+		record.setFinishedAt(finishedAt);
+		record.setDurationMillis(60000);
+		record.setGameMode(GameMode.COOP);
+		record.setGameSeed(finishedAt);
+		record.setScore(score);
+		record.setLines(score / 10);
+		record.setLevel(1);
+		record.getPlayers().add(new MatchRecord.PlayerResult(playerName, 0, 0, score, score / 10, 1, true));
+		return record;
+	}
+
+	private Path segmentPath(int id) {
+		return directory.resolve(String.format("matches-%06d.log", id));
+	}
+
+	private static void writeInt(Path path, int offset, int value) throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+			ByteBuffer buffer = ByteBuffer.allocate(4);
+			buffer.putInt(value).flip();
+			channel.write(buffer, offset);
+		}
+	}
+
+	private static int readInt(Path path, int offset) throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			ByteBuffer buffer = ByteBuffer.allocate(4);
+			channel.read(buffer, offset);
+			return buffer.getInt(0);
+		}
+	}
+}
@@ -0,0 +1,147 @@
+package me.catand.cooptetris.shared.tetris;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.ByteBuffer;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * CoopGameLogic 二进制快照测试：往返恢复后继续游戏结果一致，损坏或越界的快照被拒绝且不修改状态
+ */
+public class CoopGameLogicSnapshotTest {
+	private static final long SEED = 20261019L;
+	// 槽位数据位于头部和 30 字节的公共字段之后，每个槽位 6 字节：颜色、类型、x、y、旋转、标志
+	private static final int SLOT_START = LogicSnapshot.HEADER_SIZE + 30;
+	private static final int SLOT_SIZE = 6;
+
+	@Test
+	public void roundTripContinuesIdentically() {
+		CoopGameLogic original = startGame();
+		play(original, 60);
+		byte[] snapshot = snapshot(original);
+
+		CoopGameLogic restored = new CoopGameLogic();
+		restored.reset(SEED + 1, 1);
+		restored.readSnapshot(ByteBuffer.wrap(snapshot));
+		assertEquals(original.getScore(), restored.getScore());
+		assertEquals(original.getActivePlayerCount(), restored.getActivePlayerCount());
+		assertArrayEquals(original.getBoard(), restored.getBoard());
+		assertArrayEquals(original.getBoardColor(), restored.getBoardColor());
+		for (int slot = 0; slot < CoopGameLogic.MAX_PLAYERS; slot++) {
+			assertEquals(original.getPlayerPiece(slot), restored.getPlayerPiece(slot));
+			assertEquals(original.isSlotActive(slot), restored.isSlotActive(slot));
+		}
+		assertArrayEquals(snapshot, snapshot(restored));
+
+		// 随机数状态一同恢复，之后生成的物块相同
+		play(original, 60);
+		play(restored, 60);
+		assertArrayEquals(snapshot(original), snapshot(restored));
+	}
+
+	@Test
+	public void rejectsCorruptedSnapshot() {
+		CoopGameLogic source = startGame();
+		play(source, 20);
+		byte[] snapshot = snapshot(source);
+		snapshot[SLOT_START + 2] ^= 0x5A;
+
+		CoopGameLogic target = startGame();
+		byte[] before = snapshot(target);
+		assertThrows(IllegalArgumentException.class, () -> target.readSnapshot(ByteBuffer.wrap(snapshot)));
+		assertArrayEquals(before, snapshot(target));
+	}
+
+	@Test
+	public void rejectsPieceOutsideBoard() {
+		CoopGameLogic target = startGame();
+		byte[] before = snapshot(target);
+
+		int[][] positions = {{CoopGameLogic.BOARD_WIDTH, 0}, {0, CoopGameLogic.BOARD_HEIGHT}, {-3, 0}, {0, -3}, {127, 127}};
+		// 槽位 0 有活动物块，槽位 3 没有玩家，两种槽位的坐标都要检查
+		for (int slot : new int[]{0, 3}) {
+			for (int[] position : positions) {
+				byte[] snapshot = snapshot(target);
+				snapshot[SLOT_START + slot * SLOT_SIZE + 2] = (byte) position[0];
+				snapshot[SLOT_START + slot * SLOT_SIZE + 3] = (byte) position[1];
+				GameLogicSnapshotTest.resign(snapshot);
+				assertThrows(IllegalArgumentException.class, () -> target.readSnapshot(ByteBuffer.wrap(snapshot)),
+					"slot=" + slot + " x=" + position[0] + " y=" + position[1]);
+				assertArrayEquals(before, snapshot(target));
+			}
+		}
+	}
+
+	@Test
+	public void acceptsNegativeShapeOffset() {
+		CoopGameLogic target = startGame();
+		byte[] snapshot = snapshot(target);
+		int offset = SLOT_START;
+		int[][] shape = target.getPieceShape(snapshot[offset + 1], snapshot[offset + 4]);
+		int column = GameLogicSnapshotTest.firstFilledColumn(shape);
+		int row = firstFilledRow(shape);
+		snapshot[offset + 2] = (byte) -column;
+		snapshot[offset + 3] = (byte) -row;
+		GameLogicSnapshotTest.resign(snapshot);
+
+		target.readSnapshot(ByteBuffer.wrap(snapshot));
+		assertEquals(-column, target.getPlayerPiece(0).getX());
+		assertEquals(-row, target.getPlayerPiece(0).getY());
+
+		// 再左移一格时方块格超出游戏板
+		snapshot[offset + 2] = (byte) (-column - 1);
+		GameLogicSnapshotTest.resign(snapshot);
+		assertThrows(IllegalArgumentException.class, () -> target.readSnapshot(ByteBuffer.wrap(snapshot)));
+	}
+
+	private static CoopGameLogic startGame() {
+		CoopGameLogic logic = new CoopGameLogic();
+		logic.reset(SEED, 2);
+		logic.activateSlot(0);
+		logic.activateSlot(1);
+		return logic;
+	}
+
+	private static void play(CoopGameLogic logic, int steps) {
+		for (int i = 0; i < steps && !logic.isGameOver(); i++) {
+			int slot = i & 1;
+			switch (i % 5) {
+				case 0:
+					logic.moveLeft(slot);
+					break;
+				case 1:
+					logic.rotateClockwise(slot);
+					break;
+				case 2:
+					logic.moveRight(slot);
+					break;
+				case 3:
+					logic.moveDown(slot);
+					break;
+				default:
+					logic.dropPiece(slot);
+					break;
+			}
+		}
+	}
+
+	private static byte[] snapshot(CoopGameLogic logic) {
+		ByteBuffer buffer = ByteBuffer.allocate(CoopGameLogic.SNAPSHOT_SIZE);
+		assertEquals(CoopGameLogic.SNAPSHOT_SIZE, logic.writeSnapshot(buffer));
+		return buffer.array();
+	}
+
+	private static int firstFilledRow(int[][] shape) {
+		for (int row = 0; row < shape.length; row++) {
+			for (int cell : shape[row]) {
+				if (cell != 0) {
+					return row;
+				}
+			}
+		}
+		throw new AssertionError("空形状");
+	}
+}
@@ -0,0 +1,151 @@
+package me.catand.cooptetris.shared.tetris;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+
+import org.junit.jupiter.api.Test;
+
+import me.catand.cooptetris.shared.model.Tetromino;
+
+/**
+ * GameLogic 二进制快照测试：往返恢复后继续游戏结果一致，损坏或越界的快照被拒绝且不修改状态
+ */
+public class GameLogicSnapshotTest {
+    private static final long SEED = 20261019L;
+    private static final int PIECE_X = LogicSnapshot.HEADER_SIZE + 1;
+    private static final int PIECE_Y = LogicSnapshot.HEADER_SIZE + 2;
+    private static final int PIECE = LogicSnapshot.HEADER_SIZE;
+    private static final int ROTATION = LogicSnapshot.HEADER_SIZE + 3;
+
+    @Test
+    public void roundTripContinuesIdentically() {
+        GameLogic original = new GameLogic();
+        original.reset(SEED);
+        play(original, 40);
+        byte[] snapshot = snapshot(original);
+
+        GameLogic restored = new GameLogic();
+        restored.reset(SEED + 1);
+        restored.readSnapshot(ByteBuffer.wrap(snapshot));
+        assertEquals(original.getCurrentPiece(), restored.getCurrentPiece());
+        assertEquals(original.getCurrentPieceX(), restored.getCurrentPieceX());
+        assertEquals(original.getCurrentPieceY(), restored.getCurrentPieceY());
+        assertEquals(original.getScore(), restored.getScore());
+        assertArrayEquals(original.getBoard(), restored.getBoard());
+        assertArrayEquals(snapshot, snapshot(restored));
+
+        // 随机数状态一同恢复，之后生成的方块相同
+        play(original, 40);
+        play(restored, 40);
+        assertArrayEquals(snapshot(original), snapshot(restored));
+    }
+
+    @Test
+    public void rejectsCorruptedSnapshot() {
+        GameLogic source = new GameLogic();
+        source.reset(SEED);
+        play(source, 10);
+        byte[] snapshot = snapshot(source);
+        snapshot[LogicSnapshot.HEADER_SIZE + 20] ^= 0x5A;
+
+        GameLogic target = new GameLogic();
+        target.reset(SEED + 1);
+        byte[] before = snapshot(target);
+        assertThrows(IllegalArgumentException.class, () -> target.readSnapshot(ByteBuffer.wrap(snapshot)));
+        assertArrayEquals(before, snapshot(target));
+    }
+
+    @Test
+    public void rejectsPieceOutsideBoard() {
+        GameLogic target = new GameLogic();
+        target.reset(SEED + 1);
+        byte[] before = snapshot(target);
+
+        int[][] positions = {{GameLogic.BOARD_WIDTH, 0}, {0, GameLogic.BOARD_HEIGHT}, {-4, 0}, {0, -4}, {127, 127}};
+        for (int[] position : positions) {
+            byte[] snapshot = snapshot(target);
+            snapshot[PIECE_X] = (byte) position[0];
+            snapshot[PIECE_Y] = (byte) position[1];
+            resign(snapshot);
+            assertThrows(IllegalArgumentException.class, () -> target.readSnapshot(ByteBuffer.wrap(snapshot)),
+                "x=" + position[0] + " y=" + position[1]);
+            assertArrayEquals(before, snapshot(target));
+        }
+    }
+
+    @Test
+    public void acceptsNegativeShapeOffset() {
+        // I 型竖直时形状左侧有空列，贴住左墙的坐标为负
+        int[][] shape = Tetromino.getShape(0, 1);
+        int column = firstFilledColumn(shape);
+        GameLogic target = new GameLogic();
+        target.reset(SEED);
+        byte[] snapshot = snapshot(target);
+        snapshot[PIECE] = 0;
+        snapshot[ROTATION] = 1;
+        snapshot[PIECE_X] = (byte) -column;
+        snapshot[PIECE_Y] = 0;
+        resign(snapshot);
+
+        target.readSnapshot(ByteBuffer.wrap(snapshot));
+        assertEquals(-column, target.getCurrentPieceX());
+
+        // 再左移一格时方块格超出游戏板
+        snapshot[PIECE_X] = (byte) (-column - 1);
+        resign(snapshot);
+        assertThrows(IllegalArgumentException.class, () -> target.readSnapshot(ByteBuffer.wrap(snapshot)));
+    }
+
+    private static void play(GameLogic logic, int steps) {
+        for (int i = 0; i < steps && !logic.isGameOver(); i++) {
+            switch (i % 5) {
+                case 0:
+                    logic.moveLeft();
+                    break;
+                case 1:
+                    logic.rotateClockwise();
+                    break;
+                case 2:
+                    logic.moveRight();
+                    break;
+                case 3:
+                    logic.moveDown();
+                    break;
+                default:
+                    logic.dropPiece();
+                    break;
+            }
+        }
+    }
+
+    private static byte[] snapshot(GameLogic logic) {
+        ByteBuffer buffer = ByteBuffer.allocate(GameLogic.SNAPSHOT_SIZE);
+        assertEquals(GameLogic.SNAPSHOT_SIZE, logic.writeSnapshot(buffer));
+        return buffer.array();
+    }
+
+    /**
+     * 修改数据后重新计算校验和，让快照只在范围检查上失败
+     */
+    static void resign(byte[] snapshot) {
+        int payloadEnd = snapshot.length - LogicSnapshot.CHECKSUM_SIZE;
+        CRC32 crc = new CRC32();
+        crc.update(snapshot, 0, payloadEnd);
+        ByteBuffer.wrap(snapshot).putInt(payloadEnd, (int) crc.getValue());
+    }
+
+    static int firstFilledColumn(int[][] shape) {
+        for (int column = 0; column < shape[0].length; column++) {
+            for (int[] row : shape) {
+                if (row[column] != 0) {
+                    return column;
+                }
+            }
+        }
+        throw new AssertionError("空形状");
+    }
+}